@@ -0,0 +1,96 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import nl.digitalekabeltelevisie.benchmark.SyntheticStreamGenerator.BitWriter;
+import nl.digitalekabeltelevisie.util.BitSource;
+
+/**
+ * Measures {@link BitSource#readBits(int)} for field widths typical for video headers (flags, 3-8 bit fields) and
+ * PSI (13 bit PID, 32 bit CRC), and {@link BitSource#ue()} for Exp-Golomb coded H.264/H.265 syntax elements.
+ * Each invocation reads a complete 4 kB buffer.
+ *
+ * @author Eric
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class BitSourceBenchmark {
+
+	private static final int SIZE = 4096;
+
+	@Param({ "1", "3", "8", "13", "32" })
+	int bits;
+
+	byte[] data;
+	byte[] expGolomb;
+	int expGolombValues;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(42);
+		data = new byte[SIZE];
+		random.nextBytes(data);
+
+		final BitWriter writer = new BitWriter();
+		while (expGolombValues < (SIZE * 2)) {
+			writer.ue(random.nextInt(1 << (random.nextInt(8) + 1)));
+			expGolombValues++;
+		}
+		expGolomb = writer.toByteArray();
+	}
+
+	@Benchmark
+	public int readBits() {
+		final BitSource bitSource = new BitSource(data, 0);
+		int result = 0;
+		while (bitSource.available() >= bits) {
+			result += bitSource.readBits(bits);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public int ue() {
+		final BitSource bitSource = new BitSource(expGolomb, 0);
+		int result = 0;
+		for (int i = 0; i < expGolombValues; i++) {
+			result += bitSource.ue();
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,82 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import nl.digitalekabeltelevisie.data.mpeg.CRCcheck;
+
+/**
+ * Compares the slicing-by-8 {@link CRCcheck#crc32(byte[], int, int)} with the original byte at a time
+ * {@link CRCcheck#crc32Bytewise(byte[], int, int)}, for typical section sizes (short PAT/PMT, full 1024 byte
+ * and 4096 byte private sections). Also measures the ByteBuffer overload on a direct buffer.
+ *
+ * @author Eric
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class CRCBenchmark {
+
+	@Param({ "16", "184", "1024", "4096" })
+	int length;
+
+	byte[] data;
+	ByteBuffer direct;
+
+	@Setup
+	public void setUp() {
+		data = new byte[length];
+		new Random(42).nextBytes(data);
+		direct = ByteBuffer.allocateDirect(length);
+		direct.put(data).flip();
+	}
+
+	@Benchmark
+	public long bytewise() {
+		return CRCcheck.crc32Bytewise(data, 0, length);
+	}
+
+	@Benchmark
+	public long slicingBy8() {
+		return CRCcheck.crc32(data, 0, length);
+	}
+
+	@Benchmark
+	public long slicingBy8DirectBuffer() {
+		return CRCcheck.crc32(direct, 0, length);
+	}
+
+}
@@ -0,0 +1,75 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
+import nl.digitalekabeltelevisie.data.mpeg.descriptors.Descriptor;
+import nl.digitalekabeltelevisie.data.mpeg.descriptors.DescriptorFactory;
+import nl.digitalekabeltelevisie.data.mpeg.psi.NITsection;
+
+/**
+ * Measures {@link DescriptorFactory#buildDescriptorList(byte[], int, int, nl.digitalekabeltelevisie.data.mpeg.psi.TableSection)}
+ * for a NIT transport stream loop (service list, delivery system, private data specifier and logical channels) and an
+ * EIT event loop (short event, content, parental rating). The NIT section of a parsed {@link SyntheticStreamGenerator}
+ * stream is used as parent section.
+ *
+ * @author Eric
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class DescriptorFactoryBenchmark {
+
+	@Param({ "nit", "event" })
+	String loop;
+
+	byte[] data;
+	NITsection section;
+
+	@Setup
+	public void setUp() throws Exception {
+		final TransportStream transportStream = SyntheticStreamGenerator.parse(SyntheticStreamGenerator.writeTempFile(25, 42));
+		section = transportStream.getPsi().getNit().getNetworks().get(SyntheticStreamGenerator.NETWORK_ID)[0];
+		data = "nit".equals(loop) ? SyntheticStreamGenerator.transportStreamDescriptors()
+				: SyntheticStreamGenerator.eventDescriptors("Synthetic event", "A somewhat longer text describing the synthetic event");
+	}
+
+	@Benchmark
+	public List<Descriptor> buildDescriptorList() {
+		return DescriptorFactory.buildDescriptorList(data, 0, data.length, section);
+	}
+
+}
@@ -0,0 +1,75 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import nl.digitalekabeltelevisie.data.mpeg.pes.video.MpvDecoder;
+import nl.digitalekabeltelevisie.data.mpeg.pes.video.MpvIntraFrameEncoder;
+
+/**
+ * Measures decoding of an MPEG-2 I-Frame by {@link MpvDecoder}, with the reference IDCT, the fixed point IDCT, and the fixed point
+ * IDCT with parallel slices. The frame comes from {@link MpvIntraFrameEncoder} (test sources), the accuracy of the fixed point
+ * IDCT is checked in MpvDecoderTest.
+ *
+ * @author Eric
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class MpvDecoderBenchmark {
+
+	@Param({ "reference", "fixed", "parallel" })
+	String idct;
+
+	@Param({ "720x576", "1920x1088" })
+	String size;
+
+	byte[] frame;
+
+	@Setup
+	public void setUp() {
+		final String[] dimensions = size.split("x");
+		frame = MpvIntraFrameEncoder.encode(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]), 0);
+	}
+
+	@Benchmark
+	public int[] decodeIFrame() {
+		final MpvDecoder mpvDecoder = new MpvDecoder();
+		mpvDecoder.setReferenceIDCT("reference".equals(idct));
+		mpvDecoder.setParallelSlices("parallel".equals(idct));
+		mpvDecoder.decodeArray(frame, false, false, false, 0);
+		return mpvDecoder.getPixels();
+	}
+
+}
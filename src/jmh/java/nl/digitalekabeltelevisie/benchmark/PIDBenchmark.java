@@ -0,0 +1,108 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import nl.digitalekabeltelevisie.benchmark.SyntheticStreamGenerator.Video;
+import nl.digitalekabeltelevisie.data.mpeg.MPEGConstants;
+import nl.digitalekabeltelevisie.data.mpeg.PID;
+import nl.digitalekabeltelevisie.data.mpeg.TSPacket;
+import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
+
+/**
+ * Measures {@link PID#updatePacket(TSPacket)}, the per packet work of the PSI parsing pass, separate from reading the file.
+ *
+ * The packets of a {@link SyntheticStreamGenerator} stream are created once. With packets "pes" only the video PIDs are
+ * fed (continuity, PCR and PES header/PTS handling), with "psi" only the table PIDs (section assembly and table
+ * parsing). Each invocation uses new PID objects, but the PSI tables they update are shared, so after the first invocation
+ * all sections are repeats, as they are for most of a real stream.
+ *
+ * @author Eric
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class PIDBenchmark {
+
+	@Param({ "50" })
+	int frames;
+
+	@Param({ "pes", "psi" })
+	String packets;
+
+	TransportStream transportStream;
+	TSPacket[] selected;
+
+	@Setup
+	public void setUp() throws Exception {
+		final byte[] data = SyntheticStreamGenerator.generate(frames, 42);
+		transportStream = SyntheticStreamGenerator.parse(SyntheticStreamGenerator.writeTempFile(frames, 42));
+		final int count = data.length / MPEGConstants.PAYLOAD_PACKET_LENGTH;
+		final TSPacket[] all = new TSPacket[count];
+		int n = 0;
+		for (int i = 0; i < count; i++) {
+			final int offset = i * MPEGConstants.PAYLOAD_PACKET_LENGTH;
+			final TSPacket packet = new TSPacket(Arrays.copyOfRange(data, offset, offset + MPEGConstants.PAYLOAD_PACKET_LENGTH), i,
+					transportStream);
+			if (isVideo(packet.getPID()) == "pes".equals(packets)) {
+				all[n++] = packet;
+			}
+		}
+		selected = Arrays.copyOf(all, n);
+	}
+
+	private static boolean isVideo(final int pid) {
+		for (final Video video : Video.values()) {
+			if (video.getVideoPid() == pid) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Benchmark
+	public PID[] updatePacket() {
+		final PID[] pids = new PID[8192];
+		for (final TSPacket packet : selected) {
+			final short pid = packet.getPID();
+			if (pids[pid] == null) {
+				pids[pid] = new PID(pid, transportStream);
+			}
+			pids[pid].updatePacket(packet);
+		}
+		return pids;
+	}
+
+}
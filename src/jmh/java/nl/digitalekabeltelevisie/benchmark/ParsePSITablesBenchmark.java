@@ -0,0 +1,74 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.benchmark;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
+
+/**
+ * Measures {@link TransportStream#parsePSITables(java.awt.Component, boolean, int)} on a {@link SyntheticStreamGenerator}
+ * stream, with the stream based reader, the memory mapped reader and the memory mapped reader using multiple threads.
+ * 750 frames is about 20 MB, enough to be split over multiple threads (see ParallelPacketScanner.isWorthwhile).
+ *
+ * @author Eric
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class ParsePSITablesBenchmark {
+
+	@Param({ "750" })
+	int frames;
+
+	@Param({ "stream", "mapped", "parallel" })
+	String reader;
+
+	Path file;
+
+	@Setup
+	public void setUp() throws Exception {
+		file = SyntheticStreamGenerator.writeTempFile(frames, 42);
+	}
+
+	@Benchmark
+	public TransportStream parsePSITables() throws Exception {
+		final TransportStream transportStream = new TransportStream(file.toFile());
+		transportStream.setParseSettings(SyntheticStreamGenerator.SETTINGS);
+		final int threads = "parallel".equals(reader) ? Runtime.getRuntime().availableProcessors() : 1;
+		transportStream.parsePSITables(null, !"stream".equals(reader), threads);
+		return transportStream;
+	}
+
+}
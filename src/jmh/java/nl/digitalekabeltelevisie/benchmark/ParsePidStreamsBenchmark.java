@@ -0,0 +1,86 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.benchmark;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import nl.digitalekabeltelevisie.benchmark.SyntheticStreamGenerator.Video;
+import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
+import nl.digitalekabeltelevisie.data.mpeg.pes.GeneralPidHandler;
+import nl.digitalekabeltelevisie.data.mpeg.pes.video.Video138182Handler;
+import nl.digitalekabeltelevisie.data.mpeg.pes.video264.Video14496Handler;
+import nl.digitalekabeltelevisie.data.mpeg.pes.video265.H265Handler;
+
+/**
+ * Measures {@link TransportStream#parsePidStreams(Map)} for the MPEG-2, H.264 and H.265 video PID of a
+ * {@link SyntheticStreamGenerator} stream. The PSI tables are parsed once, each invocation demuxes the video PID into
+ * a new handler, like the GUI does when the user opens the PID in the tree.
+ *
+ * @author Eric
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class ParsePidStreamsBenchmark {
+
+	@Param({ "250" })
+	int frames;
+
+	@Param({ "MPEG2", "H264", "H265" })
+	Video video;
+
+	Path file;
+	TransportStream transportStream;
+
+	@Setup
+	public void setUp() throws Exception {
+		file = SyntheticStreamGenerator.writeTempFile(frames, 42);
+		transportStream = SyntheticStreamGenerator.parse(file);
+	}
+
+	@Benchmark
+	public GeneralPidHandler parsePidStreams() throws Exception {
+		final GeneralPidHandler handler = switch (video) {
+		case MPEG2 -> new Video138182Handler();
+		case H264 -> new Video14496Handler();
+		case H265 -> new H265Handler();
+		};
+		handler.setTransportStream(transportStream);
+		handler.setPID(transportStream.getPID(video.getVideoPid()));
+		transportStream.parsePidStreams(Map.of(video.getVideoPid(), handler));
+		return handler;
+	}
+
+}
@@ -0,0 +1,304 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.batch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import nl.digitalekabeltelevisie.data.mpeg.ParseSettings;
+import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
+import nl.digitalekabeltelevisie.gui.DVBtree;
+import nl.digitalekabeltelevisie.gui.exception.NotAnMPEGFileException;
+import nl.digitalekabeltelevisie.util.PreferencesManager;
+import nl.digitalekabeltelevisie.util.export.TreeExporter;
+
+/**
+ * Command line analyzer for use on headless servers. Parses one or more files (or all files in directories) and writes a summary
+ * of PSI, PIDs, bitrate and errors for every file as JSON or CSV. Optionally the PSI tree of every file is exported as text, JSON or XML.
+ *
+ * Files are parsed in parallel on a fixed size thread pool, results are written in the order of the input. Timing and packets/second
+ * per file are printed to stderr, so stdout can be used for the output.
+ *
+ * No GUI is created; java.awt.headless is set, and parsing is done without progress monitor.
+ * Generic PSI, DSM-CC and PCR/PTS/DTS collection are not needed for the summary and are disabled.
+ *
+ * Usage: BatchAnalyzer [options] file|directory...
+ *
+ * @author Eric
+ *
+ */
+public final class BatchAnalyzer {
+
+	private static final Logger LOGGER = Logger.getLogger(BatchAnalyzer.class.getName());
+
+	/**
+	 * keep a reference, else the level set on it can be lost when the logger is garbage collected
+	 */
+	private static final Logger PACKAGE_LOGGER = Logger.getLogger("nl.digitalekabeltelevisie");
+
+	private static final String USAGE = """
+			Usage: BatchAnalyzer [options] file|directory...
+			  -f, --format json|csv   output format (default json)
+			  -o, --output file       write output to file instead of stdout
+			  -p, --pids file         (csv only) also write one row per PID to file
+			  -t, --threads n         number of files parsed in parallel (default number of processors)
+			      --parse-threads n   threads used for a single file (default 1)
+			  -r, --recursive         include files in sub directories
+			      --tree dir          also export the PSI tree of every file to dir, named after the file
+			      --tree-format text|json|xml  format of the exported tree (default text)
+			      --gzip              compress the exported trees with gzip
+			  -v, --verbose           show logging of the parser
+			Exit code is 0 when all files were parsed, 1 when one or more failed, 2 for wrong arguments.""";
+
+	private boolean csv = false;
+	private String output;
+	private String pidsOutput;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private int parseThreads = 1;
+	private boolean recursive = false;
+	private boolean verbose = false;
+	private File treeDir;
+	private TreeExporter.Format treeFormat = TreeExporter.Format.TEXT;
+	private boolean gzip = false;
+	private final List<String> inputs = new ArrayList<>();
+
+	private BatchAnalyzer() {
+		// use main
+	}
+
+	public static void main(final String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		final BatchAnalyzer analyzer = new BatchAnalyzer();
+		if (!analyzer.parseArguments(args)) {
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+		int result;
+		try {
+			result = analyzer.run();
+		} catch (final IOException e) {
+			System.err.println("Error: " + e.getMessage());
+			result = 2;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			result = 2;
+		}
+		System.exit(result);
+	}
+
+	private boolean parseArguments(final String[] args) {
+		try {
+			for (int i = 0; i < args.length; i++) {
+				final String arg = args[i];
+				switch (arg) {
+				case "-f", "--format" -> {
+					final String format = args[++i];
+					if (!format.equals("json") && !format.equals("csv")) {
+						return false;
+					}
+					csv = format.equals("csv");
+				}
+				case "-o", "--output" -> output = args[++i];
+				case "-p", "--pids" -> pidsOutput = args[++i];
+				case "-t", "--threads" -> threads = Integer.parseInt(args[++i]);
+				case "--parse-threads" -> parseThreads = Integer.parseInt(args[++i]);
+				case "-r", "--recursive" -> recursive = true;
+				case "-v", "--verbose" -> verbose = true;
+				case "--tree" -> treeDir = new File(args[++i]);
+				case "--tree-format" -> treeFormat = TreeExporter.Format.valueOf(args[++i].toUpperCase(Locale.ROOT));
+				case "--gzip" -> gzip = true;
+				default -> {
+					if (arg.startsWith("-")) {
+						return false;
+					}
+					inputs.add(arg);
+				}
+				}
+			}
+		} catch (final ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+			return false;
+		}
+		return !inputs.isEmpty() && (threads > 0) && (parseThreads > 0) && ((pidsOutput == null) || csv)
+				&& ((treeDir == null) || treeDir.isDirectory());
+	}
+
+	private int run() throws IOException, InterruptedException {
+		if (!verbose) {
+			// problems in the stream are reported in the summary, the parser logging would only hide the timing output
+			PACKAGE_LOGGER.setLevel(Level.OFF);
+		}
+		final List<File> files = collectFiles();
+		final ParseSettings settings = new ParseSettings(false, false, false,
+				PreferencesManager.isEnableM7Fastscan(),
+				PreferencesManager.getDefaultPrivateDataSpecifier());
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads, new AnalyzerThreadFactory());
+		int failed = 0;
+		long totalPackets = 0;
+		final long start = System.nanoTime();
+		try (Writer out = openOutput(output); Writer pidsOut = (pidsOutput != null) ? openOutput(pidsOutput) : null) {
+			final SummaryWriter writer = csv ? new CsvSummaryWriter(out, pidsOut) : new JsonSummaryWriter(out);
+			final List<Future<StreamSummary>> futures = new ArrayList<>(files.size());
+			for (final File file : files) {
+				futures.add(executor.submit(() -> analyze(file, settings)));
+			}
+			for (final Future<StreamSummary> future : futures) {
+				final StreamSummary summary = getResult(future);
+				writer.write(summary);
+				if (summary.isFailed()) {
+					failed++;
+					System.err.printf("%s: failed after %d ms: %s%n", summary.file(), summary.getParseMillis(), summary.error());
+				} else {
+					totalPackets += summary.packets();
+					System.err.printf("%s: %d packets in %d ms, %d packets/s%n", summary.file(), summary.packets(),
+							summary.getParseMillis(), summary.getPacketsPerSecond());
+				}
+			}
+			writer.finish();
+		} finally {
+			executor.shutdownNow();
+		}
+		final long wallNanos = System.nanoTime() - start;
+		System.err.printf("%d files, %d failed, %d packets in %d ms, %d packets/s%n", files.size(), failed, totalPackets,
+				wallNanos / 1_000_000, (wallNanos > 0) ? (long) ((totalPackets * 1_000_000_000.0) / wallNanos) : 0);
+		return (failed == 0) ? 0 : 1;
+	}
+
+	private static StreamSummary getResult(final Future<StreamSummary> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (final ExecutionException e) {
+			// analyze catches everything it expects, so this is an Error like OutOfMemoryError
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * parse file and summarize it. Never throws for problems with the file, these are reported in the summary.
+	 */
+	private StreamSummary analyze(final File file, final ParseSettings settings) {
+		final long start = System.nanoTime();
+		try {
+			final TransportStream transportStream = new TransportStream(file);
+			try {
+				transportStream.setParseSettings(settings);
+				transportStream.parsePSITables(null, true, parseThreads);
+				final StreamSummary summary = StreamSummary.of(transportStream, System.nanoTime() - start);
+				if (treeDir != null) {
+					exportTree(transportStream, file);
+				}
+				return summary;
+			} finally {
+				transportStream.close();
+			}
+		} catch (final NotAnMPEGFileException e) {
+			return StreamSummary.failed(file, System.nanoTime() - start, "not a transport stream");
+		} catch (final IOException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Error parsing " + file, e);
+			return StreamSummary.failed(file, System.nanoTime() - start, e.toString());
+		}
+	}
+
+	/**
+	 * write the PSI tree directly to a file in treeDir, without building it in memory first
+	 */
+	private void exportTree(final TransportStream transportStream, final File file) throws IOException {
+		String name = file.getName() + "." + treeFormat.getExtension();
+		if (gzip) {
+			name += ".gz";
+		}
+		final File treeFile = new File(treeDir, name);
+		try (Writer out = TreeExporter.openWriter(treeFile)) {
+			TreeExporter.export(transportStream.getJTreeNode(DVBtree.PSI_ONLY_MODUS), treeFormat.createRenderer(out));
+		}
+	}
+
+	private List<File> collectFiles() throws IOException {
+		final List<File> files = new ArrayList<>();
+		for (final String input : inputs) {
+			final Path path = Paths.get(input);
+			if (Files.isDirectory(path)) {
+				try (Stream<Path> paths = recursive ? Files.walk(path) : Files.list(path)) {
+					paths.filter(Files::isRegularFile)
+						.sorted()
+						.forEach(p -> files.add(p.toFile()));
+				}
+			} else if (Files.isRegularFile(path)) {
+				files.add(path.toFile());
+			} else {
+				throw new FileNotFoundException(input);
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * @param name file name, or null for stdout
+	 * @return Writer, closing it will not close stdout
+	 */
+	private static Writer openOutput(final String name) throws IOException {
+		if (name == null) {
+			return new BufferedWriter(new OutputStreamWriter(new FilterOutputStream(System.out) {
+				@Override
+				public void write(final byte[] b, final int off, final int len) throws IOException {
+					out.write(b, off, len);
+				}
+
+				@Override
+				public void close() throws IOException {
+					flush();
+				}
+			}, UTF_8));
+		}
+		return Files.newBufferedWriter(Paths.get(name), UTF_8);
+	}
+
+	private static final class AnalyzerThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(final Runnable r) {
+			final Thread thread = new Thread(r, "analyzer-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
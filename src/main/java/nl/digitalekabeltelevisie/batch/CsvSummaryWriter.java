@@ -0,0 +1,118 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.batch;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+import com.opencsv.CSVWriter;
+
+import nl.digitalekabeltelevisie.batch.StreamSummary.PidSummary;
+
+/**
+ * Writes summaries as CSV, one row per file. Optionally a second CSV with one row per PID per file is written.
+ * Services are not included, use JSON for the full PSI summary.
+ *
+ * @author Eric
+ *
+ */
+public class CsvSummaryWriter implements SummaryWriter {
+
+	private static final String[] FILE_HEADER = { "file", "size", "packet_length", "packets", "sync_errors", "error_packets",
+			"continuity_errors", "bitrate", "duration", "transport_stream_id", "network_id", "network_name", "services", "pids",
+			"parse_ms", "packets_per_second", "error" };
+
+	private static final String[] PID_HEADER = { "file", "pid", "label", "type", "packets", "duplicate_packets", "continuity_errors",
+			"scrambled", "bitrate" };
+
+	private final CSVWriter fileCsv;
+	private final CSVWriter pidCsv;
+
+	/**
+	 * @param fileOut destination for the per file rows
+	 * @param pidOut destination for per PID rows, can be null
+	 */
+	public CsvSummaryWriter(final Writer fileOut, final Writer pidOut) {
+		fileCsv = new CSVWriter(fileOut);
+		fileCsv.writeNext(FILE_HEADER);
+		if (pidOut != null) {
+			pidCsv = new CSVWriter(pidOut);
+			pidCsv.writeNext(PID_HEADER);
+		} else {
+			pidCsv = null;
+		}
+	}
+
+	@Override
+	public void write(final StreamSummary summary) throws IOException {
+		final boolean failed = summary.isFailed();
+		fileCsv.writeNext(new String[] { summary.file(),
+				Long.toString(summary.size()),
+				failed ? null : Integer.toString(summary.packetLength()),
+				Integer.toString(summary.packets()),
+				Integer.toString(summary.syncErrors()),
+				Integer.toString(summary.errorPackets()),
+				Long.toString(summary.getContinuityErrors()),
+				Long.toString(summary.bitRate()),
+				String.format(Locale.ROOT, "%.3f", summary.duration()),
+				Integer.toString(summary.transportStreamId()),
+				Integer.toString(summary.networkId()),
+				summary.networkName(),
+				Integer.toString(summary.services().size()),
+				Integer.toString(summary.pids().size()),
+				Long.toString(summary.getParseMillis()),
+				Long.toString(summary.getPacketsPerSecond()),
+				summary.error() });
+		fileCsv.flush();
+
+		if (pidCsv != null) {
+			for (final PidSummary pid : summary.pids()) {
+				pidCsv.writeNext(new String[] { summary.file(),
+						Integer.toString(pid.pid()),
+						pid.label(),
+						pid.type(),
+						Integer.toString(pid.packets()),
+						Integer.toString(pid.duplicatePackets()),
+						Long.toString(pid.continuityErrors()),
+						Boolean.toString(pid.scrambled()),
+						Long.toString(pid.bitRate()) });
+			}
+			pidCsv.flush();
+		}
+	}
+
+	@Override
+	public void finish() throws IOException {
+		fileCsv.flush();
+		if (pidCsv != null) {
+			pidCsv.flush();
+		}
+	}
+
+}
@@ -0,0 +1,195 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.batch;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+import nl.digitalekabeltelevisie.batch.StreamSummary.ComponentSummary;
+import nl.digitalekabeltelevisie.batch.StreamSummary.PidSummary;
+import nl.digitalekabeltelevisie.batch.StreamSummary.ServiceSummary;
+
+/**
+ * Writes all summaries as one JSON array, one object per file. Objects are written as soon as they are available,
+ * so memory use does not depend on the number of files.
+ *
+ * @author Eric
+ *
+ */
+public class JsonSummaryWriter implements SummaryWriter {
+
+	private final Writer out;
+	private boolean first = true;
+
+	public JsonSummaryWriter(final Writer out) {
+		this.out = out;
+	}
+
+	@Override
+	public void write(final StreamSummary summary) throws IOException {
+		out.write(first ? "[\n" : ",\n");
+		first = false;
+
+		final StringBuilder sb = new StringBuilder("  {");
+		field(sb, "file", summary.file());
+		field(sb, "size", summary.size());
+		if (summary.isFailed()) {
+			field(sb, "error", summary.error());
+		} else {
+			field(sb, "packet_length", summary.packetLength());
+			field(sb, "packets", summary.packets());
+			field(sb, "sync_errors", summary.syncErrors());
+			field(sb, "error_packets", summary.errorPackets());
+			field(sb, "continuity_errors", summary.getContinuityErrors());
+			field(sb, "bitrate", summary.bitRate());
+			sb.append(", \"duration\": ").append(String.format(Locale.ROOT, "%.3f", summary.duration()));
+			field(sb, "transport_stream_id", summary.transportStreamId());
+			field(sb, "network_id", summary.networkId());
+			field(sb, "network_name", summary.networkName());
+			appendServices(sb, summary.services());
+			appendPids(sb, summary.pids());
+		}
+		field(sb, "parse_ms", summary.getParseMillis());
+		field(sb, "packets_per_second", summary.getPacketsPerSecond());
+		sb.append('}');
+		out.write(sb.toString());
+		out.flush();
+	}
+
+	private static void appendServices(final StringBuilder sb, final List<ServiceSummary> services) {
+		sb.append(",\n   \"services\": [");
+		String sep = "";
+		for (final ServiceSummary service : services) {
+			sb.append(sep).append("\n    {");
+			sep = ",";
+			sb.append("\"service_id\": ").append(service.serviceId());
+			field(sb, "name", service.name());
+			field(sb, "pmt_pid", service.pmtPid());
+			field(sb, "pcr_pid", service.pcrPid());
+			sb.append(", \"components\": [");
+			String compSep = "";
+			for (final ComponentSummary component : service.components()) {
+				sb.append(compSep).append("{\"pid\": ").append(component.pid());
+				compSep = ", ";
+				field(sb, "stream_type", component.streamType());
+				field(sb, "stream_type_string", component.streamTypeString());
+				sb.append('}');
+			}
+			sb.append("]}");
+		}
+		sb.append(']');
+	}
+
+	private static void appendPids(final StringBuilder sb, final List<PidSummary> pids) {
+		sb.append(",\n   \"pids\": [");
+		String sep = "";
+		for (final PidSummary pid : pids) {
+			sb.append(sep).append("\n    {");
+			sep = ",";
+			sb.append("\"pid\": ").append(pid.pid());
+			field(sb, "label", pid.label());
+			field(sb, "type", pid.type());
+			field(sb, "packets", pid.packets());
+			field(sb, "duplicate_packets", pid.duplicatePackets());
+			field(sb, "continuity_errors", pid.continuityErrors());
+			sb.append(", \"scrambled\": ").append(pid.scrambled());
+			field(sb, "bitrate", pid.bitRate());
+			sb.append('}');
+		}
+		sb.append("]\n  ");
+	}
+
+	/**
+	 * appends a numeric field, preceded by a separator unless it is the first field of an object
+	 */
+	private static void field(final StringBuilder sb, final String name, final long value) {
+		separator(sb);
+		sb.append('"').append(name).append("\": ").append(value);
+	}
+
+	private static void field(final StringBuilder sb, final String name, final String value) {
+		separator(sb);
+		sb.append('"').append(name).append("\": ");
+		quote(sb, value);
+	}
+
+	private static void separator(final StringBuilder sb) {
+		if (sb.charAt(sb.length() - 1) != '{') {
+			sb.append(", ");
+		}
+	}
+
+	/**
+	 * append s as JSON string literal, or null
+	 * @param sb
+	 * @param s
+	 */
+	public static void quote(final StringBuilder sb, final String s) {
+		if (s == null) {
+			sb.append("null");
+			return;
+		}
+		sb.append('"');
+		for (int i = 0; i < s.length(); i++) {
+			final char c = s.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+			}
+		}
+		sb.append('"');
+	}
+
+	@Override
+	public void finish() throws IOException {
+		out.write(first ? "[]\n" : "\n]\n");
+		out.flush();
+	}
+
+}
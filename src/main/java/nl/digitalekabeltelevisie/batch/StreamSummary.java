@@ -0,0 +1,197 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.batch;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.digitalekabeltelevisie.data.mpeg.PID;
+import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
+import nl.digitalekabeltelevisie.data.mpeg.psi.NIT;
+import nl.digitalekabeltelevisie.data.mpeg.psi.PMTs;
+import nl.digitalekabeltelevisie.data.mpeg.psi.PMTsection;
+
+/**
+ * Summary of a parsed {@link TransportStream}; PSI, PIDs, bitrate and errors, as written by {@link BatchAnalyzer}.
+ *
+ * Contains only values, so it can be kept after the TransportStream is discarded.
+ *
+ * @param file path of the file
+ * @param size length of the file in bytes
+ * @param packetLength 188, 192 or 204
+ * @param packets number of packets
+ * @param syncErrors number of sync errors
+ * @param errorPackets number of packets with transport_error_indicator set
+ * @param bitRate bit rate in bits/second, -1 if unknown
+ * @param duration length of stream in seconds, -1 if unknown
+ * @param transportStreamId from PAT, -1 if no PAT
+ * @param networkId actual network_id from NIT, -1 if no NIT actual
+ * @param networkName network name of actual network, null if unknown
+ * @param services one entry for every program in the PMTs
+ * @param pids one entry for every PID present in the stream
+ * @param parseNanos time used for parsing
+ * @param error message when parsing failed, null otherwise
+ *
+ * @author Eric
+ *
+ */
+public record StreamSummary(String file,
+		long size,
+		int packetLength,
+		int packets,
+		int syncErrors,
+		int errorPackets,
+		long bitRate,
+		double duration,
+		int transportStreamId,
+		int networkId,
+		String networkName,
+		List<ServiceSummary> services,
+		List<PidSummary> pids,
+		long parseNanos,
+		String error) {
+
+	public record ServiceSummary(int serviceId, String name, int pmtPid, int pcrPid, List<ComponentSummary> components) {
+	}
+
+	public record ComponentSummary(int pid, int streamType, String streamTypeString) {
+	}
+
+	public record PidSummary(int pid,
+			String label,
+			String type,
+			int packets,
+			int duplicatePackets,
+			long continuityErrors,
+			boolean scrambled,
+			long bitRate) {
+	}
+
+	/**
+	 * @param transportStream stream after parsePSITables
+	 * @param parseNanos time used for parsing
+	 * @return summary of transportStream
+	 */
+	public static StreamSummary of(final TransportStream transportStream, final long parseNanos) {
+		final NIT nit = transportStream.getPsi().getNit();
+		final int networkId = nit.getActualNetworkID();
+		return new StreamSummary(transportStream.getFile().getPath(),
+				transportStream.getLen(),
+				transportStream.getPacketLenghth(),
+				transportStream.getNo_packets(),
+				transportStream.getSync_errors(),
+				transportStream.getError_packets(),
+				transportStream.getBitRate(),
+				transportStream.getLength(),
+				transportStream.getStreamID(),
+				networkId,
+				(networkId == -1) ? null : nit.getNetworkName(networkId),
+				buildServices(transportStream),
+				buildPids(transportStream),
+				parseNanos,
+				null);
+	}
+
+	/**
+	 * @param file
+	 * @param parseNanos time used until failure
+	 * @param error description of the problem
+	 * @return summary for a file that could not be parsed
+	 */
+	public static StreamSummary failed(final File file, final long parseNanos, final String error) {
+		return new StreamSummary(file.getPath(), file.length(), -1, 0, 0, 0, -1, -1, -1, -1, null, List.of(), List.of(), parseNanos, error);
+	}
+
+	private static List<ServiceSummary> buildServices(final TransportStream transportStream) {
+		final PMTs pmts = transportStream.getPsi().getPmts();
+		final List<ServiceSummary> services = new ArrayList<>();
+		for (final PMTsection[] sections : pmts.getPmts().values()) {
+			final PMTsection pmt = sections[0];
+			if (pmt == null) {
+				continue;
+			}
+			final List<ComponentSummary> components = new ArrayList<>();
+			for (final PMTsection.Component component : pmt.getComponentenList()) {
+				components.add(new ComponentSummary(component.getElementaryPID(), component.getStreamtype(), component.getStreamTypeString()));
+			}
+			final int serviceId = pmt.getProgramNumber();
+			services.add(new ServiceSummary(serviceId,
+					transportStream.getPsi().getSdt().getServiceNameForActualTransportStream(serviceId),
+					pmt.getParentPID().getPid(),
+					pmt.getPcrPid(),
+					components));
+		}
+		return services;
+	}
+
+	private static List<PidSummary> buildPids(final TransportStream transportStream) {
+		final long bitRate = transportStream.getBitRate();
+		final int packets = transportStream.getNo_packets();
+		final List<PidSummary> pids = new ArrayList<>();
+		for (final PID pid : transportStream.getPids()) {
+			if (pid == null) {
+				continue;
+			}
+			final long pidBitRate = ((bitRate > 0) && (packets > 0)) ? (pid.getPackets() * bitRate) / packets : -1;
+			pids.add(new PidSummary(pid.getPid(),
+					transportStream.getShortLabel((short) pid.getPid()),
+					pid.getTypeString(),
+					pid.getPackets(),
+					pid.getDup_packets(),
+					pid.getContinuity_errors_count(),
+					pid.isScrambled(),
+					pidBitRate));
+		}
+		return pids;
+	}
+
+	public boolean isFailed() {
+		return error != null;
+	}
+
+	public long getParseMillis() {
+		return parseNanos / 1_000_000;
+	}
+
+	/**
+	 * @return packets parsed per second, 0 when no time was measured
+	 */
+	public long getPacketsPerSecond() {
+		return (parseNanos > 0) ? (long) ((packets * 1_000_000_000.0) / parseNanos) : 0;
+	}
+
+	public long getContinuityErrors() {
+		long total = 0;
+		for (final PidSummary pid : pids) {
+			total += pid.continuityErrors();
+		}
+		return total;
+	}
+
+}
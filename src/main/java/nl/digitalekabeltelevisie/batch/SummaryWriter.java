@@ -2,7 +2,7 @@
  *
  *  http://www.digitalekabeltelevisie.nl/dvb_inspector
  *
- *  This code is Copyright 2009-2016 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
  *
  *  This file is part of DVB Inspector.
  *
@@ -24,26 +24,27 @@
  *  than anything and is not required.
  *
  */
-package nl.digitalekabeltelevisie.data.mpeg;
 
-public class TimeStamp {
+package nl.digitalekabeltelevisie.batch;
 
-	private final int packetNo;
-	private final long time;
+import java.io.IOException;
 
-	public TimeStamp(int packetNo, long time) {
-		super();
-		this.packetNo = packetNo;
-		this.time = time;
-	}
+/**
+ * Writes {@link StreamSummary}s in a machine readable format.
+ *
+ * Call sequence is write(summary) for every file, then finish(). The underlying Writer is not closed, it is owned by the caller.
+ * Implementations do not need to be thread safe, {@link BatchAnalyzer} writes from a single thread.
+ *
+ * @author Eric
+ *
+ */
+public interface SummaryWriter {
 
-	public int getPacketNo() {
-		return packetNo;
-	}
+	void write(StreamSummary summary) throws IOException;
 
-	public long getTime() {
-		return time;
-	}
-	
+	/**
+	 * write closing part, if any, and flush
+	 */
+	void finish() throws IOException;
 
 }
@@ -29,6 +29,8 @@ package nl.digitalekabeltelevisie.data.mpeg;
 
 import static java.lang.Byte.toUnsignedInt;
 
+import java.nio.ByteBuffer;
+
 /**
 
  * Based on crc32.c part of DVBSnoop
@@ -92,6 +94,23 @@ final public class CRCcheck {
 		0x933eb0bb, 0x97ffad0c, 0xafb010b1, 0xab710d06, 0xa6322bdf, 0xa2f33668,
 		0xbcb4666d, 0xb8757bda, 0xb5365d03, 0xb1f740b4};
 
+	/**
+	 * Slicing-by-8 tables, derived from {@link #crc_table}. SLICE[0] is crc_table as int, SLICE[k][n] is the CRC contribution of byte n followed by k zero bytes.
+	 */
+	private static final int[][] SLICE = new int[8][256];
+
+	static {
+		for (int n = 0; n < 256; n++) {
+			SLICE[0][n] = (int) crc_table[n];
+		}
+		for (int k = 1; k < 8; k++) {
+			for (int n = 0; n < 256; n++) {
+				final int c = SLICE[k - 1][n];
+				SLICE[k][n] = (c << 8) ^ SLICE[0][c >>> 24];
+			}
+		}
+	}
+
 	/**
 	 * check the crc32 check of the data
 	 * @param data to be checked, starting from [0]
@@ -103,13 +122,85 @@ final public class CRCcheck {
 	}
 
 	/**
-	 * check the crc32 check of the data
+	 * check the crc32 check of the data. Processes 8 bytes per step (slicing-by-8), result is identical to {@link #crc32Bytewise(byte[], int, int)}.
 	 * @param data to be checked, starting from [offset]
 	 * @param offset offset if data
 	 * @param len total length to be checked, INCLUDING the crc bytes!
 	 * @return 0 if crc correct, everything else is fail.
 	 */
 	public static long crc32(final byte[] data, final int offset, final int len) {
+		final int[] t0 = SLICE[0];
+		final int[] t1 = SLICE[1];
+		final int[] t2 = SLICE[2];
+		final int[] t3 = SLICE[3];
+		final int[] t4 = SLICE[4];
+		final int[] t5 = SLICE[5];
+		final int[] t6 = SLICE[6];
+		final int[] t7 = SLICE[7];
+
+		int crc = 0xffffffff;
+		int i = offset;
+		final int end = offset + len;
+		final int end8 = end - 7;
+		while (i < end8) {
+			final int c = crc ^ (((data[i] & 0xff) << 24) | ((data[i + 1] & 0xff) << 16) | ((data[i + 2] & 0xff) << 8) | (data[i + 3] & 0xff));
+			crc = t7[c >>> 24] ^ t6[(c >>> 16) & 0xff] ^ t5[(c >>> 8) & 0xff] ^ t4[c & 0xff]
+					^ t3[data[i + 4] & 0xff] ^ t2[data[i + 5] & 0xff] ^ t1[data[i + 6] & 0xff] ^ t0[data[i + 7] & 0xff];
+			i += 8;
+		}
+		while (i < end) {
+			crc = (crc << 8) ^ t0[(crc >>> 24) ^ (data[i++] & 0xff)];
+		}
+		return crc & 0xffffffffL;
+	}
+
+	/**
+	 * check the crc32 check of the data in a ByteBuffer, using absolute gets, so position and limit of buf are not changed.
+	 * @param buf to be checked, can be heap or direct (like a mapped file)
+	 * @param offset absolute index of first byte in buf
+	 * @param len total length to be checked, INCLUDING the crc bytes!
+	 * @return 0 if crc correct, everything else is fail.
+	 */
+	public static long crc32(final ByteBuffer buf, final int offset, final int len) {
+		if (buf.hasArray()) {
+			return crc32(buf.array(), buf.arrayOffset() + offset, len);
+		}
+		final int[] t0 = SLICE[0];
+		final int[] t1 = SLICE[1];
+		final int[] t2 = SLICE[2];
+		final int[] t3 = SLICE[3];
+		final int[] t4 = SLICE[4];
+		final int[] t5 = SLICE[5];
+		final int[] t6 = SLICE[6];
+		final int[] t7 = SLICE[7];
+
+		int crc = 0xffffffff;
+		int i = offset;
+		final int end = offset + len;
+		final int end8 = end - 7;
+		while (i < end8) {
+			// getInt is big endian for buffers with default order, use get to be independent of order
+			final int c = crc ^ (((buf.get(i) & 0xff) << 24) | ((buf.get(i + 1) & 0xff) << 16) | ((buf.get(i + 2) & 0xff) << 8) | (buf.get(i + 3) & 0xff));
+			crc = t7[c >>> 24] ^ t6[(c >>> 16) & 0xff] ^ t5[(c >>> 8) & 0xff] ^ t4[c & 0xff]
+					^ t3[buf.get(i + 4) & 0xff] ^ t2[buf.get(i + 5) & 0xff] ^ t1[buf.get(i + 6) & 0xff] ^ t0[buf.get(i + 7) & 0xff];
+			i += 8;
+		}
+		while (i < end) {
+			crc = (crc << 8) ^ t0[(crc >>> 24) ^ (buf.get(i++) & 0xff)];
+		}
+		return crc & 0xffffffffL;
+	}
+
+	/**
+	 * Original byte at a time implementation, kept as reference for tests and benchmarks.
+	 * Because {@link #crc_table} contains sign extended values, the original could return a value with the upper 32 bits set
+	 * for a failed check. The result is now masked to 32 bits, like {@link #crc32(byte[], int, int)}.
+	 * @param data to be checked, starting from [offset]
+	 * @param offset offset if data
+	 * @param len total length to be checked, INCLUDING the crc bytes!
+	 * @return 0 if crc correct, everything else is fail.
+	 */
+	public static long crc32Bytewise(final byte[] data, final int offset, final int len) {
 		int i;
 		long crc = 0xffffffffL;
 
@@ -117,7 +208,7 @@ final public class CRCcheck {
 			crc = ((crc << 8) & 0xffffffffL) ^ crc_table[(((int) (crc >> 24)) ^ toUnsignedInt(data[i])) & 0xff];
 		}
 
-		return crc;
+		return crc & 0xffffffffL;
 	}
 
 }
@@ -0,0 +1,167 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg;
+
+import java.util.Arrays;
+
+/**
+ * Ring buffer with the last packets of a live {@link TransportStream}, so memory use stays bounded regardless of how long the stream runs.
+ *
+ * For each packet the raw bytes, the PID (with the flags as used in {@link TransportStream#getPacketPidFlags(long)}) and the arrival time are kept.
+ * Per PID the number of packets currently in the buffer is maintained when a packet is added or overwritten, these give the rolling
+ * statistics over the buffer window without walking through it.
+ *
+ * Packet numbers are the same as in the TransportStream, so they keep increasing. Only the last {@link #getCapacity()} of them are available.
+ *
+ * @author Eric
+ *
+ */
+class LivePacketBuffer {
+
+	private final int capacity;
+	private final int packetLength;
+
+	private final byte[] packets;
+	private final short[] pidFlags;
+	private final long[] arrivalNanos;
+	private final int[] windowPackets = new int[8192];
+
+	/**
+	 * packet number of the next packet to be added
+	 */
+	private int nextPacketNo = 0;
+
+	LivePacketBuffer(final int capacity, final int packetLength) {
+		if (capacity < 2) {
+			throw new IllegalArgumentException("capacity should be at least 2, actual: " + capacity);
+		}
+		this.capacity = capacity;
+		this.packetLength = packetLength;
+		packets = new byte[capacity * packetLength];
+		pidFlags = new short[capacity];
+		arrivalNanos = new long[capacity];
+	}
+
+	/**
+	 * Store packet, overwriting the oldest one when the buffer is full.
+	 * @param buffer data of packet
+	 * @param offset start of packet in buffer
+	 * @param flags PID and flags of the packet
+	 * @param nanos arrival time, as {@link System#nanoTime()}
+	 * @return packet number given to the packet
+	 */
+	int add(final byte[] buffer, final int offset, final short flags, final long nanos) {
+		final int slot = nextPacketNo % capacity;
+		if (nextPacketNo >= capacity) {
+			windowPackets[pidFlags[slot] & 0x1fff]--;
+		}
+		System.arraycopy(buffer, offset, packets, slot * packetLength, packetLength);
+		pidFlags[slot] = flags;
+		arrivalNanos[slot] = nanos;
+		windowPackets[flags & 0x1fff]++;
+		return nextPacketNo++;
+	}
+
+	int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return packet number of the oldest packet still in the buffer
+	 */
+	int getFirstPacketNo() {
+		return Math.max(0, nextPacketNo - capacity);
+	}
+
+	/**
+	 * @return number of packets in the buffer
+	 */
+	int size() {
+		return Math.min(nextPacketNo, capacity);
+	}
+
+	boolean contains(final int packetNo) {
+		return (packetNo >= getFirstPacketNo()) && (packetNo < nextPacketNo);
+	}
+
+	/**
+	 * @param packetNo
+	 * @return PID and flags of packet, or the null PID without flags when the packet is no longer (or not yet) in the buffer
+	 */
+	short getPidFlags(final int packetNo) {
+		if (!contains(packetNo)) {
+			return 0x1fff;
+		}
+		return pidFlags[packetNo % capacity];
+	}
+
+	/**
+	 * @param packetNo
+	 * @return copy of the data of the packet, null when it is no longer (or not yet) in the buffer
+	 */
+	byte[] getPacket(final int packetNo) {
+		if (!contains(packetNo)) {
+			return null;
+		}
+		final int start = (packetNo % capacity) * packetLength;
+		return Arrays.copyOfRange(packets, start, start + packetLength);
+	}
+
+	/**
+	 * @param pid
+	 * @return number of packets with this PID in the buffer
+	 */
+	int getWindowPackets(final int pid) {
+		return windowPackets[pid];
+	}
+
+	/**
+	 * @return time in nanoseconds between arrival of the oldest and the newest packet in the buffer, 0 when there are less than 2 packets
+	 */
+	long getWindowNanos() {
+		if (size() < 2) {
+			return 0;
+		}
+		return arrivalNanos[(nextPacketNo - 1) % capacity] - arrivalNanos[getFirstPacketNo() % capacity];
+	}
+
+	/**
+	 * @param pid PID to calculate the bitrate for, or -1 for all packets
+	 * @return bitrate in bits/second based on arrival times of the packets in the buffer, -1 when it can not be determined (yet)
+	 */
+	long getWindowBitRate(final int pid) {
+		final long nanos = getWindowNanos();
+		if (nanos <= 0) {
+			return -1;
+		}
+		// oldest packet marks the start of the window, so it is not counted
+		final long count = (pid == -1) ? size() - 1 : getWindowPackets(pid);
+		return (long) ((count * packetLength * 8 * 1_000_000_000.0) / nanos);
+	}
+
+}
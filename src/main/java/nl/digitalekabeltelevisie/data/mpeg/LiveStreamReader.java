@@ -0,0 +1,253 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import nl.digitalekabeltelevisie.util.FollowingFileInputStream;
+import nl.digitalekabeltelevisie.util.UdpInputStream;
+
+/**
+ * Reads a live transport stream into a {@link TransportStream} in live mode (see {@link TransportStream#isLive()}), on its own thread.
+ *
+ * The source can be
+ * <ul>
+ * <li>a UDP or RTP stream, like <code>udp://@239.1.1.1:1234</code>, see {@link UdpInputStream}</li>
+ * <li>a regular file that is still being written, it is followed like <code>tail -f</code></li>
+ * <li>a named pipe (or any other file that is not a regular file), read until the writer closes it</li>
+ * <li><code>-</code> for standard input</li>
+ * </ul>
+ *
+ * PSI tables, PID statistics and continuity errors are updated for every packet. Every refresh interval the PIDs are named, the bitrate is calculated
+ * and the listener is called, so it can show the new state. All updates of the TransportStream are done while holding its lock, so readers
+ * that synchronize on the TransportStream see a consistent state.
+ *
+ * Packet numbers are int, so when the stream reaches {@link Integer#MAX_VALUE} packets (about 22 hours at 40 Mbit/s) reading continues in a new TransportStream,
+ * which is passed to the listener.
+ *
+ * @author Eric
+ *
+ */
+public class LiveStreamReader implements Runnable, Closeable {
+
+	private static final Logger logger = Logger.getLogger(LiveStreamReader.class.getName());
+
+	public static final long DEFAULT_REFRESH_MILLIS = 1000;
+
+	private final String source;
+	private final InputStream input;
+	private final int packetLength;
+	private final int bufferPackets;
+	private final ParseSettings parseSettings;
+	private final Consumer<TransportStream> listener;
+
+	private volatile TransportStream transportStream;
+	private volatile boolean stopped = false;
+	private long refreshNanos = DEFAULT_REFRESH_MILLIS * 1_000_000;
+
+	/**
+	 * @param source name of source, for display
+	 * @param input stream to read packets from
+	 * @param packetLength
+	 * @param bufferPackets number of packets to keep in the ring buffer of the TransportStream
+	 * @param parseSettings settings to use, collecting PCR/PTS for the PCR/PTS View and generic PSI are always disabled, because they need
+	 * memory for every packet
+	 * @param listener called from the reader thread after each refresh interval, and when reading stops. May be null
+	 */
+	public LiveStreamReader(final String source, final InputStream input, final int packetLength, final int bufferPackets, final ParseSettings parseSettings,
+			final Consumer<TransportStream> listener) {
+		this.source = source;
+		this.input = input;
+		this.packetLength = packetLength;
+		this.bufferPackets = bufferPackets;
+		this.parseSettings = new ParseSettings(false,
+				parseSettings.enableDSMCC(),
+				false,
+				parseSettings.enableM7Fastscan(),
+				parseSettings.defaultPrivateDataSpecifier());
+		this.listener = listener;
+		transportStream = createTransportStream();
+	}
+
+	/**
+	 * @param source udp:// or rtp:// url, - for standard input, or the name of a file or named pipe
+	 * @param packetLength
+	 * @param bufferPackets
+	 * @param parseSettings
+	 * @param listener
+	 * @return reader for source, not started yet
+	 * @throws IOException when source can not be opened
+	 */
+	public static LiveStreamReader open(final String source, final int packetLength, final int bufferPackets, final ParseSettings parseSettings,
+			final Consumer<TransportStream> listener) throws IOException {
+		return new LiveStreamReader(source, openInput(source), packetLength, bufferPackets, parseSettings, listener);
+	}
+
+	private static InputStream openInput(final String source) throws IOException {
+		if (UdpInputStream.isUdpUrl(source)) {
+			return UdpInputStream.open(source);
+		}
+		if ("-".equals(source)) {
+			return System.in;
+		}
+		final File file = new File(source);
+		if (Files.isRegularFile(file.toPath())) {
+			return new FollowingFileInputStream(file);
+		}
+		return new FileInputStream(file);
+	}
+
+	private TransportStream createTransportStream() {
+		final TransportStream ts = new TransportStream(source, packetLength, bufferPackets, parseSettings);
+		ts.setLiveSource(this);
+		return ts;
+	}
+
+	/**
+	 * @param millis interval between calls of the listener, as long as packets arrive
+	 */
+	public void setRefreshInterval(final long millis) {
+		refreshNanos = millis * 1_000_000;
+	}
+
+	/**
+	 * @return the TransportStream packets are currently read into
+	 */
+	public TransportStream getTransportStream() {
+		return transportStream;
+	}
+
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * @return new daemon thread running this reader, already started
+	 */
+	public Thread start() {
+		final Thread thread = new Thread(this, "Live stream " + source);
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+
+	@Override
+	public void run() {
+		final byte[] buf = new byte[packetLength];
+		try (PushbackInputStream in = new PushbackInputStream(new BufferedInputStream(input), packetLength)) {
+			long lastRefresh = System.nanoTime();
+			while (!stopped && readPacket(in, buf)) {
+				final long now = System.nanoTime();
+				TransportStream ts = transportStream;
+				if (ts.getNo_packets() == Integer.MAX_VALUE) {
+					ts = rollOver(ts);
+				}
+				synchronized (ts) {
+					ts.processLivePacket(buf, now);
+				}
+				if ((now - lastRefresh) >= refreshNanos) {
+					refresh();
+					lastRefresh = now;
+				}
+			}
+		} catch (final IOException e) {
+			if (!stopped) {
+				logger.log(Level.WARNING, "Error reading live stream " + source, e);
+			}
+		} finally {
+			stopped = true;
+			refresh();
+		}
+	}
+
+	/**
+	 * Read next packet into buf, skipping data until a sync byte when needed.
+	 * @return false on end of stream
+	 */
+	private boolean readPacket(final PushbackInputStream in, final byte[] buf) throws IOException {
+		boolean inSync = true;
+		while (true) {
+			if (in.readNBytes(buf, 0, packetLength) < packetLength) {
+				return false;
+			}
+			if (buf[0] == MPEGConstants.sync_byte) {
+				return true;
+			}
+			if (inSync) {
+				final TransportStream ts = transportStream;
+				synchronized (ts) {
+					ts.setSync_errors(ts.getSync_errors() + 1);
+					logger.severe("Did not find sync byte, resyncing at packet_no:" + ts.getNo_packets());
+				}
+				inSync = false;
+			}
+			int next = 1;
+			while ((next < packetLength) && (buf[next] != MPEGConstants.sync_byte)) {
+				next++;
+			}
+			in.unread(buf, next, packetLength - next);
+		}
+	}
+
+	/**
+	 * Continue in a new TransportStream, the old one stays usable but is no longer updated.
+	 */
+	private TransportStream rollOver(final TransportStream old) {
+		logger.info("Live stream " + source + " reached maximum number of packets, continuing in new TransportStream");
+		synchronized (old) {
+			old.setLiveSource(null);
+		}
+		transportStream = createTransportStream();
+		return transportStream;
+	}
+
+	private void refresh() {
+		final TransportStream ts = transportStream;
+		synchronized (ts) {
+			ts.namePIDs();
+			ts.calculateBitRate();
+		}
+		if (listener != null) {
+			listener.accept(ts);
+		}
+	}
+
+	/**
+	 * Stop reading, the TransportStream keeps the state reached so far.
+	 */
+	@Override
+	public void close() throws IOException {
+		stopped = true;
+		input.close();
+	}
+
+}
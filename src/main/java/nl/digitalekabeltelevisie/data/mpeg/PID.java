@@ -31,12 +31,16 @@ import static java.lang.Byte.toUnsignedInt;
 import static nl.digitalekabeltelevisie.data.mpeg.MPEGConstants.system_clock_frequency;
 import static nl.digitalekabeltelevisie.util.Utils.printPCRTime;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Formatter;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -55,7 +59,6 @@ import nl.digitalekabeltelevisie.data.mpeg.psi.MegaFrameInitializationPacket;
 import nl.digitalekabeltelevisie.gui.DVBtree;
 import nl.digitalekabeltelevisie.util.JTreeLazyList;
 import nl.digitalekabeltelevisie.util.PIDPacketGetter;
-import nl.digitalekabeltelevisie.util.PreferencesManager;
 
 /**
  * Collects all {@link TSPacket}s with same packet_id, groups them together, and interprets them depending on type. For PSI packets tables are built, PES packets are (initially) only counted.
@@ -64,6 +67,11 @@ import nl.digitalekabeltelevisie.util.PreferencesManager;
 public class PID implements TreeNode{
 	
 	private record ContinuityError(int lastPacketNo, int lastCCounter, int newPacketNo,int newCCounter) {}
+
+	/**
+	 * Update of the shared PSI tables, triggered by packet packetNo of this PID, that has not been executed yet.
+	 */
+	record DeferredPsiUpdate(int packetNo, Runnable update) {}
 	
 	private static final Logger logger = Logger.getLogger(PID.class.getName());
 
@@ -97,7 +105,11 @@ public class PID implements TreeNode{
 	 *  number of continuity_errors
 	 */
 	private long continuity_errors_count = 0;
-	private List<ContinuityError> continuityErrors = new ArrayList<>();
+	/**
+	 * details of continuity errors, for a live stream only the last {@value #MAX_LIVE_CONTINUITY_ERRORS}
+	 */
+	private final ArrayDeque<ContinuityError> continuityErrors = new ArrayDeque<>();
+	private static final int MAX_LIVE_CONTINUITY_ERRORS = 1000;
 
 	private int last_continuity_counter = -1;
 	private int pid = -1;
@@ -112,12 +124,18 @@ public class PID implements TreeNode{
 	protected TransportStream parentTransportStream = null;
 
 	private final GatherPIDData gatherer = new GatherPIDData();
+
+	/**
+	 * packet currently being processed by {@link #updatePacket(TSPacket)}
+	 */
+	private int current_packet_no = -1;
+	private List<DeferredPsiUpdate> deferredPsiUpdates = new ArrayList<>();
 	
-	private final ArrayList<TimeStamp> pcrList = new ArrayList<>();
-	private final ArrayList<TimeStamp> ptsList = new ArrayList<>();
-	private final ArrayList<TimeStamp> dtsList = new ArrayList<>();
+	private final TimeStampList pcrList = new TimeStampList();
+	private final TimeStampList ptsList = new TimeStampList();
+	private final TimeStampList dtsList = new TimeStampList();
 	
-	private final HashMap<Integer, ArrayList<TemiTimeStamp>> temiList = new HashMap<>();
+	private final HashMap<Integer, TemiTimeStampList> temiList = new HashMap<>();
 
 	private final LabelMaker labelMaker = new LabelMaker();
 	
@@ -215,7 +233,7 @@ public class PID implements TreeNode{
 		private void startPesPacket(final TSPacket packet, final PID parentPID) {
 			type = PES;
 
-			if (PreferencesManager.isEnablePcrPtsView()) {
+			if (parentTransportStream.getParseSettings().enablePcrPtsView()) {
 				try {
 					// insert into PTS /DTS List
 					PesHeader pesHeader = packet.getPesHeader();
@@ -224,10 +242,10 @@ public class PID implements TreeNode{
 
 						final int pts_dts_flags = pesHeader.getPts_dts_flags();
 						if ((pts_dts_flags == 2) || (pts_dts_flags == 3)) { // PTS present,
-							ptsList.add(new TimeStamp(packet.getPacketNo(), pesHeader.getPts()));
+							ptsList.add(packet.getPacketNo(), pesHeader.getPts());
 						}
 						if (pts_dts_flags == 3) { // DTS present,
-							dtsList.add(new TimeStamp(packet.getPacketNo(), pesHeader.getDts()));
+							dtsList.add(packet.getPacketNo(), pesHeader.getDts());
 						}
 					}
 				} catch (Exception e) {
@@ -295,7 +313,7 @@ public class PID implements TreeNode{
 	}
 
 	public void updatePacket(final TSPacket packet) {
-		
+		current_packet_no = packet.getPacketNo();
 		if(!packet.isTransportErrorIndicator()){
 			updateNonErrorPacket(packet);
 		}
@@ -325,6 +343,38 @@ public class PID implements TreeNode{
 		
 	}
 	
+	/**
+	 * Fast path for packets whose payload will not be used, so no {@link TSPacket} needs to be created. Only valid when {@link #acceptsHeaderOnlyPacket()} returned true,
+	 * and the packet has no transport_error_indicator, no adaptation_field and no payload_unit_start_indicator.
+	 * Keeps packet count and continuity administration identical to {@link #updatePacket(TSPacket)}.
+	 *
+	 * @param packetNo position of the packet in the TransportStream
+	 * @param continuityCounter continuity_counter of the packet
+	 * @param transportScramblingControl transport_scrambling_control of the packet
+	 * @param hasPayload true if adaptation_field_control indicates payload
+	 */
+	public void updateHeaderOnlyPacket(final int packetNo, final int continuityCounter, final int transportScramblingControl, final boolean hasPayload) {
+		if (isNormalPacket(continuityCounter, hasPayload, false)) {
+			last_continuity_counter = continuityCounter;
+			last_packet_no = packetNo;
+			dup_found = 0;
+			if(transportScramblingControl!=0){
+				scrambled=true;
+			}
+		} else {
+			handleIrregularPacket(packetNo, continuityCounter, hasPayload);
+		}
+		packets++;
+	}
+
+	/**
+	 * @return true if a packet without adaptation_field and without payload_unit_start_indicator would not be used by the gatherer,
+	 * so it can be handled by {@link #updateHeaderOnlyPacket(int, int, int, boolean)}
+	 */
+	public boolean acceptsHeaderOnlyPacket() {
+		return (pid != 0x015) && ((type != PSI) || (gatherer.lastPSISection == null));
+	}
+
 	private void updateNonErrorPacket(final TSPacket packet) {
 		if (pid == 0x015) {
 			updateMegaFrameInitializationPacket(packet);
@@ -334,36 +384,49 @@ public class PID implements TreeNode{
 			if (packet.hasAdaptationField()) {
 				adaptationField = handleAdaptationField(packet);
 			}
-			if (isNormalPacket(packet, adaptationField)) {
+			final boolean discontinuity = adaptationField != null && adaptationField.isDiscontinuity_indicator();
+			if (isNormalPacket(packet.getContinuityCounter(), packet.hasPayload(), discontinuity)) {
 				handleNormalPacket(packet);
-			} else if (packet.hasPayload() && (last_continuity_counter == packet.getContinuityCounter())) {
-				handleDuplicatePacket(packet);
-			} else if (packet.hasPayload() || // not dup, and not consecutive, so error
-					(last_continuity_counter != packet.getContinuityCounter()) // if no payload, counter should not
-																				// increment
-			) {
-				handleContinuityError(packet);
-			} // else{ // no payload, only adaptation. Don't Increase continuity_counter
+			} else if (handleIrregularPacket(packet.getPacketNo(), packet.getContinuityCounter(), packet.hasPayload())) {
+				last_packet = packet;
+			}
 		}
 	}
 
 	/**
-	 * @param packet
-	 * @param adaptationField
+	 * @return true if packet was a continuity error
+	 */
+	private boolean handleIrregularPacket(final int packetNo, final int continuityCounter, final boolean hasPayload) {
+		if (hasPayload && (last_continuity_counter == continuityCounter)) {
+			handleDuplicatePacket(packetNo, continuityCounter);
+		} else if (hasPayload || // not dup, and not consecutive, so error
+				(last_continuity_counter != continuityCounter) // if no payload, counter should not
+																// increment
+		) {
+			handleContinuityError(packetNo, continuityCounter);
+			return true;
+		} // else{ // no payload, only adaptation. Don't Increase continuity_counter
+		return false;
+	}
+
+	/**
+	 * @param continuityCounter
+	 * @param hasPayload
+	 * @param discontinuity true if adaptationField has discontinuity_indicator set
 	 * @return true if this packet is expected here, i.e. first packet for this PID, or null packet, or has next continuityCounter, or disContinuity indicator has been set.
 	 */
-	private boolean isNormalPacket(final TSPacket packet, AdaptationField adaptationField) {
+	private boolean isNormalPacket(final int continuityCounter, final boolean hasPayload, final boolean discontinuity) {
 		return ((last_continuity_counter==-1)|| // first packet
 				(pid==0x1fff)|| // null packet
-				((((last_continuity_counter+1)%16)==packet.getContinuityCounter()))&&packet.hasPayload()) || // counter ok
-				(adaptationField!=null && adaptationField.isDiscontinuity_indicator()) // discontinuity_indicator true
+				((((last_continuity_counter+1)%16)==continuityCounter))&&hasPayload) || // counter ok
+				discontinuity // discontinuity_indicator true
 ;
 	}
 
-	private void handleDuplicatePacket(final TSPacket packet) {
+	private void handleDuplicatePacket(final int packetNo, final int continuityCounter) {
 		if(dup_found>=1){ // third or more dup packet (third total), illegal
 			dup_found++;
-			logger.warning("multiple dup packet ("+dup_found+"th total), illegal, PID="+pid+", last="+last_continuity_counter+", new="+packet.getContinuityCounter()+", last_no="+last_packet_no +", packet_no="+packet.getPacketNo());
+			logger.warning("multiple dup packet ("+dup_found+"th total), illegal, PID="+pid+", last="+last_continuity_counter+", new="+continuityCounter+", last_no="+last_packet_no +", packet_no="+packetNo);
 		}else{ // just a dup, count it and ignore
 			dup_found = 1;
 			dup_packets++;
@@ -395,12 +458,13 @@ public class PID implements TreeNode{
 		return adaptationField;
 	}
 
-	private void handleContinuityError(final TSPacket packet) {
-		//logger.warning("continuity error, PID="+pid+", last="+last_continuity_counter+", new="+packet.getContinuityCounter()+", last_no="+last_packet_no +", packet_no="+packet.getPacketNo()+", adaptation_field_control="+packet.getAdaptationFieldControl());
-		continuityErrors.add(new ContinuityError(last_packet_no, last_continuity_counter, packet.getPacketNo(), packet.getContinuityCounter()));
-		last_continuity_counter=packet.getContinuityCounter();
-		last_packet_no = packet.getPacketNo();
-		last_packet = packet;
+	private void handleContinuityError(final int packetNo, final int continuityCounter) {
+		if(parentTransportStream.isLive() && (continuityErrors.size() >= MAX_LIVE_CONTINUITY_ERRORS)){
+			continuityErrors.removeFirst();
+		}
+		continuityErrors.add(new ContinuityError(last_packet_no, last_continuity_counter, packetNo, continuityCounter));
+		last_continuity_counter=continuityCounter;
+		last_packet_no = packetNo;
 		continuity_errors_count++;
 		gatherer.reset();
 	}
@@ -410,7 +474,7 @@ public class PID implements TreeNode{
 		if((packet.getData()!=null)&&(packet.getData().length>=14)){
 			try {
 				final MegaFrameInitializationPacket mip= new MegaFrameInitializationPacket(packet);
-				parentTransportStream.getPsi().getNetworkSync().update(mip);
+				runPsiUpdate(() -> parentTransportStream.getPsi().getNetworkSync().update(mip, parentTransportStream.isLive()));
 			} catch (Exception exception) {
 				logger.log(Level.WARNING, "Exception trying to create MegaFrameInitializationPacket. ", exception);
 			}
@@ -418,12 +482,35 @@ public class PID implements TreeNode{
 	}
 
 
+	/**
+	 * Execute an update of the tables shared by all PIDs. When the TransportStream is being parsed by multiple threads
+	 * the update is only recorded, so it can later be executed in packet order by {@link TransportStream}.
+	 *
+	 * @param update
+	 */
+	void runPsiUpdate(final Runnable update) {
+		if (parentTransportStream.isDeferPsiUpdates()) {
+			deferredPsiUpdates.add(new DeferredPsiUpdate(current_packet_no, update));
+		} else {
+			update.run();
+		}
+	}
+
+	/**
+	 * @return updates recorded by {@link #runPsiUpdate(Runnable)} in order of arrival, and forget about them
+	 */
+	List<DeferredPsiUpdate> takeDeferredPsiUpdates() {
+		final List<DeferredPsiUpdate> result = deferredPsiUpdates;
+		deferredPsiUpdates = new ArrayList<>();
+		return result;
+	}
+
 	private void processAdaptationField(AdaptationField adaptationField, int packetNo) {
 		processTEMI(adaptationField, temiList, packetNo);
 		if (adaptationField.isPCR_flag()) {
 			final PCR newPCR = adaptationField.getProgram_clock_reference();
-			if(PreferencesManager.isEnablePcrPtsView()) {
-				pcrList.add(new TimeStamp(packetNo, newPCR.getProgram_clock_reference_base()));
+			if(parentTransportStream.getParseSettings().enablePcrPtsView()) {
+				pcrList.add(packetNo, newPCR.getProgram_clock_reference_base());
 			}
 			if ((firstPCR != null) && !adaptationField.isDiscontinuity_indicator()) {
 				final long packetsDiff = packetNo - firstPCRpacketNo;
@@ -449,7 +536,7 @@ public class PID implements TreeNode{
 		}
 	}
 
-	private static void processTEMI(AdaptationField adaptationField, HashMap<Integer, ArrayList<TemiTimeStamp>> temiList, int packetNo) {
+	private static void processTEMI(AdaptationField adaptationField, HashMap<Integer, TemiTimeStampList> temiList, int packetNo) {
 		if(adaptationField.isAdaptation_field_extension_flag()){
 			if(!adaptationField.isAf_descriptor_not_present_flag()){
 				List<Descriptor> afDescriptorList = adaptationField.getAfDescriptorList();
@@ -458,8 +545,8 @@ public class PID implements TreeNode{
 						TimelineDescriptor timelineDescriptor = (TimelineDescriptor) descriptor;
 						if((timelineDescriptor.getHas_timestamp()==1)||
 							(timelineDescriptor.getHas_timestamp()==2)){
-							ArrayList<TemiTimeStamp> tl = temiList.computeIfAbsent(timelineDescriptor.getTimeline_id(), k -> new ArrayList<>());
-							tl.add(new TemiTimeStamp(packetNo, timelineDescriptor.getMedia_timestamp(),timelineDescriptor.getTimescale(),timelineDescriptor.getDiscontinuity(),timelineDescriptor.getPaused()));
+							TemiTimeStampList tl = temiList.computeIfAbsent(timelineDescriptor.getTimeline_id(), k -> new TemiTimeStampList());
+							tl.add(packetNo, timelineDescriptor.getMedia_timestamp(),timelineDescriptor.getTimescale(),timelineDescriptor.getDiscontinuity(),timelineDescriptor.getPaused());
 						}
 					}
 				}
@@ -495,6 +582,9 @@ public class PID implements TreeNode{
 		return last_continuity_counter;
 	}
 
+	/**
+	 * @return last packet that was handled as a complete {@link TSPacket}. Packets handled by {@link #updateHeaderOnlyPacket(int, int, int, boolean)} are not retained.
+	 */
 	public TSPacket getLast_packet() {
 		return last_packet;
 	}
@@ -521,9 +611,18 @@ public class PID implements TreeNode{
 		final DefaultMutableTreeNode t = new DefaultMutableTreeNode(kvp);
 
 		t.add(new DefaultMutableTreeNode(new KVP("packets",getPackets(),null)));
+		if(parentTransportStream.isLive()){
+			t.add(new DefaultMutableTreeNode(new KVP("packets in live buffer",parentTransportStream.getLivePackets(pid),null)));
+			final long liveBitRate = parentTransportStream.getLiveBitRate(pid);
+			if(liveBitRate!=-1){
+				t.add(new DefaultMutableTreeNode(new KVP("bitrate in live buffer",liveBitRate,null)));
+			}
+		}
 		t.add(new DefaultMutableTreeNode(new KVP("duplicate packets",dup_packets,null)));
 		final KVP continuityErrorsKvp = new KVP("continuity errors",continuity_errors_count,null);
-		continuityErrorsKvp.setHtmlSource(()->createHtmlList(continuityErrors));
+		// for a live stream the reader thread keeps changing the list, so use a copy made while holding the lock on the TransportStream
+		final Collection<ContinuityError> errors = parentTransportStream.isLive() ? new ArrayList<>(continuityErrors) : continuityErrors;
+		continuityErrorsKvp.setHtmlSource(()->createHtmlList(errors));
 		t.add(new DefaultMutableTreeNode(continuityErrorsKvp));
 
 
@@ -560,7 +659,7 @@ public class PID implements TreeNode{
 	 * @param continuityErrors2
 	 * @return
 	 */
-	private  String createHtmlList(List<ContinuityError> continuityErrorsList) {
+	private  String createHtmlList(Collection<ContinuityError> continuityErrorsList) {
 		if(continuityErrorsList.isEmpty()) {
 			return "No Continuity Errors in this PID";
 		}
@@ -684,20 +783,23 @@ public class PID implements TreeNode{
 		return gatherer;
 	}
 
-	public ArrayList<TimeStamp> getPcrList() {
+	public TimeStampSeries getPcrList() {
 		return pcrList;
 	}
 
-	public ArrayList<TimeStamp> getPtsList() {
+	public TimeStampSeries getPtsList() {
 		return ptsList;
 	}
 
-	public ArrayList<TimeStamp> getDtsList() {
+	public TimeStampSeries getDtsList() {
 		return dtsList;
 	}
 
-	public HashMap<Integer, ArrayList<TemiTimeStamp>> getTemiList() {
-		return temiList;
+	/**
+	 * @return TEMI time stamps per timeline_id
+	 */
+	public Map<Integer, TemiTimeStampList> getTemiList() {
+		return Collections.unmodifiableMap(temiList);
 	}
 
 	public LabelMaker getLabelMaker() {
@@ -33,7 +33,6 @@ import nl.digitalekabeltelevisie.controller.KVP;
 import nl.digitalekabeltelevisie.data.mpeg.dsmcc.DSMCCs;
 import nl.digitalekabeltelevisie.data.mpeg.psi.*;
 import nl.digitalekabeltelevisie.data.mpeg.psi.nonstandard.*;
-import nl.digitalekabeltelevisie.util.PreferencesManager;
 
 /**
  * Container for all PSI related data
@@ -43,7 +42,6 @@ import nl.digitalekabeltelevisie.util.PreferencesManager;
  */
 public class PSI {
 
-
 	private final PAT pat = new PAT(this);
 	private final CAT cat = new CAT(this);
 	private final TSDT tsdt = new TSDT(this);
@@ -65,6 +63,19 @@ public class PSI {
 	private final DFITs dfit_table = new DFITs(this);
 	
 	private final M7Fastscan m7fastscan = new M7Fastscan(this);
+
+	private final SectionFingerprintCache sectionCache = new SectionFingerprintCache();
+
+	private final PidRoleIndex pidRoleIndex = new PidRoleIndex(this);
+
+	private final ParseSettings parseSettings;
+
+	/**
+	 * @param parseSettings settings used while parsing the stream this PSI belongs to
+	 */
+	public PSI(final ParseSettings parseSettings) {
+		this.parseSettings = parseSettings;
+	}
 	
 
 	public DefaultMutableTreeNode getJTreeNode(final int modus){
@@ -89,11 +100,23 @@ public class PSI {
 		t.add(dsm_table.getJTreeNode(modus));
 		t.add(scte35_table.getJTreeNode(modus));
 		t.add(dfit_table.getJTreeNode(modus));
-		if(PreferencesManager.isEnableM7Fastscan()) {
+		if(parseSettings.enableM7Fastscan()) {
 			t.add(m7fastscan.getJTreeNode(modus));
 		}
 		return t;
 	}
+	public ParseSettings getParseSettings() {
+		return parseSettings;
+	}
+
+	public SectionFingerprintCache getSectionCache() {
+		return sectionCache;
+	}
+
+	public PidRoleIndex getPidRoleIndex() {
+		return pidRoleIndex;
+	}
+
 	public PMTs getPmts() {
 		return pmts;
 	}
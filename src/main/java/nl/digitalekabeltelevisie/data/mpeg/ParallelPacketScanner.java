@@ -0,0 +1,415 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg;
+
+import java.awt.Component;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.logging.Logger;
+
+import javax.swing.ProgressMonitor;
+
+import nl.digitalekabeltelevisie.util.MappedPacketSource;
+import nl.digitalekabeltelevisie.util.PacketPidMap;
+
+/**
+ * Does the first pass over a file (see {@link TransportStream#parsePSITables(Component)}) using multiple threads.
+ *
+ * Works in two phases:
+ * <ol>
+ * <li>The file is split in equally sized chunks, that are scanned in parallel for packets in sync. For each chunk the PID (and flags) of each packet,
+ * the offsets and the sync errors are collected. Because a chunk does not start on a packet boundary, the scan of a chunk continues until the first packet that starts
+ * after the chunk. When merging, that packet should be the first packet found in the next chunk, if not (only happens when sync is lost near the boundary)
+ * the next chunk is scanned again, starting at the right offset. So the result is always the same as a sequential scan.</li>
+ * <li>The PIDs are divided over the threads, each thread walks through all packets, and updates only its own PIDs. PIDs don't share state,
+ * except for the tables in {@link PSI}. Updates of those are collected per PID, and executed afterwards in packet order. This makes the resulting
+ * tree identical to a single threaded run.</li>
+ * </ol>
+ *
+ * @author Eric
+ *
+ */
+class ParallelPacketScanner {
+
+	private static final Logger logger = Logger.getLogger(ParallelPacketScanner.class.getName());
+
+	/**
+	 * smaller files are not worth the overhead of multiple threads
+	 */
+	static final long MIN_CHUNK_SIZE = 8L * 1024 * 1024;
+
+	private static final int WINDOW_SIZE = 8 * 1024 * 1024;
+	private static final int PROGRESS_STEPS = 1000;
+	private static final int PROGRESS_INTERVAL_PACKETS = 4096;
+	private static final long POLL_MILLIS = 100;
+
+	private final TransportStream transportStream;
+	private final File file;
+	private final int packetLength;
+	private final int threads;
+	private final long chunkSize;
+
+	private final AtomicLong bytesScanned = new AtomicLong();
+	private final AtomicLong packetsUpdated = new AtomicLong();
+	private volatile boolean canceled = false;
+
+	/**
+	 * start of each continuous run of packets, as packet number and file offset
+	 */
+	private int[] runStarts = new int[16];
+	private long[] runOffsets = new long[16];
+	private int runCount = 0;
+
+	/**
+	 * Result of scanning a single chunk
+	 */
+	private static final class Chunk {
+		final long start;
+		final long end;
+
+		short[] pidFlags;
+		int count = 0;
+		int[] runStarts = new int[4];
+		long[] runOffsets = new long[4];
+		int runCount = 0;
+		int syncErrors = 0;
+		final int[] pidPackets = new int[8192];
+		/**
+		 * offset of the first packet found in this chunk, -1 if none
+		 */
+		long firstOffset = -1;
+		/**
+		 * offset of the first packet after this chunk, -1 when end of file was reached
+		 */
+		long nextOffset = -1;
+
+		Chunk(final long start, final long end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		void addRun(final int packetNo, final long offset) {
+			if (runCount == runStarts.length) {
+				runStarts = Arrays.copyOf(runStarts, runCount * 2);
+				runOffsets = Arrays.copyOf(runOffsets, runCount * 2);
+			}
+			runStarts[runCount] = packetNo;
+			runOffsets[runCount] = offset;
+			runCount++;
+		}
+	}
+
+	/**
+	 * @param transportStream target, should be freshly reset
+	 * @param threads number of threads to use
+	 * @param chunkSize size of the parts the file is split in for the first phase
+	 */
+	ParallelPacketScanner(final TransportStream transportStream, final int threads, final long chunkSize) {
+		this.transportStream = transportStream;
+		this.file = transportStream.getFile();
+		this.packetLength = transportStream.getPacketLenghth();
+		this.threads = threads;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * @param len size of the file
+	 * @param threads number of threads that would be used
+	 * @return true if a file of this size can be split over more than one thread
+	 */
+	static boolean isWorthwhile(final long len, final int threads) {
+		return (threads > 1) && (len >= (2 * MIN_CHUNK_SIZE));
+	}
+
+	/**
+	 * @param len size of the file
+	 * @param threads number of threads to use
+	 * @return size of the parts the file is split in, one for each thread, but not smaller than {@value #MIN_CHUNK_SIZE} bytes
+	 */
+	static long getChunkSize(final long len, final int threads) {
+		return Math.max(MIN_CHUNK_SIZE, (len + threads - 1) / threads);
+	}
+
+	/**
+	 * Scan the file, fill packet administration, PIDs and PSI of the transportStream
+	 *
+	 * @param component parent for progress monitor, null if no progress should be shown
+	 * @throws IOException
+	 */
+	void scan(final Component component) throws IOException {
+		final ProgressMonitor monitor = createProgressMonitor(component);
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final int[] pidPackets = scanChunks(executor, monitor);
+			updatePids(executor, monitor, pidPackets);
+			transportStream.runDeferredPsiUpdates();
+		} finally {
+			canceled = true; // stop any remaining workers
+			executor.shutdownNow();
+			if (monitor != null) {
+				monitor.close();
+			}
+		}
+	}
+
+	private ProgressMonitor createProgressMonitor(final Component component) {
+		if (component == null) {
+			return null;
+		}
+		final ProgressMonitor monitor = new ProgressMonitor(component, "Reading file \"" + file.getPath() + "\"", null, 0, PROGRESS_STEPS);
+		monitor.setMillisToPopup(2);
+		monitor.setMillisToDecideToPopup(1);
+		return monitor;
+	}
+
+	/**
+	 * phase 1, find all packets
+	 *
+	 * @return number of packets for each PID
+	 */
+	private int[] scanChunks(final ExecutorService executor, final ProgressMonitor monitor) throws IOException {
+		final long len = transportStream.getLen();
+		final List<Future<Chunk>> futures = new ArrayList<>();
+		for (long start = 0; start < len; start += chunkSize) {
+			final Chunk chunk = new Chunk(start, Math.min(len, start + chunkSize));
+			futures.add(executor.submit(() -> scanChunk(chunk, chunk.start)));
+		}
+
+		final int[] pidPackets = new int[8192];
+		long expectedStart = 0;
+		for (final Future<Chunk> future : futures) {
+			Chunk chunk = waitFor(future, monitor, this::getScanProgress);
+			if ((expectedStart < 0) || (expectedStart >= chunk.end)) {
+				// end of file reached, or sync was lost over the entire chunk. Previous chunk already did the work
+				continue;
+			}
+			final long firstFound = (chunk.firstOffset != -1) ? chunk.firstOffset : chunk.nextOffset;
+			if (firstFound != expectedStart) {
+				logger.info("Chunk starting at " + chunk.start + " out of sync with previous chunk, scanning again from " + expectedStart);
+				chunk = scanChunk(new Chunk(chunk.start, chunk.end), expectedStart);
+			}
+			addChunk(chunk);
+			for (int pid = 0; pid < pidPackets.length; pid++) {
+				pidPackets[pid] += chunk.pidPackets[pid];
+			}
+			expectedStart = chunk.nextOffset;
+		}
+		return pidPackets;
+	}
+
+	private Chunk scanChunk(final Chunk chunk, final long from) throws IOException {
+		try (MappedPacketSource source = new MappedPacketSource(file, packetLength, WINDOW_SIZE)) {
+			if (from != 0) {
+				source.seek(from);
+			}
+			chunk.pidFlags = new short[(int) ((chunk.end - from) / packetLength) + 1];
+			long expectedOffset = -1;
+			long reported = from;
+			while (source.next()) {
+				final long offset = source.getPacketOffset();
+				if (offset >= chunk.end) {
+					chunk.nextOffset = offset;
+					break;
+				}
+				if (chunk.count == 0) {
+					chunk.firstOffset = offset;
+				}
+				if (offset != expectedOffset) {
+					chunk.addRun(chunk.count, offset);
+				}
+				expectedOffset = offset + packetLength;
+				final int pid = source.getPid();
+				chunk.pidFlags[chunk.count++] = (short) (pid | ((source.getHeaderByte1() & 0xC0) << 8) | ((source.getHeaderByte3() & 0x20) << 8));
+				chunk.pidPackets[pid]++;
+				if ((chunk.count % PROGRESS_INTERVAL_PACKETS) == 0) {
+					bytesScanned.addAndGet(offset - reported);
+					reported = offset;
+					if (canceled) {
+						throw new InterruptedIOException("progress");
+					}
+				}
+			}
+			bytesScanned.addAndGet(chunk.end - reported);
+			chunk.syncErrors = source.getSyncErrors();
+		}
+		return chunk;
+	}
+
+	private void addChunk(final Chunk chunk) {
+		final int base = transportStream.getNo_packets();
+		for (int i = 0; i < chunk.runCount; i++) {
+			final int packetNo = base + chunk.runStarts[i];
+			final long offset = chunk.runOffsets[i];
+			if ((runCount > 0) && (offset == (runOffsets[runCount - 1] + ((long) (packetNo - runStarts[runCount - 1]) * packetLength)))) {
+				continue; // continues previous run
+			}
+			if (runCount == runStarts.length) {
+				runStarts = Arrays.copyOf(runStarts, runCount * 2);
+				runOffsets = Arrays.copyOf(runOffsets, runCount * 2);
+			}
+			runStarts[runCount] = packetNo;
+			runOffsets[runCount] = offset;
+			runCount++;
+		}
+		transportStream.addScannedPackets(chunk.pidFlags, chunk.count, chunk.runStarts, chunk.runOffsets, chunk.runCount, chunk.syncErrors);
+	}
+
+	/**
+	 * phase 2, feed packets to their PID
+	 */
+	private void updatePids(final ExecutorService executor, final ProgressMonitor monitor, final int[] pidPackets) throws IOException {
+		final int[] owner = assignPids(pidPackets);
+		final List<Future<Void>> futures = new ArrayList<>();
+		transportStream.setDeferPsiUpdates(true);
+		try {
+			for (int worker = 0; worker < threads; worker++) {
+				final int w = worker;
+				futures.add(executor.submit(() -> updatePids(owner, w)));
+			}
+			for (final Future<Void> future : futures) {
+				waitFor(future, monitor, this::getUpdateProgress);
+			}
+		} finally {
+			transportStream.setDeferPsiUpdates(false);
+		}
+	}
+
+	/**
+	 * Divide the PIDs over the threads, biggest PID first to the thread with least packets so far.
+	 *
+	 * @return for each PID the thread that should handle it, -1 if PID not present
+	 */
+	private int[] assignPids(final int[] pidPackets) {
+		final int[] owner = new int[pidPackets.length];
+		Arrays.fill(owner, -1);
+		final Integer[] order = new Integer[pidPackets.length];
+		for (int pid = 0; pid < pidPackets.length; pid++) {
+			order[pid] = pid;
+		}
+		Arrays.sort(order, (a, b) -> Integer.compare(pidPackets[b], pidPackets[a]));
+		final long[] load = new long[threads];
+		for (final int pid : order) {
+			if (pidPackets[pid] == 0) {
+				break;
+			}
+			int least = 0;
+			for (int w = 1; w < threads; w++) {
+				if (load[w] < load[least]) {
+					least = w;
+				}
+			}
+			owner[pid] = least;
+			load[least] += pidPackets[pid];
+			transportStream.getOrCreatePID((short) pid);
+		}
+		return owner;
+	}
+
+	private Void updatePids(final int[] owner, final int worker) throws IOException {
+		final int noPackets = transportStream.getNo_packets();
+		try (MappedPacketSource source = new MappedPacketSource(file, packetLength, WINDOW_SIZE)) {
+			final PID[] pids = transportStream.getPids();
+			// each worker reads the PIDs a block at a time in its own array
+			final short[] blockPids = new short[PacketPidMap.BLOCK_SIZE];
+			int run = 0;
+			int handled = 0;
+			for (int blockStart = 0; blockStart < noPackets; blockStart += blockPids.length) {
+				final int n = Math.min(blockPids.length, noPackets - blockStart);
+				transportStream.getPacketPidFlags(blockStart, blockPids, n);
+				for (int i = 0; i < n; i++) {
+					final int pid = blockPids[i] & 0x1fff;
+					if (owner[pid] != worker) {
+						continue;
+					}
+					final int packetNo = blockStart + i;
+					while (((run + 1) < runCount) && (runStarts[run + 1] <= packetNo)) {
+						run++;
+					}
+					source.moveTo(runOffsets[run] + ((long) (packetNo - runStarts[run]) * packetLength));
+					transportStream.updatePID(pids[pid], source.getBuffer(), source.getPacketStart(), packetNo);
+					if ((++handled % PROGRESS_INTERVAL_PACKETS) == 0) {
+						packetsUpdated.addAndGet(PROGRESS_INTERVAL_PACKETS);
+						if (canceled) {
+							throw new InterruptedIOException("progress");
+						}
+					}
+				}
+			}
+			packetsUpdated.addAndGet(handled % PROGRESS_INTERVAL_PACKETS);
+		}
+		return null;
+	}
+
+	private int getScanProgress() {
+		return (int) Math.min(PROGRESS_STEPS / 2, (bytesScanned.get() * (PROGRESS_STEPS / 2)) / Math.max(1, transportStream.getLen()));
+	}
+
+	private int getUpdateProgress() {
+		return (PROGRESS_STEPS / 2) + (int) ((packetsUpdated.get() * (PROGRESS_STEPS / 2)) / Math.max(1, transportStream.getNo_packets()));
+	}
+
+	/**
+	 * Wait for a worker to finish, meanwhile keep the progress monitor up to date, and check for cancel.
+	 */
+	private <T> T waitFor(final Future<T> future, final ProgressMonitor monitor, final IntSupplier progress) throws IOException {
+		while (true) {
+			if (monitor != null) {
+				monitor.setProgress(progress.getAsInt());
+				if (monitor.isCanceled()) {
+					canceled = true;
+					throw new InterruptedIOException("progress");
+				}
+			}
+			try {
+				return future.get(POLL_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (final TimeoutException e) {
+				// just update progress, and wait again
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				canceled = true;
+				throw new InterruptedIOException("interrupted");
+			} catch (final ExecutionException e) {
+				final Throwable cause = e.getCause();
+				if (cause instanceof IOException ioException) {
+					throw ioException;
+				}
+				if (cause instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				}
+				throw new IOException(cause);
+			}
+		}
+	}
+}
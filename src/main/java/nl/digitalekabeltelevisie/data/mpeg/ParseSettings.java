@@ -0,0 +1,64 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg;
+
+import nl.digitalekabeltelevisie.util.PreferencesManager;
+
+/**
+ * Immutable snapshot of the user preferences that influence how a {@link TransportStream} is parsed.
+ *
+ * Taken once when parsing starts, so the java.util.prefs backing store is not queried for every section, PES packet or descriptor list.
+ * Because every TransportStream has its own snapshot, streams can be parsed concurrently with different settings.
+ *
+ * @param enableGenericPSI store all sections in a PSI PID, not only the ones of known tables
+ * @param enableDSMCC parse DSM-CC sections
+ * @param enablePcrPtsView collect PCR/PTS/DTS time stamps for the PCR/PTS/DTS View
+ * @param enableM7Fastscan parse M7 Fastscan tables and descriptors
+ * @param defaultPrivateDataSpecifier private_data_specifier to use for a descriptor loop without private_data_specifier_descriptor
+ *
+ * @author Eric
+ *
+ */
+public record ParseSettings(boolean enableGenericPSI,
+		boolean enableDSMCC,
+		boolean enablePcrPtsView,
+		boolean enableM7Fastscan,
+		long defaultPrivateDataSpecifier) {
+
+	/**
+	 * @return snapshot of the current values in {@link PreferencesManager}
+	 */
+	public static ParseSettings fromPreferences() {
+		return new ParseSettings(PreferencesManager.isEnableGenericPSI(),
+				PreferencesManager.isEnableDSMCC(),
+				PreferencesManager.isEnablePcrPtsView(),
+				PreferencesManager.isEnableM7Fastscan(),
+				PreferencesManager.getDefaultPrivateDataSpecifier());
+	}
+
+}
@@ -39,11 +39,9 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import nl.digitalekabeltelevisie.data.mpeg.descriptors.*;
-import nl.digitalekabeltelevisie.data.mpeg.descriptors.DataBroadcastIDDescriptor.OUIEntry;
 import nl.digitalekabeltelevisie.data.mpeg.psi.*;
 import nl.digitalekabeltelevisie.data.mpeg.psi.PMTsection.Component;
 import nl.digitalekabeltelevisie.data.mpeg.psi.nonstandard.*;
-import nl.digitalekabeltelevisie.util.PreferencesManager;
 import nl.digitalekabeltelevisie.util.Utils;
 
 
@@ -115,29 +113,71 @@ public class PsiSectionData {
 			noBytes+=read2; // now we have read2 bytes more.
 			if(read2==need){
 				// complete SI section, handle it in PSI
-				updatePSI(pid);
-
-				// now put it in general PID table
-				// when it is not valid an exception will be thrown, caught and ignored. The section will be discarded
-
-				if(PreferencesManager.isEnableGenericPSI()) {
-        				try {
-        					final TableSection psi= new TableSection(this,parentPID);
-        					parentPID.getPsi().update(psi);
-        				} catch (final RuntimeException re) {
-        					logger.log(Level.WARNING, "RuntimeException in readBytes PIDs: pid="+pid, re);
-        				}
-				}
+				parentPID.runPsiUpdate(this::processCompleteSection);
 				complete=true;
 			}
 		}
 		return(read1+read2);
 	}
 
+	private void processCompleteSection() {
+		final int pid = parentPID.getPid();
+		final ParseSettings parseSettings = transportStream.getParseSettings();
+		final boolean genericPSI = parseSettings.enableGenericPSI();
+		final SectionFingerprintCache sectionCache = transportStream.getPsi().getSectionCache();
+		final boolean cacheable = isCacheable(pid);
+		if(cacheable) {
+			final TableSection existing = sectionCache.updateRepeated(this, parentPID, genericPSI ? parentPID.getPsi() : null);
+			if(existing != null) {
+				if(existing instanceof final SDTsection sdtSection) {
+					transportStream.getPsi().getSdt().updateRepeated(sdtSection);
+				}
+				return;
+			}
+		}
+		final TableSection section = updatePSI(pid, parseSettings);
+
+		// now put it in general PID table
+		// when it is not valid an exception will be thrown, caught and ignored. The section will be discarded
+
+		TableSection genericSection = null;
+		if(genericPSI) {
+			try {
+				final TableSection psi= new TableSection(this,parentPID);
+				genericSection = parentPID.getPsi().update(psi);
+			} catch (final RuntimeException re) {
+				logger.log(Level.WARNING, "RuntimeException in readBytes PIDs: pid="+pid, re);
+			}
+		}
+		if(cacheable && (section != null) && (genericPSI == (genericSection != null))) {
+			sectionCache.put(this, parentPID, section, genericSection);
+		}
+	}
+
+	/**
+	 * @return true if this section goes to a table where a repeated section only updates statistics, see {@link SectionFingerprintCache}.
+	 * Conditions should match those in {@link #updatePSI(int, ParseSettings)}
+	 */
+	private boolean isCacheable(final int pid) {
+		if((pid==0) || (noBytes<3) || ((data[1] & 0x80)==0)) { // PAT has version administration, short syntax has no CRC
+			return false;
+		}
+		final int tableId = Byte.toUnsignedInt(data[0]);
+		return ((tableId==0x02)&& transportStream.getPsi().getPat().inPAT(pid)) ||
+				((tableId==0x01)&&(pid==0x01)) ||
+				((tableId==0x03)&&(pid==0x02)) ||
+				((pid==0x10)&&((tableId==0x40)||(tableId==0x41))) ||
+				((tableId==0x4A)&&(pid==0x11)) ||
+				((0x4E<=tableId)&&(tableId<=0x6F)&&(pid==0x12)) ||
+				((pid==0x11) &&((tableId==0x42)||(tableId==0x46)));
+	}
+
 	/**
 	 * @param pid
+	 * @param parseSettings
+	 * @return the section in the table that now holds this data, only for tables where {@link #isCacheable(int)} is true. Otherwise null
 	 */
-	private void updatePSI(final int pid) {
+	private TableSection updatePSI(final int pid, final ParseSettings parseSettings) {
 		try {
 			if(pid==0){
 				transportStream.getPsi().getPat().update(new PATsection(this,parentPID));
@@ -146,23 +186,23 @@ public class PsiSectionData {
 				final int tableId = Byte.toUnsignedInt(data[0]);
 				if((tableId==0x02)&&
 						(transportStream.getPsi().getPat().inPAT(pid))){
-					transportStream.getPsi().getPmts().update(new PMTsection(this,parentPID));
+					return transportStream.getPsi().getPmts().update(new PMTsection(this,parentPID));
 				}else if((tableId==0x01)&&(pid==0x01)){
-					transportStream.getPsi().getCat().update(new CAsection(this,parentPID));
+					return transportStream.getPsi().getCat().update(new CAsection(this,parentPID));
 				}else if((tableId==0x03)&&(pid==0x02)){
-					transportStream.getPsi().getTsdt().update(new TSDTsection(this,parentPID));
+					return transportStream.getPsi().getTsdt().update(new TSDTsection(this,parentPID));
 				}else if((pid==0x10)&&((tableId==0x40)||(tableId==0x41))){  // NIT
-					transportStream.getPsi().getNit().update(new NITsection(this,parentPID));
+					return transportStream.getPsi().getNit().update(new NITsection(this,parentPID));
 				}else if((tableId==0x4A)&&(pid==0x11)){
-					transportStream.getPsi().getBat().update(new BATsection(this,parentPID));
+					return transportStream.getPsi().getBat().update(new BATsection(this,parentPID));
 				}else if((0x4E<=tableId)&&(tableId<=0x6F)&&(pid==0x12)){
-					transportStream.getPsi().getEit().update(new EITsection(this,parentPID));
+					return transportStream.getPsi().getEit().update(new EITsection(this,parentPID));
 				}else if((pid==0x14) &&(tableId==0x70)){
 					transportStream.getPsi().getTdt().update(new TDTsection(this,parentPID));
 				}else if((pid==0x14) &&(tableId==0x73)){
 					transportStream.getPsi().getTot().update(new TOTsection(this,parentPID));
 				}else if((pid==0x11) &&((tableId==0x42)||(tableId==0x46))){
-					transportStream.getPsi().getSdt().update(new SDTsection(this,parentPID));
+					return transportStream.getPsi().getSdt().update(new SDTsection(this,parentPID));
 				}else if((pid==0x1F) &&(tableId==0x7F)){
 					transportStream.getPsi().getSit().update(new SITsection(this,parentPID));
 				}else if((tableId==0x4c)&&isINTSection(pid)){ // check for linkage descriptors 0x0B located in the NIT  //ETSI EN 301 192 V1.4.2
@@ -184,10 +224,10 @@ public class PsiSectionData {
 					// These might be referenced from DSI in other stream (or even from multiple)
 					// Also, include PMTs to store the stream_identifier_descriptor
 					// all handled in DSMCCs.
-					if(PreferencesManager.isEnableDSMCC()) {
+					if(parseSettings.enableDSMCC()) {
 						transportStream.getPsi().getDsms().update(new TableSectionExtendedSyntax(this,parentPID));
 					}
-				}else if(PreferencesManager.isEnableM7Fastscan()) {
+				}else if(parseSettings.enableM7Fastscan()) {
 					if(tableId== 0xBC){
 						transportStream.getPsi().getM7fastscan().update(new FNTsection(this, parentPID));
 					}else if(tableId== 0xBD) {
@@ -200,24 +240,11 @@ public class PsiSectionData {
 		} catch (final RuntimeException re) {
 			logger.log(Level.WARNING, "RuntimeException in updatePSI PSI data: pid="+pid, re);
 		}
+		return null;
 	}
 
 	private boolean isSpliceInfoSection(int pid) {
-		
-		final Map<Integer, PMTsection[]> pmtList = transportStream.getPsi().getPmts().getPmts();
-
-		for (final PMTsection[] pmtSections : pmtList.values()){
-			final PMTsection pmt=pmtSections[0]; // PMT always one section
-			// The registration descriptor shall be carried in the program_info loop of the PMT
-			if(hasSCTE35RegistrationDescriptor(pmt.getDescriptorList())){
-				for(final Component component : pmt.getComponentenList() ){
-					if((component.getElementaryPID()==pid) && (component.getStreamtype()==0x86)){
-						return true;
-					}
-				}
-			}
-		}
-		return false;
+		return transportStream.getPsi().getPidRoleIndex().hasRole(pid, PidRoleIndex.SPLICE_INFO);
 	}
 
 	public static boolean hasSCTE35RegistrationDescriptor(final List<Descriptor> componentDescriptorList) {
@@ -240,29 +267,7 @@ public class PsiSectionData {
 	}
 	
 	private boolean isINTSection(final int pid){
-		final List<LinkageDescriptor> linkageDescriptors = transportStream.getLinkageDescriptorsFromNitNetworkLoop();
-
-		for (final LinkageDescriptor ld : linkageDescriptors) {
-			if(ld.getLinkageType()==0x0B){
-				final int linkedService = ld.getServiceId();
-				final int streamId = ld.getTransportStreamId();
-				if(streamId==transportStream.getStreamID()){ // current stream
-					final PMTsection pmt = transportStream.getPsi().getPmts().getPmt(linkedService);
-					final List<PMTsection.Component> componentenList = pmt.getComponentenList();
-					for( final PMTsection.Component c: componentenList){
-						if(c.getElementaryPID()==pid){
-							final List<DataBroadcastIDDescriptor> databroadcastIdDescriptors = Descriptor.findGenericDescriptorsInList(c.getComponentDescriptorList(), DataBroadcastIDDescriptor.class);
-							for(final DataBroadcastIDDescriptor databroadcastDesc: databroadcastIdDescriptors){
-								if(databroadcastDesc.getDataBroadcastId()==0x000B){
-									return true;
-								}
-							}
-						}
-					}
-				}
-			}
-		}
-		return false;
+		return transportStream.getPsi().getPidRoleIndex().hasRole(pid, PidRoleIndex.INT);
 	}
 
 	/**
@@ -277,28 +282,7 @@ public class PsiSectionData {
 	 * @return true if this PID contains the UNT
 	 */
 	public boolean isUNTSection(final int pid){
-		final Map<Integer, PMTsection[]> pmtList = transportStream.getPsi().getPmts().getPmts();
-
-		for (final PMTsection[] pmt : pmtList.values()){
-			final PMTsection p=pmt[0]; // PMT always one section
-			for(final Component component : p.getComponentenList() ){
-				if(component.getElementaryPID()==pid){
-					final List<DataBroadcastIDDescriptor> data_broadcast_id_descriptors = Descriptor.findGenericDescriptorsInList(component.getComponentDescriptorList(), DataBroadcastIDDescriptor.class);
-					for (final DataBroadcastIDDescriptor dataBroadCastIDDescriptor : data_broadcast_id_descriptors) {
-						if(dataBroadCastIDDescriptor.getDataBroadcastId()==0x0A){
-							//get all  OUIs (prob 1) and check update type
-							for(final OUIEntry oui: dataBroadCastIDDescriptor.getOuiList()){
-								final int updateType = oui.getUpdateType();
-								if((updateType==0x2)||(updateType==0x3)){
-									return true;
-								}
-							}
-						}
-					}
-				}
-			}
-		}
-		return false;
+		return transportStream.getPsi().getPidRoleIndex().hasRole(pid, PidRoleIndex.UNT);
 	}
 
 	/**
@@ -311,20 +295,7 @@ public class PsiSectionData {
 	 * @return true if this PID contains a AIT
 	 */
 	public boolean isAITSection(final int pid){
-		final Map<Integer, PMTsection[]> pmtList = transportStream.getPsi().getPmts().getPmts();
-
-		for (final PMTsection[] pmt : pmtList.values()){
-			final PMTsection p=pmt[0]; // PMT always one section
-			for(final Component component : p.getComponentenList() ){
-				if(component.getElementaryPID()==pid){
-					final List<ApplicationSignallingDescriptor> application_signalling_descriptors = Descriptor.findGenericDescriptorsInList(component.getComponentDescriptorList(), ApplicationSignallingDescriptor.class);
-					if(!application_signalling_descriptors.isEmpty()){
-						return true;
-					}
-				}
-			}
-		}
-		return false;
+		return transportStream.getPsi().getPidRoleIndex().hasRole(pid, PidRoleIndex.AIT);
 	}
 	
 	
@@ -338,24 +309,7 @@ public class PsiSectionData {
 	 * @return true if this PID contains a AIT
 	 */
 	public boolean isDIFTSection(final int pid){
-		final Map<Integer, PMTsection[]> pmtList = transportStream.getPsi().getPmts().getPmts();
-
-		for (final PMTsection[] pmt : pmtList.values()){
-			final PMTsection p=pmt[0]; // PMT always one section
-			for(final Component component : p.getComponentenList() ){
-				if(component.getElementaryPID()==pid){
-					final List<DataBroadcastIDDescriptor> databroadcatsid_descriptors = Descriptor.findGenericDescriptorsInList(component.getComponentDescriptorList(), DataBroadcastIDDescriptor.class);
-					if(!databroadcatsid_descriptors.isEmpty()){
-						for(DataBroadcastIDDescriptor dataBroadcastIDDescriptor:databroadcatsid_descriptors) {
-							if(dataBroadcastIDDescriptor.getDataBroadcastId()== 0x0D) {
-								return true;
-							}
-						}
-					}
-				}
-			}
-		}
-		return false;
+		return transportStream.getPsi().getPidRoleIndex().hasRole(pid, PidRoleIndex.DFIT);
 	}
 
 
@@ -369,20 +323,7 @@ public class PsiSectionData {
 	 * @return true if this PID contains a RCT
 	 */
 	public boolean isRCTSection(final int pid){
-		final Map<Integer, PMTsection[]> pmtList = transportStream.getPsi().getPmts().getPmts();
-
-		for (final PMTsection[] pmt : pmtList.values()){
-			final PMTsection p=pmt[0]; // PMT always one section
-			for(final Component component : p.getComponentenList() ){
-				if(component.getElementaryPID()==pid){
-					final List<RelatedContentDescriptor> application_signalling_descriptors = Descriptor.findGenericDescriptorsInList(component.getComponentDescriptorList(), RelatedContentDescriptor.class);
-					if(!application_signalling_descriptors.isEmpty()){
-						return true;
-					}
-				}
-			}
-		}
-		return false;
+		return transportStream.getPsi().getPidRoleIndex().hasRole(pid, PidRoleIndex.RCT);
 	}
 
 	/**
@@ -39,6 +39,7 @@ import static nl.digitalekabeltelevisie.util.Utils.getInt;
 import static nl.digitalekabeltelevisie.util.Utils.toHexString;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.logging.Logger;
 
@@ -70,11 +71,16 @@ public class TSPacket implements HTMLSource, TreeNode{
 	final private byte[] buffer ;
 
 	private int packetNo=-1;
-	final private static Color HEADER_COLOR = new Color(0x0000ff);
-	final private static Color ADAPTATION_FIELD_COLOR = new Color(0x008000);
-	final private static Color FEC_COLOR = new Color(0x800080);
-	final private static Color PES_HEADER_COLOR = new Color(0x800000);
-	private static final Color ERROR_COLOR = new Color(0xFF0000);
+	/**
+	 * Colors for the HTML view, in a holder class so parsing (like in headless mode) does not initialize AWT
+	 */
+	private static final class HtmlColors {
+		final private static Color HEADER_COLOR = new Color(0x0000ff);
+		final private static Color ADAPTATION_FIELD_COLOR = new Color(0x008000);
+		final private static Color FEC_COLOR = new Color(0x800080);
+		final private static Color PES_HEADER_COLOR = new Color(0x800000);
+		private static final Color ERROR_COLOR = new Color(0xFF0000);
+	}
 	final private TransportStream transportStream;
 	private long packetOffset = -1;
 
@@ -123,6 +129,22 @@ public class TSPacket implements HTMLSource, TreeNode{
 //			
 	}
 
+	/**
+	 * Creates a TSPacket by copying length bytes from a (memory mapped) buffer, without changing the position of that buffer.
+	 *
+	 * @param source buffer containing the packet
+	 * @param offset position of the sync byte in source
+	 * @param length packet length
+	 * @param no position number of this packet in the stream
+	 * @param ts TransportStream this packet belongs to
+	 */
+	public TSPacket(final ByteBuffer source, final int offset, final int length, final int no, final TransportStream ts) {
+		buffer = new byte[length];
+		source.get(offset, buffer);
+		packetNo = no;
+		transportStream = ts;
+	}
+
 	public int getTransportScramblingControl(){
 		return (buffer[3] & 0xC0) >>6;
 	}
@@ -272,9 +294,9 @@ public class TSPacket implements HTMLSource, TreeNode{
 			s.append("<br>").append(escapeHtmlBreakLines(transportStream.getShortLabel(pid))).append("<br>");
 		}
 
-		Utils.appendHeader(s, "Header:", HEADER_COLOR);
+		Utils.appendHeader(s, "Header:", HtmlColors.HEADER_COLOR);
 		final RangeHashMap<Integer, Color> coloring = new RangeHashMap<>();
-		coloring.put(0, 3, HEADER_COLOR);
+		coloring.put(0, 3, HtmlColors.HEADER_COLOR);
 
 		s.append("<br>sync_byte: ").append(getHexAndDecimalFormattedString(getSyncByte()));
 		s.append("<br>transport_error_indicator: ").append(getTransportErrorIndicator());
@@ -291,13 +313,13 @@ public class TSPacket implements HTMLSource, TreeNode{
 			adaptationField = getAdaptationField();
 		}catch(RuntimeException re){ // might be some error in adaptation field, it is not well protected
 			adaptationField = null;
-			Utils.appendHeader(s,ERROR_PARSING_ADAPTATION_FIELD,ERROR_COLOR);
+			Utils.appendHeader(s,ERROR_PARSING_ADAPTATION_FIELD,HtmlColors.ERROR_COLOR);
 			s.append("<br></span>");
 		}
 		if(adaptationField!=null){
-			Utils.appendHeader(s, "adaptation_field:", ADAPTATION_FIELD_COLOR);
+			Utils.appendHeader(s, "adaptation_field:", HtmlColors.ADAPTATION_FIELD_COLOR);
 			s.append(adaptationField.getHTML()).append("<br></span>");
-			coloring.put(4, 4+adaptationField.getAdaptation_field_length(), ADAPTATION_FIELD_COLOR);
+			coloring.put(4, 4+adaptationField.getAdaptation_field_length(), HtmlColors.ADAPTATION_FIELD_COLOR);
 		}
 
 		// PES header
@@ -310,13 +332,13 @@ public class TSPacket implements HTMLSource, TreeNode{
 				final PesHeader pesHeaderView = getPesHeader();
 				if((pesHeaderView!=null)&&(pesHeaderView.isValidPesHeader())){
 					final DefaultMutableTreeNode treeNode = pesHeaderView.getJTreeNode(0);
-					Utils.appendHeader(s, "Pes Header:", PES_HEADER_COLOR);
+					Utils.appendHeader(s, "Pes Header:", HtmlColors.PES_HEADER_COLOR);
 					s.append("<br>").append(Utils.getChildrenAsHTML(treeNode));
 					s.append("</span>");
 					if(pesHeaderView.hasExtendedHeader()){
-						coloring.put(payloadStart, payloadStart+8+pesHeaderView.getPes_header_data_length(), PES_HEADER_COLOR);
+						coloring.put(payloadStart, payloadStart+8+pesHeaderView.getPes_header_data_length(), HtmlColors.PES_HEADER_COLOR);
 					}else{
-						coloring.put(payloadStart, payloadStart+5, PES_HEADER_COLOR);
+						coloring.put(payloadStart, payloadStart+5, HtmlColors.PES_HEADER_COLOR);
 					}
 				}
 			}
@@ -326,10 +348,10 @@ public class TSPacket implements HTMLSource, TreeNode{
 		if(buffer.length>PAYLOAD_PACKET_LENGTH){
 			final RangeHashMap<Integer, Color> localColoring = new RangeHashMap<>();
 			//for some reason using getHTMLHexview resets color, so we use getHTMLHexviewColored with only one color.
-			localColoring.put(0, buffer.length-PAYLOAD_PACKET_LENGTH, FEC_COLOR);
-			Utils.appendHeader(s, "FEC/timestamp:", FEC_COLOR);
+			localColoring.put(0, buffer.length-PAYLOAD_PACKET_LENGTH, HtmlColors.FEC_COLOR);
+			Utils.appendHeader(s, "FEC/timestamp:", HtmlColors.FEC_COLOR);
 			s.append(getHTMLHexviewColored(buffer,PAYLOAD_PACKET_LENGTH,buffer.length-PAYLOAD_PACKET_LENGTH,localColoring)).append("</span>");
-			coloring.put(PAYLOAD_PACKET_LENGTH, buffer.length, FEC_COLOR);
+			coloring.put(PAYLOAD_PACKET_LENGTH, buffer.length, HtmlColors.FEC_COLOR);
 		}
 		s.append("<br><b>Data:</b><br>").append(getHTMLHexviewColored(buffer,0,buffer.length,coloring));
 		return s.toString();
@@ -0,0 +1,124 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg;
+
+import static nl.digitalekabeltelevisie.data.mpeg.TimeStampList.CHUNK_MASK;
+import static nl.digitalekabeltelevisie.data.mpeg.TimeStampList.CHUNK_SHIFT;
+import static nl.digitalekabeltelevisie.data.mpeg.TimeStampList.newChunkLength;
+import static nl.digitalekabeltelevisie.data.mpeg.TimeStampList.resize;
+
+import java.math.BigInteger;
+
+/**
+ * Time stamps of one TEMI timeline (timeline_id) on one PID, stored as parallel primitive columns the same way as {@link TimeStampList}.
+ *
+ * {@link #getTime(int)} is the media_timestamp, an unsigned 64 bit value in units of the timescale. Only {@link PID} adds entries,
+ * for everybody else this is read only. {@link #get(int)} creates a {@link TemiTimeStamp} on demand, for the tool tip of a single point.
+ *
+ * @author Eric
+ *
+ */
+public final class TemiTimeStampList implements TimeStampSeries {
+
+	private int[][] packetNos = new int[0][];
+	private long[][] mediaTimeStamps = new long[0][];
+	private long[][] timescales = new long[0][];
+	private byte[][] discontinuities = new byte[0][];
+	private byte[][] pauseds = new byte[0][];
+	private int size;
+
+	void add(final int packetNo, final BigInteger mediaTimeStamp, final long timescale, final int discontinuity, final int paused) {
+		final int chunk = size >>> CHUNK_SHIFT;
+		final int offset = size & CHUNK_MASK;
+		if ((chunk == packetNos.length) || (offset == packetNos[chunk].length)) {
+			final int length = newChunkLength(packetNos, chunk);
+			packetNos = resize(packetNos, chunk, length);
+			mediaTimeStamps = resize(mediaTimeStamps, chunk, length);
+			timescales = resize(timescales, chunk, length);
+			discontinuities = resize(discontinuities, chunk, length);
+			pauseds = resize(pauseds, chunk, length);
+		}
+		packetNos[chunk][offset] = packetNo;
+		mediaTimeStamps[chunk][offset] = mediaTimeStamp.longValue();
+		timescales[chunk][offset] = timescale;
+		discontinuities[chunk][offset] = (byte) discontinuity;
+		pauseds[chunk][offset] = (byte) paused;
+		size++;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int getPacketNo(final int index) {
+		return packetNos[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+	}
+
+	/**
+	 * @return media_timestamp, as unsigned long
+	 */
+	@Override
+	public long getTime(final int index) {
+		return mediaTimeStamps[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+	}
+
+	/**
+	 * @return media_timestamp divided by timescale
+	 */
+	public double getSeconds(final int index) {
+		return unsignedToDouble(getTime(index)) / getTimescale(index);
+	}
+
+	public long getTimescale(final int index) {
+		return timescales[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+	}
+
+	public int getDiscontinuity(final int index) {
+		return discontinuities[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+	}
+
+	public int getPaused(final int index) {
+		return pauseds[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+	}
+
+	public TemiTimeStamp get(final int index) {
+		return new TemiTimeStamp(getPacketNo(index),
+				new BigInteger(Long.toUnsignedString(getTime(index))),
+				getTimescale(index),
+				getDiscontinuity(index),
+				getPaused(index));
+	}
+
+	private static double unsignedToDouble(final long value) {
+		final double result = (double) (value >>> 1) * 2.0;
+		return (value >= 0) ? value : result + (value & 1);
+	}
+
+}
@@ -0,0 +1,114 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of time stamps (PCR, PTS, DTS, SCTE-35 splice times) stored as parallel primitive columns.
+ *
+ * A long capture can have millions of PCRs and PTSs, so instead of one object per time stamp the packet numbers go into int[] and the values into long[].
+ * The columns are split in chunks of {@value #CHUNK_SIZE} entries, so growing never copies more than one chunk. The first chunk starts small,
+ * because most PIDs have no time stamps at all, or only a few.
+ *
+ * @author Eric
+ *
+ */
+public final class TimeStampList implements TimeStampSeries {
+
+	static final int CHUNK_SHIFT = 13;
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	private static final int INITIAL_CAPACITY = 16;
+
+	private int[][] packetNos = new int[0][];
+	private long[][] times = new long[0][];
+	private int size;
+
+	public void add(final int packetNo, final long time) {
+		final int chunk = size >>> CHUNK_SHIFT;
+		final int offset = size & CHUNK_MASK;
+		if ((chunk == packetNos.length) || (offset == packetNos[chunk].length)) {
+			final int length = newChunkLength(packetNos, chunk);
+			packetNos = resize(packetNos, chunk, length);
+			times = resize(times, chunk, length);
+		}
+		packetNos[chunk][offset] = packetNo;
+		times[chunk][offset] = time;
+		size++;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int getPacketNo(final int index) {
+		return packetNos[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+	}
+
+	@Override
+	public long getTime(final int index) {
+		return times[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+	}
+
+	/**
+	 * @param packetNos packet number column of the list, all other columns have the same chunk lengths
+	 * @param chunk the chunk that is full, or does not exist yet
+	 * @return new length for chunk
+	 */
+	static int newChunkLength(final int[][] packetNos, final int chunk) {
+		if (chunk > 0) {
+			return CHUNK_SIZE;
+		}
+		if (packetNos.length == 0) {
+			return INITIAL_CAPACITY;
+		}
+		return Math.min(CHUNK_SIZE, packetNos[0].length * 2);
+	}
+
+	static int[][] resize(final int[][] column, final int chunk, final int length) {
+		final int[][] result = (chunk < column.length) ? column : Arrays.copyOf(column, chunk + 1);
+		result[chunk] = (result[chunk] == null) ? new int[length] : Arrays.copyOf(result[chunk], length);
+		return result;
+	}
+
+	static long[][] resize(final long[][] column, final int chunk, final int length) {
+		final long[][] result = (chunk < column.length) ? column : Arrays.copyOf(column, chunk + 1);
+		result[chunk] = (result[chunk] == null) ? new long[length] : Arrays.copyOf(result[chunk], length);
+		return result;
+	}
+
+	static byte[][] resize(final byte[][] column, final int chunk, final int length) {
+		final byte[][] result = (chunk < column.length) ? column : Arrays.copyOf(column, chunk + 1);
+		result[chunk] = (result[chunk] == null) ? new byte[length] : Arrays.copyOf(result[chunk], length);
+		return result;
+	}
+
+}
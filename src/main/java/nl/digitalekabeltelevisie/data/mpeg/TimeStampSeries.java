@@ -0,0 +1,79 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg;
+
+/**
+ * Read only view of a series of time stamps, each consisting of the packet number it was found in and its value, in order of packet number.
+ *
+ * Lets the PCR/PTS/DTS and TEMI datasets index the underlying columns directly, without a {@link TemiTimeStamp} or other object per entry.
+ *
+ * @author Eric
+ *
+ */
+public interface TimeStampSeries {
+
+	/**
+	 * @return number of time stamps in this series
+	 */
+	int size();
+
+	default boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * @param index position in this series
+	 * @return packet number where time stamp at index was found
+	 */
+	int getPacketNo(int index);
+
+	/**
+	 * @param index position in this series
+	 * @return value of time stamp at index, in units of the clock it is based on
+	 */
+	long getTime(int index);
+
+	/**
+	 * @param packetNo packet number to search for
+	 * @return index of the first time stamp with a packet number greater than or equal to packetNo, or {@link #size()} when there is none
+	 */
+	default int lowerBound(final int packetNo) {
+		int low = 0;
+		int high = size();
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (getPacketNo(mid) < packetNo) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+}
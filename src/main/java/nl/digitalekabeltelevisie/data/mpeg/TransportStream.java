@@ -124,13 +124,17 @@ public class TransportStream implements TreeNode{
 	/**
 	 * for every TSPacket read, store it's packet_id. Used for bit rate calculations, and Grid View
 	 */
-	private final short [] packet_pid;
+	private PacketPidMap packet_pid = new PacketPidMap();
 
 	private OffsetHelper offsetHelper = null;
+	/**
+	 * Preferences used for parsing, snapshot taken at start of parse
+	 */
+	private ParseSettings parseSettings = ParseSettings.fromPreferences();
 	/**
 	 * Starting point for all the PSI information in this TransportStream
 	 */
-	private PSI psi = new PSI();
+	private PSI psi = new PSI(parseSettings);
 	/**
 	 * how many TSPackets have bean read.
 	 */
@@ -161,6 +165,37 @@ public class TransportStream implements TreeNode{
 
 	private int packetLength = 188;
 
+	/**
+	 * true while PIDs are updated by multiple threads, updates of the shared PSI tables are then collected by each PID,
+	 * and executed afterwards by {@link #runDeferredPsiUpdates()}
+	 */
+	private boolean deferPsiUpdates = false;
+
+	/**
+	 * shared by all calls of {@link #getTSPacket(int)}, opened on first use
+	 */
+	private CachedFileReader fileReader = null;
+
+	/**
+	 * for each PID the packet numbers of its packets, built during the first pass. For a live stream built when first asked for, null entries are not built yet
+	 */
+	private PacketIndex[] packetIndex = null;
+	/**
+	 * collect the packet numbers of each PID during the first pass, null for PIDs without packets so far
+	 */
+	private PacketIndex.Builder[] packetIndexBuilders = new PacketIndex.Builder[8192];
+
+	/**
+	 * only for a live stream, the last packets received. null when reading a file
+	 */
+	private LivePacketBuffer liveBuffer = null;
+
+	/**
+	 * only for a live stream, closed by {@link #close()} to stop reading
+	 */
+	private Closeable liveSource = null;
+	private String liveSourceName = null;
+
 	public static final int [] ALLOWED_PACKET_LENGTHS = {188,192,204,208};
 	
 
@@ -183,11 +218,28 @@ public class TransportStream implements TreeNode{
 		this.file = file;
 		len = file.length();
 		packetLength = determinePacketLengthToUse(file);
-		int max_packets = (int) (len / packetLength);
-		packet_pid = new short [max_packets];
-		offsetHelper = new OffsetHelper(max_packets,packetLength);
+		offsetHelper = new OffsetHelper(getMaxPackets(),packetLength);
 
 	}
+
+	/**
+	 *
+	 * Creates a new Transport stream for a live source, like a file that is still being written, a named pipe or a UDP stream.
+	 * It is not read by parsePSITables, but filled by a {@link LiveStreamReader}. Only the last bufferPackets packets are kept, see {@link #isLive()}.
+	 * @param source name of the source, like a file name or udp://@239.1.1.1:1234. Used for display only.
+	 * @param packetLength
+	 * @param bufferPackets number of packets to keep
+	 * @param parseSettings
+	 */
+	public TransportStream(final String source, final int packetLength, final int bufferPackets, final ParseSettings parseSettings) {
+		this.file = new File(source);
+		liveSourceName = source;
+		len = 0;
+		this.packetLength = packetLength;
+		liveBuffer = new LivePacketBuffer(bufferPackets, packetLength);
+		this.parseSettings = parseSettings;
+		psi = new PSI(parseSettings);
+	}
 	
 	private static int determinePacketLengthToUse(final File file) throws NotAnMPEGFileException, IOException {
 		int packetLengthModus = PreferencesManager.getPacketLengthModus();
@@ -266,19 +318,330 @@ public class TransportStream implements TreeNode{
 
 	/**
 	 * read the file, and parse it. Packets are counted, bitrate calculated, etc. Used for initial construction. PES data is not analyzed.
+	 * Reader, number of threads and {@link ParseSettings} are taken from the current preferences.
 	 * @throws IOException
 	 */
 	public void parsePSITables(final java.awt.Component component) throws IOException {
+		parseSettings = ParseSettings.fromPreferences();
+		parsePSITables(component, PreferencesManager.isEnableMappedParsing(), PreferencesManager.getParseThreads());
+	}
+
+	/**
+	 * read the file, and parse it. Packets are counted, bitrate calculated, etc. Used for initial construction. PES data is not analyzed.
+	 * @param component parent for progress monitor, null if no progress should be shown
+	 * @param mapped true to read the file using memory mapped windows, false to use the (slower) stream based reader.
+	 * When mapping fails the stream based reader is used.
+	 * @throws IOException
+	 */
+	public void parsePSITables(final java.awt.Component component, final boolean mapped) throws IOException {
+		parsePSITables(component, mapped, 1);
+	}
+
+	/**
+	 * read the file, and parse it. Packets are counted, bitrate calculated, etc. Used for initial construction. PES data is not analyzed.
+	 * @param component parent for progress monitor, null if no progress should be shown
+	 * @param mapped true to read the file using memory mapped windows, false to use the (slower) stream based reader.
+	 * When mapping fails the stream based reader is used.
+	 * @param threads number of threads to use, only used for memory mapped reading of files that are large enough to be split. Result is the same as for a single thread.
+	 * @throws IOException
+	 */
+	public void parsePSITables(final java.awt.Component component, final boolean mapped, final int threads) throws IOException {
+		parsePSITables(component, mapped, threads, ParallelPacketScanner.isWorthwhile(len, threads) ? ParallelPacketScanner.getChunkSize(len, threads) : 0);
+	}
+
+	/**
+	 * Same as {@link #parsePSITables(java.awt.Component, boolean, int)}, with the size of the parts the file is split in for multiple threads.
+	 * @param chunkSize size of the parts, 0 to read with a single thread
+	 * @throws IOException
+	 */
+	void parsePSITables(final java.awt.Component component, final boolean mapped, final int threads, final long chunkSize) throws IOException {
+		resetParseState();
+
+		boolean parsed = false;
+		if (mapped && (threads > 1) && (chunkSize > 0)) {
+			try {
+				new ParallelPacketScanner(this, threads, chunkSize).scan(component);
+				parsed = true;
+			} catch (final InterruptedIOException e) {
+				throw e;
+			} catch (final IOException | UnsupportedOperationException e) {
+				logger.log(Level.WARNING, "Parallel reading failed, falling back to single thread", e);
+				resetParseState();
+			}
+		}
+		if (mapped && !parsed) {
+			try {
+				parseMapped(component);
+				parsed = true;
+			} catch (final InterruptedIOException e) {
+				throw e;
+			} catch (final IOException | UnsupportedOperationException e) {
+				logger.log(Level.WARNING, "Memory mapped reading failed, falling back to stream", e);
+				resetParseState();
+			}
+		}
+		if (!parsed) {
+			parseStreamed(component);
+		}
+		buildPacketIndex();
+		namePIDs();
+		calculateBitRate();
+	}
+
+	private void resetParseState() throws IOException {
+		no_packets = 0;
+		sync_errors = 0;
+		pids = new PID[8192];
+		psi = new PSI(parseSettings);
+		error_packets = 0;
+		bitRate = -1;
+		bitRateTDT = -1;
+		offsetHelper = new OffsetHelper(getMaxPackets(), packetLength);
+		packetIndex = null;
+		packetIndexBuilders = new PacketIndex.Builder[8192];
+		packet_pid.close();
+		packet_pid = createPacketPidMap();
+	}
+
+	/**
+	 * When a short per packet would take a large part of the heap, keep the PIDs in a memory mapped file.
+	 */
+	private PacketPidMap createPacketPidMap() {
+		if (((len / packetLength) * 2) > (Runtime.getRuntime().maxMemory() / 4)) {
+			try {
+				return PacketPidMap.createMapped();
+			} catch (final IOException e) {
+				logger.log(Level.WARNING, "could not create memory mapped PID map, using heap", e);
+			}
+		}
+		return new PacketPidMap();
+	}
+
+	/**
+	 * The offsets ({@link OffsetHelper}) and PIDs ({@link PacketPidMap}) of packets use long packet numbers, but {@link TSPacket}, {@link PID}
+	 * and {@link PacketIndex} still number packets with an int, so a file can have at most Integer.MAX_VALUE packets
+	 * @return number of complete packets in the file
+	 * @throws IOException when the file has more packets
+	 */
+	private long getMaxPackets() throws IOException {
+		final long maxPackets = len / packetLength;
+		if (maxPackets > Integer.MAX_VALUE) {
+			throw new IOException("File " + file.getPath() + " has " + maxPackets + " packets, at most " + Integer.MAX_VALUE + " packets are supported");
+		}
+		return maxPackets;
+	}
+
+	/**
+	 * Add the next packet to packet_pid and to the packet index of its PID, during the first pass
+	 */
+	private void addPacketPid(final short pidFlags) {
+		packet_pid.add(pidFlags);
+		final int pid = pidFlags & 0x1fff;
+		if (packetIndexBuilders[pid] == null) {
+			packetIndexBuilders[pid] = new PacketIndex.Builder();
+		}
+		packetIndexBuilders[pid].add(no_packets);
+	}
+
+	/**
+	 * At the end of the first pass, turn the packet numbers collected for each PID into its packet index
+	 */
+	private void buildPacketIndex() {
+		final PacketIndex[] result = new PacketIndex[8192];
+		for (int pid = 0; pid < result.length; pid++) {
+			result[pid] = (packetIndexBuilders[pid] == null) ? PacketIndex.empty() : packetIndexBuilders[pid].build();
+		}
+		packetIndexBuilders = null;
+		synchronized (this) {
+			packetIndex = result;
+		}
+	}
+
+	/**
+	 * For a live stream, build the missing packet indexes of pids in a single pass over the packets in the buffer
+	 */
+	private void buildPacketIndexes(final int[] pids) {
+		if (packetIndex == null) {
+			packetIndex = new PacketIndex[8192];
+		}
+		if (liveBuffer == null) { // not parsed (completely), no packet indexes
+			for (final int pid : pids) {
+				if (packetIndex[pid] == null) {
+					packetIndex[pid] = PacketIndex.empty();
+				}
+			}
+			return;
+		}
+		final PacketIndex.Builder[] builders = new PacketIndex.Builder[8192];
+		boolean missing = false;
+		for (final int pid : pids) {
+			if (packetIndex[pid] == null) {
+				builders[pid] = new PacketIndex.Builder();
+				missing = true;
+			}
+		}
+		if (!missing) {
+			return;
+		}
+		for (int t = getFirstPacketNo(); t < no_packets; t++) {
+			final PacketIndex.Builder builder = builders[getPacketPidFlags(t) & 0x1fff];
+			if (builder != null) {
+				builder.add(t);
+			}
+		}
+		for (int pid = 0; pid < builders.length; pid++) {
+			if (builders[pid] != null) {
+				packetIndex[pid] = (builders[pid].size() == 0) ? PacketIndex.empty() : builders[pid].build();
+			}
+		}
+	}
+
+	/**
+	 * @param pid
+	 * @return packet numbers of all packets with this PID
+	 */
+	public synchronized PacketIndex getPacketIndex(final int pid) {
+		buildPacketIndexes(new int[] {pid});
+		return packetIndex[pid];
+	}
+
+	/**
+	 * Same as {@link #getPacketIndex(int)} for several PIDs, needs only one pass over all packets
+	 * @param pids
+	 * @return for each PID in pids the packet numbers of its packets
+	 */
+	public synchronized PacketIndex[] getPacketIndexes(final short[] pids) {
+		final int[] p = new int[pids.length];
+		for (int i = 0; i < pids.length; i++) {
+			p[i] = pids[i];
+		}
+		buildPacketIndexes(p);
+		final PacketIndex[] result = new PacketIndex[pids.length];
+		for (int i = 0; i < pids.length; i++) {
+			result[i] = packetIndex[pids[i]];
+		}
+		return result;
+	}
+
+	private void parseMapped(final java.awt.Component component) throws IOException {
+		try (MappedPacketSource source = new MappedPacketSource(file, packetLength)) {
+			if (component != null) {
+				source.setProgressMonitor(component, "Reading file \"" + file.getPath() + "\"");
+			}
+			try {
+				while (source.next()) {
+					offsetHelper.addPacket(no_packets, source.getPacketOffset());
+					processMappedPacket(source);
+				}
+			} finally {
+				sync_errors += source.getSyncErrors();
+			}
+		}
+	}
+
+	/**
+	 * Inspect header of packet in place, and only create a TSPacket when its PID will actually use it.
+	 */
+	private void processMappedPacket(final MappedPacketSource source) {
+		final int headerByte1 = source.getHeaderByte1();
+		final int headerByte3 = source.getHeaderByte3();
+		final boolean hasAdaptationField = (headerByte3 & 0x20) != 0;
+		final boolean payloadUnitStart = (headerByte1 & 0x40) != 0;
+		final boolean transportError = (headerByte1 & 0x80) != 0;
+		if (!hasAdaptationField && !payloadUnitStart && !transportError) {
+			final short pid = (short) source.getPid();
+			final PID p = getOrCreatePID(pid);
+			if (p.acceptsHeaderOnlyPacket()) {
+				addPacketPid(pid);
+				p.updateHeaderOnlyPacket(no_packets, headerByte3 & 0x0F, (headerByte3 & 0xC0) >> 6, (headerByte3 & 0x10) != 0);
+				no_packets++;
+				return;
+			}
+		}
+		processPacket(new TSPacket(source.getBuffer(), source.getPacketStart(), packetLength, no_packets, this));
+	}
+
+	/**
+	 * Same as {@link #processMappedPacket(MappedPacketSource)}, for a packet that has already been counted by {@link #addScannedPackets(short[], int, int[], long[], int, int)}.
+	 * Only touches the PID itself, so can be called from multiple threads, as long as each PID is handled by a single thread, and PSI updates are deferred.
+	 */
+	void updatePID(final PID p, final java.nio.ByteBuffer buffer, final int packetStart, final int packetNo) {
+		final int headerByte1 = buffer.get(packetStart + 1) & 0xFF;
+		final int headerByte3 = buffer.get(packetStart + 3) & 0xFF;
+		if (((headerByte1 & 0xC0) == 0) && ((headerByte3 & 0x20) == 0) && p.acceptsHeaderOnlyPacket()) {
+			p.updateHeaderOnlyPacket(packetNo, headerByte3 & 0x0F, (headerByte3 & 0xC0) >> 6, (headerByte3 & 0x10) != 0);
+			return;
+		}
+		final TSPacket packet = new TSPacket(buffer, packetStart, packetLength, packetNo, this);
+		p.updatePacket(packet);
+		if(packet.isTransportErrorIndicator()){
+			logger.warning("TransportErrorIndicator set for packet "+ packet);
+		}
+	}
+
+	/**
+	 * Append the result of scanning a part of the file, only packet_pid (including flags) and offset administration is updated, PIDs are not touched.
+	 * @param pidFlags packet_pid entries for the new packets
+	 * @param count number of packets in pidFlags
+	 * @param runStarts start of each run of consecutive packets, relative to first new packet
+	 * @param runOffsets file offset of each run
+	 * @param runCount number of runs
+	 * @param syncErrors sync errors found in this part
+	 */
+	void addScannedPackets(final short[] pidFlags, final int count, final int[] runStarts, final long[] runOffsets, final int runCount, final int syncErrors) {
+		for (int i = 0; i < runCount; i++) {
+			offsetHelper.addPacket(no_packets + runStarts[i], runOffsets[i]);
+		}
+		for (int i = 0; i < count; i++) {
+			addPacketPid(pidFlags[i]);
+			if ((pidFlags[i] & TRANSPORT_ERROR_FLAG) != 0) {
+				error_packets++;
+			}
+			no_packets++;
+		}
+		sync_errors += syncErrors;
+	}
+
+	boolean isDeferPsiUpdates() {
+		return deferPsiUpdates;
+	}
+
+	void setDeferPsiUpdates(final boolean deferPsiUpdates) {
+		this.deferPsiUpdates = deferPsiUpdates;
+	}
+
+	/**
+	 * Execute updates collected by all PIDs while {@link #isDeferPsiUpdates()} was true, in the order of the packets that triggered them.
+	 * So the PSI ends up the same as when the packets had been processed sequentially.
+	 */
+	void runDeferredPsiUpdates() {
+		record Cursor(List<PID.DeferredPsiUpdate> updates, int index) {
+			PID.DeferredPsiUpdate current() {
+				return updates.get(index);
+			}
+		}
+		final PriorityQueue<Cursor> queue = new PriorityQueue<>(Comparator.comparingInt((Cursor c) -> c.current().packetNo()));
+		for (final PID pid : pids) {
+			if (pid != null) {
+				final List<PID.DeferredPsiUpdate> updates = pid.takeDeferredPsiUpdates();
+				if (!updates.isEmpty()) {
+					queue.add(new Cursor(updates, 0));
+				}
+			}
+		}
+		while (!queue.isEmpty()) {
+			final Cursor cursor = queue.poll();
+			cursor.current().update().run();
+			if ((cursor.index() + 1) < cursor.updates().size()) {
+				queue.add(new Cursor(cursor.updates(), cursor.index() + 1));
+			}
+		}
+	}
+
+	private void parseStreamed(final java.awt.Component component) throws IOException {
 		try (PositionPushbackInputStream fileStream = getInputStream(component)) {
 			final byte[] buf = new byte[packetLength];
 			int count = 0;
-			no_packets = 0;
-
-			pids = new PID[8192];
-			psi = new PSI();
-			error_packets = 0;
-			bitRate = -1;
-			bitRateTDT = -1;
 
 			int bytes_read = 0;
 			int lastHandledSyncErrorPacket = -1;
@@ -311,18 +674,38 @@ public class TransportStream implements TreeNode{
 				}
 			} while (bytes_read == packetLength);
 		}
-		namePIDs();
-		calculateBitRate();
+	}
+
+	PID getOrCreatePID(final short pid) {
+		if(pids[pid]==null) {
+			pids[pid] = new PID(pid,this);
+		}
+		return pids[pid];
 	}
 
 	private void processPacket(TSPacket packet) {
 		final short pid = packet.getPID();
-		packet_pid[no_packets]=addPIDFlags(packet, pid);
+		addPacketPid(addPIDFlags(packet, pid));
 		no_packets++;
-		if(pids[pid]==null) {
-			pids[pid] = new PID(pid,this);
+		getOrCreatePID(pid).updatePacket(packet);
+		if(packet.isTransportErrorIndicator()){
+			error_packets++;
+			logger.warning("TransportErrorIndicator set for packet "+ packet);
 		}
-		pids[pid].updatePacket(packet);
+	}
+
+	/**
+	 * Process the next packet of a live stream. Called by {@link LiveStreamReader}, while holding the lock on this TransportStream.
+	 * @param buf data of packet, exactly packetLength long
+	 * @param nanos arrival time of packet, as {@link System#nanoTime()}
+	 */
+	void processLivePacket(final byte[] buf, final long nanos) {
+		final TSPacket packet = new TSPacket(buf, no_packets, this);
+		final short pid = packet.getPID();
+		liveBuffer.add(buf, 0, addPIDFlags(packet, pid), nanos);
+		no_packets++;
+		packetIndex = null;
+		getOrCreatePID(pid).updatePacket(packet);
 		if(packet.isTransportErrorIndicator()){
 			error_packets++;
 			logger.warning("TransportErrorIndicator set for packet "+ packet);
@@ -345,7 +728,8 @@ public class TransportStream implements TreeNode{
 
 	/**
 	 *
-	 * Read the file, and parse only the packets for which a GeneralPesHandler is present in toParsePids. Used for analyzing PESdata, like a video, teletext or subtitle stream
+	 * Read the file, and parse only the packets for which a GeneralPesHandler is present in toParsePids. Used for analyzing PESdata, like a video, teletext or subtitle stream.
+	 * All PIDs in toParsePids are handled in a single pass over the file.
 	 * @param toParsePids Map with an entry for each PID that should be parsed, and a handler that knows how to interpret the data
 	 * @throws IOException
 	 */
@@ -353,18 +737,88 @@ public class TransportStream implements TreeNode{
 		if((toParsePids==null)||(toParsePids.isEmpty())){
 			return;
 		}
-		
-		try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")){
-			for(int t=0; t<no_packets;t++){
-				int pid = getPacket_pid(t);
-				final GeneralPidHandler handler = toParsePids.get(pid);
-				if(handler!=null){
-					TSPacket packet = readPacket(t, randomAccessFile);
-					handler.processTSPacket(packet);
+		final GeneralPidHandler[] handlers = new GeneralPidHandler[8192];
+		for(final Map.Entry<Integer, GeneralPidHandler> entry: toParsePids.entrySet()) {
+			handlers[entry.getKey()] = entry.getValue();
+		}
+		demuxPidStreams(handlers);
+		for(GeneralPidHandler pidHandler: toParsePids.values()) {
+			pidHandler.postProcess();
+		}
+	}
+
+	/**
+	 * Walk once through the file, in large memory mapped blocks, and feed each packet to the handler for its PID.
+	 * Falls back to reading single packets when the file can not be mapped.
+	 * @param handlers array of 8192 handlers, null for PIDs that should not be parsed
+	 * @throws IOException
+	 */
+	private void demuxPidStreams(final GeneralPidHandler[] handlers) throws IOException {
+		if(liveBuffer!=null) {
+			demuxLivePackets(handlers);
+			return;
+		}
+		final long start = System.nanoTime();
+		MappedPacketSource source = null;
+		try {
+			source = new MappedPacketSource(file, packetLength);
+		} catch (final IOException | UnsupportedOperationException e) {
+			logger.log(Level.WARNING, "Memory mapped reading failed, reading packets one by one", e);
+		}
+		int handled = 0;
+		final short[] blockPids = new short[PacketPidMap.BLOCK_SIZE];
+		if(source!=null) {
+			try {
+				for(int blockStart=0; blockStart<no_packets;blockStart+=blockPids.length){
+					final int n = Math.min(blockPids.length, no_packets - blockStart);
+					getPacketPidFlags(blockStart, blockPids, n);
+					for(int i=0; i<n;i++){
+						final GeneralPidHandler handler = handlers[blockPids[i] & 0x1fff];
+						if(handler!=null){
+							final int t = blockStart + i;
+							final long offset = offsetHelper.getOffset(t);
+							source.moveTo(offset);
+							final TSPacket packet = new TSPacket(source.getBuffer(), source.getPacketStart(), packetLength, t, this);
+							packet.setPacketOffset(offset);
+							handler.processTSPacket(packet);
+							handled++;
+						}
+					}
+				}
+			} finally {
+				source.close();
+			}
+		}else {
+			try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")){
+				for(int blockStart=0; blockStart<no_packets;blockStart+=blockPids.length){
+					final int n = Math.min(blockPids.length, no_packets - blockStart);
+					getPacketPidFlags(blockStart, blockPids, n);
+					for(int i=0; i<n;i++){
+						final GeneralPidHandler handler = handlers[blockPids[i] & 0x1fff];
+						if(handler!=null){
+							handler.processTSPacket(readPacket(blockStart + i, randomAccessFile));
+							handled++;
+						}
+					}
 				}
 			}
-			for(GeneralPidHandler pidHandler: toParsePids.values()) {
-				pidHandler.postProcess();
+		}
+		final long nanos = Math.max(1, System.nanoTime() - start);
+		if(logger.isLoggable(Level.INFO)) {
+			logger.info(String.format("parsePidStreams: %d packets handled, %d MB in %d ms, %.1f MB/s", handled, len / (1024 * 1024), nanos / 1_000_000,
+					(len / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0)));
+		}
+	}
+
+	/**
+	 * Same as {@link #demuxPidStreams(GeneralPidHandler[])} for a live stream, only the packets still in the buffer are used.
+	 * Holds the lock on this TransportStream, so the {@link LiveStreamReader} waits until all packets are handled.
+	 */
+	private synchronized void demuxLivePackets(final GeneralPidHandler[] handlers) {
+		for(int t=liveBuffer.getFirstPacketNo(); t<no_packets;t++){
+			final GeneralPidHandler handler = handlers[liveBuffer.getPidFlags(t) & 0x1fff];
+			if(handler!=null){
+				handler.processTSPacket(new TSPacket(liveBuffer.getPacket(t), t, this));
 			}
 		}
 	}
@@ -421,26 +875,53 @@ public class TransportStream implements TreeNode{
 		return psi;
 	}
 
+	/**
+	 * @return the settings used for the (last) parse of this stream
+	 */
+	public ParseSettings getParseSettings() {
+		return parseSettings;
+	}
+
+	/**
+	 * Set the settings to be used by the next parse. Ignored by {@link #parsePSITables(java.awt.Component)}, which always uses the current preferences.
+	 * Should not be called while this stream is being parsed.
+	 * @param parseSettings
+	 */
+	public void setParseSettings(final ParseSettings parseSettings) {
+		this.parseSettings = parseSettings;
+	}
+
 	public DefaultMutableTreeNode getJTreeNode(final int modus){
 
 		final KVP tsKvp = new KVP("Transport Stream "+psi.getPat().getTransportStreamId());
 		tsKvp.setCrumb("root");
 		final DefaultMutableTreeNode t = new DefaultMutableTreeNode(tsKvp);
 
-		t.add(new DefaultMutableTreeNode(new KVP("file",file.getPath(),null)));
-		t.add(new DefaultMutableTreeNode(new KVP("size",file.length(),null)));
-		t.add(new DefaultMutableTreeNode(new KVP("modified",new Date(file.lastModified()).toString(),null)));
+		if(liveBuffer!=null){
+			t.add(new DefaultMutableTreeNode(new KVP("live source",liveSourceName,null)));
+			t.add(new DefaultMutableTreeNode(new KVP("size",getLen(),null)));
+		}else{
+			t.add(new DefaultMutableTreeNode(new KVP("file",file.getPath(),null)));
+			t.add(new DefaultMutableTreeNode(new KVP("size",file.length(),null)));
+			t.add(new DefaultMutableTreeNode(new KVP("modified",new Date(file.lastModified()).toString(),null)));
+		}
 		t.add(new DefaultMutableTreeNode(new KVP("TS packets",no_packets,null)));
+		if(liveBuffer!=null){
+			t.add(new DefaultMutableTreeNode(new KVP("packets in live buffer",liveBuffer.size(),"first packet: "+getFirstPacketNo())));
+			if(getLiveBitRate()!=-1){
+				t.add(new DefaultMutableTreeNode(new KVP("bitrate of live buffer",getLiveBitRate(),"based on arrival time")));
+			}
+		}
 		t.add(new DefaultMutableTreeNode(new KVP("packet size",packetLength,PreferencesManager.getPacketLengthModus()==0?"(detected)":"(forced)")));
 		t.add(new DefaultMutableTreeNode(new KVP("Error packets",error_packets,null)));
 		t.add(new DefaultMutableTreeNode(new KVP("Sync Errors",sync_errors,null)));
 		if(bitRate!=-1){
 			t.add(new DefaultMutableTreeNode(new KVP("bitrate",bitRate,null)));
-			t.add(new DefaultMutableTreeNode(new KVP("length (secs)",(file.length()*8)/bitRate,null)));
+			t.add(new DefaultMutableTreeNode(new KVP("length (secs)",(getLen()*8)/bitRate,null)));
 		}
 		if(bitRateTDT!=-1){
 			t.add(new DefaultMutableTreeNode(new KVP("bitrate based on TDT",bitRateTDT,null)));
-			t.add(new DefaultMutableTreeNode(new KVP("length (secs)",(file.length()*8)/bitRateTDT,null)));
+			t.add(new DefaultMutableTreeNode(new KVP("length (secs)",(getLen()*8)/bitRateTDT,null)));
 		}
 
 		t.add(psi.getJTreeNode(modus));
@@ -594,11 +1075,11 @@ public class TransportStream implements TreeNode{
 		
 		// Tables like AIT, DSM-CC, UNT, INT< etc, are all referenced from at least one PMT, so have been given a label
 		// ALL??  no, there is an exception;
-		if(PreferencesManager.isEnableM7Fastscan()) {
+		if(parseSettings.enableM7Fastscan()) {
 			labelM7FastscanTables();
 		}
 		
-		if(PreferencesManager.isEnableGenericPSI()) {
+		if(parseSettings.enableGenericPSI()) {
 			for (final PID pid : pids) {
 				if((pid!=null)&&(pid.getType()==PID.PSI)) {
 						final GeneralPSITable psiData = pid.getPsi();
@@ -870,7 +1351,7 @@ public class TransportStream implements TreeNode{
 		}
 		// calculate zeroTime
 
-		if((getPsi().getTdt()!=null)&&(getBitRate()!=-1)){
+		if((getPsi().getTdt()!=null)&&(getBitRate()>0)){
 			final List<TDTsection> tdtSectionList  = getPsi().getTdt().getTdtSectionList();
 			if(tdtSectionList.size()>=1){
 				final TDTsection first = tdtSectionList.get(0);
@@ -915,12 +1396,29 @@ public class TransportStream implements TreeNode{
 		return r;
 	}
 
-	public short getPacket_pid(final int t) {
-		return (short) (0x1fff & packet_pid[t]);
+	public short getPacket_pid(final long t) {
+		return (short) (0x1fff & getPacketPidFlags(t));
 	}
 
-	public short getPacketPidFlags(final int t) {
-		return  packet_pid[t];
+	/**
+	 * @param t packet number
+	 * @return PID of packet, with flags. For a live stream the null PID without flags when the packet is no longer in the buffer
+	 */
+	public short getPacketPidFlags(final long t) {
+		if(liveBuffer!=null){
+			return (t < no_packets) ? liveBuffer.getPidFlags((int) t) : 0x1fff;
+		}
+		return packet_pid.get(t);
+	}
+
+	/**
+	 * Copy the PIDs with flags of count packets, for scans over many packets. Not for a live stream.
+	 * @param from first packet
+	 * @param dest
+	 * @param count number of packets
+	 */
+	void getPacketPidFlags(final int from, final short[] dest, final int count) {
+		packet_pid.get(from, dest, 0, count);
 	}
 
 	
@@ -948,9 +1446,9 @@ public class TransportStream implements TreeNode{
 	 */
 	public double getLength(){
 		if(bitRate!=-1){
-			return ((double)file.length()*8)/bitRate;
+			return ((double)getLen()*8)/bitRate;
 		}else if(bitRateTDT!=-1){
-			return ((double)file.length()*8)/bitRateTDT;
+			return ((double)getLen()*8)/bitRateTDT;
 		}else{
 			return -1;
 		}
@@ -1035,11 +1533,33 @@ public class TransportStream implements TreeNode{
 		return null;
 	}
 
+	/**
+	 * @param packetNo
+	 * @return the packet, read from file through a cache of recently used blocks. null if it can not be read
+	 */
 	public TSPacket getTSPacket(final int packetNo){
 		TSPacket packet = null;
-		if(offsetHelper.getMaxPacket()>packetNo){
-			try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")){
-				packet = readPacket(packetNo,randomAccessFile);
+		if(liveBuffer!=null){
+			final byte[] buf;
+			synchronized (this) {
+				buf = liveBuffer.getPacket(packetNo);
+			}
+			if(buf!=null){
+				packet = new TSPacket(buf, packetNo,this);
+			}else{
+				logger.warning("packetNo ("+packetNo+") no longer in live buffer");
+			}
+		}else if(offsetHelper.getMaxPacket()>packetNo){
+			try {
+				final long offset = offsetHelper.getOffset(packetNo);
+				final byte [] buf = new byte[packetLength];
+				final int bytesRead = getFileReader().read(offset, buf, 0, packetLength);
+				if(bytesRead==packetLength){
+					packet = new TSPacket(buf, packetNo,this);
+					packet.setPacketOffset(offset);
+				}else{
+					logger.warning("read less then packetLenghth ("+packetLength+") bytes, actual read: "+bytesRead);
+				}
 			} catch (final IOException e) {
 				logger.warning("IOException:"+e);
 			}
@@ -1049,6 +1569,36 @@ public class TransportStream implements TreeNode{
 		return packet;
 	}
 
+	private synchronized CachedFileReader getFileReader() {
+		if(fileReader==null) {
+			fileReader = new CachedFileReader(file);
+		}
+		return fileReader;
+	}
+
+	/**
+	 * Release the file handle used by {@link #getTSPacket(int)}. The TransportStream can still be used, the file will be opened again when needed.
+	 * For a live stream reading stops, what has been read so far can still be used.
+	 */
+	public synchronized void close() {
+		if(liveSource!=null) {
+			try {
+				liveSource.close();
+			} catch (final IOException e) {
+				logger.log(Level.WARNING, "could not close live source "+file.getName(), e);
+			}
+			liveSource = null;
+		}
+		if(fileReader!=null) {
+			try {
+				fileReader.close();
+			} catch (final IOException e) {
+				logger.log(Level.WARNING, "could not close file "+file.getName(), e);
+			}
+			fileReader = null;
+		}
+	}
+
 	private TSPacket readPacket(final int packetNo, final RandomAccessFile randomAccessFile)
 			throws IOException {
 		TSPacket packet = null;
@@ -1074,10 +1624,70 @@ public class TransportStream implements TreeNode{
 		return packetLength;
 	}
 
+	/**
+	 * @return size of file, for a live stream the number of bytes read so far
+	 */
 	public long getLen() {
+		if(liveBuffer!=null){
+			return (long)no_packets*packetLength;
+		}
 		return len;
 	}
 
+	/**
+	 * @return true when this stream is read from a live source by a {@link LiveStreamReader}. Then only the last packets are kept,
+	 * {@link #getTSPacket(int)} and {@link #getPacketPidFlags(long)} only work for packet numbers from {@link #getFirstPacketNo()}.
+	 * Everything else (PSI, PIDs) is about all packets read so far, except that lists that only grow (continuity errors,
+	 * TDT, TOT, SCTE-35 and other sections, versions of a section) keep only their most recent entries,
+	 * see {@link nl.digitalekabeltelevisie.data.mpeg.psi.AbstractPSITabel#MAX_LIVE_SECTIONS}.
+	 */
+	public boolean isLive() {
+		return liveBuffer!=null;
+	}
+
+	/**
+	 * @return packet number of first packet that is still available, always 0 for a file
+	 */
+	public int getFirstPacketNo() {
+		if(liveBuffer!=null){
+			return liveBuffer.getFirstPacketNo();
+		}
+		return 0;
+	}
+
+	/**
+	 * @return bitrate over the packets in the live buffer, based on their arrival time. -1 when not live, or not enough packets
+	 */
+	public long getLiveBitRate() {
+		return getLiveBitRate(-1);
+	}
+
+	/**
+	 * @param pid PID, or -1 for all packets
+	 * @return bitrate of pid over the packets in the live buffer, based on their arrival time. -1 when not live, or not enough packets
+	 */
+	public long getLiveBitRate(final int pid) {
+		if(liveBuffer==null){
+			return -1;
+		}
+		return liveBuffer.getWindowBitRate(pid);
+	}
+
+	/**
+	 * @param pid
+	 * @return number of packets of pid in the live buffer, 0 when not live
+	 */
+	public int getLivePackets(final int pid) {
+		if(liveBuffer==null){
+			return 0;
+		}
+		return liveBuffer.getWindowPackets(pid);
+	}
+
+	void setLiveSource(final Closeable liveSource) {
+		this.liveSource = liveSource;
+	}
+
 	public int getSync_errors() {
 		return sync_errors;
 	}
@@ -1095,34 +1705,11 @@ public class TransportStream implements TreeNode{
 	}
 
 	/**
-	 * @return
+	 * @param pid
+	 * @return true if pid is referenced by a M7 Fastscan linkage descriptor (0x8D) in the NIT network loop for this stream
 	 */
-	List<LinkageDescriptor> getLinkageDescriptorsFromNitNetworkLoop() {
-		final NIT nit = getPsi().getNit();
-		final int actualNetworkID = nit.getActualNetworkID();
-		final List<Descriptor> descriptors = nit.getNetworkDescriptors(actualNetworkID);
-		return Descriptor.findGenericDescriptorsInList(descriptors, LinkageDescriptor.class);
-	}
-
 	public boolean isONTSection(int pid) {
-		final NIT nit = getPsi().getNit();
-		final int actualNetworkID = nit.getActualNetworkID();
-		final List<LinkageDescriptor> linkageDescriptors = getLinkageDescriptorsFromNitNetworkLoop();
-	
-		int streamID = getStreamID();
-	
-		final int originalNetworkID = nit.getOriginalNetworkID(actualNetworkID, streamID);
-	
-		for (final LinkageDescriptor ld : linkageDescriptors) {
-			if (ld.getLinkageType() == 0x8D 
-					&& ld.getTransportStreamId() == streamID
-					&& ld.getOriginalNetworkId() == originalNetworkID 
-					&& ld.getServiceId() == pid
-					&& M7Fastscan.isValidM7Code(ld.getM7_code())) {
-				return true;
-			}
-		}
-		return false;
+		return psi.getPidRoleIndex().hasRole(pid, PidRoleIndex.ONT);
 	}
 	
 }
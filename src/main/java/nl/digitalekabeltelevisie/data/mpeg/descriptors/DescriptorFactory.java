@@ -52,7 +52,6 @@ import nl.digitalekabeltelevisie.data.mpeg.descriptors.scte35.*;
 import nl.digitalekabeltelevisie.data.mpeg.descriptors.untable.*;
 import nl.digitalekabeltelevisie.data.mpeg.descriptors.untable.MessageDescriptor;
 import nl.digitalekabeltelevisie.data.mpeg.psi.TableSection;
-import nl.digitalekabeltelevisie.util.PreferencesManager;
 
 public final class DescriptorFactory {
 
@@ -76,7 +75,7 @@ public final class DescriptorFactory {
 	 */
 	public static List<Descriptor> buildDescriptorList(final byte[] data, final int offset, final int len,
 			final TableSection tableSection) {
-		long private_data_specifier = PreferencesManager.getDefaultPrivateDataSpecifier();
+		long private_data_specifier = tableSection.getParseSettings().defaultPrivateDataSpecifier();
 		final List<Descriptor> r = new ArrayList<>();
 		int t = 0;
 
@@ -145,7 +144,7 @@ public final class DescriptorFactory {
 				return new SCTEAdaptationFieldDataDescriptor(data, 0, tableSection);
 			}
 			if (descriptorTag >= 0x80 && tableSection.getTableId() >= 0xBC && tableSection.getTableId() <= 0xBE
-					&& PreferencesManager.isEnableM7Fastscan()) {
+					&& tableSection.getParseSettings().enableM7Fastscan()) {
 				return getM7Descriptor(data, tableSection);
 			}
 			if (descriptorTag <= 0x3f) {
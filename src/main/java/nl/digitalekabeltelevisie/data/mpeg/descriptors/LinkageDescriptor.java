@@ -407,7 +407,7 @@ public class LinkageDescriptor extends Descriptor {
 			
 			// M7 FASTSCAN HOME TP LOCATION DESCRIPTOR
 		} else if (((linkageType == 0x88) || (linkageType == 0x89) || (linkageType == 0x8A))
-				&& PreferencesManager.isEnableM7Fastscan()) {
+				&& parentTableSection.getParseSettings().enableM7Fastscan()) {
 			m7_code = getInt(b,offset+9,2,MASK_16BITS);
 			int s = 11;
 			while((s+9) <= descriptorLength){
@@ -432,7 +432,7 @@ public class LinkageDescriptor extends Descriptor {
 			
 			// M7 FASTSCAN ONT LOCATION DESCRIPTOR
 			
-		} else if ((linkageType == 0x8D)&& PreferencesManager.isEnableM7Fastscan()){ 
+		} else if ((linkageType == 0x8D)&& parentTableSection.getParseSettings().enableM7Fastscan()){ 
 			m7_code = getInt(b,offset+9,2,MASK_16BITS);
 			reserved = getInt(b,offset+11,1,MASK_8BITS);
 			privateDataByte = copyOfRange(b, offset+12, offset+descriptorLength+2);
@@ -497,12 +497,12 @@ public class LinkageDescriptor extends Descriptor {
 			addListJTree(t,bootLoaderList,modus,"Nordig BootLoader");
 
 		} else if (((linkageType == 0x88) || (linkageType == 0x89) || (linkageType == 0x90))
-				&& PreferencesManager.isEnableM7Fastscan()) {
+				&& parentTableSection.getParseSettings().enableM7Fastscan()) {
 			t.add(new DefaultMutableTreeNode(new KVP("m7_code",m7_code ,"should contain values from 0x7701 to 0x77FF")));
 			addListJTree(t,m7BrandHomeTransponderList,modus,"M7 Brand-HomeTransponderList");
 
 
-		} else if ((linkageType == 0x8D)&& PreferencesManager.isEnableM7Fastscan()){ // ONT LOCATION DESCRIPTOR
+		} else if ((linkageType == 0x8D)&& parentTableSection.getParseSettings().enableM7Fastscan()){ // ONT LOCATION DESCRIPTOR
 			t.add(new DefaultMutableTreeNode(new KVP("m7_code",m7_code ,"should contain values from 0x7701 to 0x77FF (service_id == ONT_PID)")));
 			t.add(new DefaultMutableTreeNode(new KVP("reserved",reserved ,null)));
 		}else {
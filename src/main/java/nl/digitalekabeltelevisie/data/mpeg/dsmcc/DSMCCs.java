@@ -46,7 +46,6 @@ import nl.digitalekabeltelevisie.data.mpeg.psi.PMTs;
 import nl.digitalekabeltelevisie.data.mpeg.psi.PMTsection;
 import nl.digitalekabeltelevisie.data.mpeg.psi.PMTsection.Component;
 import nl.digitalekabeltelevisie.data.mpeg.psi.TableSectionExtendedSyntax;
-import nl.digitalekabeltelevisie.util.PreferencesManager;
 
 public class DSMCCs extends AbstractPSITabel{
 
@@ -190,7 +189,7 @@ public class DSMCCs extends AbstractPSITabel{
 	public DefaultMutableTreeNode getJTreeNode(final int modus) {
 
 		
-		if(!PreferencesManager.isEnableDSMCC()) {
+		if(!parentPSI.getParseSettings().enableDSMCC()) {
 			return new DefaultMutableTreeNode(new KVP("DSM-CCs (not enabled, select 'Settings -> Enable DSM-CC' to enable )"));
 		}
 		
@@ -28,7 +28,7 @@
 package nl.digitalekabeltelevisie.data.mpeg.pes;
 
 import static nl.digitalekabeltelevisie.util.Utils.MASK_8BITS;
-import static nl.digitalekabeltelevisie.util.Utils.addListJTree;
+import static nl.digitalekabeltelevisie.util.Utils.addLazyListJTree;
 import static nl.digitalekabeltelevisie.util.Utils.getInt;
 
 import java.awt.image.BufferedImage;
@@ -45,6 +45,7 @@ import nl.digitalekabeltelevisie.data.mpeg.TSPacket;
 import nl.digitalekabeltelevisie.data.mpeg.pes.dvbsubtitling.DVBSubtitlingPESDataField;
 import nl.digitalekabeltelevisie.data.mpeg.pes.video.Video138182Handler;
 import nl.digitalekabeltelevisie.data.mpeg.psi.PMTsection;
+import nl.digitalekabeltelevisie.util.ChunkedByteStore;
 import nl.digitalekabeltelevisie.util.Utils;
 
 /**
@@ -59,9 +60,18 @@ public class GeneralPesHandler extends GeneralPidHandler{
 
 	protected final List<PesPacketData>	pesPackets	= new ArrayList<>();
 	protected static final int DEFAULT_BUF_LEN = 10;
+	/**
+	 * Work buffer for elementary stream data that is not aligned with PES packets, see {@link #copyIntoBuf(PesPacketData)}.
+	 * Data before bufStart is consumed, valid data ends at bufEnd. The buffer is reused, so frames found in it should not keep a
+	 * reference to it, but store their data in {@link #esStore}.
+	 */
 	protected byte[] pesDataBuffer = new byte[DEFAULT_BUF_LEN];
 	protected int bufStart = 0;
 	protected int bufEnd = 0;
+	/**
+	 * Data of the frames found in pesDataBuffer
+	 */
+	protected final ChunkedByteStore esStore = new ChunkedByteStore();
 
 
 	/**
@@ -143,7 +153,7 @@ public class GeneralPesHandler extends GeneralPidHandler{
 	@Override
 	public DefaultMutableTreeNode getJTreeNode(final int modus) {
 		final DefaultMutableTreeNode s=new DefaultMutableTreeNode(new KVP("PES Data"));
-		addListJTree(s,pesPackets,modus,"PES Packets");
+		addLazyListJTree(s,pesPackets,modus,"PES Packets");
 
 		return s;
 	}
@@ -192,16 +202,25 @@ public class GeneralPesHandler extends GeneralPidHandler{
 	}
 
 	/**
+	 * Append the data of a PES packet to pesDataBuffer. Used bytes (before bufStart) are removed by moving the remaining data to
+	 * the start of the buffer, a larger buffer is only allocated when the remaining data plus the new data does not fit.
+	 * Bytes after bufEnd are not cleared, so searching should stop at bufEnd.
+	 *
 	 * @param pesDataField
 	 */
 	protected void copyIntoBuf(final PesPacketData pesDataField) {
 		final int len = pesDataField.getPesDataLen();
 		// clean if needed, remove used bytes from start en append new space at end
 		if ((len + bufEnd) > pesDataBuffer.length) {
-			final byte[] newBuf = new byte[Math.max((len + bufEnd) - bufStart,DEFAULT_BUF_LEN)];
-			System.arraycopy(pesDataBuffer, bufStart, newBuf, 0, bufEnd - bufStart);
-			pesDataBuffer = newBuf;
-			bufEnd = bufEnd - bufStart;
+			final int remaining = bufEnd - bufStart;
+			if ((remaining + len) <= pesDataBuffer.length) {
+				System.arraycopy(pesDataBuffer, bufStart, pesDataBuffer, 0, remaining);
+			} else {
+				final byte[] newBuf = new byte[Math.max(Math.max(remaining + len, 2 * pesDataBuffer.length), DEFAULT_BUF_LEN)];
+				System.arraycopy(pesDataBuffer, bufStart, newBuf, 0, remaining);
+				pesDataBuffer = newBuf;
+			}
+			bufEnd = remaining;
 			bufStart = 0;
 		}
 
@@ -29,6 +29,7 @@ package nl.digitalekabeltelevisie.data.mpeg.pes.ac3;
 
 
 
+import static nl.digitalekabeltelevisie.data.mpeg.pes.ac3.AbstractAC3SyncFrame.*;
 import static nl.digitalekabeltelevisie.util.Utils.*;
 
 import java.util.ArrayList;
@@ -44,6 +45,7 @@ import nl.digitalekabeltelevisie.data.mpeg.pes.GeneralPesHandler;
 *
 * TS 101 154 V1.9.1 (2009-09) 6.2.1.3 Byte-alignment The AC-3 and Enhanced AC-3 elementary stream shall be byte-aligned within the MPEG-2 data stream.
 * So AC-3 frame can start anywhere (and span PES packets). So frames are collected on Handler level, and not on PES packet level.
+* The data of the frames is kept in esStore, see {@link GeneralPesHandler#copyIntoBuf(PesPacketData)}.
 * @author Eric
 *
 */
@@ -62,28 +64,41 @@ public class AC3Handler extends GeneralPesHandler{
 
 		copyIntoBuf(ac3PesDataField);
 
+		// frames are located by their frame size, a frame is complete when the next one starts directly after it
 		int i = bufStart;
-		int end = bufStart;
-		while ((i < (pesDataBuffer.length)) && (i >= 0) && (end >= 0)) {
-			i = indexOf(pesDataBuffer, new byte[] { 0x0b, 0x77 }, i);
-			if (i >= 0) { // found start,
-				end = indexOf(pesDataBuffer, new byte[] { 0x0b, 0x77 }, i + 2);
-				if (end > 0) { // also found start of next Frame, so this one is complete
-					final AC3SyncFrame frame = new AC3SyncFrame(pesDataBuffer, i);
-					ac3Frames.add(frame);
-					bufStart = end;
-					i = end;
-
-				}
+		while (true) {
+			final int syncIndex = indexOfSyncWord(pesDataBuffer, i, bufEnd);
+			if (syncIndex < 0) { // keep last byte, could be first half of sync word
+				i = Math.max(i, bufEnd - 1);
+				break;
+			}
+			i = syncIndex;
+			if ((i + 6) > bufEnd) { // header not complete, continue next time
+				break;
+			}
+			final int frameSize = getAC3FrameSize(pesDataBuffer, i);
+			final int next = i + frameSize;
+			if (frameSize <= 0) { // not a valid frame, search again from next pos
+				i++;
+			} else if ((next == bufEnd) || (((next + 2) <= bufEnd) && (indexOfSyncWord(pesDataBuffer, next, next + 2) == next))) {
+				final AC3SyncFrame frame = new AC3SyncFrame(pesDataBuffer, i);
+				frame.setESData(esStore, esStore.append(pesDataBuffer, i, frameSize), frameSize);
+				ac3Frames.add(frame);
+				i = next;
+			} else if ((next + 2) <= bufEnd) { // no sync word after frame, so not valid. search again from next pos
+				i++;
+			} else { // not enough read, continue next time
+				break;
 			}
 		}
+		bufStart = i;
 
 	}
 
 	@Override
 	public DefaultMutableTreeNode getJTreeNode(final int modus) {
 		final DefaultMutableTreeNode s = super.getJTreeNode(modus);
-		addListJTree(s, ac3Frames, modus, "AC3 SyncFrames");
+		addLazyListJTree(s, ac3Frames, modus, "AC3 SyncFrames");
 		return s;
 	}
 
@@ -28,6 +28,7 @@
 package nl.digitalekabeltelevisie.data.mpeg.pes.ac3;
 
 import nl.digitalekabeltelevisie.util.BitSource;
+import nl.digitalekabeltelevisie.util.ChunkedByteStore;
 
 
 public class AbstractAC3SyncFrame {
@@ -95,10 +96,87 @@ public class AbstractAC3SyncFrame {
 	protected int dsurexmod;
 	protected int adconvtyp;
 
+	/**
+	 * where the data of this frame is kept after {@link #setESData(ChunkedByteStore, long, int)}
+	 */
+	private ChunkedByteStore esStore;
+	private long esPosition;
+	private int frameSize;
+	/**
+	 * bits available in bs when it was created, to determine how many were read by the constructor
+	 */
+	private final int startBits;
+	private int bitsRead;
+
 	public AbstractAC3SyncFrame(final byte[] data, final int offset) {
 		super();
 		this.offset = offset;
 		bs = new BitSource(data, offset);
+		startBits = bs.available();
+	}
+
+	/**
+	 * Frame size in bytes, from the first bytes of an AC-3 sync frame.
+	 *
+	 * @param data
+	 * @param offset start of sync frame, at least 5 bytes should be available
+	 * @return size of frame in bytes, or -1 when fscod or frmsizecod is invalid
+	 */
+	public static int getAC3FrameSize(final byte[] data, final int offset) {
+		final int fscod = (data[offset + 4] & 0xC0) >>> 6;
+		final int frmsizecod = data[offset + 4] & 0x3F;
+		if ((fscod == 3) || (frmsizecod > 37)) {
+			return -1;
+		}
+		return 2 * ac3_size_table[fscod][frmsizecod];
+	}
+
+	/**
+	 * Frame size in bytes, from the first bytes of an E-AC-3 sync frame. An E-AC-3 stream can also contain AC-3 frames
+	 * (bsid &lt;= 10), their size is determined by {@link #getAC3FrameSize(byte[], int)}.
+	 *
+	 * @param data
+	 * @param offset start of sync frame, at least 6 bytes should be available
+	 * @return size of frame in bytes, or -1 when invalid
+	 */
+	public static int getEAC3FrameSize(final byte[] data, final int offset) {
+		final int bsid = (data[offset + 5] & 0xF8) >>> 3;
+		if (bsid <= 10) {
+			return getAC3FrameSize(data, offset);
+		}
+		final int frmsiz = ((data[offset + 2] & 0x07) << 8) | (data[offset + 3] & 0xFF);
+		return 2 * (frmsiz + 1);
+	}
+
+	/**
+	 * Called once the complete frame has been stored, so the frame no longer needs the buffer it was parsed from.
+	 * Any later reads from {@link #getBs()} continue where the constructor stopped, on a copy of the stored frame.
+	 *
+	 * @param store
+	 * @param position start of this frame in store
+	 * @param size size of this frame in bytes
+	 */
+	public void setESData(final ChunkedByteStore store, final long position, final int size) {
+		esStore = store;
+		esPosition = position;
+		frameSize = size;
+		bitsRead = startBits - bs.available();
+		bs = null;
+	}
+
+	/**
+	 * @param data
+	 * @param fromIndex
+	 * @param toIndex end of valid data
+	 * @return index of first sync word (0x0B77) at or after fromIndex, or -1 if not found
+	 */
+	public static int indexOfSyncWord(final byte[] data, final int fromIndex, final int toIndex) {
+		for (int i = fromIndex; i < (toIndex - 1); i++) {
+			if ((data[i] == 0x0B) && (data[i + 1] == 0x77)) {
+				return i;
+			}
+		}
+		return -1;
 	}
 
 	public static String getBsidString(final int bsid) {
@@ -414,9 +492,23 @@ public class AbstractAC3SyncFrame {
 	}
 
 	public BitSource getBs() {
+		if ((bs == null) && (esStore != null)) {
+			bs = new BitSource(esStore.copyOf(esPosition, frameSize), 0);
+			bs.advanceBytes(bitsRead / 8);
+			if ((bitsRead % 8) != 0) {
+				bs.readBits(bitsRead % 8);
+			}
+		}
 		return bs;
 	}
 
+	/**
+	 * @return size of this frame in bytes, 0 when not stored yet
+	 */
+	public int getFrameSize() {
+		return frameSize;
+	}
+
 	public int getOffset() {
 		return offset;
 	}
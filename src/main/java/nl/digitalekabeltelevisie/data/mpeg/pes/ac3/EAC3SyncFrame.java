@@ -400,7 +400,7 @@ public class EAC3SyncFrame extends AbstractAC3SyncFrame implements TreeNode {
 				}
 				s.add(new DefaultMutableTreeNode(new KVP("extpgmscle",extpgmscle,"External programme scale factor "+doesExistString(extpgmscle))));
 				if(extpgmscle!=0) {
-					extpgmscl = bs.readBits(6);
+					extpgmscl = getBs().readBits(6);
 					s.add(new DefaultMutableTreeNode(new KVP("extpgmscl",extpgmscl,"External programme scale factor: "+getProgrammeScaleFactorString(extpgmscl))));
 				}
 				s.add(new DefaultMutableTreeNode(new KVP("mixdef",mixdef,"Mix control type: "+getMixControlTypeString(mixdef))));
@@ -475,7 +475,7 @@ public class EAC3SyncFrame extends AbstractAC3SyncFrame implements TreeNode {
 				}
 				if(acmod == 0x0){ /* if 1+1 mode (dual mono, so some items need a second value) */
 					s.add(new DefaultMutableTreeNode(new KVP("mixdata",mixdata,null)));
-					audprodi2e = bs.readBits(1);
+					audprodi2e = getBs().readBits(1);
 					if(audprodi2e!=0){
 						s.add(new DefaultMutableTreeNode(new KVP("mixlevel2",mixlevel2,"peak mixing level during the final audio mixing session: "+(80+mixlevel2)+" dB")));
 						s.add(new DefaultMutableTreeNode(new KVP("roomtyp2",roomtyp2,getRoomTypeString(roomtyp))));
@@ -498,7 +498,7 @@ public class EAC3SyncFrame extends AbstractAC3SyncFrame implements TreeNode {
 						s.add(new DefaultMutableTreeNode(new KVP("frmsizecod",frmsizecod,"Frame size code: "+getFrmsizecodString(fscod, frmsizecod))));
 					}
 				}
-				addbsie = bs.readBits(1);
+				addbsie = getBs().readBits(1);
 				s.add(new DefaultMutableTreeNode(new KVP("addbsie",addbsie,addbsie==1?"Additional bit stream information exists":"Additional bit stream information does not exist")));
 				if(addbsie!=0){
 					s.add(new DefaultMutableTreeNode(new KVP("addbsil",addbsil,"Additional bit stream information length")));
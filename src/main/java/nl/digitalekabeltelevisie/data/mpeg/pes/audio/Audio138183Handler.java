@@ -154,16 +154,19 @@ public class Audio138183Handler extends GeneralPesHandler implements ImageSource
 		int i = bufStart;
 
 		while ((i < (bufEnd)) && (i >= 0)) {
-			i = indexOfSyncWord(pesDataBuffer,  i);
-			if (i >= 0) { // found start,
+			i = indexOfSyncWord(pesDataBuffer,  i, bufEnd);
+			if (i < 0) { // no start found, keep only last byte, could be first half of syncword
+				bufStart = Math.max(bufStart, bufEnd - 1);
+			} else { // found start,
 				if ((i+4) <= bufEnd){ // at least 4 bytes, try to create an AudioAccessUnit
 					AudioAccessUnit frame = new AudioAccessUnit(pesDataBuffer, i,audioPes.getPesHeader().getPts());
 					int unitLen = frame.getFrameSize();
-					if(unitLen<0) { // not a valid frame. start search again from next pos
+					if(unitLen<=0) { // not a valid frame. start search again from next pos
 						i++;
 					}else if((i+unitLen+2)<bufEnd){  // see if at where next frame should start we also have syncword, and
-						int nextIndex = indexOfSyncWord(pesDataBuffer,  i+unitLen);
+						int nextIndex = indexOfSyncWord(pesDataBuffer,  i+unitLen, bufEnd);
 						if (nextIndex == (i + unitLen)) {
+							frame.setESData(esStore, esStore.append(pesDataBuffer, i, unitLen));
 							accessUnits.add(frame);
 							i = nextIndex;
 							bufStart = nextIndex;
@@ -178,6 +181,7 @@ public class Audio138183Handler extends GeneralPesHandler implements ImageSource
 							i = nextIndex;
 						}
 					}else if(i+unitLen == bufEnd) {  // exact fit, buffer now empty
+						frame.setESData(esStore, esStore.append(pesDataBuffer, i, unitLen));
 						accessUnits.add(frame);
 						bufStart = bufEnd;
 						break;
@@ -185,6 +189,9 @@ public class Audio138183Handler extends GeneralPesHandler implements ImageSource
 						bufStart = i;
 						break;
 					}
+				}else{ // header not complete, continue next time
+					bufStart = i;
+					break;
 				}
 			}
 		}
@@ -222,9 +229,9 @@ public class Audio138183Handler extends GeneralPesHandler implements ImageSource
 
 		final DefaultMutableTreeNode s=new DefaultMutableTreeNode(kvp);
 
-		addListJTree(s,pesPackets,modus,"PES Packets");
+		addLazyListJTree(s,pesPackets,modus,"PES Packets");
 
-		addListJTree(s, audioAccessUnits, modus, "Audio Access Units");
+		addLazyListJTree(s, audioAccessUnits, modus, "Audio Access Units");
 		if((ancillaryDataIdentifier & 0x40)!=0) {// RDS via UECP
 			final DefaultMutableTreeNode rdsNode = new DefaultMutableTreeNode(new KVP("RDS"));
 			s.add(rdsNode);
@@ -242,14 +249,15 @@ public class Audio138183Handler extends GeneralPesHandler implements ImageSource
 	 *
 	 * @param source
 	 * @param fromIndex
+	 * @param toIndex end of valid data in source
 	 * @return
 	 */
-	private static int indexOfSyncWord(final byte[] source, final int fromIndex){
-		if (fromIndex >= source.length) {
+	private static int indexOfSyncWord(final byte[] source, final int fromIndex, final int toIndex){
+		if (fromIndex >= toIndex) {
 			return  -1;
 		}
 
-		final int max = source.length -1;
+		final int max = toIndex -1;
 
 		for (int i = fromIndex; i < max; i++) {
 			/* Look for first byte. */
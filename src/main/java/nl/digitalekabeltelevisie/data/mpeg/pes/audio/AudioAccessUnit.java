@@ -33,6 +33,7 @@ import javax.swing.tree.DefaultMutableTreeNode;
 
 import nl.digitalekabeltelevisie.controller.KVP;
 import nl.digitalekabeltelevisie.controller.TreeNode;
+import nl.digitalekabeltelevisie.util.ChunkedByteStore;
 import nl.digitalekabeltelevisie.util.Utils;
 
 /**
@@ -76,8 +77,14 @@ public class AudioAccessUnit implements TreeNode {
 	private final int emphasis;
 	//private int crc_check;
 
-	private final byte [] data;
-	private final int start;
+	private byte [] data;
+	private int start;
+
+	/**
+	 * when set, the bytes of this unit are kept in the ES store of the handler, and data no longer refers to the reassembly buffer
+	 */
+	private ChunkedByteStore esStore;
+	private long esPosition;
 
 	public static final int		MPEG2_LSF = 0;
 	public static final int		MPEG25_LSF = 2;	// SZD
@@ -162,7 +169,7 @@ public class AudioAccessUnit implements TreeNode {
 	 */
 	public DefaultMutableTreeNode getJTreeNode(final int modus) {
 		final DefaultMutableTreeNode s = new DefaultMutableTreeNode(new KVP("Frame"));
-		s.add(new DefaultMutableTreeNode(new KVP("data",data, start,getFrameSize(),null)));
+		s.add(new DefaultMutableTreeNode(new KVP("data",getData(), getStart(),getFrameSize(),null)));
 		s.add(new DefaultMutableTreeNode(new KVP("len",getFrameSize(), null)));
 		s.add(new DefaultMutableTreeNode(new KVP("pts",pts, printTimebase90kHz(pts))));
 		s.add(new DefaultMutableTreeNode(new KVP("syncWord",syncWord, null)));
@@ -179,7 +186,7 @@ public class AudioAccessUnit implements TreeNode {
 		s.add(new DefaultMutableTreeNode(new KVP("original/home",original_home, original_home==1?"original":"copy")));
 		s.add(new DefaultMutableTreeNode(new KVP("emphasis",emphasis, getEmphasisString(emphasis))));
 		if (protection_bit==0){
-			s.add(new DefaultMutableTreeNode(new KVP("crc_check",getInt(data, start+4, 2, Utils.MASK_16BITS), null)));
+			s.add(new DefaultMutableTreeNode(new KVP("crc_check",getInt(getData(), getStart()+4, 2, Utils.MASK_16BITS), null)));
 		}
 
 
@@ -678,7 +685,23 @@ public class AudioAccessUnit implements TreeNode {
 	}
 
 
+	/**
+	 * Move the data of this unit to the ES store, so the reassembly buffer it was parsed from can be reused.
+	 * @param store
+	 * @param position of first byte of this unit in store
+	 */
+	public void setESData(final ChunkedByteStore store, final long position) {
+		this.esStore = store;
+		this.esPosition = position;
+		this.data = null;
+		this.start = 0;
+	}
+
+
 	public byte[] getData() {
+		if (esStore != null) {
+			return esStore.copyOf(esPosition, getFrameSize());
+		}
 		return data;
 	}
 
@@ -694,7 +717,7 @@ public class AudioAccessUnit implements TreeNode {
 	 * @return
 	 */
 	public AncillaryData getAncillaryData(){
-		return new AncillaryData(data, start, getFrameSize());
+		return new AncillaryData(getData(), getStart(), getFrameSize());
 
 	}
 }
@@ -27,7 +27,7 @@
 
 package nl.digitalekabeltelevisie.data.mpeg.pes.audio.aac;
 
-import static nl.digitalekabeltelevisie.util.Utils.addListJTree;
+import static nl.digitalekabeltelevisie.util.Utils.addLazyListJTree;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 
@@ -72,7 +72,7 @@ public class Audio144963Handler extends GeneralPesHandler{
 		kvp = new KVP("PES Data");
 		final DefaultMutableTreeNode s=new DefaultMutableTreeNode(kvp);
 
-		addListJTree(s,pesPackets,modus,"PES Packets");
+		addLazyListJTree(s,pesPackets,modus,"PES Packets");
 		return s;
 	}
 
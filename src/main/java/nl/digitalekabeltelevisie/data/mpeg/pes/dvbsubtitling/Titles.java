@@ -1,6 +1,6 @@
 package nl.digitalekabeltelevisie.data.mpeg.pes.dvbsubtitling;
 
-import static nl.digitalekabeltelevisie.util.Utils.addListJTree;
+import static nl.digitalekabeltelevisie.util.Utils.addLazyListJTree;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -23,7 +23,7 @@ public class Titles implements TreeNode {
 	@Override
 	public DefaultMutableTreeNode getJTreeNode(int modus) {
 		final DefaultMutableTreeNode t=new DefaultMutableTreeNode(new KVP("Titles"));
-		addListJTree(t,displaySets,modus,"DisplaySets"); 
+		addLazyListJTree(t,displaySets,modus,"DisplaySets"); 
 		return t;
 	}
 
@@ -26,7 +26,7 @@
  */
 package nl.digitalekabeltelevisie.data.mpeg.pes.ebu;
 
-import static nl.digitalekabeltelevisie.util.Utils.addListJTree;
+import static nl.digitalekabeltelevisie.util.Utils.addLazyListJTree;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -82,11 +82,11 @@ public class EBUTeletextHandler extends GeneralPesHandler{
 		final DefaultMutableTreeNode t=new DefaultMutableTreeNode(new KVP("EBU Data"));
 		if(txtService!=null){ t.add(txtService.getJTreeNode(modus));}
 		if(vps!=null){
-			addListJTree(t,vps,modus,"VPS");
+			addLazyListJTree(t,vps,modus,"VPS");
 		}
 
 		if(wss!=null){
-			addListJTree(t,wss,modus,"WSS");
+			addLazyListJTree(t,wss,modus,"WSS");
 		}
 		s.add(t);
 		return s;
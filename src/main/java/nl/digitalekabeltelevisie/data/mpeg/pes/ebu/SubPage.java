@@ -29,14 +29,11 @@ package nl.digitalekabeltelevisie.data.mpeg.pes.ebu;
 
 import static nl.digitalekabeltelevisie.util.Utils.*;
 
-import java.awt.*;
 import java.awt.image.*;
-import java.io.InputStream;
 import java.util.*;
 import java.util.List;
 import java.util.logging.*;
 
-import javax.imageio.ImageIO;
 import javax.swing.tree.DefaultMutableTreeNode;
 
 import nl.digitalekabeltelevisie.controller.*;
@@ -57,8 +54,8 @@ public class SubPage implements TreeNode, ImageSource, TextConstants{
 	protected TxtDataField[] packetx_27 = new TxtDataField[16]; // 9.4.1 Packet X/27, Designation code values 0000 to 1111 allow up to 16 packets with Y = 27 to be associated with a given page.
 	protected TxtDataField[] packetx_28 = new TxtDataField[16]; // 9.4.1 Packet X/28, Designation code values 0000 to 1111 allow up to 16 packets with Y = 28 to be associated with a given page.
 
-	private static final int charWidth = 15;
-	private static final int charHeight = 19;
+	private static final int charWidth = TxtGlyphAtlas.CHAR_WIDTH;
+	private static final int charHeight = TxtGlyphAtlas.CHAR_HEIGHT;
 
 	private static final int textColumns = 40;
 	private static final int textRows = 25;
@@ -71,7 +68,6 @@ public class SubPage implements TreeNode, ImageSource, TextConstants{
 	public static final int ADAPTIVE_OBJECT_TYPE = 2;
 	public static final int PASSIVE_OBJECT_TYPE = 3;
 	
-	private static final ClassLoader classLoader = SubPage.class.getClassLoader();
 	/**
 	 * contains java Unicode char for each visible character. Depending on effect[][] it might be a block graphics (that is not a unicode char)
 	 * which is drawn differently
@@ -98,23 +94,6 @@ public class SubPage implements TreeNode, ImageSource, TextConstants{
 
 	private static final Logger logger = Logger.getLogger(SubPage.class.getName());
 
-	private static BufferedImage g3CharsImage;
-
-	/**
-	 *
-	 */
-
-	static {
-		try {
-			final InputStream fileInputStream = classLoader.getResourceAsStream("g3_charset.gif");
-			g3CharsImage = ImageIO.read(fileInputStream);
-
-		} catch (final Exception e) {
-			logger.log(Level.WARNING, "error reading image g3_charset.gif:", e);
-		}
-
-	}
-
 	public int getNationalOptionCharSubset(boolean useSecondaryG0set) {
 		int r = 0; // sane default
 		
@@ -882,16 +861,9 @@ public class SubPage implements TreeNode, ImageSource, TextConstants{
 	 */
 	public BufferedImage getImage() {
 
+		// new image is all black. Cells are copied directly into its raster from the shared glyph atlas
 		final BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-		final Graphics2D gd = img.createGraphics();
-		gd.setColor(Color.BLACK);
-		gd.fillRect(0, 0, width, height);
-
-		final BufferedImage charImg = new BufferedImage(charWidth, charHeight, BufferedImage.TYPE_INT_ARGB);
-		final Graphics2D charGD = charImg.createGraphics();
-		final Font font = new Font("Monospaced", Font.BOLD, 18);
-		charGD.setFont(font);
-		Image targetChar = null;
+		final int[] pixels = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
 
 
 		fillLevel1();
@@ -907,18 +879,7 @@ public class SubPage implements TreeNode, ImageSource, TextConstants{
 		for (int i = 24; i >=0 ; i--) {
 			for (int j = 0; j < 40; j++) {
 				boolean doubleWidthUsed = false;
-				// first draw the char on a tmp Image
-				if ((effect[i][j] & DRCS_CHAR) != 0) {
-					// DRCS Char
-					targetChar = drawDRCSChar(globalDrcsChars,localDrcsChars, i, j);
-				}else if ((effect[i][j] & G3_CHAR) != 0) {
-					targetChar = drawG3Char(i, j);
-				}else{
-					drawChar(charGD, i, j);
-					targetChar = charImg;
-				}
-
-				// now scale this char image if neccesarry
+				// size of this char on the page
 				int h = charHeight;
 				int w = charWidth;
 				if ((effect[i][j] & DOUBLE_HEIGHT) != 0) {
@@ -933,7 +894,16 @@ public class SubPage implements TreeNode, ImageSource, TextConstants{
 					doubleWidthUsed = true; //  skip charafter a double width char
 				}
 
-				gd.drawImage(targetChar, j * charWidth, i * charHeight, w, h, null);
+				final int[] glyph;
+				if ((effect[i][j] & DRCS_CHAR) != 0) {
+					// DRCS Char
+					glyph = getDRCSGlyph(globalDrcsChars,localDrcsChars, i, j, w, h);
+				}else if ((effect[i][j] & G3_CHAR) != 0) {
+					glyph = TxtGlyphAtlas.getG3Glyph(txt[i][j], getColorInt(fgColor[i][j]), getColorInt(bgColor[i][j]), w, h);
+				}else{
+					glyph = getCharGlyph(i, j, w, h);
+				}
+				TxtGlyphAtlas.drawGlyph(glyph, w, h, pixels, width, height, j * charWidth, i * charHeight);
 				if (doubleWidthUsed) { // this char was double width (or size), so skip next pos
 					j++;
 					doubleWidthUsed = false; //reset
@@ -1144,48 +1114,25 @@ public class SubPage implements TreeNode, ImageSource, TextConstants{
 		}
 	}
 
-	/**
-	 * @param i
-	 * @param j
-	 * @return
-	 */
-	private Image drawG3Char(final int i, final int j) {
-		final BufferedImage b = new BufferedImage(12,10,BufferedImage.TYPE_BYTE_BINARY);
-		final Graphics2D gd = b.createGraphics();
-		Image target;
-		final int bgC = getColorInt(bgColor[i][j]);
-		final int fgC = getColorInt(fgColor[i][j]);
-		final IndexColorModel blackAndWhite = new IndexColorModel(
-				1, // One bit per pixel
-				2,new int[]{fgC,bgC},0,false,-1,DataBuffer.TYPE_BYTE);
-		gd.drawImage(g3CharsImage, 0, 0, 12, 10, ((txt[i][j])-32)*12, 0, ((txt[i][j])-31)*12, 10, null);
-		final DataBuffer buf = b.getData().getDataBuffer();
-		final WritableRaster wr =  Raster.createPackedRaster(buf, 12, 10, 1, null);
-		target = new BufferedImage(blackAndWhite, wr, true, null);
-
-		return target;
-	}
-
 	/**
 	 * @param drcsChars
 	 * @param i
 	 * @param j
-	 * @return
+	 * @param w width of the char on the page
+	 * @param h height of the char on the page
+	 * @return pixels of the scaled char
 	 */
-	private Image drawDRCSChar(final List<DRCSCharacter> globalDrcsChars,final List<DRCSCharacter> localDdrcsChars, final int i, final int j) {
-		Image target=null;
+	private int[] getDRCSGlyph(final List<DRCSCharacter> globalDrcsChars,final List<DRCSCharacter> localDdrcsChars, final int i, final int j, final int w, final int h) {
 		final int bgC = getColorInt(bgColor[i][j]);
 		final int fgC = getColorInt(fgColor[i][j]);
-		final IndexColorModel blackAndWhite = new IndexColorModel(
-				1, // One bit per pixel
-				2,new int[]{bgC,fgC},0,false,-1,DataBuffer.TYPE_BYTE);
+		final DRCSCharacter drcsChar;
 		if(txt[i][j]<48){ // global
-			target = new BufferedImage(blackAndWhite, globalDrcsChars.get(txt[i][j]).getWritableRaster(), true, null);
+			drcsChar = globalDrcsChars.get(txt[i][j]);
 		}else{
-			target = new BufferedImage(blackAndWhite, localDdrcsChars.get(txt[i][j]-64).getWritableRaster(), true, null);
+			drcsChar = localDdrcsChars.get(txt[i][j]-64);
 		}
 
-		return target;
+		return TxtGlyphAtlas.getDRCSGlyph(drcsChar, fgC, bgC, w, h);
 	}
 
 	/**
@@ -1430,54 +1377,18 @@ public class SubPage implements TreeNode, ImageSource, TextConstants{
 	}
 
 	/**
-	 * @param charGD
 	 * @param i
 	 * @param j
+	 * @param w width of the char on the page
+	 * @param h height of the char on the page
+	 * @return pixels of the scaled char
 	 */
-
-	private void drawChar(final Graphics2D charGD, final int i, final int j) {
-		final FontMetrics metrics = charGD.getFontMetrics();
-		final int descent = metrics.getDescent();
-
-		charGD.setColor(new Color(getColorInt(bgColor[i][j])));
-		charGD.fillRect(0, 0, charWidth, charHeight);
-		charGD.setColor(new Color(getColorInt(fgColor[i][j])));
-		final int ch = txt[i][j];
+	private int[] getCharGlyph(final int i, final int j, final int w, final int h) {
+		final char ch = txt[i][j];
 		final int characterEffect = effect[i][j];
-		if (isMosaicGraphicsMode(characterEffect) && 
-			isValidMosaicCharacter(ch)) {
-			final int blockH = charHeight / 3;
-			final int blockW = charWidth / 2;
-
-			if ((ch & 0x01) != 0) { // top left
-				charGD.fillRect(0, 0, blockW, blockH);
-			}
-			if ((ch & 0x02) != 0) { // top right
-				charGD.fillRect(blockW, 0, charWidth - blockW, blockH);
-			}
-			if ((ch & 0x04) != 0) { // middle left
-				charGD.fillRect(0, blockH, blockW, blockH);
-			}
-			if ((ch & 0x08) != 0) { // middle right
-				charGD.fillRect(blockW, blockH, charWidth - blockW, blockH);
-			}
-			if ((ch & 0x10) != 0) { // bottom left
-				charGD.fillRect(0, 2 * blockH, blockW, charHeight - (2 * blockH));
-			}
-			if ((ch & 0x40) != 0) { // bottom right
-				charGD.fillRect(blockW, 2 * blockH, charWidth - blockW, charHeight - (2 * blockH));
-			}
-			if (((characterEffect & SEPARATED_MOSAIC_GRAPHICS) != 0)) {
-				charGD.setColor(new Color(getColorInt(bgColor[i][j])));
-				charGD.drawRect(0, 0, charWidth, charHeight);
-				charGD.drawLine(0, blockH, charWidth - 1, blockH);
-				charGD.drawLine(0, 2 * blockH, charWidth - 1, 2 * blockH);
-				charGD.drawLine(blockW, 0, blockW, charHeight - 1);
-			}
-
-		} else {
-			charGD.drawChars(txt[i], j, 1, 1, charHeight - descent);
-		}
+		final boolean mosaic = isMosaicGraphicsMode(characterEffect) && isValidMosaicCharacter(ch);
+		final boolean separated = (characterEffect & SEPARATED_MOSAIC_GRAPHICS) != 0;
+		return TxtGlyphAtlas.getTextGlyph(ch, getColorInt(fgColor[i][j]), getColorInt(bgColor[i][j]), mosaic, separated, w, h);
 	}
 
 	private static boolean isValidMosaicCharacter(final int ch) {
@@ -0,0 +1,272 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg.pes.ebu;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.*;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Shared cache of rendered teletext character cells, used by {@link SubPage#getImage()}.
+ *
+ * Each glyph is rendered once for a given (character, foreground, background, mosaic mode, size) and kept as
+ * an array of RGB pixels of the final (scaled) cell size. A page is then composed by copying these pixels
+ * directly into the raster of the page image, instead of drawing every cell through Graphics2D.
+ *
+ * All cell images are opaque, so copying the pixels gives exactly the same result as drawing them.
+ * Colors are the resolved RGB values, not CLUT indices, because the CLUT can be redefined per page or magazine.
+ * DRCS characters are keyed by their bitmap, so identical downloaded characters on different pages share an entry.
+ *
+ * The cache is safe to use from multiple threads, and is cleared when it grows beyond {@link #MAX_GLYPHS} entries.
+ *
+ * @author Eric
+ *
+ */
+final class TxtGlyphAtlas {
+
+	static final int CHAR_WIDTH = 15;
+	static final int CHAR_HEIGHT = 19;
+
+	private static final int MAX_GLYPHS = 8192;
+
+	private static final int TEXT = 0;
+	private static final int G3 = 1;
+	private static final int DRCS = 2;
+
+	private static final int MOSAIC = 0x1;
+	private static final int SEPARATED = 0x2;
+
+	private static final Logger logger = Logger.getLogger(TxtGlyphAtlas.class.getName());
+
+	private static final Font font = new Font("Monospaced", Font.BOLD, 18);
+
+	private static BufferedImage g3CharsImage;
+
+	static {
+		try {
+			final InputStream fileInputStream = TxtGlyphAtlas.class.getClassLoader().getResourceAsStream("g3_charset.gif");
+			g3CharsImage = ImageIO.read(fileInputStream);
+
+		} catch (final Exception e) {
+			logger.log(Level.WARNING, "error reading image g3_charset.gif:", e);
+		}
+
+	}
+
+	/**
+	 * @param type TEXT, G3 or DRCS
+	 * @param ch char (for DRCS not used, the bitmap is in pattern)
+	 * @param fg foreground RGB
+	 * @param bg background RGB
+	 * @param flags MOSAIC and/or SEPARATED (only for TEXT)
+	 * @param width width of the scaled cell
+	 * @param height height of the scaled cell
+	 * @param pattern DRCS bitmap, empty for other types
+	 */
+	private record Glyph(int type, char ch, int fg, int bg, int flags, int width, int height, String pattern) {
+	}
+
+	private static final Map<Glyph, int[]> glyphs = new ConcurrentHashMap<>();
+
+	private TxtGlyphAtlas() {
+		// static only
+	}
+
+	/**
+	 * @param ch char to draw, or block graphics pattern when mosaic
+	 * @param fg foreground RGB
+	 * @param bg background RGB
+	 * @param mosaic draw ch as block graphics
+	 * @param separated separated block graphics, only used when mosaic
+	 * @param width width of the cell on the page
+	 * @param height height of the cell on the page
+	 * @return RGB pixels of the cell, width*height, must not be modified
+	 */
+	static int[] getTextGlyph(final char ch, final int fg, final int bg, final boolean mosaic, final boolean separated, final int width, final int height) {
+		int flags = 0;
+		if (mosaic) {
+			flags = separated ? (MOSAIC | SEPARATED) : MOSAIC;
+		}
+		return getGlyph(new Glyph(TEXT, ch, fg, bg, flags, width, height, ""), null);
+	}
+
+	/**
+	 * @param ch G3 char, starting at 0x20
+	 * @param fg foreground RGB
+	 * @param bg background RGB
+	 * @param width width of the cell on the page
+	 * @param height height of the cell on the page
+	 * @return RGB pixels of the cell, width*height, must not be modified
+	 */
+	static int[] getG3Glyph(final char ch, final int fg, final int bg, final int width, final int height) {
+		return getGlyph(new Glyph(G3, ch, fg, bg, 0, width, height, ""), null);
+	}
+
+	/**
+	 * @param drcsChar downloaded character
+	 * @param fg foreground RGB
+	 * @param bg background RGB
+	 * @param width width of the cell on the page
+	 * @param height height of the cell on the page
+	 * @return RGB pixels of the cell, width*height, must not be modified
+	 */
+	static int[] getDRCSGlyph(final DRCSCharacter drcsChar, final int fg, final int bg, final int width, final int height) {
+		if (!(drcsChar.getDataBuffer() instanceof final DataBufferByte dataBuffer)) {
+			// no bitmap (unsupported mode), let rendering fail the same way as before
+			return renderDRCS(drcsChar.getWritableRaster(), fg, bg, width, height);
+		}
+		final String pattern = new String(dataBuffer.getData(), StandardCharsets.ISO_8859_1);
+		return getGlyph(new Glyph(DRCS, (char) 0, fg, bg, 0, width, height, pattern), drcsChar);
+	}
+
+	private static int[] getGlyph(final Glyph glyph, final DRCSCharacter drcsChar) {
+		final int[] pixels = glyphs.get(glyph);
+		if (pixels != null) {
+			return pixels;
+		}
+		if (glyphs.size() >= MAX_GLYPHS) {
+			glyphs.clear();
+		}
+		return glyphs.computeIfAbsent(glyph, g -> render(g, drcsChar));
+	}
+
+	private static int[] render(final Glyph glyph, final DRCSCharacter drcsChar) {
+		switch (glyph.type()) {
+		case G3:
+			return renderG3(glyph);
+		case DRCS:
+			return renderDRCS(drcsChar.getWritableRaster(), glyph.fg(), glyph.bg(), glyph.width(), glyph.height());
+		default:
+			return renderText(glyph);
+		}
+	}
+
+	private static int[] renderText(final Glyph glyph) {
+		final BufferedImage charImg = new BufferedImage(CHAR_WIDTH, CHAR_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		final Graphics2D charGD = charImg.createGraphics();
+		charGD.setFont(font);
+		final FontMetrics metrics = charGD.getFontMetrics();
+		final int descent = metrics.getDescent();
+
+		charGD.setColor(new Color(glyph.bg()));
+		charGD.fillRect(0, 0, CHAR_WIDTH, CHAR_HEIGHT);
+		charGD.setColor(new Color(glyph.fg()));
+		final int ch = glyph.ch();
+		if ((glyph.flags() & MOSAIC) != 0) {
+			final int blockH = CHAR_HEIGHT / 3;
+			final int blockW = CHAR_WIDTH / 2;
+
+			if ((ch & 0x01) != 0) { // top left
+				charGD.fillRect(0, 0, blockW, blockH);
+			}
+			if ((ch & 0x02) != 0) { // top right
+				charGD.fillRect(blockW, 0, CHAR_WIDTH - blockW, blockH);
+			}
+			if ((ch & 0x04) != 0) { // middle left
+				charGD.fillRect(0, blockH, blockW, blockH);
+			}
+			if ((ch & 0x08) != 0) { // middle right
+				charGD.fillRect(blockW, blockH, CHAR_WIDTH - blockW, blockH);
+			}
+			if ((ch & 0x10) != 0) { // bottom left
+				charGD.fillRect(0, 2 * blockH, blockW, CHAR_HEIGHT - (2 * blockH));
+			}
+			if ((ch & 0x40) != 0) { // bottom right
+				charGD.fillRect(blockW, 2 * blockH, CHAR_WIDTH - blockW, CHAR_HEIGHT - (2 * blockH));
+			}
+			if ((glyph.flags() & SEPARATED) != 0) {
+				charGD.setColor(new Color(glyph.bg()));
+				charGD.drawRect(0, 0, CHAR_WIDTH, CHAR_HEIGHT);
+				charGD.drawLine(0, blockH, CHAR_WIDTH - 1, blockH);
+				charGD.drawLine(0, 2 * blockH, CHAR_WIDTH - 1, 2 * blockH);
+				charGD.drawLine(blockW, 0, blockW, CHAR_HEIGHT - 1);
+			}
+
+		} else {
+			charGD.drawChars(new char[] { glyph.ch() }, 0, 1, 1, CHAR_HEIGHT - descent);
+		}
+		charGD.dispose();
+		return scale(charImg, glyph.width(), glyph.height());
+	}
+
+	private static int[] renderG3(final Glyph glyph) {
+		final BufferedImage b = new BufferedImage(12, 10, BufferedImage.TYPE_BYTE_BINARY);
+		final Graphics2D gd = b.createGraphics();
+		final IndexColorModel blackAndWhite = new IndexColorModel(
+				1, // One bit per pixel
+				2, new int[] { glyph.fg(), glyph.bg() }, 0, false, -1, DataBuffer.TYPE_BYTE);
+		gd.drawImage(g3CharsImage, 0, 0, 12, 10, (glyph.ch() - 32) * 12, 0, (glyph.ch() - 31) * 12, 10, null);
+		gd.dispose();
+		final DataBuffer buf = b.getData().getDataBuffer();
+		final WritableRaster wr = Raster.createPackedRaster(buf, 12, 10, 1, null);
+		return scale(new BufferedImage(blackAndWhite, wr, true, null), glyph.width(), glyph.height());
+	}
+
+	private static int[] renderDRCS(final WritableRaster raster, final int fg, final int bg, final int width, final int height) {
+		final IndexColorModel blackAndWhite = new IndexColorModel(
+				1, // One bit per pixel
+				2, new int[] { bg, fg }, 0, false, -1, DataBuffer.TYPE_BYTE);
+		return scale(new BufferedImage(blackAndWhite, raster, true, null), width, height);
+	}
+
+	private static int[] scale(final Image source, final int width, final int height) {
+		final BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		final Graphics2D gd = target.createGraphics();
+		gd.drawImage(source, 0, 0, width, height, null);
+		gd.dispose();
+		return ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+	}
+
+	/**
+	 * Copy a glyph into the pixels of a TYPE_INT_RGB image, clipped to the image bounds.
+	 *
+	 * @param glyph pixels as returned by one of the get..Glyph methods
+	 * @param glyphWidth
+	 * @param glyphHeight
+	 * @param pixels data of the target image
+	 * @param imageWidth
+	 * @param imageHeight
+	 * @param x left of the cell in the target image
+	 * @param y top of the cell in the target image
+	 */
+	static void drawGlyph(final int[] glyph, final int glyphWidth, final int glyphHeight, final int[] pixels,
+			final int imageWidth, final int imageHeight, final int x, final int y) {
+		final int w = Math.min(glyphWidth, imageWidth - x);
+		final int h = Math.min(glyphHeight, imageHeight - y);
+		for (int row = 0; row < h; row++) {
+			System.arraycopy(glyph, row * glyphWidth, pixels, ((y + row) * imageWidth) + x, w);
+		}
+	}
+
+}
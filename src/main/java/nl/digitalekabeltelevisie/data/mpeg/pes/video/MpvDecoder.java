@@ -90,11 +90,17 @@ package nl.digitalekabeltelevisie.data.mpeg.pes.video;
 
 
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 
 
-public class MpvDecoder extends Object {
+public class MpvDecoder implements Cloneable {
 
 
 	private int[] pixels = new int[250]; //full pixel data
@@ -116,9 +122,23 @@ public class MpvDecoder extends Object {
 	private boolean ERROR6 = false;
 	private boolean viewGOP = true;
 
+	/**
+	 * use the (slow) matrix multiplication IDCT instead of the fixed point IDCT, see {@link #setReferenceIDCT(boolean)}
+	 */
+	private boolean referenceIDCT = false;
+	/**
+	 * decode the slices of an I-Frame in parallel, see {@link #setParallelSlices(boolean)}
+	 */
+	private boolean parallelSlices = true;
+
+	/**
+	 * minimum number of slices in a picture before decoding them in parallel is worth the overhead
+	 */
+	private final static int MIN_PARALLEL_SLICES = 4;
+
 	private byte[] buf = new byte[0];
 
-	private final int[] LastPosVal = new int[2];
+	private int[] LastPosVal = new int[2];
 
 	/**
 	 * integer matrix by dukios
@@ -214,7 +234,7 @@ public class MpvDecoder extends Object {
 	private int load_chroma_intra_quantizer_matrix=0;
 	private int load_chroma_non_intra_quantizer_matrix=0;
 
-	private final short block[][]=new short[12][64]; //macroblocks
+	private short block[][]=new short[12][64]; //macroblocks
 
 	public static final String picture_coding_type_string[] = {
 		"bad","I","P","B","D"
@@ -1423,6 +1443,14 @@ public class MpvDecoder extends Object {
 			MBAmax>>=1;
 		}
 
+		if (parallelSlices && (picture_coding_type==I_TYPE) && (ForkJoinPool.getCommonPoolParallelism() > 1)) {
+			final int[] sliceStarts = findSliceStarts();
+			if (sliceStarts.length >= MIN_PARALLEL_SLICES) {
+				decodeSlicesParallel(sliceStarts, MBAmax);
+				return;
+			}
+		}
+
 		for (;;) {
 			if (slice(MBAmax)<0) {
 				return;
@@ -1430,6 +1458,95 @@ public class MpvDecoder extends Object {
 		}
 	}
 
+	/**
+	 * find the start of all slices of the current picture, in the same way {@link #picture_data()} would find them
+	 * one after the other: the consecutive slice start codes from the current position.
+	 *
+	 * @return byte positions in buf of the slice start codes
+	 */
+	private int[] findSliceStarts(){
+		int[] starts = new int[64];
+		int count = 0;
+		int pos = (BitPos + 7)>>>3;
+		while ((pos + 3) < buf.length) {
+			if ((buf[pos]==0) && (buf[pos + 1]==0) && (buf[pos + 2]==1)) {
+				final int code = 0x100 | (0xFF & buf[pos + 3]);
+				if ((code<SLICE_START_CODE_MIN) || (code>SLICE_START_CODE_MAX)) {
+					break;
+				}
+				if (count==starts.length) {
+					starts = Arrays.copyOf(starts, count * 2);
+				}
+				starts[count++] = pos;
+				pos += 4;
+			} else {
+				pos++;
+			}
+		}
+		return Arrays.copyOf(starts, count);
+	}
+
+	/**
+	 * Decode the slices of an I-Frame in parallel. Slices of an I-Frame do not depend on each other, all predictors are reset at the
+	 * start of a slice. Each task decodes a range of slices with its own copy of the decoder state, into the shared pixels.
+	 * Different slices write different macroblocks, so different pixels.
+	 *
+	 * @param sliceStarts positions of slice start codes, see {@link #findSliceStarts()}
+	 * @param MBAmax number of macroblocks in the picture
+	 */
+	private void decodeSlicesParallel(final int[] sliceStarts, final int MBAmax){
+		final int tasks = Math.min(sliceStarts.length, ForkJoinPool.getCommonPoolParallelism() * 4);
+		final List<Callable<MpvDecoder>> sliceTasks = new ArrayList<>(tasks);
+		for (int t = 0; t < tasks; t++) {
+			final int from = (t * sliceStarts.length) / tasks;
+			final int to = ((t + 1) * sliceStarts.length) / tasks;
+			final MpvDecoder worker = sliceWorker();
+			sliceTasks.add(() -> {
+				for (int s = from; s < to; s++) {
+					worker.BitPos = sliceStarts[s]<<3;
+					worker.BufferPos = sliceStarts[s];
+					worker.Fault_Flag = 0;
+					if (worker.slice(MBAmax)<0) {
+						break;
+					}
+				}
+				return worker;
+			});
+		}
+		for (final Future<MpvDecoder> result : ForkJoinPool.commonPool().invokeAll(sliceTasks)) {
+			try {
+				final MpvDecoder worker = result.get();
+				ERROR3 |= worker.ERROR3;
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (final ExecutionException e) {
+				// same as when decoding sequentially, let decodeArray handle it
+				if (e.getCause() instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				}
+				if (e.getCause() instanceof Error error) {
+					throw error;
+				}
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * @return copy of this decoder, with its own bit position and block buffers, sharing the (read only) picture parameters and the pixels
+	 */
+	private MpvDecoder sliceWorker(){
+		try {
+			final MpvDecoder worker = (MpvDecoder) clone();
+			worker.block = new short[12][64];
+			worker.LastPosVal = new int[] {-1, -1};
+			return worker;
+		} catch (final CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 	/* decode slice header */
 	/* ISO/IEC 13818-2 section 6.2.4 */
 	public int slice_header(){
@@ -2203,8 +2320,10 @@ public class MpvDecoder extends Object {
 			/* ISO/IEC 13818-2 section Annex A: inverse DCT */
 			if (FAST) {
 				IDCT_referenceFAST(block[comp]);
-			} else {
+			} else if (referenceIDCT) {
 				IDCT_reference1(block[comp]);
+			} else {
+				IDCT_fixed(block[comp]);
 			}
 
 			//	IDCT_reference(block[comp], FAST ? 1 : 8);
@@ -2282,6 +2401,139 @@ public class MpvDecoder extends Object {
 	/**/
 	//dukios end
 
+	/* fixed point IDCT, separable row and column passes with a Chen-Wang butterfly, as in idct.c of mpeg2dec.
+	 * Accuracy meets IEEE Std 1180-1990, with about a tenth of the multiplications of IDCT_reference1 */
+	private final static int W1 = 2841; /* 2048*sqrt(2)*cos(1*pi/16) */
+	private final static int W2 = 2676; /* 2048*sqrt(2)*cos(2*pi/16) */
+	private final static int W3 = 2408; /* 2048*sqrt(2)*cos(3*pi/16) */
+	private final static int W5 = 1609; /* 2048*sqrt(2)*cos(5*pi/16) */
+	private final static int W6 = 1108; /* 2048*sqrt(2)*cos(6*pi/16) */
+	private final static int W7 = 565;  /* 2048*sqrt(2)*cos(7*pi/16) */
+
+	static void IDCT_fixed(final short block[])
+	{
+		for (int i = 0; i < 64; i += 8) {
+			IDCT_fixed_row(block, i);
+		}
+		for (int i = 0; i < 8; i++) {
+			IDCT_fixed_col(block, i);
+		}
+	}
+
+	/* row (horizontal) IDCT, output scaled by 8 */
+	private static void IDCT_fixed_row(final short blk[], final int r)
+	{
+		int x0, x1, x2, x3, x4, x5, x6, x7, x8;
+
+		/* shortcut, only DC */
+		if (((x1 = blk[r + 4]<<11) | (x2 = blk[r + 6]) | (x3 = blk[r + 2])
+				| (x4 = blk[r + 1]) | (x5 = blk[r + 7]) | (x6 = blk[r + 5]) | (x7 = blk[r + 3])) == 0)
+		{
+			Arrays.fill(blk, r, r + 8, (short)(blk[r]<<3));
+			return;
+		}
+
+		x0 = (blk[r]<<11) + 128; /* for proper rounding in the fourth stage */
+
+		/* first stage */
+		x8 = W7*(x4+x5);
+		x4 = x8 + ((W1-W7)*x4);
+		x5 = x8 - ((W1+W7)*x5);
+		x8 = W3*(x6+x7);
+		x6 = x8 - ((W3-W5)*x6);
+		x7 = x8 - ((W3+W5)*x7);
+
+		/* second stage */
+		x8 = x0 + x1;
+		x0 -= x1;
+		x1 = W6*(x3+x2);
+		x2 = x1 - ((W2+W6)*x2);
+		x3 = x1 + ((W2-W6)*x3);
+		x1 = x4 + x6;
+		x4 -= x6;
+		x6 = x5 + x7;
+		x5 -= x7;
+
+		/* third stage */
+		x7 = x8 + x3;
+		x8 -= x3;
+		x3 = x0 + x2;
+		x0 -= x2;
+		x2 = ((181*(x4+x5))+128)>>8;
+		x4 = ((181*(x4-x5))+128)>>8;
+
+		/* fourth stage */
+		blk[r]     = (short)((x7+x1)>>8);
+		blk[r + 1] = (short)((x3+x2)>>8);
+		blk[r + 2] = (short)((x0+x4)>>8);
+		blk[r + 3] = (short)((x8+x6)>>8);
+		blk[r + 4] = (short)((x8-x6)>>8);
+		blk[r + 5] = (short)((x0-x4)>>8);
+		blk[r + 6] = (short)((x3-x2)>>8);
+		blk[r + 7] = (short)((x7-x1)>>8);
+	}
+
+	/* column (vertical) IDCT, removes the scaling of the row pass and clips to -256..255 */
+	private static void IDCT_fixed_col(final short blk[], final int c)
+	{
+		int x0, x1, x2, x3, x4, x5, x6, x7, x8;
+
+		/* shortcut, only DC */
+		if (((x1 = blk[c + (8*4)]<<8) | (x2 = blk[c + (8*6)]) | (x3 = blk[c + (8*2)])
+				| (x4 = blk[c + 8]) | (x5 = blk[c + (8*7)]) | (x6 = blk[c + (8*5)]) | (x7 = blk[c + (8*3)])) == 0)
+		{
+			final short v = clip((blk[c]+32)>>6);
+			for (int i = c; i < 64; i += 8) {
+				blk[i] = v;
+			}
+			return;
+		}
+
+		x0 = (blk[c]<<8) + 8192;
+
+		/* first stage */
+		x8 = (W7*(x4+x5)) + 4;
+		x4 = (x8+((W1-W7)*x4))>>3;
+		x5 = (x8-((W1+W7)*x5))>>3;
+		x8 = (W3*(x6+x7)) + 4;
+		x6 = (x8-((W3-W5)*x6))>>3;
+		x7 = (x8-((W3+W5)*x7))>>3;
+
+		/* second stage */
+		x8 = x0 + x1;
+		x0 -= x1;
+		x1 = (W6*(x3+x2)) + 4;
+		x2 = (x1-((W2+W6)*x2))>>3;
+		x3 = (x1+((W2-W6)*x3))>>3;
+		x1 = x4 + x6;
+		x4 -= x6;
+		x6 = x5 + x7;
+		x5 -= x7;
+
+		/* third stage */
+		x7 = x8 + x3;
+		x8 -= x3;
+		x3 = x0 + x2;
+		x0 -= x2;
+		x2 = ((181*(x4+x5))+128)>>8;
+		x4 = ((181*(x4-x5))+128)>>8;
+
+		/* fourth stage */
+		blk[c]          = clip((x7+x1)>>14);
+		blk[c + 8]      = clip((x3+x2)>>14);
+		blk[c + (8*2)]  = clip((x0+x4)>>14);
+		blk[c + (8*3)]  = clip((x8+x6)>>14);
+		blk[c + (8*4)]  = clip((x8-x6)>>14);
+		blk[c + (8*5)]  = clip((x0-x4)>>14);
+		blk[c + (8*6)]  = clip((x3-x2)>>14);
+		blk[c + (8*7)]  = clip((x7-x1)>>14);
+	}
+
+	private static short clip(final int v)
+	{
+		return (short)(v < -256 ? -256 : (v > 255 ? 255 : v));
+	}
+
 
 	/* move/add 8x8-Block from block[comp] to backward_reference_frame */
 	/* copy reconstructed 8x8 block from block[comp] to current_frame[]
@@ -2800,6 +3052,21 @@ public class MpvDecoder extends Object {
 
 
 
+	/**
+	 * @param referenceIDCT true to use the matrix multiplication IDCT (IDCT_reference1), false (default) for the faster fixed point IDCT.
+	 * Only for comparing both, the fixed point IDCT is accurate enough for all practical purposes.
+	 */
+	public void setReferenceIDCT(final boolean referenceIDCT) {
+		this.referenceIDCT = referenceIDCT;
+	}
+
+	/**
+	 * @param parallelSlices true (default) to decode the slices of an I-Frame in parallel, using the common ForkJoinPool. Result is the same.
+	 */
+	public void setParallelSlices(final boolean parallelSlices) {
+		this.parallelSlices = parallelSlices;
+	}
+
 	public BufferedImage getImage() {
 		return getImage(getWidth(),getHeight());
 	}
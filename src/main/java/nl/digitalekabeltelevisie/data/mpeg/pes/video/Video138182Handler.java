@@ -29,7 +29,7 @@ package nl.digitalekabeltelevisie.data.mpeg.pes.video;
 
 
 
-import static nl.digitalekabeltelevisie.util.Utils.addListJTree;
+import static nl.digitalekabeltelevisie.util.Utils.addLazyListJTree;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -59,6 +59,30 @@ public class Video138182Handler extends VideoHandler implements ImageSource{
 
 	private static final Logger logger = Logger.getLogger(Video138182Handler.class.getName());
 
+	/**
+	 * maximum number of pixels of all scaled I-Frames kept by {@link #getImage(int, int, long)}, about 16 frames of 1920x1080
+	 */
+	private static final long MAX_CACHED_PIXELS = 16L * 1920 * 1080;
+
+	/**
+	 * PES packets with an I-Frame, sorted by PTS. Packets with the same PTS are in stream order. Built by {@link #postProcess()}
+	 */
+	private VideoPESDataField[] iFrames = null;
+	private long[] iFramePts = null;
+	/**
+	 * position in pesPackets of each entry in iFrames
+	 */
+	private int[] iFrameOrder = null;
+
+	private record FrameKey(VideoPESDataField frame, int width, int height) {
+	}
+
+	/**
+	 * most recently used decoded and scaled I-Frames, used as background for subtitles
+	 */
+	private final Map<FrameKey, BufferedImage> frameCache = new LinkedHashMap<>(32, 0.75f, true);
+	private long cachedPixels = 0;
+
 	
 	/**
 	 * Helper class for the getImage method, to color the bars in the bar chart different for I, B and P frames.
@@ -159,35 +183,115 @@ public class Video138182Handler extends VideoHandler implements ImageSource{
 	 */
 	public DefaultMutableTreeNode getJTreeNode(final int modus) {
 		final DefaultMutableTreeNode s=new DefaultMutableTreeNode(new KVP("13818-2 PES Data",this));
-		addListJTree(s,pesPackets,modus,"PES Packets");
+		addLazyListJTree(s,pesPackets,modus,"PES Packets");
 		addCCDataToTree(modus, s);
 		
 		return s;
 	}
 
+	@Override
+	public void postProcess() {
+		super.postProcess();
+		buildIFrameIndex();
+	}
+
+	private synchronized void buildIFrameIndex() {
+		final List<Integer> order = new ArrayList<>();
+		for (int i = 0; i < pesPackets.size(); i++) {
+			if(((VideoPESDataField)pesPackets.get(i)).hasIFrame()){
+				order.add(i);
+			}
+		}
+		// stable sort, so frames with the same pts stay in stream order
+		order.sort(Comparator.comparingLong(i -> pesPackets.get(i).getPesHeader().getPts()));
+		iFrames = new VideoPESDataField[order.size()];
+		iFramePts = new long[order.size()];
+		iFrameOrder = new int[order.size()];
+		for (int i = 0; i < iFrames.length; i++) {
+			iFrameOrder[i] = order.get(i);
+			iFrames[i] = (VideoPESDataField)pesPackets.get(iFrameOrder[i]);
+			iFramePts[i] = iFrames[i].getPesHeader().getPts();
+		}
+		frameCache.clear();
+		cachedPixels = 0;
+	}
+
+	/**
+	 * find IFrame closest to the supplied pts. When two are equally close, the first in the stream.
+	 *
+	 * @param pts
+	 * @return PES packet with the IFrame, or null if there is none
+	 */
+	synchronized VideoPESDataField findIFrame(long pts) {
+		if(iFrames==null){
+			buildIFrameIndex();
+		}
+		if(iFrames.length==0){
+			return null;
+		}
+		// first frame with pts >= requested, and first frame of the run of equal pts before it
+		final int above = lowerBound(pts);
+		final int below = (above > 0) ? lowerBound(iFramePts[above - 1]) : -1;
+		if(above==iFrames.length){
+			return iFrames[below];
+		}
+		if(below<0){
+			return iFrames[above];
+		}
+		final long diffAbove = Math.abs(iFramePts[above] - pts);
+		final long diffBelow = Math.abs(iFramePts[below] - pts);
+		if((diffBelow < diffAbove) ||
+			((diffBelow == diffAbove) && (iFrameOrder[below] < iFrameOrder[above]))){
+			return iFrames[below];
+		}
+		return iFrames[above];
+	}
+
+	private int lowerBound(long pts) {
+		int low = 0;
+		int high = iFramePts.length;
+		while(low < high){
+			final int mid = (low + high) >>> 1;
+			if(iFramePts[mid] < pts){
+				low = mid + 1;
+			}else{
+				high = mid;
+			}
+		}
+		return low;
+	}
+
 	/**
 	 * find IFrame closest to the supplied pts, and return it's image in the requested size (height * width)
+	 * The most recently used images are cached, so stepping through subtitles does not decode the same IFrame again.
+	 * Callers should not modify the returned image.
 	 *
 	 * @param height
 	 * @param width
 	 * @param pts
 	 * @return
 	 */
-	public BufferedImage getImage(int height, int width, long pts) {
-		VideoPESDataField resultPES = null;
-
-		long diff = Long.MAX_VALUE;
-		for (PesPacketData pesPacket : pesPackets) { // iterate over all video frames, in case pts wraps around
-			VideoPESDataField video = (VideoPESDataField)pesPacket;
-			if(video.hasIFrame() && (Math.abs(video.getPesHeader().getPts() - pts) <diff)){
-				resultPES = video;
-				diff = Math.abs(video.getPesHeader().getPts() - pts);
-			}
+	public synchronized BufferedImage getImage(int height, int width, long pts) {
+		final VideoPESDataField resultPES = findIFrame(pts);
+		if(resultPES==null){
+			return null;
 		}
-		if(resultPES!=null){
-			return resultPES.getImage(width,height);
+		final FrameKey key = new FrameKey(resultPES, width, height);
+		BufferedImage image = frameCache.get(key);
+		if(image==null){
+			image = resultPES.getImage(width,height);
+			if(image!=null){
+				frameCache.put(key, image);
+				cachedPixels += (long)image.getWidth() * image.getHeight();
+				final Iterator<BufferedImage> iter = frameCache.values().iterator();
+				while((cachedPixels > MAX_CACHED_PIXELS) && (frameCache.size() > 1)){
+					final BufferedImage eldest = iter.next();
+					cachedPixels -= (long)eldest.getWidth() * eldest.getHeight();
+					iter.remove();
+				}
+			}
 		}
-		return null;
+		return image;
 	}
 
 	public MPEG2SectionIterator getSectionIterator(){
@@ -76,7 +76,11 @@ public class NALUnit extends AbstractNALUnit implements TreeNode {
 			}
 		}
 		
-		readRBSPBytes();
+		if(isSlice()){
+			readRBSPBytes(SLICE_HEADER_MAX_BYTES);
+		}else{
+			readRBSPBytes();
+		}
 
 		createRBSP();
 
@@ -90,10 +94,8 @@ public class NALUnit extends AbstractNALUnit implements TreeNode {
 	 */
 	@Override
 	protected void createRBSP() {
-		if(nal_unit_type==1){
-			rbsp=new Slice_layer_without_partitioning_rbsp(rbsp_byte, numBytesInRBSP);
-		}else if(nal_unit_type==5){
-			rbsp=new Slice_layer_without_partitioning_rbsp(rbsp_byte, numBytesInRBSP);
+		if((nal_unit_type==1)||(nal_unit_type==5)){
+			rbsp=createSliceRBSP(b -> new Slice_layer_without_partitioning_rbsp(b, numBytesInRBSP));
 		}else if(nal_unit_type==6){
 			rbsp=new Sei_rbsp(rbsp_byte, numBytesInRBSP);
 		}else if(nal_unit_type==7){
@@ -109,7 +111,7 @@ public class NALUnit extends AbstractNALUnit implements TreeNode {
 		}else if(nal_unit_type==15){
 			rbsp=new Subset_seq_parameter_set_rbsp(rbsp_byte, numBytesInRBSP);
 		}else if(nal_unit_type==20){
-			rbsp=new Slice_layer_extension_rbsp(rbsp_byte, numBytesInRBSP, svc_extension_flag, avc_3d_extension_flag);
+			rbsp=createSliceRBSP(b -> new Slice_layer_extension_rbsp(b, numBytesInRBSP, svc_extension_flag, avc_3d_extension_flag));
 		}else{
 			logger.warning("not implemented nal_unit_type: "+nal_unit_type+" ("+getNALUnitTypeString(nal_unit_type)+")");
 			
@@ -117,6 +119,14 @@ public class NALUnit extends AbstractNALUnit implements TreeNode {
 	}
 
 
+	/**
+	 * @return true for the NAL unit types of which only the slice header is parsed
+	 */
+	private boolean isSlice() {
+		return (nal_unit_type==1)||(nal_unit_type==5)||(nal_unit_type==20);
+	}
+
+
 	public DefaultMutableTreeNode getJTreeNode(final int modus) {
 		final DefaultMutableTreeNode t = new DefaultMutableTreeNode(new KVP("NALUnit ("+getNALUnitTypeString(nal_unit_type)+")"));
 		t.add(new DefaultMutableTreeNode(new KVP("bytes",bytes,offset,numBytesInNALunit,null)));
@@ -140,7 +150,7 @@ public class NALUnit extends AbstractNALUnit implements TreeNode {
 			}
 		}
 
-		t.add(new DefaultMutableTreeNode(new KVP("rbsp_byte",rbsp_byte,0,numBytesInRBSP,null)));
+		t.add(new DefaultMutableTreeNode(new KVP("rbsp_byte",getRbsp_byte(),0,numBytesInRBSP,null)));
 		t.add(new DefaultMutableTreeNode(new KVP("NumBytesInRBSP",numBytesInRBSP,null)));
 		if(rbsp!=null){
 			t.add(rbsp.getJTreeNode(modus));
@@ -29,7 +29,7 @@ package nl.digitalekabeltelevisie.data.mpeg.pes.video264;
 
 
 
-import static nl.digitalekabeltelevisie.util.Utils.addListJTree;
+import static nl.digitalekabeltelevisie.util.Utils.addLazyListJTree;
 
 import java.awt.Color;
 import java.awt.image.BufferedImage;
@@ -144,7 +144,7 @@ public class Video14496Handler extends H26xHandler<Video14496PESDataField, NALUn
 
 	public DefaultMutableTreeNode getJTreeNode(final int modus) {
 		final DefaultMutableTreeNode s=new DefaultMutableTreeNode(new KVP("H.264 PES Data",this));
-		addListJTree(s,pesPackets,modus,"PES Packets");
+		addLazyListJTree(s,pesPackets,modus,"PES Packets");
 		addCCDataToTree(modus, s);
 		
 		return s;
@@ -164,7 +164,7 @@ public class H265Handler extends H26xHandler<Video265PESDataField, H265NALUnit>
 	 */
 	public DefaultMutableTreeNode getJTreeNode(final int modus) {
 		final DefaultMutableTreeNode s=new DefaultMutableTreeNode(new KVP("H.265 PES Data",this));
-		addListJTree(s,pesPackets,modus,"PES Packets");
+		addLazyListJTree(s,pesPackets,modus,"PES Packets");
 		addCCDataToTree(modus, s);
 
 		return s;
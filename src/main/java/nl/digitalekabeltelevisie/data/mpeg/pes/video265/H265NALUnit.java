@@ -53,7 +53,11 @@ public class H265NALUnit extends AbstractNALUnit implements TreeNode {
 		this.nuh_layer_id = bs.readBits(6);
 		this.nuh_temporal_id_plus1 = bs.readBits(3);
 
-		readRBSPBytes();
+		if(isSlice()){
+			readRBSPBytes(SLICE_HEADER_MAX_BYTES);
+		}else{
+			readRBSPBytes();
+		}
 		createRBSP();
 	}
 
@@ -66,7 +70,7 @@ public class H265NALUnit extends AbstractNALUnit implements TreeNode {
 		t.add(new DefaultMutableTreeNode(new KVP("nuh_layer_id",nuh_layer_id,null)));
 		t.add(new DefaultMutableTreeNode(new KVP("nuh_temporal_id_plus1",nuh_temporal_id_plus1,null)));
 
-		t.add(new DefaultMutableTreeNode(new KVP("rbsp_byte",rbsp_byte,0,numBytesInRBSP,null)));
+		t.add(new DefaultMutableTreeNode(new KVP("rbsp_byte",getRbsp_byte(),0,numBytesInRBSP,null)));
 		t.add(new DefaultMutableTreeNode(new KVP("NumBytesInRBSP",numBytesInRBSP,null)));
 		if(rbsp!=null){
 			t.add(rbsp.getJTreeNode(modus));
@@ -74,6 +78,36 @@ public class H265NALUnit extends AbstractNALUnit implements TreeNode {
 		return t;
 	}
 
+	/**
+	 * @return true for the NAL unit types of which only the slice segment header is parsed
+	 */
+	private boolean isSlice() {
+		if(nal_unit_type==null){
+			return false;
+		}
+		switch(nal_unit_type){
+		case TRAIL_N:
+		case TRAIL_R:
+		case TSA_N:
+		case TSA_R:
+		case STSA_N:
+		case STSA_R:
+		case RADL_N:
+		case RADL_R:
+		case RASL_N:
+		case RASL_R:
+		case BLA_W_LP:
+		case BLA_W_RADL:
+		case BLA_N_LP:
+		case IDR_W_RADL:
+		case IDR_N_LP:
+		case CRA_NUT:
+			return true;
+		default:
+			return false;
+		}
+	}
+
 	@Override
 	public String getNALUnitTypeString(final int nal_unit_type) {
 		return NALUnitType.getDescription(nal_unit_type);
@@ -119,7 +153,7 @@ public class H265NALUnit extends AbstractNALUnit implements TreeNode {
 			case IDR_W_RADL:
 			case IDR_N_LP:
 			case CRA_NUT:
-				rbsp = new Slice_segment_layer_rbsp(rbsp_byte, numBytesInRBSP, nal_unit_type);
+				rbsp = createSliceRBSP(b -> new Slice_segment_layer_rbsp(b, numBytesInRBSP, nal_unit_type));
 				break;
 				
 			case FD_NUT:
@@ -23,6 +23,7 @@
 
 package nl.digitalekabeltelevisie.data.mpeg.pes.video26x;
 
+import java.util.function.Function;
 import java.util.logging.Logger;
 
 import javax.swing.tree.DefaultMutableTreeNode;
@@ -48,10 +49,22 @@ public abstract class AbstractNALUnit  implements TreeNode{
 	protected final byte[] bytes;
 	protected final int offset;
 	protected final int numBytesInNALunit;
+	/**
+	 * For slices only the RBSP bytes needed for the slice header are copied, slice data is not parsed.
+	 */
+	protected static final int SLICE_HEADER_MAX_BYTES = 512;
+
 	protected BitSource bs;
-	protected final byte[] rbsp_byte;
+	/**
+	 * complete RBSP, or only the first part of it (see {@link #readRBSPBytes(int)}). Use {@link #getRbsp_byte()} for the complete RBSP
+	 */
+	protected byte[] rbsp_byte;
 	protected int numBytesInRBSP = 0;
 	protected RBSP rbsp = null;
+	/**
+	 * position in bytes of the first RBSP byte, -1 when rbsp_byte is complete
+	 */
+	private int rbspStart = -1;
 
 	/**
 	 * 
@@ -61,16 +74,65 @@ public abstract class AbstractNALUnit  implements TreeNode{
 		this.bytes = bytes;
 		this.offset = offset;
 		this.numBytesInNALunit = len;
-		rbsp_byte = new byte[len]; // max len, maybe a bit shorter
 
 
 		bs = new BitSource(bytes, offset);
 
 	}
+
 	/**
-	 * 
+	 * Read the complete RBSP into rbsp_byte
 	 */
 	protected void readRBSPBytes() {
+		readRBSPBytes(numBytesInNALunit);
+	}
+
+	/**
+	 * Read the RBSP, starting at the current position of bs (after the NAL unit header). numBytesInRBSP is set to the
+	 * length of the complete RBSP, but only the first maxBytes are copied into rbsp_byte.
+	 *
+	 * @param maxBytes
+	 */
+	protected void readRBSPBytes(final int maxBytes) {
+		if (!bs.isByteAligned()) { // only after a not implemented NAL unit header extension
+			readRBSPBytesUnaligned();
+			return;
+		}
+		final int start = bs.getNextFullByteOffset();
+		// like the bit by bit version, reads numBytesInNALunit-1 bytes, even when the header is longer than 1 byte
+		final int end = (start + numBytesInNALunit) - 1;
+		if (end > bytes.length) {
+			throw new ArrayIndexOutOfBoundsException("NAL unit ends after end of data, offset=" + offset + ", len=" + numBytesInNALunit);
+		}
+		rbsp_byte = new byte[Math.min(numBytesInNALunit, maxBytes)]; // max len, maybe a bit shorter
+		numBytesInRBSP = StartCodeScanner.unescapeRBSP(bytes, start, end, rbsp_byte);
+		if (rbsp_byte.length < numBytesInNALunit) {
+			rbspStart = start;
+		}
+	}
+
+	/**
+	 * Create the RBSP of a slice from the first part of the RBSP bytes, which is enough for almost all slice headers.
+	 * When the header is longer, the complete RBSP is read and the RBSP is created again.
+	 *
+	 * @param constructor creates the RBSP from rbsp_byte
+	 * @return
+	 */
+	protected RBSP createSliceRBSP(final Function<byte[], RBSP> constructor) {
+		try {
+			return constructor.apply(rbsp_byte);
+		} catch (final ArrayIndexOutOfBoundsException e) {
+			if (rbspStart < 0) {
+				throw e;
+			}
+			rbsp_byte = getRbsp_byte();
+			rbspStart = -1;
+			return constructor.apply(rbsp_byte);
+		}
+	}
+
+	private void readRBSPBytesUnaligned() {
+		rbsp_byte = new byte[numBytesInNALunit]; // max len, maybe a bit shorter
 		numBytesInRBSP = 0;
 		for(int i = 1; i < numBytesInNALunit; i++ ) {
 			if( ((i + 2) < numBytesInNALunit) && (bs.nextBits(24) == 0x000003) ) {
@@ -93,8 +155,16 @@ public abstract class AbstractNALUnit  implements TreeNode{
 	}
 
 
+	/**
+	 * @return the complete RBSP, when only the first part is kept the RBSP is extracted again (and not kept)
+	 */
 	public byte[] getRbsp_byte() {
-		return rbsp_byte;
+		if (rbspStart < 0) {
+			return rbsp_byte;
+		}
+		final byte[] result = new byte[numBytesInNALunit];
+		StartCodeScanner.unescapeRBSP(bytes, rbspStart, (rbspStart + numBytesInNALunit) - 1, result);
+		return result;
 	}
 
 	public int getNumBytesInRBSP() {
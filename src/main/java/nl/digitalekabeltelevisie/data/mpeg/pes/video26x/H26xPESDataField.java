@@ -23,8 +23,6 @@
 
 package nl.digitalekabeltelevisie.data.mpeg.pes.video26x;
 
-import static nl.digitalekabeltelevisie.util.Utils.indexOf;
-
 import java.util.*;
 import java.util.logging.Logger;
 
@@ -49,22 +47,15 @@ public abstract class H26xPESDataField<E extends AbstractNALUnit> extends PesPac
 		super(pesPacket);
 		int i = pesDataStart;
 		while((i<(data.length))&&(i>=0)){
-			i = indexOf(data, new byte[]{0,0,1},i);
+			i = StartCodeScanner.indexOfStartCode(data, i);
 			if(i>=0){ // found start_code_prefix_one_3bytes
 
 				i+=3; // start of NAL unit
 				// now look for end, either byte[]{0,0,1} or byte[]{0,0,0} or  TODO end of PES data
-				final int zeroEnd = indexOf(data, new byte[]{0,0,0},i);
-				final int oneEnd = indexOf(data, new byte[]{0,0,1},i);
+				final int nextEnd = StartCodeScanner.indexOfNALUnitEnd(data, i);
 				final int end;
-				if(zeroEnd>=0){
-					if(oneEnd>=0){
-						end = Math.min(zeroEnd, oneEnd);
-					}else{  // oneEnd not found, use zero Ende
-						end = zeroEnd;
-					}
-				}else if(oneEnd>=0){
-					end = oneEnd;
+				if(nextEnd>=0){
+					end = nextEnd;
 				}else{ // both not found, use pesLen
 					end = pesDataLen;
 				}
@@ -0,0 +1,139 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg.pes.video26x;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Fast search for the three byte patterns in H.264 / H.265 byte streams; start_code_prefix_one_3bytes (0x000001),
+ * the end of a NAL unit (0x000000 or 0x000001) and emulation_prevention_three_byte (0x000003).
+ *
+ * The position of the third byte is tested 8 bytes at a time. Only when a long contains a byte that can be the third
+ * byte of the pattern the bytes are checked one by one. In slice data this skips almost all bytes.
+ *
+ * @author Eric
+ *
+ */
+public final class StartCodeScanner {
+
+	private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+	private static final long ONES = 0x0101010101010101L;
+	private static final long HIGHS = 0x8080808080808080L;
+
+	private StartCodeScanner() {
+		// static only
+	}
+
+	/**
+	 * @param data
+	 * @param from first position to look at
+	 * @return position of the first 0x000001 at or after from, or -1
+	 */
+	public static int indexOfStartCode(final byte[] data, final int from) {
+		return indexOf(data, from, data.length, 1, 1);
+	}
+
+	/**
+	 * @param data
+	 * @param from first position to look at
+	 * @return position of the first 0x000000 or 0x000001 at or after from, or -1
+	 */
+	public static int indexOfNALUnitEnd(final byte[] data, final int from) {
+		return indexOf(data, from, data.length, 0, 1);
+	}
+
+	/**
+	 * Copy the RBSP from a NAL unit, without the emulation_prevention_three_byte (0x03 in 0x000003).
+	 * When dest is too small to hold the result, it is filled and the remainder is only counted.
+	 *
+	 * @param src NAL unit data
+	 * @param from start of RBSP in src
+	 * @param to end (exclusive) of RBSP in src
+	 * @param dest
+	 * @return length of the complete RBSP, which can be more than dest.length
+	 */
+	public static int unescapeRBSP(final byte[] src, final int from, final int to, final byte[] dest) {
+		int len = 0;
+		int runStart = from;
+		int p = indexOf(src, from, to, 3, 3);
+		while (p >= 0) {
+			len = copy(src, runStart, (p + 2) - runStart, dest, len);
+			runStart = p + 3;
+			p = indexOf(src, runStart, to, 3, 3);
+		}
+		return copy(src, runStart, to - runStart, dest, len);
+	}
+
+	private static int copy(final byte[] src, final int srcPos, final int length, final byte[] dest, final int destPos) {
+		final int n = Math.min(length, dest.length - destPos);
+		if (n > 0) {
+			System.arraycopy(src, srcPos, dest, destPos, n);
+		}
+		return destPos + length;
+	}
+
+	/**
+	 * @return first position p &gt;= from with data[p]==0, data[p+1]==0, low &lt;= data[p+2] &lt;= high and p+2 &lt; to, or -1
+	 */
+	private static int indexOf(final byte[] data, final int from, final int to, final int low, final int high) {
+		final boolean single = low == high;
+		// pattern for a long that has the value of the third byte in every byte
+		final long lowBytes = ONES * low;
+		final long limit = ONES * (high + 1);
+		int q = Math.max(from, 0) + 2; // position of third byte
+		while (q < to) {
+			if ((q + 8) <= to) {
+				final long v = (long) LONG_VIEW.get(data, q);
+				// single value; does v contain a byte equal to low. Else does v contain a byte < high+1
+				final long x = single ? (v ^ lowBytes) : v;
+				if ((((x - (single ? ONES : limit)) & ~x) & HIGHS) == 0) {
+					q += 8;
+					continue;
+				}
+			}
+			final int stop = Math.min(q + 8, to);
+			while (q < stop) {
+				final int b = data[q] & 0xFF;
+				if ((b > high) || (b < low)) {
+					q++;
+				} else if (data[q - 1] != 0) {
+					q++;
+				} else if (data[q - 2] != 0) {
+					q++;
+				} else {
+					return q - 2;
+				}
+			}
+		}
+		return -1;
+	}
+
+}
@@ -39,6 +39,8 @@ import nl.digitalekabeltelevisie.controller.KVP;
 import nl.digitalekabeltelevisie.data.mpeg.TSPacket;
 import nl.digitalekabeltelevisie.data.mpeg.pes.GeneralPidHandler;
 import nl.digitalekabeltelevisie.gui.DVBtree;
+import nl.digitalekabeltelevisie.util.LazyListNode;
+import nl.digitalekabeltelevisie.util.ListItemGetter;
 
 public class T2miPidHandler extends GeneralPidHandler {
 	
@@ -55,7 +57,7 @@ public class T2miPidHandler extends GeneralPidHandler {
 	@Override
 	public DefaultMutableTreeNode getJTreeNode(int modus) {
 		DefaultMutableTreeNode t = new DefaultMutableTreeNode(new KVP("T2MI"));
-		addListJTree(t,t2miPackets,modus,"T2MI Packets");
+		addLazyListJTree(t,t2miPackets,modus,"T2MI Packets");
 		DefaultMutableTreeNode plpsTree = new DefaultMutableTreeNode(new KVP("PLPs"));
 		final Iterator<Integer> plpIter = new TreeSet<Integer>(plps.keySet()).iterator();
 		while(plpIter.hasNext()){
@@ -63,12 +65,10 @@ public class T2miPidHandler extends GeneralPidHandler {
 			List<T2miPacket> itemList = plps.get(plpId);
 			if((itemList!=null)&&(itemList.size()!=0)){
 					KVP kvp = new KVP("plp:"+plpId +": "+ itemList.size()+" entries");
-					final DefaultMutableTreeNode plpListNode = new DefaultMutableTreeNode(kvp);
 					final JMenuItem objectMenu = new JMenuItem("Save embedded TS as...");
 					objectMenu.setActionCommand(DVBtree.T2MI);
 					kvp.setSubMenuAndOwner(objectMenu,new PlpHandler(pid.getPid(), plpId, itemList));
-
-					addToList(plpListNode, itemList, modus);
+					final DefaultMutableTreeNode plpListNode = new LazyListNode(new ListItemGetter<>(itemList, modus), kvp);
 					plpsTree.add(plpListNode);
 			}
 		}
@@ -27,13 +27,26 @@
 
 package nl.digitalekabeltelevisie.data.mpeg.psi;
 
+import java.util.List;
+
 import javax.swing.tree.DefaultMutableTreeNode;
 
 import nl.digitalekabeltelevisie.controller.TreeNode;
+import nl.digitalekabeltelevisie.data.mpeg.PID;
 import nl.digitalekabeltelevisie.data.mpeg.PSI;
 
 public abstract class AbstractPSITabel implements TreeNode{
 
+	/**
+	 * for a live stream only the first version and the last {@value #MAX_LIVE_SECTION_VERSIONS} - 1 versions of a section are kept
+	 */
+	public static final int MAX_LIVE_SECTION_VERSIONS = 100;
+	/**
+	 * for a live stream lists of sections that only grow (like TDT and SCTE-35) keep at least the last {@value #MAX_LIVE_SECTIONS}
+	 * sections, and at most twice that number
+	 */
+	public static final int MAX_LIVE_SECTIONS = 1000;
+
 	protected PSI parentPSI;
 
 	protected AbstractPSITabel(final PSI parentPSI) {
@@ -80,20 +93,80 @@ public abstract class AbstractPSITabel implements TreeNode{
 			last = last.getNextVersion();
 		}
 		if(last.equals(newSection)){ // already have an instance if this section, just update the stats on the existing section
-			int previousPacketNo = last.getLast_packet_no();
-			int distance = newSection.getPacket_no() - previousPacketNo;
-			if(distance>last.getMaxPacketDistance()){
-				last.setMaxPacketDistance(distance);
-			}
-			if(distance<last.getMinPacketDistance()){
-				last.setMinPacketDistance(distance);
-			}
-			last.setLast_packet_no(newSection.getPacket_no());
-			last.setOccurrence_count(last.getOccurrence_count()+1);
+			updateOccurrence(last, newSection.getPacket_no());
 			return last;
 		}
 		last.setNextVersion(newSection);
+		if(isLive(newSection)) {
+			removeOldVersions(section);
+		}
 		return newSection;
 	}
 
+	/**
+	 * When the chain of versions starting at section is longer than {@value #MAX_LIVE_SECTION_VERSIONS}, remove the second version.
+	 * The first version stays, because the caller keeps a reference to it.
+	 *
+	 * @param section
+	 */
+	private static void removeOldVersions(final TableSection section) {
+		int versions = 1;
+		for(TableSection v = section.getNextVersion(); v!=null; v = v.getNextVersion()) {
+			versions++;
+		}
+		if(versions > MAX_LIVE_SECTION_VERSIONS) {
+			section.setNextVersion(section.getNextVersion().getNextVersion());
+		}
+	}
+
+	/**
+	 * @param section
+	 * @return true when section is read from a live stream, see {@link nl.digitalekabeltelevisie.data.mpeg.TransportStream#isLive()}
+	 */
+	protected static boolean isLive(final TableSection section) {
+		final PID pid = section.getParentPID();
+		return (pid != null) && (pid.getParentTransportStream() != null) && pid.getParentTransportStream().isLive();
+	}
+
+	/**
+	 * For a live stream, remove the oldest {@value #MAX_LIVE_SECTIONS} elements when list has grown to twice that size.
+	 *
+	 * @param list of sections (or versions, occurrences of sections), oldest first
+	 * @param added last section added to list
+	 */
+	protected static void removeOldSections(final List<?> list, final TableSection added) {
+		removeOldSections(list, (list.size() >= (2 * MAX_LIVE_SECTIONS)) && isLive(added));
+	}
+
+	/**
+	 * Same as {@link #removeOldSections(List, TableSection)}, for elements that do not know their transport stream.
+	 *
+	 * @param list oldest first
+	 * @param live true when list belongs to a live stream
+	 */
+	protected static void removeOldSections(final List<?> list, final boolean live) {
+		if(live && (list.size() >= (2 * MAX_LIVE_SECTIONS))) {
+			list.subList(0, MAX_LIVE_SECTIONS).clear();
+		}
+	}
+
+	/**
+	 * update the statistics of section for another occurrence of the same section, starting at packetNo
+	 *
+	 * @param section
+	 * @param packetNo
+	 */
+	public static void updateOccurrence(final TableSection section, final int packetNo) {
+		int previousPacketNo = section.getLast_packet_no();
+		int distance = packetNo - previousPacketNo;
+		if(distance>section.getMaxPacketDistance()){
+			section.setMaxPacketDistance(distance);
+		}
+		if(distance<section.getMinPacketDistance()){
+			section.setMinPacketDistance(distance);
+		}
+		section.setLast_packet_no(packetNo);
+		section.setOccurrence_count(section.getOccurrence_count()+1);
+	}
+
 }
@@ -50,7 +50,11 @@ public class BAT extends AbstractPSITabel{
 		super(parent);
 	}
 
-	public void update(final BATsection section){
+	/**
+	 * @param section
+	 * @return the section in this table that holds the data of section (section itself, or an existing equal section)
+	 */
+	public TableSection update(final BATsection section){
 
 		final int key = section.getBouqetID();
 		BATsection [] sections= networks.get(key);
@@ -61,10 +65,10 @@ public class BAT extends AbstractPSITabel{
 		}
 		if(sections[section.getSectionNumber()]==null){
 			sections[section.getSectionNumber()] = section;
-		}else{
-			final TableSection last = sections[section.getSectionNumber()];
-			updateSectionVersion(section, last);
+			return section;
 		}
+		final TableSection last = sections[section.getSectionNumber()];
+		return updateSectionVersion(section, last);
 	}
 
 	@Override
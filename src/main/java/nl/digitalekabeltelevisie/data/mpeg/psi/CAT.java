@@ -62,18 +62,18 @@ public class CAT extends AbstractPSITabel {
 
 	/**
 	 * @param section
+	 * @return the section in this table that holds the data of section (section itself, or an existing equal section)
 	 */
-	public void update(final CAsection section) {
+	public TableSection update(final CAsection section) {
 		if (cat == null) {
 			cat = new CAsection[section.getSectionLastNumber() + 1];
 		}
 		if (cat[section.getSectionNumber()] == null) {
 			cat[section.getSectionNumber()] = section;
-		} else {
-			final TableSection last = cat[section.getSectionNumber()];
-			updateSectionVersion(section, last);
+			return section;
 		}
-
+		final TableSection last = cat[section.getSectionNumber()];
+		return updateSectionVersion(section, last);
 	}
 
 	public DefaultMutableTreeNode getJTreeNode(final int modus) {
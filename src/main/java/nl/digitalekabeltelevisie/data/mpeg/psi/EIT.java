@@ -66,7 +66,11 @@ public class EIT extends AbstractPSITabel{
 		super(parent);
 	}
 
-	public void update(final EITsection section){
+	/**
+	 * @param section
+	 * @return the section in this table that holds the data of section (section itself, or an existing equal section)
+	 */
+	public TableSection update(final EITsection section){
 
 		final int original_network_id = section.getOriginalNetworkID();
 		final int streamId = section.getTransportStreamID();
@@ -85,10 +89,10 @@ public class EIT extends AbstractPSITabel{
 		
 		if(tableSectionArray[section.getSectionNumber()]==null){
 			tableSectionArray[section.getSectionNumber()] = section;
-		}else{
-			final TableSection last = tableSectionArray[section.getSectionNumber()];
-			updateSectionVersion(section, last);
+			return section;
 		}
+		final TableSection last = tableSectionArray[section.getSectionNumber()];
+		return updateSectionVersion(section, last);
 	}
 
 	@Override
@@ -167,7 +171,7 @@ public class EIT extends AbstractPSITabel{
 								if(!simpleModus(modus)){
 									addSectionVersionsToJTree(tableNode, section, modus);
 								}else{
-									addListJTree(tableNode,section.getEventList(),modus,"events");
+									addLazyListJTree(tableNode,section.getEventList(),modus,"events");
 								}
 							}
 						}
@@ -0,0 +1,272 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg.psi;
+
+import static nl.digitalekabeltelevisie.util.Utils.*;
+
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import nl.digitalekabeltelevisie.data.mpeg.psi.EITsection.Event;
+import nl.digitalekabeltelevisie.util.*;
+
+/**
+ * Index of the events of a set of services, with start time and duration parsed once.
+ *
+ * The EIT stores start times as MJD/BCD and durations as BCD. Drawing an EPG grid, finding the event under the mouse,
+ * and determining the spanning interval all need these as numbers. This class parses them once, and keeps per service
+ * the events sorted by start time, so the events overlapping a time range can be found with a binary search.
+ *
+ * Events are returned in the order they appear in the EIT sections (section order, then event order), so drawing them
+ * gives the same result as iterating over the sections.
+ *
+ * Events with an undefined or invalid start time are ignored. Events with an invalid duration only contribute
+ * their start to the spanning interval, like {@link EIT#getSpanningInterval(Set, Map)}.
+ *
+ * @author Eric
+ *
+ */
+public class EITEventIndex {
+
+	private static final Logger	logger	= Logger.getLogger(EITEventIndex.class.getName());
+
+	/**
+	 * Events of a single service
+	 */
+	public static class ServiceEvents {
+
+		private final Event[] events;
+		private final long[] start;
+		private final long[] duration;
+
+		/**
+		 * indices into events, sorted by start time
+		 */
+		private final int[] byStart;
+		private final long[] sortedStart;
+		private final long maxDuration;
+
+		ServiceEvents(final List<Event> eventList, final List<Long> startList, final List<Long> durationList) {
+			final int n = eventList.size();
+			events = eventList.toArray(new Event[n]);
+			start = new long[n];
+			duration = new long[n];
+			long max = 0;
+			for (int i = 0; i < n; i++) {
+				start[i] = startList.get(i);
+				duration[i] = durationList.get(i);
+				max = Math.max(max, duration[i]);
+			}
+			maxDuration = max;
+
+			final Integer[] order = new Integer[n];
+			for (int i = 0; i < n; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, Comparator.comparingLong(i -> start[i])); // stable, ties keep EIT order
+			byStart = new int[n];
+			sortedStart = new long[n];
+			for (int i = 0; i < n; i++) {
+				byStart[i] = order[i];
+				sortedStart[i] = start[order[i]];
+			}
+		}
+
+		/**
+		 * @return number of events with a valid start time and duration
+		 */
+		public int size() {
+			return events.length;
+		}
+
+		public Event getEvent(final int i) {
+			return events[i];
+		}
+
+		/**
+		 * @param i
+		 * @return start time of event i in milliseconds since epoch
+		 */
+		public long getStart(final int i) {
+			return start[i];
+		}
+
+		/**
+		 * @param i
+		 * @return duration of event i in milliseconds
+		 */
+		public long getDuration(final int i) {
+			return duration[i];
+		}
+
+		/**
+		 * Find the events that overlap [from,to), so that start &lt; to and end &gt; from.
+		 *
+		 * @param from milliseconds since epoch
+		 * @param to milliseconds since epoch
+		 * @return indices of the events, ascending (so in EIT order)
+		 */
+		public int[] findEvents(final long from, final long to) {
+			int[] result = new int[8];
+			int count = 0;
+			for (int k = lowerBound(from - maxDuration); (k < sortedStart.length) && (sortedStart[k] < to); k++) {
+				final int i = byStart[k];
+				if ((start[i] + duration[i]) > from) {
+					if (count == result.length) {
+						result = Arrays.copyOf(result, count * 2);
+					}
+					result[count++] = i;
+				}
+			}
+			result = Arrays.copyOf(result, count);
+			Arrays.sort(result);
+			return result;
+		}
+
+		/**
+		 * Find the first event (in EIT order) that is running at time, so start &lt;= time &lt; end.
+		 *
+		 * @param time milliseconds since epoch
+		 * @return the event, or null when there is none
+		 */
+		public Event findEvent(final long time) {
+			int found = -1;
+			for (int k = lowerBound(time - maxDuration); (k < sortedStart.length) && (sortedStart[k] <= time); k++) {
+				final int i = byStart[k];
+				if (((start[i] + duration[i]) > time) && ((found == -1) || (i < found))) {
+					found = i;
+				}
+			}
+			return found == -1 ? null : events[found];
+		}
+
+		/**
+		 * @param time
+		 * @return position of the first event in sortedStart with start &gt;= time
+		 */
+		private int lowerBound(final long time) {
+			int low = 0;
+			int high = sortedStart.length;
+			while (low < high) {
+				final int mid = (low + high) >>> 1;
+				if (sortedStart[mid] < time) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+
+	private final ServiceIdentification[] services;
+	private final ServiceEvents[] serviceEvents;
+	private final Interval interval;
+
+	/**
+	 * @param serviceSet services to index, the order of this set determines the row numbers
+	 * @param eitTable map of service IDs to EITSection[] Can contain sections from different Table IDs
+	 */
+	public EITEventIndex(final SortedSet<ServiceIdentification> serviceSet, final Map<ServiceIdentification, EITsection[]> eitTable) {
+		services = serviceSet.toArray(new ServiceIdentification[0]);
+		serviceEvents = new ServiceEvents[services.length];
+
+		long first = Long.MAX_VALUE;
+		long last = Long.MIN_VALUE;
+		final List<Event> events = new ArrayList<>();
+		final List<Long> starts = new ArrayList<>();
+		final List<Long> durations = new ArrayList<>();
+		for (int s = 0; s < services.length; s++) {
+			events.clear();
+			starts.clear();
+			durations.clear();
+			for (final EITsection section : eitTable.get(services[s])) {
+				if (section != null) {
+					for (final Event event : section.getEventList()) {
+						final byte[] startTime = event.getStartTime();
+						if (isUndefined(startTime)) {
+							continue;
+						}
+						final Date eventStart = getUTCDate(startTime);
+						if (eventStart == null) {
+							continue;
+						}
+						first = Math.min(first, eventStart.getTime());
+						try {
+							final long eventDuration = getDurationMillis(event.getDuration());
+							last = Math.max(last, eventStart.getTime() + eventDuration);
+							events.add(event);
+							starts.add(eventStart.getTime());
+							durations.add(eventDuration);
+						} catch (final NumberFormatException nfe) {
+							logger.log(Level.WARNING, "EITEventIndex: Event.duration is not a valid BCD number;", nfe);
+						}
+					}
+				}
+			}
+			serviceEvents[s] = new ServiceEvents(events, starts, durations);
+		}
+		if (last != Long.MIN_VALUE) {
+			interval = new Interval(new Date(first), new Date(last));
+		} else {
+			interval = null;
+		}
+	}
+
+	/**
+	 * @return Interval that covers all events, or null when there are no events
+	 */
+	public Interval getInterval() {
+		return interval;
+	}
+
+	/**
+	 * @return number of services
+	 */
+	public int getServiceCount() {
+		return services.length;
+	}
+
+	/**
+	 * @param row
+	 * @return service at position row in the set used to create this index
+	 */
+	public ServiceIdentification getService(final int row) {
+		return services[row];
+	}
+
+	/**
+	 * @param row
+	 * @return events of service at position row
+	 */
+	public ServiceEvents getServiceEvents(final int row) {
+		return serviceEvents[row];
+	}
+
+}
@@ -412,7 +412,7 @@ public class EITsection extends TableSectionExtendedSyntax{
 		t.add(new DefaultMutableTreeNode(new KVP("segment_last_section_number",segmentLastSectionNumber,null)));
 		t.add(new DefaultMutableTreeNode(new KVP("last_table_id",lastTableID,null)));
 
-		Utils.addListJTree(t,eventList,modus,"events");
+		Utils.addLazyListJTree(t,eventList,modus,"events");
 
 		return t;
 	}
@@ -38,7 +38,6 @@ import javax.swing.tree.DefaultMutableTreeNode;
 import nl.digitalekabeltelevisie.controller.KVP;
 import nl.digitalekabeltelevisie.data.mpeg.PSI;
 import nl.digitalekabeltelevisie.gui.utils.GuiUtils;
-import nl.digitalekabeltelevisie.util.PreferencesManager;
 import nl.digitalekabeltelevisie.util.Utils;
 
 /**
@@ -91,7 +90,11 @@ public class GeneralPSITable extends AbstractPSITabel{
 		super(parent);
 	}
 
-	public void update(final TableSection section){
+	/**
+	 * @param section
+	 * @return the section in this table that holds the data of section (section itself, or an existing equal section)
+	 */
+	public TableSection update(final TableSection section){
 
 		int startPacket = section.getPacket_no();
 
@@ -107,12 +110,13 @@ public class GeneralPSITable extends AbstractPSITabel{
 			}
 			if(sections[section.getSectionNumber()]==null){
 				sections[section.getSectionNumber()] = section;
-				tableSectionOccurrences.add(new TableSectionOccurrence(startPacket, section));
-			}else{
-				final TableSection last = sections[section.getSectionNumber()];
-				TableSection refSection = updateSectionVersion(section, last);
-				tableSectionOccurrences.add(new TableSectionOccurrence(startPacket, refSection));
+				addOccurrence(startPacket, section);
+				return section;
 			}
+			final TableSection last = sections[section.getSectionNumber()];
+			TableSection refSection = updateSectionVersion(section, last);
+			addOccurrence(startPacket, refSection);
+			return refSection;
 		}else{ // short syntax, section_syntax_indicator==0
 			// look for duplicates, if so update counters on existing on
 
@@ -129,22 +133,40 @@ public class GeneralPSITable extends AbstractPSITabel{
 
 					existingSection.setLast_packet_no(section.getPacket_no());
 					existingSection.setOccurrence_count(existingSection.getOccurrence_count()+1);
-					tableSectionOccurrences.add(new TableSectionOccurrence(startPacket, existingSection));
-					return;
+					addOccurrence(startPacket, existingSection);
+					return existingSection;
 				}
 			}
 			simpleSectionsd.add(section);
-			tableSectionOccurrences.add(new TableSectionOccurrence(startPacket, section));
+			addOccurrence(startPacket, section);
+			return section;
 		}
 	}
 
+	/**
+	 * Same as {@link #update(TableSection)} for a long syntax section with the same content as existingSection, which is the latest version in this table.
+	 * Only statistics are updated.
+	 *
+	 * @param existingSection
+	 * @param packetNo start of the new occurrence
+	 */
+	public void updateRepeated(final TableSection existingSection, final int packetNo) {
+		updateOccurrence(existingSection, packetNo);
+		addOccurrence(packetNo, existingSection);
+	}
+
+	private void addOccurrence(final int packetNo, final TableSection section) {
+		tableSectionOccurrences.add(new TableSectionOccurrence(packetNo, section));
+		removeOldSections(tableSectionOccurrences, section);
+	}
+
 	/* (non-Javadoc)
 	 * @see nl.digitalekabeltelevisie.controller.TreeNode#getJTreeNode(int)
 	 */
 	public DefaultMutableTreeNode getJTreeNode(final int modus) {
 
 		final DefaultMutableTreeNode t = new DefaultMutableTreeNode(new KVP("PSI Data"));
-		if(!PreferencesManager.isEnableGenericPSI()) {
+		if(!parentPSI.getParseSettings().enableGenericPSI()) {
 		    t.add(new DefaultMutableTreeNode(GuiUtils.getErrorKVP ("Generic PSI not enabled, select 'Settings -> Enable Generic PSI' to enable ")));
 		    return t;
 		}
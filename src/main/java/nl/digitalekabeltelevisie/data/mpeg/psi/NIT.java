@@ -49,6 +49,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 import javax.swing.table.TableModel;
 import javax.swing.tree.DefaultMutableTreeNode;
@@ -73,21 +75,44 @@ public class NIT extends AbstractPSITabel{
 
 	private Map<Integer, NITsection []> networks = new HashMap<>();
 
+	// lookup indexes, built on first use and discarded when a new section (version) is added. null when not valid
+	private Integer actualNetworkID;
+	private Map<Long, Integer> lcnIndex;
+	private Map<Long, Integer> hdSimulcastLcnIndex;
+	private Map<Long, Integer> originalNetworkIDIndex;
+
 
 	public NIT(final PSI parent){
 		super(parent);
 	}
 
-	public void update(final NITsection section){
+	/**
+	 * @param section
+	 * @return the section in this table that holds the data of section (section itself, or an existing equal section)
+	 */
+	public TableSection update(final NITsection section){
 		final int key = section.getNetworkID();
 		NITsection[] sections = networks.computeIfAbsent(key, k -> new NITsection[section.getSectionLastNumber() + 1]);
 
 		if(sections[section.getSectionNumber()]==null){
 			sections[section.getSectionNumber()] = section;
-		}else{
-			final TableSection last = sections[section.getSectionNumber()];
-			updateSectionVersion(section, last);
+			invalidateIndexes();
+			return section;
 		}
+		final TableSection last = sections[section.getSectionNumber()];
+		final TableSection result = updateSectionVersion(section, last);
+		if(result==section) { // new version
+			invalidateIndexes();
+		}
+		return result;
+	}
+
+	private void invalidateIndexes() {
+		actualNetworkID = null;
+		lcnIndex = null;
+		hdSimulcastLcnIndex = null;
+		originalNetworkIDIndex = null;
+		parentPSI.getPidRoleIndex().invalidate();
 	}
 
 	@Override
@@ -140,61 +165,70 @@ public class NIT extends AbstractPSITabel{
 	}
 
 
+	/**
+	 * @param networkNo
+	 * @param streamID
+	 * @param serviceID
+	 * @return logical channel number from the EACEM logical_channel_descriptor for the service, or -1 if not found
+	 */
 	public int getLCN(final int networkNo, final int streamID, final int serviceID){
-		int r = -1;
-		final NITsection [] sections = networks.get(networkNo);
-		if(sections!=null){
-			for (final NITsection section : sections) {
-				if(section!= null){
-					for(final NITsection.TransportStream stream :section.getTransportStreamList() ){
-						if(stream.getTransportStreamID()==streamID) {
-							final List<LogicalChannelDescriptor> logicalChannelDescriptorList = Descriptor.findGenericDescriptorsInList(stream.getDescriptorList(),LogicalChannelDescriptor.class);
-							if(logicalChannelDescriptorList.size()>0) {
-								final LogicalChannelDescriptor d = logicalChannelDescriptorList.get(0); // there should be only one..
-								for ( final LogicalChannelDescriptor.LogicalChannel ch : d.getChannelList()){
-									if(ch.getServiceID()==serviceID){
-										r = ch.getLogicalChannelNumber();
-										return r;
-									}
-								}
-							}
-						}
-					}
-				}
-			}
+		Map<Long, Integer> index = lcnIndex;
+		if(index == null) {
+			index = buildChannelIndex(LogicalChannelDescriptor.class, LogicalChannelDescriptor::getChannelList,
+					LogicalChannelDescriptor.LogicalChannel::getServiceID, LogicalChannelDescriptor.LogicalChannel::getLogicalChannelNumber);
+			lcnIndex = index;
 		}
-		return r;
+		return index.getOrDefault(serviceKey(networkNo, streamID, serviceID), -1);
 	}
 
+	/**
+	 * @param networkNo
+	 * @param streamID
+	 * @param serviceID
+	 * @return logical channel number from the EACEM HD_simulcast_logical_channel_descriptor for the service, or -1 if not found
+	 */
 	public int getHDSimulcastLCN(final int networkNo, final int streamID,
 			final int serviceID) {
-		int r = -1;
-		final NITsection[] sections = networks.get(networkNo);
-		if (sections != null) {
-			for (final NITsection section : sections) {
+		Map<Long, Integer> index = hdSimulcastLcnIndex;
+		if(index == null) {
+			index = buildChannelIndex(HDSimulcastLogicalChannelDescriptor.class, HDSimulcastLogicalChannelDescriptor::getChannelList,
+					HDSimulcastLogicalChannelDescriptor.LogicalChannel::getServiceID, HDSimulcastLogicalChannelDescriptor.LogicalChannel::getLogicalChannelNumber);
+			hdSimulcastLcnIndex = index;
+		}
+		return index.getOrDefault(serviceKey(networkNo, streamID, serviceID), -1);
+	}
+
+	private static long serviceKey(final int networkNo, final int streamID, final int serviceID) {
+		return ((long)networkNo << 32) | ((long)streamID << 16) | serviceID;
+	}
+
+	/**
+	 * Only the first descriptor of type descriptorClass in each transport stream loop is used (there should be only one..).
+	 * When a service is listed more than once, the first occurrence wins.
+	 *
+	 * @return map from (network_id, transport_stream_id, service_id) to logical channel number
+	 */
+	private <D extends Descriptor, C> Map<Long, Integer> buildChannelIndex(final Class<D> descriptorClass,
+			final Function<D, List<C>> channelList,
+			final ToIntFunction<C> serviceID,
+			final ToIntFunction<C> logicalChannelNumber) {
+		final Map<Long, Integer> index = new HashMap<>();
+		for (final Map.Entry<Integer, NITsection[]> network : networks.entrySet()) {
+			for (final NITsection section : network.getValue()) {
 				if (section != null) {
-					for (final NITsection.TransportStream stream : section
-							.getTransportStreamList()) {
-						if (stream.getTransportStreamID() == streamID) {
-							final List<HDSimulcastLogicalChannelDescriptor> hdSimulcastDescriptorList = Descriptor
-									.findGenericDescriptorsInList(
-											stream.getDescriptorList(),
-											HDSimulcastLogicalChannelDescriptor.class);
-							if (hdSimulcastDescriptorList.size() > 0) {
-								final HDSimulcastLogicalChannelDescriptor d = hdSimulcastDescriptorList.get(0); // there should be only one..
-								for (final HDSimulcastLogicalChannelDescriptor.LogicalChannel ch : d.getChannelList()) {
-									if (ch.getServiceID() == serviceID) {
-										r = ch.getLogicalChannelNumber();
-										return r;
-									}
-								}
+					for (final NITsection.TransportStream stream : section.getTransportStreamList()) {
+						final List<D> descriptorList = Descriptor.findGenericDescriptorsInList(stream.getDescriptorList(), descriptorClass);
+						if (!descriptorList.isEmpty()) {
+							for (final C ch : channelList.apply(descriptorList.get(0))) {
+								index.putIfAbsent(serviceKey(network.getKey(), stream.getTransportStreamID(), serviceID.applyAsInt(ch)),
+										logicalChannelNumber.applyAsInt(ch));
 							}
 						}
 					}
 				}
 			}
 		}
-		return r;
+		return index;
 	}
 
 	public boolean exists(final int netWorkID, final int section){
@@ -209,21 +243,34 @@ public class NIT extends AbstractPSITabel{
 
 	public void setNetworks(final Map<Integer, NITsection[]> networks) {
 		this.networks = networks;
+		invalidateIndexes();
 	}
 
+	/**
+	 * @return lowest network_id that has a network_information_section - actual_network, or -1 if none
+	 */
 	public int getActualNetworkID(){
-
-		final TreeSet<Integer> s = new TreeSet<>(networks.keySet());
-
-		for (Integer networkNo : s) {
-			final NITsection[] sections = networks.get(networkNo);
-			for (final NITsection tsection : sections) {
-				if ((tsection != null) && (tsection.getTableId() == 0x40)) {
-					return networkNo;
+		Integer result = actualNetworkID;
+		if (result == null) {
+			result = -1;
+			for (Integer networkNo : new TreeSet<>(networks.keySet())) {
+				if (hasActualSection(networks.get(networkNo))) {
+					result = networkNo;
+					break;
 				}
 			}
+			actualNetworkID = result;
 		}
-		return -1;
+		return result;
+	}
+
+	private static boolean hasActualSection(final NITsection[] sections) {
+		for (final NITsection tsection : sections) {
+			if ((tsection != null) && (tsection.getTableId() == 0x40)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	public List<Descriptor> getNetworkDescriptors(final int networkNo){
@@ -491,18 +538,21 @@ public class NIT extends AbstractPSITabel{
 	 * @return OriginalNetworkID for streamID, or -1 if stream not found in network with ID networkID
 	 */
 	public int getOriginalNetworkID(int networkID, int streamID) {
-		final NITsection[] sections = networks.get(networkID);
-		if (sections != null) {
-			for (final NITsection tsection : sections) {
-				if (tsection != null) {
-					TransportStream ts = tsection.getTransportStream(streamID);
-					if (ts != null) {
-						return ts.getOriginalNetworkID();
+		Map<Long, Integer> index = originalNetworkIDIndex;
+		if (index == null) {
+			index = new HashMap<>();
+			for (final Map.Entry<Integer, NITsection[]> network : networks.entrySet()) {
+				for (final NITsection tsection : network.getValue()) {
+					if (tsection != null) {
+						for (final TransportStream ts : tsection.getTransportStreamList()) {
+							index.putIfAbsent(serviceKey(network.getKey(), ts.getTransportStreamID(), 0), ts.getOriginalNetworkID());
+						}
 					}
 				}
 			}
+			originalNetworkIDIndex = index;
 		}
-		return -1;
+		return index.getOrDefault(serviceKey(networkID, streamID, 0), -1);
 	}
 
 }
@@ -47,8 +47,13 @@ public class NetworkSync extends AbstractPSITabel{
 		super(parent);
 	}
 
-	public void update(final MegaFrameInitializationPacket section){
+	/**
+	 * @param section
+	 * @param live true when read from a live stream, then only the most recent packets are kept
+	 */
+	public void update(final MegaFrameInitializationPacket section, final boolean live){
 		megaFrameList.add(section);
+		removeOldSections(megaFrameList, live);
 
 	}
 
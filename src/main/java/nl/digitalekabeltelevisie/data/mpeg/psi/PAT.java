@@ -72,9 +72,12 @@ public class PAT extends AbstractPSITabel{
 
 		if(pat[section.getSectionNumber()]==null){
 			pat[section.getSectionNumber()] = section;
+			parentPSI.getPidRoleIndex().invalidate();
 		}else{
 			final TableSection last = pat[section.getSectionNumber()];
-			updateSectionVersion(section, last);
+			if(updateSectionVersion(section, last)==section) { // new version
+				parentPSI.getPidRoleIndex().invalidate();
+			}
 		}
 		if(section.getVersion()!=actualVersionNo){
 			if(newPAT==null){
@@ -88,6 +91,7 @@ public class PAT extends AbstractPSITabel{
 			if(allFilled){
 				PATsection[] actualPAT = newPAT;
 				patVersions.add(actualPAT);
+				removeOldSections(patVersions, section);
 				actualVersionNo = section.getVersion();
 				newPAT = null;
 			}
@@ -72,17 +72,29 @@ public class PMTs extends AbstractPSITabel implements Iterable<PMTsection []>{
 
 	private Map<Integer, PMTsection []> pmts = new HashMap<>();
 
-	public void update(final PMTsection section){
+	// PMTs by elementary PID, built on first use and discarded when a new section (version) is added. null when not valid
+	private Map<Integer, List<PMTsection>> componentPIDIndex;
+
+	/**
+	 * @param section
+	 * @return the section in this table that holds the data of section (section itself, or an existing equal section)
+	 */
+	public TableSection update(final PMTsection section){
 
 		final int programNumber = section.getProgramNumber();
 		PMTsection[] sections = pmts.computeIfAbsent(programNumber, k -> new PMTsection[section.getSectionLastNumber() + 1]);
 
 		if(sections[section.getSectionNumber()]==null){
 			sections[section.getSectionNumber()] = section;
-		}else{
-			final TableSection last = sections[section.getSectionNumber()];
-			updateSectionVersion(section, last);
+			invalidateIndexes();
+			return section;
+		}
+		final TableSection last = sections[section.getSectionNumber()];
+		final TableSection result = updateSectionVersion(section, last);
+		if(result==section) { // new version
+			invalidateIndexes();
 		}
+		return result;
 	}
 
 	public DefaultMutableTreeNode getJTreeNode(final int modus) {
@@ -235,17 +247,28 @@ public class PMTs extends AbstractPSITabel implements Iterable<PMTsection []>{
 	}
 	
 	public List<PMTsection>findPMTsFromComponentPID(int pid){
-		ArrayList<PMTsection> result = new ArrayList<>();
-		for(PMTsection[] pmtArray: pmts.values()){
-			PMTsection p = pmtArray[0];
-			for(Component component:p.getComponentenList()){
-				if(component.getElementaryPID()==pid){
-					result.add(p);
-					break; // every PMT is included once, even if more components wold point to same PID (which is illegal)
+		Map<Integer, List<PMTsection>> index = componentPIDIndex;
+		if(index == null) {
+			index = new HashMap<>();
+			for(PMTsection[] pmtArray: pmts.values()){
+				PMTsection p = pmtArray[0];
+				if(p != null) {
+					for(Component component:p.getComponentenList()){
+						List<PMTsection> list = index.computeIfAbsent(component.getElementaryPID(), k -> new ArrayList<>());
+						if(list.isEmpty() || (list.get(list.size() - 1) != p)) { // every PMT is included once, even if more components would point to same PID (which is illegal)
+							list.add(p);
+						}
+					}
 				}
 			}
+			componentPIDIndex = index;
 		}
-		return result;
+		return new ArrayList<>(index.getOrDefault(pid, List.of()));
+	}
+
+	private void invalidateIndexes() {
+		componentPIDIndex = null;
+		parentPSI.getPidRoleIndex().invalidate();
 	}
 
 	// PMT is always one section per program
@@ -264,6 +287,7 @@ public class PMTs extends AbstractPSITabel implements Iterable<PMTsection []>{
 
 	public void setPmts(final Map<Integer, PMTsection[]> pmts) {
 		this.pmts = pmts;
+		invalidateIndexes();
 	}
 
 
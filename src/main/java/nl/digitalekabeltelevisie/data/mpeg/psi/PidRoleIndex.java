@@ -0,0 +1,179 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg.psi;
+
+import static nl.digitalekabeltelevisie.data.mpeg.descriptors.Descriptor.findGenericDescriptorsInList;
+
+import java.util.List;
+
+import nl.digitalekabeltelevisie.data.mpeg.PSI;
+import nl.digitalekabeltelevisie.data.mpeg.PsiSectionData;
+import nl.digitalekabeltelevisie.data.mpeg.descriptors.*;
+import nl.digitalekabeltelevisie.data.mpeg.descriptors.DataBroadcastIDDescriptor.OUIEntry;
+import nl.digitalekabeltelevisie.data.mpeg.psi.PMTsection.Component;
+import nl.digitalekabeltelevisie.data.mpeg.psi.nonstandard.M7Fastscan;
+
+/**
+ * Some tables (INT, UNT, AIT, RCT, SCTE-35, DFIT, M7 ONT) can only be recognized by what is signalled for their PID in
+ * the PMTs or the NIT. Instead of walking all PMTs, components and descriptor lists for every section, the role of each
+ * PID is determined once, and kept in a bit mask per PID.
+ *
+ * The index is built lazily, and thrown away by {@link #invalidate()} whenever a new PAT, PMT or NIT section (or section version)
+ * is stored, so it always reflects the tables as they are at the moment of the lookup.
+ *
+ * @author Eric
+ *
+ */
+public class PidRoleIndex {
+
+	/** PID is a candidate for INT, linkage type 0x0B in NIT and data_broadcast_id 0x000B in PMT */
+	public static final int INT = 0x01;
+	/** PID is a candidate for UNT, data_broadcast_id 0x000A with update_type 0x2 or 0x3 in PMT */
+	public static final int UNT = 0x02;
+	/** PID is a candidate for AIT, application_signalling_descriptor in PMT */
+	public static final int AIT = 0x04;
+	/** PID is a candidate for RCT, related_content_descriptor in PMT */
+	public static final int RCT = 0x08;
+	/** PID is a candidate for SCTE-35, stream_type 0x86 in a PMT with SCTE-35 registration descriptor */
+	public static final int SPLICE_INFO = 0x10;
+	/** PID is a candidate for DFIT, data_broadcast_id 0x000D in PMT */
+	public static final int DFIT = 0x20;
+	/** PID is a candidate for M7 ONT, linkage type 0x8D in NIT */
+	public static final int ONT = 0x40;
+
+	private final PSI psi;
+
+	private byte[] roles;
+
+	public PidRoleIndex(final PSI psi) {
+		this.psi = psi;
+	}
+
+	/**
+	 * Forget the current roles, they will be determined again on the next lookup.
+	 */
+	public void invalidate() {
+		roles = null;
+	}
+
+	/**
+	 * @param pid
+	 * @param role one of the role constants
+	 * @return true if pid has role
+	 */
+	public boolean hasRole(final int pid, final int role) {
+		byte[] r = roles;
+		if (r == null) {
+			r = build();
+			roles = r;
+		}
+		return (r[pid & 0x1FFF] & role) != 0;
+	}
+
+	private byte[] build() {
+		final byte[] result = new byte[8192];
+		for (final PMTsection[] pmtSections : psi.getPmts().getPmts().values()) {
+			final PMTsection pmt = pmtSections[0]; // PMT always one section
+			if (pmt == null) {
+				continue;
+			}
+			// The registration descriptor shall be carried in the program_info loop of the PMT
+			final boolean scte35 = PsiSectionData.hasSCTE35RegistrationDescriptor(pmt.getDescriptorList());
+			for (final Component component : pmt.getComponentenList()) {
+				final int pid = component.getElementaryPID();
+				final List<Descriptor> descriptors = component.getComponentDescriptorList();
+				for (final DataBroadcastIDDescriptor dataBroadcastIDDescriptor : findGenericDescriptorsInList(descriptors, DataBroadcastIDDescriptor.class)) {
+					final int dataBroadcastId = dataBroadcastIDDescriptor.getDataBroadcastId();
+					if ((dataBroadcastId == 0x0A) && hasUpdateType(dataBroadcastIDDescriptor)) {
+						result[pid] |= UNT;
+					} else if (dataBroadcastId == 0x0D) {
+						result[pid] |= DFIT;
+					}
+				}
+				if (!findGenericDescriptorsInList(descriptors, ApplicationSignallingDescriptor.class).isEmpty()) {
+					result[pid] |= AIT;
+				}
+				if (!findGenericDescriptorsInList(descriptors, RelatedContentDescriptor.class).isEmpty()) {
+					result[pid] |= RCT;
+				}
+				if (scte35 && (component.getStreamtype() == 0x86)) {
+					result[pid] |= SPLICE_INFO;
+				}
+			}
+		}
+		addLinkageRoles(result);
+		return result;
+	}
+
+	/**
+	 * INT and ONT are signalled by linkage descriptors in the network loop of the actual NIT
+	 */
+	private void addLinkageRoles(final byte[] result) {
+		final NIT nit = psi.getNit();
+		final int actualNetworkID = nit.getActualNetworkID();
+		final List<LinkageDescriptor> linkageDescriptors = findGenericDescriptorsInList(nit.getNetworkDescriptors(actualNetworkID), LinkageDescriptor.class);
+		if (linkageDescriptors.isEmpty()) {
+			return;
+		}
+		final int streamID = psi.getPat().getTransportStreamId();
+		final int originalNetworkID = nit.getOriginalNetworkID(actualNetworkID, streamID);
+		for (final LinkageDescriptor ld : linkageDescriptors) {
+			if (ld.getTransportStreamId() != streamID) {
+				continue;
+			}
+			if (ld.getLinkageType() == 0x0B) { // ETSI EN 301 192 V1.4.2
+				final PMTsection[] pmtSections = psi.getPmts().getPmts().get(ld.getServiceId());
+				if ((pmtSections != null) && (pmtSections[0] != null)) {
+					for (final Component component : pmtSections[0].getComponentenList()) {
+						for (final DataBroadcastIDDescriptor dataBroadcastIDDescriptor : findGenericDescriptorsInList(component.getComponentDescriptorList(), DataBroadcastIDDescriptor.class)) {
+							if (dataBroadcastIDDescriptor.getDataBroadcastId() == 0x000B) {
+								result[component.getElementaryPID()] |= INT;
+							}
+						}
+					}
+				}
+			} else if ((ld.getLinkageType() == 0x8D)
+					&& (ld.getOriginalNetworkId() == originalNetworkID)
+					&& (ld.getServiceId() < result.length)
+					&& M7Fastscan.isValidM7Code(ld.getM7_code())) {
+				result[ld.getServiceId()] |= ONT;
+			}
+		}
+	}
+
+	private static boolean hasUpdateType(final DataBroadcastIDDescriptor dataBroadcastIDDescriptor) {
+		for (final OUIEntry oui : dataBroadcastIDDescriptor.getOuiList()) {
+			final int updateType = oui.getUpdateType();
+			if ((updateType == 0x2) || (updateType == 0x3)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
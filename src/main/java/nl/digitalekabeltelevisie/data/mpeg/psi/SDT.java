@@ -61,10 +61,19 @@ public class SDT extends AbstractPSITabel{
 	// map           <orgNetworkId,   TransportStreamId>
 	private final Map<Integer,HashMap<Integer, SDTsection []>> networks = new HashMap<>();
 
-	// used for easy lookup of service names for current TS
-	private SDTsection [] actualTransportStreamSDT;
+	// used for easy lookup of service names for current TS, -1 when no SDT actual seen yet
+	private int actualOriginalNetworkID = -1;
+	private int actualTransportStreamID = -1;
 
-	public void update(final SDTsection section) {
+	// lookup indexes, built on first use and discarded when a new section (version) is added. null when not valid
+	private Map<Long, Service> serviceIndex;
+	private Map<Integer, Integer> transportStreamIDIndex;
+
+	/**
+	 * @param section
+	 * @return the section in this table that holds the data of section (section itself, or an existing equal section)
+	 */
+	public TableSection update(final SDTsection section) {
 
 		final int original_network_id = section.getOriginalNetworkID();
 		final int streamId = section.getTransportStreamID();
@@ -73,20 +82,38 @@ public class SDT extends AbstractPSITabel{
 		SDTsection[] tsSections = networkSections.computeIfAbsent(streamId,
 				k -> new SDTsection[section.getSectionLastNumber() + 1]);
 
-		addSectionToArray(section, tsSections);
+		final TableSection result = addSectionToArray(section, tsSections);
+		if (result == section) {
+			serviceIndex = null;
+			transportStreamIDIndex = null;
+		}
 
 		if (section.getTableId() == 0x42) {
-			actualTransportStreamSDT = tsSections;
+			actualOriginalNetworkID = original_network_id;
+			actualTransportStreamID = streamId;
 		}
+		return result;
 	}
 
-	private static void addSectionToArray(final SDTsection section, SDTsection[] tsSections) {
+	/**
+	 * Same as {@link #update(SDTsection)} for a section that is equal to a section already in this table, 
+	 * only makes sure the actual transport stream is set the same way.
+	 * @param section existing section
+	 */
+	public void updateRepeated(final SDTsection section) {
+		if (section.getTableId() == 0x42) {
+			actualOriginalNetworkID = section.getOriginalNetworkID();
+			actualTransportStreamID = section.getTransportStreamID();
+		}
+	}
+
+	private static TableSection addSectionToArray(final SDTsection section, SDTsection[] tsSections) {
 		if(tsSections[section.getSectionNumber()]==null){
 			tsSections[section.getSectionNumber()] = section;
-		}else{
-			final TableSection last = tsSections[section.getSectionNumber()];
-			updateSectionVersion(section, last);
+			return section;
 		}
+		final TableSection last = tsSections[section.getSectionNumber()];
+		return updateSectionVersion(section, last);
 	}
 
 	@Override
@@ -176,76 +203,73 @@ public class SDT extends AbstractPSITabel{
 	}
 
 	public Optional<SDTsection.Service> getService(final int orgNetworkId, final int transportStreamID, final int serviceID){
-
-		HashMap<Integer, SDTsection[]> transportStreams = networks.get(orgNetworkId);
-
-		if(transportStreams !=null) {
-
-			final SDTsection [] sections = transportStreams.get(transportStreamID);
-			if(sections!=null){
-				for (SDTsection section : sections) {
-					if(section!= null)  {
-						for(Service service: section.getServiceList()) {
-							if(service.getServiceID() == serviceID) {
-								return Optional.of(service);
-							}
-						}
-					}
-				}
-			}
+		Map<Long, Service> index = serviceIndex;
+		if(index == null) {
+			index = buildServiceIndex();
+			serviceIndex = index;
 		}
-		// no service found, give up
-		return Optional.empty();
+		return Optional.ofNullable(index.get(serviceKey(orgNetworkId, transportStreamID, serviceID)));
 	}
 
 
 	public Optional<SDTsection.Service> getServiceForActualTransportStream(final int serviceID){
+		if(actualTransportStreamID == -1) {
+			return Optional.empty();
+		}
+		return getService(actualOriginalNetworkID, actualTransportStreamID, serviceID);
+	}
 
+	/**
+	 * @param serviceID
+	 * @return transport_stream_id of the first transport stream (ordered by original_network_id, transport_stream_id) that contains serviceID, or -1 if not found
+	 */
+	public int getTransportStreamID(final int serviceID){
+		Map<Integer, Integer> index = transportStreamIDIndex;
+		if(index == null) {
+			index = buildTransportStreamIDIndex();
+			transportStreamIDIndex = index;
+		}
+		return index.getOrDefault(serviceID, -1);
+	}
 
-		if(actualTransportStreamSDT !=null) {
+	private static long serviceKey(final int orgNetworkId, final int transportStreamID, final int serviceID) {
+		return ((long)orgNetworkId << 32) | ((long)transportStreamID << 16) | serviceID;
+	}
 
-			final SDTsection [] sections = actualTransportStreamSDT;
-			for (SDTsection section : sections) {
-				if(section!= null)  {
-					for(Service service: section.getServiceList()) {
-						if(service.getServiceID() == serviceID) {
-							return Optional.of(service);
+	/**
+	 * @return map from (original_network_id, transport_stream_id, service_id) to the first service in the (oldest version of the) sections with that key
+	 */
+	private Map<Long, Service> buildServiceIndex() {
+		final Map<Long, Service> index = new HashMap<>();
+		for (final Map.Entry<Integer, HashMap<Integer, SDTsection[]>> network : networks.entrySet()) {
+			for (final Map.Entry<Integer, SDTsection[]> transportStream : network.getValue().entrySet()) {
+				for (final SDTsection section : transportStream.getValue()) {
+					if (section != null) {
+						for (final Service service : section.getServiceList()) {
+							index.putIfAbsent(serviceKey(network.getKey(), transportStream.getKey(), service.getServiceID()), service);
 						}
 					}
 				}
 			}
 		}
-		// no service found, give up
-		return Optional.empty();
+		return index;
 	}
 
-	public int getTransportStreamID(final int serviceID){
-
-
-		final TreeSet<Integer> t = new TreeSet<>(networks.keySet());
-
-		for (int orgNetworkId : t) {
-
-			HashMap<Integer, SDTsection[]> transportStreams = networks.get(orgNetworkId);
-			final TreeSet<Integer> s = new TreeSet<>(transportStreams.keySet());
-
-			for (Integer transportStreamID : s) {
-				final SDTsection[] sections = transportStreams.get(transportStreamID);
-				if (sections != null) {
-					for (SDTsection section : sections) {
-						if (section != null) {
-							for (Service service : section.getServiceList()) {
-								if (serviceID == service.getServiceID()) {
-									return transportStreamID;
-								}
-							}
+	private Map<Integer, Integer> buildTransportStreamIDIndex() {
+		final Map<Integer, Integer> index = new HashMap<>();
+		for (final int orgNetworkId : new TreeSet<>(networks.keySet())) {
+			final HashMap<Integer, SDTsection[]> transportStreams = networks.get(orgNetworkId);
+			for (final Integer transportStreamID : new TreeSet<>(transportStreams.keySet())) {
+				for (final SDTsection section : transportStreams.get(transportStreamID)) {
+					if (section != null) {
+						for (final Service service : section.getServiceList()) {
+							index.putIfAbsent(service.getServiceID(), transportStreamID);
 						}
 					}
 				}
 			}
 		}
-		// no service found, give up
-		return -1;
+		return index;
 	}
 
 	static TableHeader<SDTsection,Service>  buildSdtTableHeader() {
@@ -0,0 +1,181 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg.psi;
+
+import static nl.digitalekabeltelevisie.util.Utils.*;
+
+import java.util.Arrays;
+
+import nl.digitalekabeltelevisie.data.mpeg.PID;
+import nl.digitalekabeltelevisie.data.mpeg.PsiSectionData;
+
+/**
+ * Most PSI sections are repeated over and over again, without any change. Building the section object (including all descriptors),
+ * checking the CRC, and then finding out the section is equal to one we already have is a waste of time.
+ *
+ * This cache remembers for each section (identified by PID, table_id, table_id_extension and section_number) the section object
+ * of the last version in the specific table, and in the {@link GeneralPSITable} of the PID. When the same section (same version and CRC_32)
+ * comes along again, and both are still the latest version, only the occurrence statistics are updated, without creating any objects.
+ * A new version replaces the entry of the old one, so the cache does not keep old versions alive (like those dropped from a live stream).
+ *
+ * Only used for tables where the update of a repeated section has no other effect than updating statistics.
+ *
+ * @author Eric
+ *
+ */
+public class SectionFingerprintCache {
+
+	private static final long NO_KEY = -1L;
+
+	private record Entry(long crc, TableSection section, TableSection genericSection) {
+	}
+
+	private final EntryMap entries = new EntryMap();
+
+	/**
+	 * Open addressing hash map from a long key to an {@link Entry}, so a lookup does not need a boxed key
+	 */
+	private static final class EntryMap {
+
+		private long[] keys = newKeys(64);
+		private Entry[] values = new Entry[64];
+		private int size = 0;
+
+		private static long[] newKeys(final int capacity) {
+			final long[] k = new long[capacity];
+			Arrays.fill(k, NO_KEY);
+			return k;
+		}
+
+		private static int slot(final long key, final int mask) {
+			final long h = key * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32)) & mask;
+		}
+
+		Entry get(final long key) {
+			final int mask = keys.length - 1;
+			for (int i = slot(key, mask); keys[i] != NO_KEY; i = (i + 1) & mask) {
+				if (keys[i] == key) {
+					return values[i];
+				}
+			}
+			return null;
+		}
+
+		void put(final long key, final Entry value) {
+			if ((2 * (size + 1)) > keys.length) {
+				final long[] oldKeys = keys;
+				final Entry[] oldValues = values;
+				keys = newKeys(oldKeys.length * 2);
+				values = new Entry[oldKeys.length * 2];
+				size = 0;
+				for (int i = 0; i < oldKeys.length; i++) {
+					if (oldKeys[i] != NO_KEY) {
+						put(oldKeys[i], oldValues[i]);
+					}
+				}
+			}
+			final int mask = keys.length - 1;
+			int i = slot(key, mask);
+			while ((keys[i] != NO_KEY) && (keys[i] != key)) {
+				i = (i + 1) & mask;
+			}
+			if (keys[i] == NO_KEY) {
+				keys[i] = key;
+				size++;
+			}
+			values[i] = value;
+		}
+	}
+
+	/**
+	 * @param data complete section with long syntax
+	 * @return key for the section, from PID, table_id, table_id_extension and section_number. NO_KEY if data is too short to be valid
+	 */
+	private static long getKey(final byte[] data, final int pid) {
+		if (data.length < 12) {
+			return NO_KEY;
+		}
+		final int tableId = getInt(data, 0, 1, MASK_8BITS);
+		final int tableIdExtension = getInt(data, 3, 2, MASK_16BITS);
+		final int sectionNumber = getInt(data, 6, 1, MASK_8BITS);
+		return ((long) pid << 32) | ((long) tableId << 24) | ((long) tableIdExtension << 8) | sectionNumber;
+	}
+
+	private static long getCrc(final byte[] data) {
+		return getLong(data, data.length - 4, 4, MASK_32BITS);
+	}
+
+	/**
+	 * Handle sectionData if it is a repeat of a section we already have.
+	 *
+	 * @param sectionData complete section with long syntax
+	 * @param pid PID the section was found on
+	 * @param genericTable table of the PID, null if generic PSI is not enabled
+	 * @return the existing section in the specific table if sectionData was a repeat, and statistics have been updated. null if it needs to be handled normally.
+	 */
+	public TableSection updateRepeated(final PsiSectionData sectionData, final PID pid, final GeneralPSITable genericTable) {
+		final byte[] data = sectionData.getData();
+		final long key = getKey(data, pid.getPid());
+		final Entry entry = (key == NO_KEY) ? null : entries.get(key);
+		// isLatest compares all bytes, so also the version_number
+		if ((entry == null) || (entry.crc() != getCrc(data)) || !isLatest(entry.section(), sectionData)
+				|| ((genericTable == null) != (entry.genericSection() == null))
+				|| ((genericTable != null) && !isLatest(entry.genericSection(), sectionData))) {
+			return null;
+		}
+		AbstractPSITabel.updateOccurrence(entry.section(), sectionData.getPacket_no());
+		if (genericTable != null) {
+			genericTable.updateRepeated(entry.genericSection(), sectionData.getPacket_no());
+		}
+		return entry.section();
+	}
+
+	/**
+	 * @return true if section is still the last version, and has exactly the same bytes as sectionData (so a CRC collision can do no harm)
+	 */
+	private static boolean isLatest(final TableSection section, final PsiSectionData sectionData) {
+		return (section.getNextVersion() == null) && Arrays.equals(section.getRaw_data().getData(), sectionData.getData());
+	}
+
+	/**
+	 * Remember where a section ended up after it has been handled normally.
+	 *
+	 * @param sectionData
+	 * @param pid
+	 * @param section section in the specific table
+	 * @param genericSection section in the {@link GeneralPSITable} of the PID, null if generic PSI is not enabled
+	 */
+	public void put(final PsiSectionData sectionData, final PID pid, final TableSection section, final TableSection genericSection) {
+		final byte[] data = sectionData.getData();
+		final long key = getKey(data, pid.getPid());
+		if (key != NO_KEY) {
+			entries.put(key, new Entry(getCrc(data), section, genericSection));
+		}
+	}
+}
@@ -46,6 +46,7 @@ public class SpliceInfoSections extends AbstractPSITabel{
 
 	public void update(final SpliceInfoSection section){
 		spliceInfoSectionList.add(section);
+		removeOldSections(spliceInfoSectionList, section);
 		pid=section.getParentPID().getPid();
 	}
 
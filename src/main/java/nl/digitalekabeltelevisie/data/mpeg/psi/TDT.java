@@ -49,6 +49,7 @@ public class TDT extends AbstractPSITabel{
 
 	public void update(final TDTsection section){
 		tdtSectionList.add(section);
+		removeOldSections(tdtSectionList, section);
 	}
 
 	public DefaultMutableTreeNode getJTreeNode(final int modus) {
@@ -56,7 +57,9 @@ public class TDT extends AbstractPSITabel{
 		KVP kvp = new KVP("TDT");
 		final DefaultMutableTreeNode t = new DefaultMutableTreeNode(kvp);
 		if(!tdtSectionList.isEmpty()) {
-			kvp.setTableSource(this::getTableModel);
+			// for a live stream the list keeps changing, so the table uses a copy
+			final List<TDTsection> sections = isLive(tdtSectionList.get(0)) ? new ArrayList<>(tdtSectionList) : tdtSectionList;
+			kvp.setTableSource(()->getTableModel(sections));
 		}
 
 		for (TDTsection tdTsection : tdtSectionList) {
@@ -85,9 +88,13 @@ public class TDT extends AbstractPSITabel{
 
 	
 	public TableModel getTableModel() {
+		return getTableModel(tdtSectionList);
+	}
+
+	private static TableModel getTableModel(final List<TDTsection> sections) {
 		FlexTableModel<TDTsection,TDTsection> tableModel =  new FlexTableModel<>(buildTdtTableHeader());
 
-		for (TDTsection element : tdtSectionList) {
+		for (TDTsection element : sections) {
 			if(element!= null){
 				List<TDTsection> lst = new ArrayList<>();
 				lst.add(element);
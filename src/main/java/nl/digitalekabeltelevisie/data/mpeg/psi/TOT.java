@@ -54,6 +54,7 @@ public class TOT extends AbstractPSITabel{
 
 	public void update(final TOTsection section){
 		totSectionList.add(section);
+		removeOldSections(totSectionList, section);
 	}
 
 	public DefaultMutableTreeNode getJTreeNode(final int modus) {
@@ -49,7 +49,11 @@ public class TSDT extends AbstractPSITabel {
 	}
 
 	
-	public void update(final TSDTsection section){
+	/**
+	 * @param section
+	 * @return the section in this table that holds the data of section (section itself, or an existing equal section)
+	 */
+	public TableSection update(final TSDTsection section){
 
 		if(tsdt==null){
 			tsdt = new TSDTsection[section.getSectionLastNumber()+1];
@@ -57,11 +61,10 @@ public class TSDT extends AbstractPSITabel {
 
 		if(tsdt[section.getSectionNumber()]==null){
 			tsdt[section.getSectionNumber()] = section;
-		}else{
-			final TableSection last = tsdt[section.getSectionNumber()];
-			updateSectionVersion(section, last);
+			return section;
 		}
-
+		final TableSection last = tsdt[section.getSectionNumber()];
+		return updateSectionVersion(section, last);
 	}
 	
 	
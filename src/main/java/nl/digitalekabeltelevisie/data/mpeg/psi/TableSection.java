@@ -38,6 +38,7 @@ import nl.digitalekabeltelevisie.controller.KVP;
 import nl.digitalekabeltelevisie.controller.TreeNode;
 import nl.digitalekabeltelevisie.data.mpeg.CRCcheck;
 import nl.digitalekabeltelevisie.data.mpeg.PID;
+import nl.digitalekabeltelevisie.data.mpeg.ParseSettings;
 import nl.digitalekabeltelevisie.data.mpeg.PSI;
 import nl.digitalekabeltelevisie.data.mpeg.PsiSectionData;
 import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
@@ -492,6 +493,16 @@ public class TableSection implements TreeNode{
 		return getParentPID().getParentTransportStream();
 	}
 
+	/**
+	 * @return settings used for parsing the stream this section belongs to, or the current preferences when this section is not part of a stream
+	 */
+	public ParseSettings getParseSettings() {
+		if((parentPID != null) && (parentPID.getParentTransportStream() != null)) {
+			return parentPID.getParentTransportStream().getParseSettings();
+		}
+		return ParseSettings.fromPreferences();
+	}
+
 	public PSI getPSI(){
 		return getParentTransportStream().getPsi();
 	}
@@ -55,7 +55,7 @@ public abstract class AbstractSetPreferenceAction extends AbstractAction {
      */
     protected void askReloadStream() {
 	final TransportStream ts = contr.getTransportStream();
-	if (ts != null) {
+	if ((ts != null) && !ts.isLive()) { // a live stream can not be read again
 	    Object[] options = { "Yes, reload stream (may take some time)",
 		    "No, setting only takes effect after next load" };
 	    int n = JOptionPane.showOptionDialog(contr.getFrame(),
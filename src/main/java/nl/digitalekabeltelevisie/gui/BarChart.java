@@ -30,6 +30,7 @@ import nl.digitalekabeltelevisie.controller.ChartLabel;
 import nl.digitalekabeltelevisie.controller.ViewContext;
 import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
 import nl.digitalekabeltelevisie.gui.utils.GuiUtils;
+import nl.digitalekabeltelevisie.util.PacketIndex;
 
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
@@ -88,18 +89,24 @@ public class BarChart extends ChartPanel implements TransportStreamView {
 			final int endPacket = viewContext.getEndPacket();
 			final int noPackets = endPacket - startPacket;
 
-			// AVG
-			final int[] pidcount = new int[8192];
-			for (int r = startPacket; r < endPacket; r++) {
-				final int pid_current_packet = transportStream.getPacket_pid(r);
-				pidcount[pid_current_packet]++;
+			final int[] stepStart = new int[steps + 1];
+			for (int t = 0; t <= steps; t++) {
+				stepStart[t] = startPacket + (int) (((long) t * (long) noPackets) / steps);
 			}
 
+			final PacketIndex[] packetIndexes = transportStream.getPacketIndexes(used_pids);
+			final int[][] lowerBounds = new int[used_pids.length][];
 			for (int i = 0; i < used_pids.length; i++) {
+				lowerBounds[i] = packetIndexes[i].lowerBounds(stepStart);
+			}
+
+			// AVG
+			for (int i = 0; i < used_pids.length; i++) {
+				final int pidcount = packetIndexes[i].count(startPacket, endPacket);
 				if (transportStream.getBitRate() != -1) {
-					data[0][i] = (pidcount[used_pids[i]] * transportStream.getBitRate()) / (endPacket - startPacket);
+					data[0][i] = (pidcount * transportStream.getBitRate()) / (endPacket - startPacket);
 				} else {
-					data[0][i] = pidcount[used_pids[i]];
+					data[0][i] = pidcount;
 				}
 			}
 
@@ -111,17 +118,11 @@ public class BarChart extends ChartPanel implements TransportStreamView {
 
 			for (int t = 0; t < steps; t++) {
 
-				final int[] periodpidcount = new int[8192];
-
-				final int startPacketStep = startPacket + (int) (((long) t * (long) noPackets) / steps);
-				final int endPacketStep = startPacket + (int) (((long) (t + 1) * (long) noPackets) / steps);
+				final int startPacketStep = stepStart[t];
+				final int endPacketStep = stepStart[t + 1];
 
-				for (int r = startPacketStep; r < endPacketStep; r++) {
-					final int pid_current_packet = transportStream.getPacket_pid(r);
-					periodpidcount[pid_current_packet]++;
-				}
 				for (int i = 0; i < used_pids.length; i++) {
-					final int periodCount = periodpidcount[used_pids[i]];
+					final int periodCount = lowerBounds[i][t + 1] - lowerBounds[i][t];
 					if (transportStream.getBitRate() != -1) {
 						final double bitRate = (periodCount * transportStream.getBitRate()) / (endPacketStep - startPacketStep);
 						if (bitRate < data[1][i]) { // new min found
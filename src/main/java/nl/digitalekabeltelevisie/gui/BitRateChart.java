@@ -41,6 +41,7 @@ import nl.digitalekabeltelevisie.controller.ChartLabel;
 import nl.digitalekabeltelevisie.controller.ViewContext;
 import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
 import nl.digitalekabeltelevisie.gui.utils.GuiUtils;
+import nl.digitalekabeltelevisie.util.PacketIndex;
 
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
@@ -208,39 +209,31 @@ public class BitRateChart extends JPanel implements TransportStreamView{
 
 		final CategoryTableXYDataset categoryTableXYDataset = new CategoryTableXYDataset();
 
+		// boundaries are the same for all PIDs, step i runs from stepStart[i] to stepStart[i+1]
+		final int[] stepStart = new int[numberOfSteps + 1];
+		for(int step=0; step<=numberOfSteps;step++){
+			stepStart[step] = getFirstPacketNoOfStep(viewContext, numberOfSteps, step);
+		}
+
+		final PacketIndex[] packetIndexes = transportStream.getPacketIndexes(used_pids);
 		for (int pidIndex = 0; pidIndex < used_pids.length; pidIndex++) {
+			final int[] lowerBounds = packetIndexes[pidIndex].lowerBounds(stepStart);
 			for(int step=0; step<numberOfSteps;step++){
 
-				final int startPacketStep = getFirstPacketNoOfStep(viewContext, numberOfSteps, step);
-				final int endPacketStep = getFirstPacketNoOfStep(viewContext, numberOfSteps, step+1);
-				final int[] pidcount = countPidOccurrencesInStep(transportStream, startPacketStep, endPacketStep);
+				final int startPacketStep = stepStart[step];
+				final int endPacketStep = stepStart[step+1];
+				final int pidcount = lowerBounds[step+1] - lowerBounds[step];
 
 				if(transportStream.getBitRate()==-1){
-					categoryTableXYDataset.add(startPacketStep,pidcount[used_pids[pidIndex]],labels[pidIndex].getLabel());
+					categoryTableXYDataset.add(startPacketStep,pidcount,labels[pidIndex].getLabel());
 				}else{
-					categoryTableXYDataset.add(startPacketStep,((pidcount[used_pids[pidIndex]])*transportStream.getBitRate()) / (endPacketStep - startPacketStep),labels[pidIndex].getLabel());
+					categoryTableXYDataset.add(startPacketStep,(pidcount*transportStream.getBitRate()) / (endPacketStep - startPacketStep),labels[pidIndex].getLabel());
 				}
 			}
 		}
 		return categoryTableXYDataset;
 	}
 
-	/**
-	 * @param transportStream
-	 * @param startPacketStep
-	 * @param endPacketStep
-	 * @return
-	 */
-	private static int[] countPidOccurrencesInStep(final TransportStream transportStream, final int startPacketStep,
-			final int endPacketStep) {
-		final int [] pidcount = new int [8192];
-		for(int r = startPacketStep; r< endPacketStep;r++ ){
-			final int pid_current_packet=transportStream.getPacket_pid(r);
-			pidcount[pid_current_packet]++;
-		}
-		return pidcount;
-	}
-
 	/**
 	 * @param viewContext
 	 * @param steps
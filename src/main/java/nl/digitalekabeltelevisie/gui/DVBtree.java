@@ -47,11 +47,14 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -79,9 +82,11 @@ import nl.digitalekabeltelevisie.data.mpeg.pid.t2mi.PlpHandler;
 import nl.digitalekabeltelevisie.data.mpeg.psi.handler.GeneralPsiTableHandler;
 import nl.digitalekabeltelevisie.gui.utils.GuiUtils;
 import nl.digitalekabeltelevisie.gui.xmleditorkit.XMLEditorKit;
-import nl.digitalekabeltelevisie.util.DefaultMutableTreeNodePreorderEnumaration;
 import nl.digitalekabeltelevisie.util.JTreeLazyList;
 import nl.digitalekabeltelevisie.util.PreferencesManager;
+import nl.digitalekabeltelevisie.util.export.TextTreeRenderer;
+import nl.digitalekabeltelevisie.util.export.TreeExporter;
+import nl.digitalekabeltelevisie.util.search.TreeSearchIndex;
 
 /**
  * DVBTree is the container for the JTree (on the left side) and the image and text on the right side.
@@ -105,11 +110,12 @@ public class DVBtree extends JPanel implements TransportStreamView , TreeSelecti
 	private static final String COPY = "copy";
 	private static final String VIEW = "view";
 	private static final String COPY_TREE = "copy_tree";
+	private static final String SAVE_TREE = "save_tree";
 	
 	private static final String SAVE_BYTES = "save_bytes";
 	
 	// update when adding a menu option that is always present
-	private static final int NO_DEFAULT_ELEMENTS_POP_UP_MENU = 5;
+	private static final int NO_DEFAULT_ELEMENTS_POP_UP_MENU = 6;
 	private static final long MAX_EXPAND_ALL_TIME_MILLISECS = 500L;
 
 	public class CopyAction extends AbstractAction implements ClipboardOwner {
@@ -203,6 +209,9 @@ public class DVBtree extends JPanel implements TransportStreamView , TreeSelecti
 	private int mod;
 	private TransportStream ts;
 	private DefaultTreeModel model;
+	private final Object searchIndexLock = new Object();
+	private volatile TreeSearchIndex searchIndex;
+	private volatile DefaultMutableTreeNode searchIndexRoot;
 	private final ImagePanel imagePanel = new ImagePanel();
 	private final TablePanel tablePanel = new TablePanel(new JTable());
 
@@ -257,6 +266,11 @@ public class DVBtree extends JPanel implements TransportStreamView , TreeSelecti
 		viewMenuItem.setActionCommand(VIEW);
 		popup.add(viewMenuItem);
 
+		JMenuItem saveTreeMenuItem = new JMenuItem("Save Entire Sub Tree as...");
+		saveTreeMenuItem.addActionListener(this);
+		saveTreeMenuItem.setActionCommand(SAVE_TREE);
+		popup.add(saveTreeMenuItem);
+
 		tree.addMouseListener(
 				new MouseAdapter() {
 					@Override
@@ -411,6 +425,7 @@ public class DVBtree extends JPanel implements TransportStreamView , TreeSelecti
 	@Override
 	public void setTransportStream(final TransportStream transportStream, final ViewContext viewContext){
 		ts=transportStream;
+		clearSearchIndex();
 		if(ts!=null){
 			model=new DefaultTreeModel(ts.getJTreeNode(mod));
 			tree.setModel(model);
@@ -469,6 +484,7 @@ public class DVBtree extends JPanel implements TransportStreamView , TreeSelecti
 	}
 
 	private void rebuildTree(){
+		clearSearchIndex();
 		if(ts!=null){
 			model = new DefaultTreeModel(ts.getJTreeNode(this.mod));
 			tree.setModel(model);
@@ -621,6 +637,9 @@ public class DVBtree extends JPanel implements TransportStreamView , TreeSelecti
 			if (ae.getActionCommand().equals(COPY_TREE)){
 				copyEntireSubTreeToClipboard(dmtn);
 			}
+			if (ae.getActionCommand().equals(SAVE_TREE)){
+				saveEntireSubTree(dmtn, kvp);
+			}
 			if (ae.getActionCommand().equals(VIEW)){
 				copyVisibleSubTreeToClipboard(dmtn, path, kvp);
 			}
@@ -813,15 +832,57 @@ public class DVBtree extends JPanel implements TransportStreamView , TreeSelecti
 	 * @param dmtn
 	 */
 	private void copyEntireSubTreeToClipboard(DefaultMutableTreeNode dmtn) {
-		KVP kvp = (KVP)dmtn.getUserObject();
-		String treeString = kvp.getPlainText() + System.lineSeparator() +
-				getEntireTree(dmtn, "");
+		final StringBuilder treeString = new StringBuilder();
+		try {
+			TreeExporter.export(dmtn, new TextTreeRenderer(treeString));
+		} catch (IOException e) {
+			// StringBuilder does not throw IOException
+			throw new UncheckedIOException(e);
+		}
 
-		final StringSelection stringSelection = new StringSelection( treeString );
+		final StringSelection stringSelection = new StringSelection( treeString.toString() );
 		final Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
 		clipboard.setContents( stringSelection, this );
 	}
 
+	/**
+	 * Save the sub tree to a file, as text, JSON or XML depending on the extension chosen by the user. When the name ends with ".gz"
+	 * the file is compressed. The tree is written on a background thread, directly to the file.
+	 *
+	 * @param dmtn
+	 * @param kvp
+	 */
+	private void saveEntireSubTree(DefaultMutableTreeNode dmtn, KVP kvp) {
+		SaveAble saveAble = file -> {
+			setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+			new SwingWorker<Void, Void>() {
+				@Override
+				protected Void doInBackground() throws IOException {
+					TreeExporter.export(dmtn, file);
+					return null;
+				}
+
+				@Override
+				protected void done() {
+					setCursor(Cursor.getDefaultCursor());
+					try {
+						get();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} catch (ExecutionException e) {
+						logger.log(Level.WARNING, "could not write file " + file, e.getCause());
+						JOptionPane.showMessageDialog(DVBtree.this,
+								"Error writing " + file + ": " + e.getCause().getMessage(),
+								"DVB Inspector",
+								JOptionPane.ERROR_MESSAGE);
+					}
+				}
+			}.execute();
+		};
+
+		selectFileAndSave(kvp.getLabel() + "." + TreeExporter.Format.TEXT.getExtension(), saveAble);
+	}
+
 	/**
 	 * @param kvp
 	 */
@@ -832,31 +893,21 @@ public class DVBtree extends JPanel implements TransportStreamView , TreeSelecti
 	}
 
 	/**
+	 * Text representation of all descendants of dmtn (not dmtn itself). To write a large tree use {@link TreeExporter}, which
+	 * does not keep the result in memory.
+	 *
 	 * @param dmtn
+	 * @param preFix written before every line
 	 * @return
 	 */
 
 	public static StringBuilder getEntireTree(final DefaultMutableTreeNode dmtn,final String preFix) {
 		final StringBuilder res = new StringBuilder();
-		@SuppressWarnings("rawtypes")
-		final Enumeration children = dmtn.children();
-		while(children.hasMoreElements()){
-			Object next = children.nextElement();
-			if(next instanceof final DefaultMutableTreeNode child){
-				Object userObject = child.getUserObject();
-				if(userObject instanceof final KVP chKVP) {
-					res.append(preFix).append("+-").append(chKVP.getPlainText()).append(System.lineSeparator());
-					if(!child.isLeaf()){
-						if (child == dmtn.getLastChild()) { // lastChild
-							res.append(getEntireTree(child, preFix + "  ")); // last , so prefix with "  "
-						} else {
-							res.append(getEntireTree(child, preFix + "| ")); // more children follow, so start with "| "
-						}
-					}
-				}else {
-					logger.log(Level.SEVERE, "Not an KVP: {}",  userObject);
-				}
-			}
+		try {
+			TreeExporter.export(dmtn, new TextTreeRenderer(res, preFix, false));
+		} catch (IOException e) {
+			// StringBuilder does not throw IOException
+			throw new UncheckedIOException(e);
 		}
 		return res;
 	}
@@ -965,39 +1016,60 @@ public class DVBtree extends JPanel implements TransportStreamView , TreeSelecti
 
 	}
 
-	public boolean findAndShow(String s,DefaultMutableTreeNodePreorderEnumaration enumeration) {
-		
-        DefaultMutableTreeNode node = searchNode(s.toLowerCase(),enumeration);
-        if (node != null) {
-          showNode(node);
-          return true;
-        }
-        return false;
-	}
-
-	private void showNode(MutableTreeNode node) {
+	/**
+	 * Select node and scroll to it
+	 * @param node
+	 * @return false when node is not part of the current tree (anymore), for example after a refresh of a live stream
+	 */
+	public boolean showNode(TreeNode node) {
+		if((model==null) || (node==null)) {
+			return false;
+		}
 		javax.swing.tree.TreeNode[] nodes = model.getPathToRoot(node);
+		if(nodes[0]!=model.getRoot()) {
+			return false;
+		}
 		TreePath path = new TreePath(nodes);
 		
 		tree.scrollPathToVisible(path);
 		tree.setSelectionPath(path);
+		return true;
 	}
 
-	public DefaultMutableTreeNodePreorderEnumaration createNewDefaultMutableTreeNodePreorderEnumaration(){
-		return new DefaultMutableTreeNodePreorderEnumaration((DefaultMutableTreeNode)model.getRoot());
+	/**
+	 * @return root of the current tree, or null
+	 */
+	public DefaultMutableTreeNode getRoot() {
+		return (model==null) ? null : (DefaultMutableTreeNode)model.getRoot();
 	}
 
-	private static DefaultMutableTreeNode searchNode(String targetString, DefaultMutableTreeNodePreorderEnumaration enumeration) {
-		while (enumeration.hasMoreElements()) {
-			DefaultMutableTreeNode node = enumeration.nextElement();
-			if (node != null){
-				String nodeString = node.getUserObject().toString();
-				if( nodeString.toLowerCase().contains(targetString)) {
-					return node;
-				}
+	private void clearSearchIndex() {
+		// no lock, don't wait on the EDT for an index that is being built
+		searchIndex = null;
+		searchIndexRoot = null;
+	}
+
+	/**
+	 * Get the search index for a tree, build it when needed. Only the index for the latest root is kept.
+	 * Can be called from a background thread.
+	 *
+	 * @param root of the tree, see {@link #getRoot()}
+	 * @param cancelled checked while building the index
+	 * @return index, or null when building was cancelled
+	 */
+	public TreeSearchIndex getSearchIndex(DefaultMutableTreeNode root, BooleanSupplier cancelled) {
+		synchronized (searchIndexLock) {
+			final TreeSearchIndex current = searchIndex;
+			if((current!=null)&&(searchIndexRoot==root)) {
+				return current;
+			}
+			final TreeSearchIndex index = TreeSearchIndex.build(root, cancelled);
+			if(index!=null) {
+				searchIndex = index;
+				searchIndexRoot = root;
 			}
+			return index;
 		}
-		return null;
 	}
 
 
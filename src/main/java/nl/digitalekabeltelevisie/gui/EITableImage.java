@@ -27,10 +27,7 @@
 
 package nl.digitalekabeltelevisie.gui;
 
-import static nl.digitalekabeltelevisie.util.Utils.getDurationMillis;
 import static nl.digitalekabeltelevisie.util.Utils.getUTCCalender;
-import static nl.digitalekabeltelevisie.util.Utils.getUTCDate;
-import static nl.digitalekabeltelevisie.util.Utils.isUndefined;
 import static nl.digitalekabeltelevisie.util.Utils.roundHourDown;
 import static nl.digitalekabeltelevisie.util.Utils.roundHourUp;
 
@@ -44,16 +41,16 @@ import java.awt.Rectangle;
 import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
 import java.awt.event.MouseEvent;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import javax.swing.JPanel;
 import javax.swing.Scrollable;
@@ -63,6 +60,8 @@ import nl.digitalekabeltelevisie.controller.DVBString;
 import nl.digitalekabeltelevisie.controller.ViewContext;
 import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
 import nl.digitalekabeltelevisie.data.mpeg.psi.EIT;
+import nl.digitalekabeltelevisie.data.mpeg.psi.EITEventIndex;
+import nl.digitalekabeltelevisie.data.mpeg.psi.EITEventIndex.ServiceEvents;
 import nl.digitalekabeltelevisie.data.mpeg.psi.EITsection;
 import nl.digitalekabeltelevisie.data.mpeg.psi.EITsection.Event;
 import nl.digitalekabeltelevisie.data.mpeg.psi.TDTsection;
@@ -75,23 +74,28 @@ import nl.digitalekabeltelevisie.util.ServiceIdentification;
  *
  *  Can be used from DVBTree as ImageSource, to show the contents of a single tableID (like 0x4E for present/following actual),
  *  or as a JPanel with combined EIT information (current and other streams combined) , complete with scrollbars, mouse overs, zooming, switching between p/f and schedule.
+ *
+ *  Events are looked up through an {@link EITEventIndex}, which is created once for each table. As a JPanel only the visible
+ *  part of the grid is drawn, from tiles that are rendered when first needed and kept until the table or zoom level changes.
  * @author Eric
  *
  */
 public class EITableImage extends JPanel implements ComponentListener,ImageSource, Scrollable{
 
-	private static final Logger	logger	= Logger.getLogger(EITableImage.class.getName());
 	private static final String FONT_NAME = "SansSerif";
 	private static final int LINE_HEIGHT = 20;
 	private static final long DEFAULT_MILLI_SECS_PER_PIXEL = 30*1000;
 	private static final int SERVICE_NAME_WIDTH = 150;
 	private static final int LEGEND_HEIGHT = 40;
 
+	private static final int TILE_WIDTH = 512;
+	private static final int TILE_HEIGHT = 25 * LINE_HEIGHT;
+	private static final int MAX_CACHED_TILES = 48;
 
 	private EIT eit;
 	private long milliSecsPerPixel = DEFAULT_MILLI_SECS_PER_PIXEL;
-	private Map<ServiceIdentification, EITsection[]> servicesTable;
 	private SortedSet<ServiceIdentification> serviceOrder;
+	private EITEventIndex eventIndex;
 	private Interval interval;
 	private boolean selectedSchedule = true;
 
@@ -101,6 +105,18 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 	private int translatedX;
 	private int translatedY;
 
+	/**
+	 * rendered parts of the grid (without labels and legend), key is (tileRow &lt;&lt; 32) | tileColumn
+	 */
+	private final Map<Long, BufferedImage> tiles = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Long, BufferedImage> eldest) {
+			return size() > MAX_CACHED_TILES;
+		}
+	};
+	private double tileScaleX = 1.0;
+	private double tileScaleY = 1.0;
+
 
 	/**
 	 *  Constructor for use from DVBTree, for use as ImageSource
@@ -110,10 +126,8 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 	 */
 	public EITableImage(EIT eit, Map<ServiceIdentification, EITsection[]> table){
 		this.eit = eit;
-		this.servicesTable = table;
-		serviceOrder = new TreeSet<>(table.keySet());
-		this.interval = EIT.getSpanningInterval(serviceOrder, table);
 		this.milliSecsPerPixel = DEFAULT_MILLI_SECS_PER_PIXEL;
+		setServicesTable(table);
 	}
 
 
@@ -144,21 +158,32 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 		if(stream!=null){
 			eit = stream.getPsi().getEit();
 			if(selectedSchedule ){
-				servicesTable = eit.getCombinedSchedule();
+				setServicesTable(eit.getCombinedSchedule());
 			}else{
-				servicesTable = eit.getCombinedPresentFollowing();
+				setServicesTable(eit.getCombinedPresentFollowing());
 			}
-
-			this.serviceOrder = new TreeSet<>(servicesTable.keySet());
-			this.interval = EIT.getSpanningInterval(serviceOrder, servicesTable);
 		} else {
 			eit = null;
+			eventIndex = null;
 			interval = null;
+			tiles.clear();
 		}
 		setSize(getDimension());
 		repaint();
 	}
 
+	/**
+	 * Sets the services and events to be shown, and creates the index used for drawing them.
+	 *
+	 * @param table
+	 */
+	private void setServicesTable(final Map<ServiceIdentification, EITsection[]> table) {
+		serviceOrder = new TreeSet<>(table.keySet());
+		eventIndex = new EITEventIndex(serviceOrder, table);
+		interval = eventIndex.getInterval();
+		tiles.clear();
+	}
+
 	/* (non-Javadoc)
 	 * @see nl.digitalekabeltelevisie.gui.ImageSource#getImage()
 	 */
@@ -209,15 +234,17 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 		int char_descend = 16;
 
 		// draw labels
-		drawLabels(gd, serviceOrder, nameFont, 0, offset, char_descend);
+		drawLabels(gd, 0, eventIndex.getServiceCount(), nameFont, 0, offset, char_descend);
 
 		// draw grid
 		offset=LEGEND_HEIGHT;
 
 		gd.setFont(font);
-		for(final ServiceIdentification serviceNo : serviceOrder){
-			EITsection[] eiTsections = servicesTable.get(serviceNo);
-			drawServiceEvents(gd, startDate, SERVICE_NAME_WIDTH, offset, char_descend, eiTsections);
+		for (int row = 0; row < eventIndex.getServiceCount(); row++) {
+			ServiceEvents events = eventIndex.getServiceEvents(row);
+			for (int i = 0; i < events.size(); i++) {
+				drawEvent(gd, startDate, events, i, SERVICE_NAME_WIDTH, offset, char_descend);
+			}
 			offset+=LINE_HEIGHT;
 		}
 		return img;
@@ -225,25 +252,44 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 
 
 	/**
-	 * Draw all events for a single service
+	 * Renders a part of the grid of events, without labels and legend. Tile (0,0) starts at the first service and at startDate.
+	 *
+	 * Draws the same events in the same order as getImage, but only for the services and the time range covered by the tile.
 	 *
-	 * @param gd
 	 * @param startDate
-	 * @param x
-	 * @param y
-	 * @param char_descend
-	 * @param eiTsections
+	 * @param tileColumn
+	 * @param tileRow
+	 * @param scaleX device pixels per pixel, so the tile is as sharp as drawing directly
+	 * @param scaleY
+	 * @return
 	 */
-	private void drawServiceEvents(final Graphics2D gd, Date startDate, int x, int y, int char_descend,
-			EITsection[] eiTsections) {
-		for(final EITsection section :eiTsections){
-			if(section!= null){
-				List<Event> eventList = section.getEventList();
-				for(Event event:eventList){
-					drawEvent(gd, startDate, event, x, y, char_descend);
-				}
+	private BufferedImage renderTile(Date startDate, int tileColumn, int tileRow, double scaleX, double scaleY) {
+		final BufferedImage img = new BufferedImage((int) Math.ceil(TILE_WIDTH * scaleX), (int) Math.ceil(TILE_HEIGHT * scaleY), BufferedImage.TYPE_INT_RGB);
+		final Graphics2D gd = img.createGraphics();
+		gd.setColor(Color.BLUE);
+		gd.fillRect(0, 0, img.getWidth(), img.getHeight());
+		gd.scale(scaleX, scaleY);
+		gd.setFont(new Font(FONT_NAME, Font.PLAIN, 14));
+
+		final int tileX = tileColumn * TILE_WIDTH;
+		final int tileY = tileRow * TILE_HEIGHT;
+		gd.translate(-tileX, -tileY);
+		gd.clipRect(tileX, tileY, TILE_WIDTH, TILE_HEIGHT);
+		final int char_descend = 16;
+
+		// events are one pixel wider and higher than their size because of the border, so also look at the previous row and pixel
+		final long from = startDate.getTime() + ((tileX - 1L) * milliSecsPerPixel);
+		final long to = startDate.getTime() + ((tileX + TILE_WIDTH + 1L) * milliSecsPerPixel);
+		final int firstRow = Math.max(0, (tileY / LINE_HEIGHT) - 1);
+		final int lastRow = Math.min(eventIndex.getServiceCount(), (tileY + TILE_HEIGHT) / LINE_HEIGHT);
+		for (int row = firstRow; row < lastRow; row++) {
+			ServiceEvents events = eventIndex.getServiceEvents(row);
+			for (int i : events.findEvents(from, to)) {
+				drawEvent(gd, startDate, events, i, 0, row * LINE_HEIGHT, char_descend);
 			}
 		}
+		gd.dispose();
+		return img;
 	}
 
 
@@ -252,43 +298,33 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 	 *
 	 * @param gd
 	 * @param startDate
-	 * @param event
+	 * @param events
+	 * @param i index of event in events
 	 * @param x
 	 * @param y
 	 * @param char_descend
 	 */
-	private void drawEvent(final Graphics2D gd, Date startDate, Event event, int x, int y, int char_descend) {
-		final byte[] startTime = event.getStartTime();
-		if(isUndefined(startTime)){
-			return;
-		}
-		Date eventStart = getUTCDate( startTime);
-
-		try{
-		int w = (int)(getDurationMillis(event.getDuration())/milliSecsPerPixel);
-			int eventX = x+(int)((eventStart.getTime()-startDate.getTime())/milliSecsPerPixel);
-			String eventName= event.getEventName();
+	private void drawEvent(final Graphics2D gd, Date startDate, ServiceEvents events, int i, int x, int y, int char_descend) {
+		int w = (int)(events.getDuration(i)/milliSecsPerPixel);
+		int eventX = x+(int)((events.getStart(i)-startDate.getTime())/milliSecsPerPixel);
+		String eventName= events.getEvent(i).getEventName();
 
-			// FIll gray
-			gd.setColor(Color.GRAY);
-			gd.fillRect(eventX, y, w, LINE_HEIGHT);
+		// FIll gray
+		gd.setColor(Color.GRAY);
+		gd.fillRect(eventX, y, w, LINE_HEIGHT);
 
-			// black border
-			gd.setColor(Color.BLACK);
-			gd.drawRect(eventX, y, w, LINE_HEIGHT);
-			// title
+		// black border
+		gd.setColor(Color.BLACK);
+		gd.drawRect(eventX, y, w, LINE_HEIGHT);
+		// title
 
 
-			Graphics2D gd2 = (Graphics2D)gd.create();
-			gd2.clipRect(eventX+5, y, w-10, LINE_HEIGHT);
+		Graphics2D gd2 = (Graphics2D)gd.create();
+		gd2.clipRect(eventX+5, y, w-10, LINE_HEIGHT);
 
-			gd2.setColor(Color.WHITE);
-			gd2.drawString(eventName, eventX+5,y+char_descend);
-			gd2.dispose();
-		}catch(NumberFormatException nfe){
-			logger.log(Level.WARNING, "drawEvent: Event.duration is not a valid BCD number;", nfe);
-
-		}
+		gd2.setColor(Color.WHITE);
+		gd2.drawString(eventName, eventX+5,y+char_descend);
+		gd2.dispose();
 	}
 
 
@@ -298,18 +334,20 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 	 * If no name found in SDT put "Service " + service ID.
 	 *
 	 * @param gd
-	 * @param serviceSet
+	 * @param firstRow first service to draw
+	 * @param lastRow service after the last one to draw
 	 * @param nameFont
 	 * @param x
-	 * @param y
+	 * @param y position of first service (row 0)
 	 * @param char_descend
 	 */
-	private void drawLabels(final Graphics2D gd, final SortedSet<ServiceIdentification> serviceSet, final Font nameFont,
+	private void drawLabels(final Graphics2D gd, final int firstRow, final int lastRow, final Font nameFont,
 			int x,  int y, int char_descend) {
-		int labelY = y; 
+		int labelY = y + (firstRow * LINE_HEIGHT);
 		gd.setFont(nameFont);
 
-		for(final ServiceIdentification serviceNo : serviceSet){
+		for (int row = firstRow; row < lastRow; row++) {
+			final ServiceIdentification serviceNo = eventIndex.getService(row);
 			String serviceName = this.eit.
 					getParentPSI().
 					getSdt().
@@ -418,6 +456,7 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 	 */
 	public void setMilliSecsPerPixel(long milliSecsPerPixel) {
 		this.milliSecsPerPixel = milliSecsPerPixel;
+		tiles.clear();
 	}
 
 	@Override
@@ -431,7 +470,7 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 				int row = (y-LEGEND_HEIGHT)/LINE_HEIGHT;
 				if(row<serviceOrder.size()){ // not below last line
 					r1.append("<html><b>");
-					ServiceIdentification serviceIdent = serviceOrder.toArray(new ServiceIdentification[0])[row];
+					ServiceIdentification serviceIdent = eventIndex.getService(row);
 
 					if(x>(translatedX+SERVICE_NAME_WIDTH)) { // over event line 
 						String name = eit.getParentPSI().
@@ -442,7 +481,7 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 						r1.append(name).append("</b><br><br>");
 	
 						Date thisDate = new Date(roundHourDown(interval.getStart()).getTime()+(milliSecsPerPixel *(x-SERVICE_NAME_WIDTH)));
-						Event event = findEvent(serviceIdent, thisDate);
+						Event event = eventIndex.getServiceEvents(row).findEvent(thisDate.getTime());
 						if(event!=null){
 							r1.append(event.getHTML());
 						}else{ // NO event found, just display time
@@ -471,37 +510,6 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 		return r1.toString();
 	}
 
-	/**
-	 * Find event in servicesTable, based on serviceID, and date
-	 *
-	 * @param serviceID
-	 * @param date
-	 * @return
-	 */
-	private Event findEvent(ServiceIdentification serviceID, Date date){
-		EITsection[] list = servicesTable.get(serviceID);
-		for(EITsection section:list){
-			if(section!=null){
-				List<Event> eventList = section.getEventList();
-				for(Event event: eventList){
-					byte[] startTime = event.getStartTime();
-					if(!isUndefined(startTime)) {
-						Date eventStart = getUTCDate(startTime);
-						if(date.after(eventStart)||date.equals(eventStart)){
-							Date eventEnd = new Date(eventStart.getTime()+ getDurationMillis(event.getDuration()));
-							if(eventEnd.after(date)){
-								return event;
-							}
-						}
-					}
-				}
-			}
-		}
-
-		return null;
-	}
-
-
 	/* (non-Javadoc)
 	 * @see java.awt.event.ComponentListener#componentHidden(java.awt.event.ComponentEvent)
 	 */
@@ -572,8 +580,10 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 			drawLegend(gd, startDate, endDate,SERVICE_NAME_WIDTH,translatedY, LEGEND_HEIGHT);
 			drawActualTime(gd, startDate, SERVICE_NAME_WIDTH, translatedY,LEGEND_HEIGHT);
 
-			// draw labels
-			drawLabels(gd, serviceOrder, nameFont, translatedX, offset, char_descend);
+			// draw labels, only for visible rows
+			final int firstRow = Math.max(0, (translatedY - LEGEND_HEIGHT) / LINE_HEIGHT);
+			final int lastRow = Math.min(serviceOrder.size(), ((translatedY + viewHeight) / LINE_HEIGHT) + 1);
+			drawLabels(gd, firstRow, lastRow, nameFont, translatedX, offset, char_descend);
 
 			gd.setColor(Color.BLUE);
 			gd.fillRect(translatedX, translatedY, SERVICE_NAME_WIDTH, LEGEND_HEIGHT);
@@ -582,15 +592,9 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 			offset=LEGEND_HEIGHT;
 			Graphics2D gd2 = (Graphics2D)gd.create();
 
-			gd2.setFont(font);
 			gd2.clipRect(translatedX+SERVICE_NAME_WIDTH, translatedY+LEGEND_HEIGHT, viewWidth -SERVICE_NAME_WIDTH, viewHeight - LEGEND_HEIGHT);
 
-			SortedSet<ServiceIdentification> order = serviceOrder;
-			for(final ServiceIdentification serviceNo : order){
-				EITsection[] eiTsections = servicesTable.get(serviceNo);
-				drawServiceEvents(gd2, startDate, SERVICE_NAME_WIDTH, offset, char_descend, eiTsections);
-				offset+=LINE_HEIGHT;
-			}
+			drawTiles(gd2, startDate, translatedX, translatedY, viewWidth - SERVICE_NAME_WIDTH, viewHeight - LEGEND_HEIGHT);
 
 			gd2.dispose();
 
@@ -604,6 +608,45 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 	}
 
 
+	/**
+	 * Draws the tiles that cover the visible part of the grid, rendering the ones not in cache.
+	 *
+	 * @param gd
+	 * @param startDate
+	 * @param gridX left of visible part, relative to start of grid
+	 * @param gridY top of visible part, relative to start of grid
+	 * @param viewWidth
+	 * @param viewHeight
+	 */
+	private void drawTiles(final Graphics2D gd, Date startDate, int gridX, int gridY, int viewWidth, int viewHeight) {
+		final AffineTransform transform = gd.getTransform();
+		if((transform.getScaleX() != tileScaleX) || (transform.getScaleY() != tileScaleY)){
+			tiles.clear();
+			tileScaleX = transform.getScaleX();
+			tileScaleY = transform.getScaleY();
+		}
+
+		final Dimension dimension = getDimension();
+		final int gridWidth = dimension.width - SERVICE_NAME_WIDTH;
+		final int gridHeight = dimension.height - LEGEND_HEIGHT;
+		final int firstColumn = Math.max(0, gridX / TILE_WIDTH);
+		final int lastColumn = Math.min(gridX + viewWidth, gridWidth - 1) / TILE_WIDTH;
+		final int firstRow = Math.max(0, gridY / TILE_HEIGHT);
+		final int lastRow = Math.min(gridY + viewHeight, gridHeight - 1) / TILE_HEIGHT;
+
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				final Long key = ((long) row << 32) | column;
+				BufferedImage tile = tiles.get(key);
+				if(tile == null){
+					tile = renderTile(startDate, column, row, tileScaleX, tileScaleY);
+					tiles.put(key, tile);
+				}
+				gd.drawImage(tile, SERVICE_NAME_WIDTH + (column * TILE_WIDTH), LEGEND_HEIGHT + (row * TILE_HEIGHT), TILE_WIDTH, TILE_HEIGHT, null);
+			}
+		}
+	}
+
 	/**
 	 *
 	 * Causes display to switch to Present/following information for all services in entire EIT.
@@ -614,9 +657,7 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 	public void selectPresentFollowing() {
 		selectedSchedule = false;
 		if(eit!=null){
-			servicesTable = eit.getCombinedPresentFollowing();
-			serviceOrder = new TreeSet<>(servicesTable.keySet());
-			interval = EIT.getSpanningInterval(serviceOrder, servicesTable);
+			setServicesTable(eit.getCombinedPresentFollowing());
 			setSize(getDimension());
 			repaint();
 		}
@@ -632,9 +673,7 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 	public void selectSchedule() {
 		selectedSchedule = true;
 		if(eit!=null){
-			servicesTable = eit.getCombinedSchedule();
-			serviceOrder = new TreeSet<>(servicesTable.keySet());
-			interval = EIT.getSpanningInterval(serviceOrder, servicesTable);
+			setServicesTable(eit.getCombinedSchedule());
 			setSize(getDimension());
 			repaint();
 		}
@@ -647,6 +686,7 @@ public class EITableImage extends JPanel implements ComponentListener,ImageSourc
 	 */
 	public void setZoom(long l) {
 		milliSecsPerPixel = l;
+		tiles.clear();
 		setSize(getDimension());
 		repaint();
 	}
@@ -31,21 +31,27 @@ import java.awt.event.*;
 import java.beans.*;
 
 import javax.swing.*;
+import javax.swing.tree.DefaultMutableTreeNode;
 
 import nl.digitalekabeltelevisie.main.DVBinspector;
-import nl.digitalekabeltelevisie.util.DefaultMutableTreeNodePreorderEnumaration;
+import nl.digitalekabeltelevisie.util.search.PacketSearch;
+import nl.digitalekabeltelevisie.util.search.TextSearch;
+import nl.digitalekabeltelevisie.util.search.TreeSearch;
 
 class FindDialog extends JDialog
                    implements ActionListener,
                               PropertyChangeListener {
     private String searchText = null;
     private JTextField textField;
+    private JComboBox<String> searchInBox;
     private JOptionPane optionPane;
     DVBinspector controller;
 
     private String buttonString1 = "Search";
     private String buttonString2 = "Cancel";
-	private DefaultMutableTreeNodePreorderEnumaration enummeration;
+
+    private static final String SEARCH_TREE = "Tree";
+    private static final String SEARCH_PACKETS = "Transport packets";
 
 
 
@@ -54,16 +60,17 @@ class FindDialog extends JDialog
         this.controller = controller;
         
         
-		enummeration = controller.getTreeView().createNewDefaultMutableTreeNodePreorderEnumaration();
-		controller.setSearchEnumeration(enummeration);
-		controller.setSearchString(null);
+		controller.resetSearch();
 
         setTitle("Search");
 
         textField = new JTextField();
 
+        searchInBox = new JComboBox<>(new String[] {SEARCH_TREE, SEARCH_PACKETS});
+        searchInBox.setToolTipText("<html>Transport packets: criteria separated by spaces, like <code>pid=0x100 pusi hex=000001e0 stream_id=0xe0 pts=12345 error</code></html>");
+
         String msgString1 = "Find";
-         Object[] array = {msgString1,textField};
+         Object[] array = {msgString1,textField,"In",searchInBox};
 
         Object[] options = {buttonString1, buttonString2};
 
@@ -109,22 +116,29 @@ class FindDialog extends JDialog
 			optionPane.setValue(JOptionPane.UNINITIALIZED_VALUE);
 
 			if (buttonString1.equals(value)) {
-				searchText = textField.getText();
-				controller.setSearchString(searchText);
-
-				boolean found = controller.getTreeView().findAndShow(searchText, enummeration);
-				if (!found) {
-					setTitle("No (more) instances of '" + searchText + "' found");
-					controller.setSearchEnumeration(null);
-					controller.setSearchString(null);
-					textField.setEnabled(false);
-					optionPane.getRootPane().getDefaultButton().setEnabled(false);
-
-				} else {
-					optionPane.getRootPane().getDefaultButton().setText("Next");
-					textField.setEnabled(false);
-
+				TreeSearch search = controller.getSearch();
+				if (search == null) {
+					searchText = textField.getText();
+					search = createSearch(searchText);
+					if (search == null) {
+						return;
+					}
+					controller.setSearch(search);
 				}
+				final JButton searchButton = optionPane.getRootPane().getDefaultButton();
+				searchButton.setEnabled(false);
+				textField.setEnabled(false);
+				searchInBox.setEnabled(false);
+				final TreeSearch currentSearch = search;
+				new TreeSearchWorker(controller, this, search, result -> {
+					if (result == TreeSearchWorker.Result.NOT_FOUND) {
+						setTitle("No (more) instances of " + currentSearch.getDescription() + " found");
+						controller.resetSearch();
+					} else {
+						searchButton.setText("Next");
+						searchButton.setEnabled(true);
+					}
+				}).execute();
 
 			} else {
 				searchText = null;
@@ -133,6 +147,26 @@ class FindDialog extends JDialog
 		}
 	}
 
+    private TreeSearch createSearch(String text) {
+		if (SEARCH_PACKETS.equals(searchInBox.getSelectedItem())) {
+			if (controller.getTransportStream() == null) {
+				return null;
+			}
+			try {
+				return new PacketSearch(controller.getTransportStream(), controller.getTreeView().getRoot(), text);
+			} catch (final IllegalArgumentException e) {
+				JOptionPane.showMessageDialog(this, e.getMessage(), "Search", JOptionPane.ERROR_MESSAGE);
+				return null;
+			}
+		}
+		final DVBtree treeView = controller.getTreeView();
+		final DefaultMutableTreeNode root = treeView.getRoot();
+		if (root == null) {
+			return null;
+		}
+		return new TextSearch(text, cancelled -> treeView.getSearchIndex(root, cancelled));
+	}
+
     /** This method clears the dialog and hides it. */
     public void clearAndHide() {
         textField.setText(null);
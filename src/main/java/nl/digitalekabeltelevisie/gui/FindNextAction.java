@@ -28,7 +28,7 @@ import java.awt.event.ActionEvent;
 import javax.swing.*;
 
 import nl.digitalekabeltelevisie.main.DVBinspector;
-import nl.digitalekabeltelevisie.util.DefaultMutableTreeNodePreorderEnumaration;
+import nl.digitalekabeltelevisie.util.search.TreeSearch;
 
 public class FindNextAction extends AbstractAction {
 
@@ -42,19 +42,20 @@ public class FindNextAction extends AbstractAction {
 	@Override
 	public void actionPerformed(ActionEvent e) {
 
-		String searchText = controller.getSearchString();
-		DefaultMutableTreeNodePreorderEnumaration enummeration = controller.getSearchEnumeration();
-		if ((searchText != null) && (enummeration != null)) {
-			boolean found = controller.getTreeView().findAndShow(searchText, enummeration);
-			if (!found) {
-				JOptionPane.showMessageDialog(controller.getFrame(),
-						"No (more) instances of '" + searchText + "' found",
-						"No (more) instances of '" + searchText + "' found",
-						JOptionPane.INFORMATION_MESSAGE);
-				controller.setSearchEnumeration(null);
-				controller.setSearchString(null);
-				controller.getFindNextAction().setEnabled(false);
-			}
+		TreeSearch search = controller.getSearch();
+		if (search != null) {
+			setEnabled(false);
+			new TreeSearchWorker(controller, controller.getFrame(), search, result -> {
+				if (result == TreeSearchWorker.Result.NOT_FOUND) {
+					JOptionPane.showMessageDialog(controller.getFrame(),
+							"No (more) instances of " + search.getDescription() + " found",
+							"No (more) instances of " + search.getDescription() + " found",
+							JOptionPane.INFORMATION_MESSAGE);
+					controller.resetSearch();
+				} else {
+					setEnabled(controller.getSearch() != null);
+				}
+			}).execute();
 		}
 	}
 }
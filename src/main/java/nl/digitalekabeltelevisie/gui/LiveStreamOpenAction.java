@@ -0,0 +1,121 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.gui;
+
+import java.awt.event.ActionEvent;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.AbstractAction;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+
+import nl.digitalekabeltelevisie.data.mpeg.LiveStreamReader;
+import nl.digitalekabeltelevisie.data.mpeg.ParseSettings;
+import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
+import nl.digitalekabeltelevisie.main.DVBinspector;
+import nl.digitalekabeltelevisie.util.PreferencesManager;
+
+/**
+ * Asks for a live source (UDP/RTP url, growing file or named pipe), and shows it while it is being read by a {@link LiveStreamReader}.
+ * The views are refreshed every few seconds. Opening another stream stops reading.
+ *
+ * @author Eric
+ *
+ */
+public class LiveStreamOpenAction extends AbstractAction {
+
+	private static final Logger logger = Logger.getLogger(LiveStreamOpenAction.class.getName());
+
+	private static final long REFRESH_MILLIS = 5000;
+
+	private final DVBinspector contr;
+
+	public LiveStreamOpenAction(final DVBinspector controller) {
+		super("Open Live Stream...");
+		contr = controller;
+	}
+
+	@Override
+	public void actionPerformed(final ActionEvent e) {
+		final String source = (String) JOptionPane.showInputDialog(contr.getFrame(),
+				"Source, like udp://@239.1.1.1:1234, rtp://@239.1.1.1:5000, \n"
+						+ "a file that is still being written, or a named pipe",
+				"Open Live Stream", JOptionPane.QUESTION_MESSAGE, null, null, PreferencesManager.getLiveSource());
+		if ((source == null) || source.isBlank()) {
+			return;
+		}
+		PreferencesManager.setLiveSource(source.trim());
+
+		final int packetLengthModus = PreferencesManager.getPacketLengthModus();
+		final int packetLength = (packetLengthModus == 0) ? 188 : packetLengthModus;
+		final LiveView view = new LiveView();
+		try {
+			view.reader = LiveStreamReader.open(source.trim(), packetLength, PreferencesManager.getLiveBufferPackets(),
+					ParseSettings.fromPreferences(), view);
+		} catch (final IOException ex) {
+			logger.log(Level.WARNING, "could not open live stream " + source, ex);
+			JOptionPane.showMessageDialog(contr.getFrame(),
+					"Could not open live stream " + source + "\n\n" + ex.getMessage(),
+					"Error DVB Inspector",
+					JOptionPane.ERROR_MESSAGE);
+			return;
+		}
+		view.reader.setRefreshInterval(REFRESH_MILLIS);
+		contr.setTransportStream(view.reader.getTransportStream());
+		contr.resetSearch();
+		view.reader.start();
+	}
+
+	/**
+	 * Called by the reader thread, shows the new state on the event dispatch thread.
+	 */
+	private final class LiveView implements java.util.function.Consumer<TransportStream> {
+
+		private LiveStreamReader reader;
+
+		@Override
+		public void accept(final TransportStream transportStream) {
+			SwingUtilities.invokeLater(() -> show(transportStream));
+		}
+
+		private void show(final TransportStream transportStream) {
+			if (reader.isStopped() && (contr.getTransportStream() != transportStream)) {
+				return; // another stream was opened in the mean time
+			}
+			synchronized (transportStream) {
+				if (contr.getTransportStream() == transportStream) {
+					contr.refreshViews();
+				} else { // reader continued in a new TransportStream
+					contr.setTransportStream(transportStream);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.gui;
+
+import java.awt.Component;
+import java.awt.Cursor;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.*;
+
+import nl.digitalekabeltelevisie.main.DVBinspector;
+import nl.digitalekabeltelevisie.util.search.SearchHit;
+import nl.digitalekabeltelevisie.util.search.TreeSearch;
+
+/**
+ * Runs {@link TreeSearch#findNext(java.util.function.BooleanSupplier, java.util.function.IntConsumer)} in the background,
+ * with a ProgressMonitor that allows the user to cancel the search. When something is found it is shown in the tree.
+ *
+ * A cancelled search can be continued, it resumes where it was stopped.
+ *
+ * @author Eric
+ *
+ */
+public class TreeSearchWorker extends SwingWorker<SearchHit, Void> {
+
+	private static final Logger logger = Logger.getLogger(TreeSearchWorker.class.getName());
+
+	public enum Result {
+		FOUND, NOT_FOUND, CANCELLED
+	}
+
+	private final DVBinspector controller;
+	private final TreeSearch search;
+	private final ProgressMonitor monitor;
+	private final Consumer<Result> whenDone;
+
+	/**
+	 * @param controller
+	 * @param parentComponent parent for the progress monitor
+	 * @param search
+	 * @param whenDone called on the EDT when the search is finished
+	 */
+	public TreeSearchWorker(DVBinspector controller, Component parentComponent, TreeSearch search, Consumer<Result> whenDone) {
+		super();
+		this.controller = controller;
+		this.search = search;
+		this.whenDone = whenDone;
+		monitor = new ProgressMonitor(parentComponent, "Searching for " + search.getDescription(), null, 0, 100);
+		monitor.setMillisToDecideToPopup(200);
+		monitor.setMillisToPopup(500);
+		addPropertyChangeListener(e -> {
+			if ("progress".equals(e.getPropertyName())) {
+				monitor.setProgress((Integer) e.getNewValue());
+			}
+		});
+		controller.getFrame().setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+	}
+
+	@Override
+	protected SearchHit doInBackground() {
+		return search.findNext(() -> isCancelled() || monitor.isCanceled(), this::setProgress);
+	}
+
+	@Override
+	protected void done() {
+		monitor.close();
+		controller.getFrame().setCursor(Cursor.getDefaultCursor());
+		Result result;
+		try {
+			final SearchHit hit = get();
+			if (hit != null) {
+				if (!controller.getTreeView().showNode(hit.getNode())) {
+					JOptionPane.showMessageDialog(controller.getFrame(),
+							"Found " + hit.getDescription() + ", but it is not part of the current tree",
+							"Search", JOptionPane.INFORMATION_MESSAGE);
+				}
+				result = Result.FOUND;
+			} else if (monitor.isCanceled()) {
+				result = Result.CANCELLED;
+			} else {
+				result = Result.NOT_FOUND;
+			}
+		} catch (final CancellationException e) {
+			result = Result.CANCELLED;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			result = Result.CANCELLED;
+		} catch (final ExecutionException e) {
+			logger.log(Level.WARNING, "error searching", e);
+			JOptionPane.showMessageDialog(controller.getFrame(),
+					"Error while searching for " + search.getDescription() + ": " + e.getCause(),
+					"Search", JOptionPane.ERROR_MESSAGE);
+			result = Result.NOT_FOUND;
+		}
+		whenDone.accept(result);
+	}
+
+}
@@ -26,7 +26,6 @@
  */
 package nl.digitalekabeltelevisie.gui.utils;
 
-import java.math.BigInteger;
 import java.util.*;
 import java.util.Map.Entry;
 
@@ -44,7 +43,7 @@ public class TEMIXYDataset implements XYDataset {
 	/** The group that the dataset belongs to. */
     private DatasetGroup group;
 
-    private ArrayList<List<TemiTimeStamp>> seriesList = new ArrayList<>();
+    private ArrayList<TemiTimeStampList> seriesList = new ArrayList<>();
     ArrayList<String> seriesKeys = new ArrayList<>(); 
     ArrayList<Integer> seriesOffset = new ArrayList<>();
     ArrayList<Integer> seriesViewContextLength = new ArrayList<>();
@@ -63,44 +62,22 @@ public class TEMIXYDataset implements XYDataset {
 			String componentLabel = componentPid + " - " + transportStream.getShortLabel(componentPid);
 			final PID pid = transportStream.getPID(componentPid);
 			if (pid != null) {
-				HashMap<Integer, ArrayList<TemiTimeStamp>> temiMap = pid.getTemiList();
-				for (Entry<Integer, ArrayList<TemiTimeStamp>> entry : temiMap.entrySet()) {
+				Map<Integer, TemiTimeStampList> temiMap = pid.getTemiList();
+				for (Entry<Integer, TemiTimeStampList> entry : temiMap.entrySet()) {
 					int time_line_id = entry.getKey();
-					ArrayList<TemiTimeStamp> value = entry.getValue();
+					TemiTimeStampList value = entry.getValue();
 					addToSeriesList(value, componentLabel + " TEMI time_line_id:" + time_line_id);
 				}
 			}
 		}
 	}
 
-	private void addToSeriesList(final List<TemiTimeStamp> list, String componentLabel) {
+	private void addToSeriesList(final TemiTimeStampList list, String componentLabel) {
 		if((list!=null)&&(list.size()>0)){
 			seriesList.add(list);
 			seriesKeys.add(componentLabel);
-			TemiTimeStamp startKey = new TemiTimeStamp(startPacket,BigInteger.ZERO);
-			TemiTimeStamp endKey = new TemiTimeStamp(endPacket, BigInteger.valueOf(Long.MAX_VALUE));
-			Comparator<TemiTimeStamp> comperator = new Comparator<TemiTimeStamp>() {
-				
-				@Override
-				public int compare(TemiTimeStamp o1, TemiTimeStamp o2) {
-					if (o1.getPacketNo() < o2.getPacketNo()) {
-						return -1;
-					} else if (o1.getPacketNo() > o2.getPacketNo()) {
-						return 1;
-					} else{
-						return (o1.getMediaTimeStamp().compareTo(o2.getMediaTimeStamp())); 
-					}
-				}
-			};
-			int startOffset = Collections.binarySearch(list, startKey, comperator);
-			if(startOffset<0){ 
-				startOffset = (-startOffset)-1;
-			}
-			int endRange = Collections.binarySearch(list, endKey, comperator);
-			
-			if(endRange<0){ 
-				endRange = (-endRange)-1;
-			}
+			int startOffset = list.lowerBound(startPacket);
+			int endRange = list.lowerBound(endPacket + 1);
 
 			seriesOffset.add(startOffset);
 			seriesViewContextLength.add(endRange-startOffset);
@@ -157,26 +134,29 @@ public class TEMIXYDataset implements XYDataset {
 
 	@Override
 	public Number getX(int series, int item) {
-		return getTimestamp(series, item).getPacketNo();
+		return seriesList.get(series).getPacketNo(item+seriesOffset.get(series));
 	}
 
+	/**
+	 * @return new TemiTimeStamp for a single point, only meant for tool tips
+	 */
 	protected TemiTimeStamp getTimestamp(int series, int item) {
 		return seriesList.get(series).get(item+seriesOffset.get(series));
 	}
 
 	@Override
 	public double getXValue(int series, int item) {
-		return getTimestamp(series, item).getPacketNo();
+		return seriesList.get(series).getPacketNo(item+seriesOffset.get(series));
 	}
 
 	@Override
 	public Number getY(int series, int item) {
-		return getTimestamp(series, item).getTime();
+		return seriesList.get(series).getSeconds(item+seriesOffset.get(series));
 	}
 
 	@Override
 	public double getYValue(int series, int item) {
-		return getTimestamp(series, item).getTime();
+		return seriesList.get(series).getSeconds(item+seriesOffset.get(series));
 	}
 
 }
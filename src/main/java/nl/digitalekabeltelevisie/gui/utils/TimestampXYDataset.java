@@ -43,7 +43,7 @@ public class TimestampXYDataset implements XYDataset {
 	/** The group that the dataset belongs to. */
     private DatasetGroup group;
 
-    private ArrayList<List<TimeStamp>> seriesList = new ArrayList<>();
+    private ArrayList<TimeStampSeries> seriesList = new ArrayList<>();
     ArrayList<String> seriesKeys = new ArrayList<>(); 
     ArrayList<Integer> seriesOffset = new ArrayList<>();
     ArrayList<Integer> seriesViewContextLength = new ArrayList<>();
@@ -82,9 +82,9 @@ public class TimestampXYDataset implements XYDataset {
 
 	private void findSCTE35Points(TransportStream transportStream, boolean hasSCTE35, Component component) {
 		if(hasSCTE35 && component.getStreamtype()==0x86){
-			List<TimeStamp> exitPoints = new ArrayList<>();
-			List<TimeStamp> returnPoints = new ArrayList<>();
-			List<TimeStamp> timeSignalPoints = new ArrayList<>();
+			TimeStampList exitPoints = new TimeStampList();
+			TimeStampList returnPoints = new TimeStampList();
+			TimeStampList timeSignalPoints = new TimeStampList();
 			SpliceInfoSections spliceSections = transportStream.getPsi().getScte35_table().getSpliceInfoSections((short) component.getElementaryPID());
 			if(spliceSections!=null){
 				findSpliceInserts(exitPoints, returnPoints, timeSignalPoints,spliceSections);
@@ -95,7 +95,7 @@ public class TimestampXYDataset implements XYDataset {
 		}
 	}
 
-	private static void findSpliceInserts(List<TimeStamp> exitPoints, List<TimeStamp> returnPoints, List<TimeStamp> timeSignalPoints,
+	private static void findSpliceInserts(TimeStampList exitPoints, TimeStampList returnPoints, TimeStampList timeSignalPoints,
 			SpliceInfoSections spliceSections) {
 		List<SpliceInfoSection> spliceInfoSectionList = spliceSections.getSpliceInfoSectionList();
 		for (SpliceInfoSection spliceSection : spliceInfoSectionList) {
@@ -116,22 +116,20 @@ public class TimestampXYDataset implements XYDataset {
 						.getSplice_command();
 				SpliceInfoSection.SpliceTime spliceTime = timeSignal.getSplice_time();
 				if ((spliceTime != null) && (spliceTime.getTime_specified_flag() == 1)) {
-					TimeStamp ts = new TimeStamp(spliceSection.getPacket_no(), spliceTime.getSpliceTimeAdjusted());
-					timeSignalPoints.add(ts);
+					timeSignalPoints.add(spliceSection.getPacket_no(), spliceTime.getSpliceTimeAdjusted());
 				}
 			}
 		}
 	}
 
-	private static void handleProgramSplicePoint(List<TimeStamp> exitPoints, List<TimeStamp> returnPoints,
+	private static void handleProgramSplicePoint(TimeStampList exitPoints, TimeStampList returnPoints,
 			SpliceInfoSection spliceSection, SpliceInfoSection.SpliceInsert spliceInsert) {
 		SpliceInfoSection.SpliceTime spliceTime = spliceInsert.getSplice_time();
 		if ((spliceTime != null) && (spliceTime.getTime_specified_flag() == 1)) {
-			TimeStamp ts = new TimeStamp(spliceSection.getPacket_no(), spliceTime.getSpliceTimeAdjusted());
 			if (spliceInsert.getOut_of_network_indicator() == 1) {
-				exitPoints.add(ts);
+				exitPoints.add(spliceSection.getPacket_no(), spliceTime.getSpliceTimeAdjusted());
 			} else {
-				returnPoints.add(ts);
+				returnPoints.add(spliceSection.getPacket_no(), spliceTime.getSpliceTimeAdjusted());
 			}
 		}
 	}
@@ -141,25 +139,12 @@ public class TimestampXYDataset implements XYDataset {
 		return (short) component.getElementaryPID()+" - "+transportStream.getShortLabel((short) component.getElementaryPID());
 	}
 
-	private void addToSeriesList(final List<TimeStamp> list, String componentLabel) {
+	private void addToSeriesList(final TimeStampSeries list, String componentLabel) {
 		if((list!=null)&&(!list.isEmpty())){
 			seriesList.add(list);
 			seriesKeys.add(componentLabel);
-			TimeStamp startKey = new TimeStamp(startPacket, 0);
-			TimeStamp endKey = new TimeStamp(endPacket, Long.MAX_VALUE);
-			Comparator<TimeStamp> comperator = Comparator
-											.comparingInt(TimeStamp::getPacketNo)
-											.thenComparingLong(TimeStamp::getTime);
-			
-			int startOffset = Collections.binarySearch(list, startKey, comperator);
-			if(startOffset<0){ 
-				startOffset = (-startOffset)-1;
-			}
-			int endRange = Collections.binarySearch(list, endKey, comperator);
-			
-			if(endRange<0){ 
-				endRange = (-endRange)-1;
-			}
+			int startOffset = list.lowerBound(startPacket);
+			int endRange = list.lowerBound(endPacket + 1);
 
 			seriesOffset.add(startOffset);
 			seriesViewContextLength.add(endRange-startOffset);
@@ -215,26 +200,22 @@ public class TimestampXYDataset implements XYDataset {
 
 	@Override
 	public Number getX(int series, int item) {
-		return getTimestamp(series, item).getPacketNo();
-	}
-
-	private TimeStamp getTimestamp(int series, int item) {
-		return seriesList.get(series).get(item+seriesOffset.get(series));
+		return seriesList.get(series).getPacketNo(item+seriesOffset.get(series));
 	}
 
 	@Override
 	public double getXValue(int series, int item) {
-		return getTimestamp(series, item).getPacketNo();
+		return seriesList.get(series).getPacketNo(item+seriesOffset.get(series));
 	}
 
 	@Override
 	public Number getY(int series, int item) {
-		return getTimestamp(series, item).getTime();
+		return seriesList.get(series).getTime(item+seriesOffset.get(series));
 	}
 
 	@Override
 	public double getYValue(int series, int item) {
-		return getTimestamp(series, item).getTime();
+		return seriesList.get(series).getTime(item+seriesOffset.get(series));
 	}
 
 }
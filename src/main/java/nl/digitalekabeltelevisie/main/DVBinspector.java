@@ -69,9 +69,9 @@ import nl.digitalekabeltelevisie.data.mpeg.pid.t2mi.T2miPidHandler;
 import nl.digitalekabeltelevisie.gui.*;
 import nl.digitalekabeltelevisie.gui.exception.NotAnMPEGFileException;
 import nl.digitalekabeltelevisie.gui.utils.RecentFiles;
-import nl.digitalekabeltelevisie.util.DefaultMutableTreeNodePreorderEnumaration;
 import nl.digitalekabeltelevisie.util.PreferencesManager;
 import nl.digitalekabeltelevisie.util.Utils;
+import nl.digitalekabeltelevisie.util.search.TreeSearch;
 
 /**
  * Main class for DVB Inspector, creates and holds all GUI elements.
@@ -107,8 +107,7 @@ public class DVBinspector implements ChangeListener, ActionListener{
 	private FindNextAction findNextAction;
 
 
-	private DefaultMutableTreeNodePreorderEnumaration searchEnummeration;
-	private String searchString;
+	private TreeSearch search;
 
 
 	/**
@@ -544,6 +543,10 @@ public class DVBinspector implements ChangeListener, ActionListener{
 		openMenuItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_O, InputEvent.CTRL_DOWN_MASK));
 		fileMenu.add(openMenuItem);
 
+		final JMenuItem liveMenuItem = new JMenuItem(new LiveStreamOpenAction(this));
+		liveMenuItem.setMnemonic(KeyEvent.VK_L);
+		fileMenu.add(liveMenuItem);
+
 		recentFilesMenu = createRecentFilesMenu();
 		
 		fileMenu.add(recentFilesMenu);
@@ -628,6 +631,9 @@ public class DVBinspector implements ChangeListener, ActionListener{
 	 * @param transportStream
 	 */
 	public void setTransportStream(final TransportStream transportStream) {
+		if((this.transportStream!=null)&&(this.transportStream!=transportStream)){
+			this.transportStream.close();
+		}
 		this.transportStream = transportStream;
 		if(transportStream!=null){
 			updatePIDLists(transportStream,pidDialog);
@@ -762,31 +768,16 @@ public class DVBinspector implements ChangeListener, ActionListener{
 	}
 
 
-	public void setSearchEnumeration(DefaultMutableTreeNodePreorderEnumaration enummeration) {
-		this.searchEnummeration = enummeration;
-		if(enummeration==null){
-			findNextAction.setEnabled(false);
-		}else if(searchString!=null){
-			findNextAction.setEnabled(true);
-		}
-		
-	}
-
-	public DefaultMutableTreeNodePreorderEnumaration getSearchEnumeration() {
-		return searchEnummeration;
-	}
-
-	public String getSearchString() {
-		return searchString;
+	/**
+	 * @param search the current search, used by Find Next. Can be null
+	 */
+	public void setSearch(TreeSearch search) {
+		this.search = search;
+		findNextAction.setEnabled(search!=null);
 	}
 
-	public void setSearchString(String searchString) {
-		this.searchString = searchString;
-		if(searchString==null){
-			findNextAction.setEnabled(false);
-		}else if(searchEnummeration!=null){
-			findNextAction.setEnabled(true);
-		}
+	public TreeSearch getSearch() {
+		return search;
 	}
 
 	public FindNextAction getFindNextAction() {
@@ -795,8 +786,7 @@ public class DVBinspector implements ChangeListener, ActionListener{
 
 
 	public void resetSearch(){
-		searchEnummeration = null;
-		searchString = null;
+		search = null;
 		findNextAction.setEnabled(false);
 	}
 
@@ -36,10 +36,11 @@ import java.nio.file.Paths;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 
-import nl.digitalekabeltelevisie.controller.KVP;
 import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
 import nl.digitalekabeltelevisie.gui.DVBtree;
 import nl.digitalekabeltelevisie.util.PreferencesManager;
+import nl.digitalekabeltelevisie.util.export.TextTreeRenderer;
+import nl.digitalekabeltelevisie.util.export.TreeExporter;
 
 /**
  * This program parses all files under tsDir and sub directories, and if they happen to be a valid TS file, exports
@@ -98,20 +99,12 @@ public class ExportTree {
 			TransportStream transportStream = new TransportStream(tsFile);
 			transportStream.parseStream();
 			
-			DefaultMutableTreeNode node = transportStream.getJTreeNode(2); // psi only
-			
-			KVP kvp = (KVP)node.getUserObject();
-
-			final String lineSep = System.getProperty("line.separator");
-			final StringBuilder res = new StringBuilder(kvp.getPlainText());
-			res.append(lineSep);
-
-			res.append(DVBtree.getEntireTree(node,""));
-			String treeString = res.toString();
+			DefaultMutableTreeNode node = transportStream.getJTreeNode(DVBtree.PSI_ONLY_MODUS);
 			
 			File exportTreeFile = exportFile.toFile();
-			try (PrintWriter out = new PrintWriter(exportTreeFile,"UTF-8")) {
-			    out.println(treeString);
+			try (PrintWriter out = new PrintWriter(TreeExporter.openWriter(exportTreeFile))) {
+				TreeExporter.export(node, new TextTreeRenderer(out));
+				out.println();
 			}
 			log.println("Succes for  File:"+filePath);
 			log.flush();
@@ -0,0 +1,196 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Random access to a file, for reading single packets. Keeps a single {@link FileChannel} open, and caches the most recently used blocks of the file,
+ * so reading packets that are near each other (like expanding a range of packets in the tree, or moving the mouse over the grid)
+ * costs one read per block instead of an open, seek, read and close per packet.
+ *
+ * Thread safe, reads from the channel use absolute positions, so they don't interfere.
+ * The last block of the file is not cached when it is not complete, so a file that is still being written can be read further later.
+ *
+ * @author Eric
+ *
+ */
+public class CachedFileReader implements Closeable {
+
+	public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+	public static final int DEFAULT_MAX_BLOCKS = 64;
+
+	/**
+	 * number of times a read is tried, when the channel is closed by another thread in the meantime
+	 */
+	private static final int MAX_ATTEMPTS = 3;
+
+	private final File file;
+	private final int blockSize;
+	private final Map<Long, byte[]> blocks;
+
+	private FileChannel channel;
+
+	public CachedFileReader(final File file) {
+		this(file, DEFAULT_BLOCK_SIZE, DEFAULT_MAX_BLOCKS);
+	}
+
+	/**
+	 * @param file
+	 * @param blockSize number of bytes read at once
+	 * @param maxBlocks number of blocks to keep, least recently used is dropped first
+	 */
+	public CachedFileReader(final File file, final int blockSize, final int maxBlocks) {
+		this.file = file;
+		this.blockSize = blockSize;
+		this.blocks = new LinkedHashMap<>(maxBlocks * 2, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Long, byte[]> eldest) {
+				return size() > maxBlocks;
+			}
+		};
+	}
+
+	/**
+	 * Copy bytes from the file.
+	 *
+	 * @param offset position in file
+	 * @param dest
+	 * @param destOffset
+	 * @param length number of bytes wanted
+	 * @return number of bytes actually copied, less than length when end of file is reached
+	 * @throws IOException
+	 */
+	public int read(final long offset, final byte[] dest, final int destOffset, final int length) throws IOException {
+		int copied = 0;
+		while (copied < length) {
+			final long position = offset + copied;
+			final byte[] block = getBlock(position / blockSize);
+			final int inBlock = (int) (position % blockSize);
+			if (inBlock >= block.length) {
+				break; // end of file
+			}
+			final int n = Math.min(length - copied, block.length - inBlock);
+			System.arraycopy(block, inBlock, dest, destOffset + copied, n);
+			copied += n;
+		}
+		return copied;
+	}
+
+	private byte[] getBlock(final long blockNo) throws IOException {
+		synchronized (blocks) {
+			final byte[] block = blocks.get(blockNo);
+			if (block != null) {
+				return block;
+			}
+		}
+		final byte[] block = readBlock(blockNo);
+		if (block.length == blockSize) { // a short block at the end of the file may still grow
+			synchronized (blocks) {
+				blocks.put(blockNo, block);
+			}
+		}
+		return block;
+	}
+
+	private byte[] readBlock(final long blockNo) throws IOException {
+		FileChannel fileChannel = getChannel();
+		for (int attempt = 1;; attempt++) {
+			try {
+				return readBlock(fileChannel, blockNo);
+			} catch (final ClosedByInterruptException e) {
+				throw e; // this thread was interrupted, trying again will not help
+			} catch (final ClosedChannelException e) {
+				// channel is closed when another thread reading from it was interrupted, or by close(). Try again with a fresh one
+				if (attempt == MAX_ATTEMPTS) {
+					throw e;
+				}
+				fileChannel = reopenChannel(fileChannel);
+			}
+		}
+	}
+
+	private byte[] readBlock(final FileChannel fileChannel, final long blockNo) throws IOException {
+		final long start = blockNo * blockSize;
+		final int length = (int) Math.max(0, Math.min(blockSize, fileChannel.size() - start));
+		final ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (fileChannel.read(buffer, start + buffer.position()) < 0) {
+				break;
+			}
+		}
+		if (buffer.hasRemaining()) {
+			final byte[] result = new byte[buffer.position()];
+			System.arraycopy(buffer.array(), 0, result, 0, result.length);
+			return result;
+		}
+		return buffer.array();
+	}
+
+	private synchronized FileChannel getChannel() throws IOException {
+		if ((channel == null) || !channel.isOpen()) {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		}
+		return channel;
+	}
+
+	/**
+	 * @param failed channel that was found closed
+	 * @return open channel, a new one only if failed is still the current channel, otherwise the one another thread opened already
+	 */
+	private synchronized FileChannel reopenChannel(final FileChannel failed) throws IOException {
+		if (channel == failed) {
+			failed.close();
+			channel = null;
+		}
+		return getChannel();
+	}
+
+	/**
+	 * Forget cached blocks, and close the channel. Reader can still be used afterwards, the channel is then opened again.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		synchronized (blocks) {
+			blocks.clear();
+		}
+		if (channel != null) {
+			channel.close();
+			channel = null;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import java.util.Arrays;
+
+/**
+ * Append only store of bytes, kept in chunks of {@value #CHUNK_SIZE} bytes, addressed by a long position.
+ *
+ * Used by PES handlers that split an elementary stream into frames (like AC-3 sync frames or MPEG audio access units).
+ * Each frame only keeps its position in the store, instead of a reference into the buffer it was found in. Memory use is
+ * the size of the stored data rounded up to a whole chunk, and appending never copies data that was already stored.
+ *
+ * Data is added by a single thread. Data that is stored does not change, so it can be read while more data is appended.
+ *
+ * @author Eric
+ *
+ */
+public class ChunkedByteStore {
+
+	public static final int CHUNK_SHIFT = 16;
+	public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private byte[][] chunks = new byte[4][];
+	private int chunkCount = 0;
+	private volatile long size = 0;
+
+	/**
+	 * Append len bytes from src, starting at off.
+	 *
+	 * @param src
+	 * @param off
+	 * @param len
+	 * @return position of the first byte in this store
+	 */
+	public long append(final byte[] src, final int off, final int len) {
+		final long start = size;
+		long pos = start;
+		int done = 0;
+		while (done < len) {
+			final int chunk = (int) (pos >>> CHUNK_SHIFT);
+			if (chunk == chunkCount) {
+				if (chunkCount == chunks.length) {
+					chunks = Arrays.copyOf(chunks, chunkCount * 2);
+				}
+				chunks[chunkCount++] = new byte[CHUNK_SIZE];
+			}
+			final int inChunk = (int) (pos & CHUNK_MASK);
+			final int n = Math.min(len - done, CHUNK_SIZE - inChunk);
+			System.arraycopy(src, off + done, chunks[chunk], inChunk, n);
+			done += n;
+			pos += n;
+		}
+		size = pos;
+		return start;
+	}
+
+	/**
+	 * @param pos
+	 * @return byte at position pos
+	 */
+	public byte get(final long pos) {
+		if ((pos < 0) || (pos >= size)) {
+			throw new IndexOutOfBoundsException("position " + pos + ", size " + size);
+		}
+		return chunks[(int) (pos >>> CHUNK_SHIFT)][(int) (pos & CHUNK_MASK)];
+	}
+
+	/**
+	 * Copy len bytes starting at position pos into dest.
+	 *
+	 * @param pos
+	 * @param dest
+	 * @param off
+	 * @param len
+	 */
+	public void read(final long pos, final byte[] dest, final int off, final int len) {
+		if ((pos < 0) || (len < 0) || ((pos + len) > size)) {
+			throw new IndexOutOfBoundsException("position " + pos + ", len " + len + ", size " + size);
+		}
+		long p = pos;
+		int done = 0;
+		while (done < len) {
+			final int inChunk = (int) (p & CHUNK_MASK);
+			final int n = Math.min(len - done, CHUNK_SIZE - inChunk);
+			System.arraycopy(chunks[(int) (p >>> CHUNK_SHIFT)], inChunk, dest, off + done, n);
+			done += n;
+			p += n;
+		}
+	}
+
+	/**
+	 * @param pos
+	 * @param len
+	 * @return new array with len bytes starting at position pos
+	 */
+	public byte[] copyOf(final long pos, final int len) {
+		final byte[] result = new byte[len];
+		read(pos, result, 0, len);
+		return result;
+	}
+
+	/**
+	 * @return number of bytes stored
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * @return number of bytes allocated for the chunks
+	 */
+	public long getMemorySize() {
+		return (long) chunkCount * CHUNK_SIZE;
+	}
+
+}
@@ -0,0 +1,107 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import java.io.*;
+
+/**
+ * Reads a file that is still being written, like <code>tail -f</code>. When the end of the file is reached, it waits for more data instead of
+ * returning end of stream. End of stream is only reached after {@link #close()}.
+ *
+ * @author Eric
+ *
+ */
+public class FollowingFileInputStream extends InputStream {
+
+	public static final long DEFAULT_POLL_MILLIS = 100;
+
+	private final InputStream in;
+	private final long pollMillis;
+	private volatile boolean closed = false;
+
+	public FollowingFileInputStream(final File file) throws FileNotFoundException {
+		this(file, DEFAULT_POLL_MILLIS);
+	}
+
+	/**
+	 * @param file
+	 * @param pollMillis time to wait before trying again when the end of the file is reached
+	 * @throws FileNotFoundException
+	 */
+	public FollowingFileInputStream(final File file, final long pollMillis) throws FileNotFoundException {
+		this.in = new FileInputStream(file);
+		this.pollMillis = pollMillis;
+	}
+
+	@Override
+	public int read() throws IOException {
+		final byte[] b = new byte[1];
+		final int r = read(b, 0, 1);
+		return (r == -1) ? -1 : (b[0] & 0xFF);
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		while (!closed) {
+			final int r;
+			try {
+				r = in.read(b, off, len);
+			} catch (final IOException e) {
+				if (closed) {
+					return -1;
+				}
+				throw e;
+			}
+			if (r > 0) {
+				return r;
+			}
+			try {
+				Thread.sleep(pollMillis);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("interrupted while waiting for data");
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return closed ? 0 : in.available();
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		in.close();
+	}
+
+}
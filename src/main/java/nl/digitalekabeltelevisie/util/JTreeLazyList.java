@@ -57,7 +57,7 @@ import javax.swing.tree.MutableTreeNode;
 public class JTreeLazyList{
 
 
-	private static final int STEP_SIZE = 100;
+	static final int STEP_SIZE = 100;
 	private RangeNode mutableTreeNode = null;
 
 	LazyListItemGetter itemGetter =null;
@@ -309,7 +309,7 @@ public class JTreeLazyList{
 	 * @param noPackets2
 	 * @return
 	 */
-	private static int determineLevel(int noPackets2) {
+	static int determineLevel(int noPackets2) {
 		int l=0;
 		while(ipower(STEP_SIZE,l+1)<noPackets2){
 			l++;
@@ -0,0 +1,215 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import java.util.Enumeration;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.MutableTreeNode;
+import javax.swing.tree.TreeNode;
+
+import nl.digitalekabeltelevisie.controller.KVP;
+
+/**
+ * DefaultMutableTreeNode for a (long) list of items, that creates the nodes for the items only when needed (Lazy evaluation).
+ * Items are grouped by 100, with as many levels as needed, the same way as {@link JTreeLazyList}.
+ *
+ * Unlike the RangeNode of JTreeLazyList every level is a DefaultMutableTreeNode with a KVP, so search, copy and
+ * export of the tree work as for any other node. They will create all nodes they visit, just like an expanded list.
+ *
+ * Example: a list of 239 PES packets will look like this;
+ * <pre>
+ * PES Packets: 239 entries
+ * +[0..99]
+ * +[100..199]
+ * +[200..238]
+ *   PES Packet [200]
+ *   .
+ *   .
+ *   PES Packet [238]
+ * </pre>
+ *
+ * Children are created per level, when the node is expanded. Only the number of children is known before that.
+ *
+ * @author Eric
+ *
+ * @see ListItemGetter
+ */
+public class LazyListNode extends DefaultMutableTreeNode {
+
+	public static final int STEP_SIZE = JTreeLazyList.STEP_SIZE;
+
+	private final transient LazyListItemGetter itemGetter;
+	private final int level;
+	private final int start;
+	private final int end;
+	private boolean childrenLoaded = false;
+
+	/**
+	 * @param itemGetter provides the items, should have at least one item
+	 * @param kvp label for the top node of the list
+	 */
+	public LazyListNode(LazyListItemGetter itemGetter, KVP kvp) {
+		this(itemGetter, kvp, JTreeLazyList.determineLevel(itemGetter.getNoItems()), 0, itemGetter.getNoItems() - 1);
+	}
+
+	private LazyListNode(LazyListItemGetter itemGetter, KVP kvp, int level, int start, int end) {
+		super(kvp);
+		this.itemGetter = itemGetter;
+		this.level = level;
+		this.start = start;
+		this.end = end;
+	}
+
+	private synchronized void loadChildren() {
+		if (childrenLoaded) {
+			return;
+		}
+		childrenLoaded = true;
+		final int childCount = getChildCount();
+		for (int i = 0; i < childCount; i++) {
+			super.insert(createChild(i), i);
+		}
+	}
+
+	/**
+	 * @return true when the children of this node have been created and added
+	 */
+	public synchronized boolean isChildrenLoaded() {
+		return childrenLoaded;
+	}
+
+	/**
+	 * Create a child (item or range) without adding it to this node. Used to walk through the list without keeping
+	 * all nodes in memory, like for search and export.
+	 *
+	 * @param index of the child, 0 .. {@link #getChildCount()}-1
+	 * @return new node, not part of the tree
+	 */
+	public MutableTreeNode createChild(int index) {
+		if (level == 0) {
+			return itemGetter.getTreeNode(start + index);
+		}
+		final int rangeSize = JTreeLazyList.ipower(STEP_SIZE, level);
+		final int childStart = start + (rangeSize * index);
+		final int childEnd = Math.min(end, (childStart + rangeSize) - 1);
+		final KVP kvp = new KVP("[" + itemGetter.getActualNumberForIndex(childStart) + ".."
+				+ itemGetter.getActualNumberForIndex(childEnd) + "]");
+		return new LazyListNode(itemGetter, kvp, level - 1, childStart, childEnd);
+	}
+
+	/**
+	 * @return getter for the items of this list, can be used to create nodes for items without adding them to the tree
+	 */
+	public LazyListItemGetter getItemGetter() {
+		return itemGetter;
+	}
+
+	/**
+	 * @return index of the first item below this node
+	 */
+	public int getFirstIndex() {
+		return start;
+	}
+
+	/**
+	 * @return index of the last item below this node
+	 */
+	public int getLastIndex() {
+		return end;
+	}
+
+	/**
+	 * Get the node for an item, creating only the ranges on the path to it.
+	 * @param index of the item, between {@link #getFirstIndex()} and {@link #getLastIndex()}
+	 * @return node for the item, added to the tree
+	 */
+	public TreeNode getItemNode(int index) {
+		if (level == 0) {
+			return getChildAt(index - start);
+		}
+		final LazyListNode range = (LazyListNode) getChildAt((index - start) / JTreeLazyList.ipower(STEP_SIZE, level));
+		return range.getItemNode(index);
+	}
+
+	@Override
+	public int getChildCount() {
+		if (level == 0) {
+			return (end - start) + 1;
+		}
+		return JTreeLazyList.divideRoundUp((end - start) + 1, JTreeLazyList.ipower(STEP_SIZE, level));
+	}
+
+	@Override
+	public boolean isLeaf() {
+		return false;
+	}
+
+	@Override
+	public TreeNode getChildAt(int index) {
+		loadChildren();
+		return super.getChildAt(index);
+	}
+
+	@Override
+	public int getIndex(TreeNode aChild) {
+		loadChildren();
+		return super.getIndex(aChild);
+	}
+
+	@Override
+	public Enumeration<TreeNode> children() {
+		loadChildren();
+		return super.children();
+	}
+
+	@Override
+	public TreeNode getFirstChild() {
+		loadChildren();
+		return super.getFirstChild();
+	}
+
+	@Override
+	public TreeNode getLastChild() {
+		loadChildren();
+		return super.getLastChild();
+	}
+
+	@Override
+	public TreeNode getChildAfter(TreeNode aChild) {
+		loadChildren();
+		return super.getChildAfter(aChild);
+	}
+
+	@Override
+	public TreeNode getChildBefore(TreeNode aChild) {
+		loadChildren();
+		return super.getChildBefore(aChild);
+	}
+
+}
@@ -0,0 +1,83 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import static nl.digitalekabeltelevisie.util.Utils.countListModus;
+
+import java.util.List;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.MutableTreeNode;
+
+import nl.digitalekabeltelevisie.controller.KVP;
+import nl.digitalekabeltelevisie.controller.TreeNode;
+
+/**
+ * Enables lazy display of a list of TreeNodes, like PES packets or audio frames.
+ * Nodes are created with the same labels as {@link Utils#addToList(DefaultMutableTreeNode, java.util.Collection, int)} would.
+ *
+ * The number of items is fixed when the getter is created, so items added to the list later (live stream) are not shown.
+ *
+ * @author Eric
+ *
+ * @see LazyListNode
+ */
+public class ListItemGetter<U extends TreeNode> implements LazyListItemGetter {
+
+	private final List<U> itemList;
+	private final int modus;
+	private final int noItems;
+
+	public ListItemGetter(List<U> itemList, int modus) {
+		this.itemList = itemList;
+		this.modus = modus;
+		this.noItems = itemList.size();
+	}
+
+	/**
+	 * returns the node for the i-th item. In count list modus the index is appended to the label.
+	 * @see nl.digitalekabeltelevisie.util.LazyListItemGetter#getTreeNode(int)
+	 */
+	@Override
+	public MutableTreeNode getTreeNode(int i) {
+		final DefaultMutableTreeNode node = itemList.get(i).getJTreeNode(modus);
+		if (countListModus(modus) && node.getUserObject() instanceof KVP kvp) {
+			kvp.appendLabel(" [" + i + "]");
+		}
+		return node;
+	}
+
+	/* (non-Javadoc)
+	 * @see nl.digitalekabeltelevisie.util.LazyListItemGetter#getNoItems()
+	 */
+	@Override
+	public int getNoItems() {
+		return noItems;
+	}
+
+}
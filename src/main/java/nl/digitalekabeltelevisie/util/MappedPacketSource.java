@@ -0,0 +1,287 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import static nl.digitalekabeltelevisie.data.mpeg.MPEGConstants.sync_byte;
+
+import java.awt.Component;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+import javax.swing.ProgressMonitor;
+
+/**
+ * Walks through a file containing a transport stream using large memory mapped windows, instead of copying all data
+ * through a {@link PositionPushbackInputStream}. Sync is checked in place, the caller can inspect the header of the current packet
+ * directly in the buffer, and only needs to copy the packet when it is actually going to be used.
+ *
+ * Same sync logic as the stream based parser: a packet is accepted when it starts with a sync byte, and is followed by a
+ * sync byte (or end of file). Otherwise the source skips one byte, and tries again.
+ *
+ * @author Eric
+ *
+ */
+public class MappedPacketSource implements Closeable {
+
+	private static final Logger logger = Logger.getLogger(MappedPacketSource.class.getName());
+
+	public static final int DEFAULT_WINDOW_SIZE = 32 * 1024 * 1024;
+
+	private final FileChannel channel;
+	private final long size;
+	private final int packetLength;
+	private final int windowSize;
+
+	private MappedByteBuffer window;
+	/**
+	 * file offset of first byte in window
+	 */
+	private long windowStart = 0;
+	/**
+	 * position in window of the next byte to be inspected
+	 */
+	private int windowPos = 0;
+	private int windowLimit = 0;
+
+	/**
+	 * position in window of the sync byte of the current packet
+	 */
+	private int packetStart = -1;
+	private int packetCount = 0;
+	private int syncErrors = 0;
+	private boolean syncLost = false;
+	/**
+	 * packet numbers are only meaningful when walking from the start of the file
+	 */
+	private boolean fromStart = true;
+
+	private ProgressMonitor monitor;
+	private long divider = 1;
+
+	public MappedPacketSource(final File file, final int packetLength) throws IOException {
+		this(file, packetLength, DEFAULT_WINDOW_SIZE);
+	}
+
+	public MappedPacketSource(final File file, final int packetLength, final int windowSize) throws IOException {
+		if (windowSize <= packetLength) {
+			throw new IllegalArgumentException("windowSize (" + windowSize + ") should be larger than packetLength (" + packetLength + ")");
+		}
+		this.packetLength = packetLength;
+		this.windowSize = windowSize;
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		size = channel.size();
+		if (size > 0) {
+			mapWindow(0);
+		}
+	}
+
+	/**
+	 * Show progress while walking through the file, same as {@link ProgressMonitorLargeInputStream}
+	 *
+	 * @param parentComponent The component triggering the operation being monitored.
+	 * @param message Descriptive text to be placed in the dialog box if one is popped up.
+	 */
+	public void setProgressMonitor(final Component parentComponent, final Object message) {
+		if (size > Integer.MAX_VALUE) {
+			divider = (size / Integer.MAX_VALUE) + 1;
+		}
+		monitor = new ProgressMonitor(parentComponent, message, null, 0, (int) (size / divider));
+		monitor.setMillisToPopup(2);
+		monitor.setMillisToDecideToPopup(1);
+	}
+
+	/**
+	 * Start looking for the next packet at offset, instead of at the current position. Used when a file is scanned in several parts.
+	 * Bytes skipped before the first packet in sync are not counted as sync error, because the offset is usually not the start of a packet.
+	 *
+	 * @param offset position in file
+	 * @throws IOException
+	 */
+	public void seek(final long offset) throws IOException {
+		if ((offset < 0) || (offset > size)) {
+			throw new IllegalArgumentException("offset (" + offset + ") outside file (size " + size + ")");
+		}
+		if (offset < size) {
+			mapWindow(offset);
+		}
+		windowStart = offset;
+		windowPos = 0;
+		if (offset == size) {
+			windowLimit = 0;
+		}
+		packetStart = -1;
+		packetCount = 0;
+		syncLost = true;
+		fromStart = offset == 0;
+	}
+
+	/**
+	 * Make the packet at offset the current packet, without looking at sync bytes. Used to revisit packets when their offsets are
+	 * already known. Do not mix with {@link #next()}.
+	 *
+	 * @param offset position of the sync byte of the packet in the file
+	 * @throws IOException
+	 */
+	public void moveTo(final long offset) throws IOException {
+		if ((offset < windowStart) || ((offset + packetLength) > (windowStart + windowLimit))) {
+			mapWindow(offset);
+		}
+		packetStart = (int) (offset - windowStart);
+	}
+
+	private void mapWindow(final long start) throws IOException {
+		final long length = Math.min(windowSize, size - start);
+		window = channel.map(MapMode.READ_ONLY, start, length);
+		windowStart = start;
+		windowPos = 0;
+		windowLimit = (int) length;
+		if (monitor != null) {
+			monitor.setProgress((int) (start / divider));
+			if (monitor.isCanceled()) {
+				throw new InterruptedIOException("progress");
+			}
+		}
+	}
+
+	/**
+	 * Advance to the next packet that is in sync.
+	 *
+	 * @return true if a packet is available, false at end of file
+	 * @throws IOException
+	 */
+	public boolean next() throws IOException {
+		if (size == 0) {
+			return false;
+		}
+		while (true) {
+			// need packetLength bytes, plus first byte of next packet, unless this is the last packet in the file
+			final long absolute = windowStart + windowPos;
+			if ((absolute + packetLength) > size) {
+				return false;
+			}
+			final boolean lastInFile = (absolute + packetLength) == size;
+			if ((windowPos + packetLength + (lastInFile ? 0 : 1)) > windowLimit) {
+				mapWindow(absolute);
+				continue;
+			}
+			if ((window.get(windowPos) == sync_byte) && (lastInFile || (window.get(windowPos + packetLength) == sync_byte))) {
+				packetStart = windowPos;
+				windowPos += packetLength;
+				packetCount++;
+				syncLost = false;
+				return true;
+			}
+			if (lastInFile) { // same as stream based parser, incomplete last packet is silently ignored
+				return false;
+			}
+			if (!syncLost) {
+				syncErrors++;
+				syncLost = true;
+				logger.severe("Did not find sync byte, resyncing at offset:" + absolute + (fromStart ? ", packet_no:" + packetCount : ""));
+			}
+			windowPos++;
+		}
+	}
+
+	/**
+	 * @return buffer containing the current packet, only valid until next call to {@link #next()}
+	 */
+	public MappedByteBuffer getBuffer() {
+		return window;
+	}
+
+	/**
+	 * @return position of the sync byte of current packet in {@link #getBuffer()}
+	 */
+	public int getPacketStart() {
+		return packetStart;
+	}
+
+	/**
+	 * @return offset of the current packet in the file
+	 */
+	public long getPacketOffset() {
+		return windowStart + packetStart;
+	}
+
+	/**
+	 * @return 13 bit PID of current packet, read directly from the buffer
+	 */
+	public int getPid() {
+		return ((window.get(packetStart + 1) & 0x1F) << 8) | (window.get(packetStart + 2) & 0xFF);
+	}
+
+	/**
+	 * @return byte 1 (transport_error_indicator, payload_unit_start_indicator, transport_priority, 5 bits PID) of current packet
+	 */
+	public int getHeaderByte1() {
+		return window.get(packetStart + 1) & 0xFF;
+	}
+
+	/**
+	 * @return byte 3 (transport_scrambling_control, adaptation_field_control, continuity_counter) of current packet
+	 */
+	public int getHeaderByte3() {
+		return window.get(packetStart + 3) & 0xFF;
+	}
+
+	/**
+	 * @return number of packets returned so far
+	 */
+	public int getPacketCount() {
+		return packetCount;
+	}
+
+	public int getSyncErrors() {
+		return syncErrors;
+	}
+
+	public int getPacketLength() {
+		return packetLength;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		channel.close();
+		if (monitor != null) {
+			monitor.close();
+		}
+	}
+}
@@ -29,21 +29,21 @@ package nl.digitalekabeltelevisie.util;
 
 public class OffsetHelper {
 
-	private RangeHashMap<Integer, Long> rangeHashMap = new RangeHashMap<>();
-	private int maxPackets = -1;
+	private RangeHashMap<Long, Long> rangeHashMap = new RangeHashMap<>();
+	private long maxPackets = -1;
 	private int packetLength = 0;
 	
-	RangeHashMap<Integer, Long>.Entry currentEntry = null;
+	RangeHashMap<Long, Long>.Entry currentEntry = null;
 
-	public OffsetHelper(int max_packets, int packetLength) {
+	public OffsetHelper(long max_packets, int packetLength) {
 		this.maxPackets = max_packets;
 		this.packetLength = packetLength;
 	}
 
-	public void addPacket(int packetNo, long offset) {
+	public void addPacket(long packetNo, long offset) {
 		if(currentEntry == null){
-			currentEntry = rangeHashMap.new Entry(0,maxPackets, offset); 
-			rangeHashMap.put(0, currentEntry);
+			currentEntry = rangeHashMap.new Entry(0L,maxPackets, offset); 
+			rangeHashMap.put(0L, currentEntry);
 		}else if(calculateOffset(packetNo, currentEntry) != offset){
 			currentEntry.setUpper(packetNo - 1);
 			currentEntry = rangeHashMap.new Entry(packetNo, maxPackets, offset);
@@ -51,17 +51,17 @@ public class OffsetHelper {
 		}
 	}
 
-	public int getMaxPacket() {
+	public long getMaxPacket() {
 		return maxPackets;
 	}
 
-	public long getOffset(int packetNo) {
-		RangeHashMap<Integer, Long>.Entry entry = rangeHashMap.findEntry(packetNo);
+	public long getOffset(long packetNo) {
+		RangeHashMap<Long, Long>.Entry entry = rangeHashMap.findEntry(packetNo);
 		return calculateOffset(packetNo, entry); 
 	}
 
-	private long calculateOffset(int packetNo, RangeHashMap<Integer, Long>.Entry entry) {
-		return entry.getValue() + ((long)(packetNo - entry.getLower()) * packetLength);
+	private long calculateOffset(long packetNo, RangeHashMap<Long, Long>.Entry entry) {
+		return entry.getValue() + ((packetNo - entry.getLower()) * packetLength);
 	}
 
 
@@ -27,11 +27,11 @@
 
 package nl.digitalekabeltelevisie.util;
 
-import java.util.Arrays;
-
+import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.MutableTreeNode;
 
-import nl.digitalekabeltelevisie.data.mpeg.PID;
+import nl.digitalekabeltelevisie.controller.KVP;
+import nl.digitalekabeltelevisie.data.mpeg.TSPacket;
 import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
 
 /**
@@ -46,7 +46,10 @@ public class PIDPacketGetter implements LazyListItemGetter {
 	TransportStream transportStream = null;
 	int modus;
 	int pid;
-	int[] packetMapping = null;
+	/**
+	 * maps index in PID to packet number in transportstream
+	 */
+	private final PacketIndex packetIndex;
 	/**
 	 *
 	 */
@@ -54,6 +57,7 @@ public class PIDPacketGetter implements LazyListItemGetter {
 		transportStream = ts;
 		this.pid = pid;
 		this.modus = modus;
+		this.packetIndex = ts.getPacketIndex(pid);
 	}
 
 	/**
@@ -62,22 +66,11 @@ public class PIDPacketGetter implements LazyListItemGetter {
 	 */
 	@Override
 	public MutableTreeNode getTreeNode(int i) {
-		if(packetMapping==null){
-			buildPacketMapping();
-		}
-
-		return transportStream.getTSPacket(packetMapping[i]).getJTreeNode(modus);
-	}
-
-	private void buildPacketMapping() {
-		int k = 0;
-		packetMapping = new int [getNoItems()];
-		for (int j = 0; j < transportStream.getNo_packets(); j++) {
-			int p = transportStream.getPacket_pid(j);
-			if(p==pid){
-				packetMapping[k++]=j;
-			}
+		final TSPacket packet = transportStream.getTSPacket(packetIndex.get(i));
+		if(packet==null) { // live stream, packet no longer in buffer
+			return new DefaultMutableTreeNode(new KVP("packet "+packetIndex.get(i)+" no longer available"));
 		}
+		return packet.getJTreeNode(modus);
 	}
 
 	/* (non-Javadoc)
@@ -85,28 +78,17 @@ public class PIDPacketGetter implements LazyListItemGetter {
 	 */
 	@Override
 	public int getNoItems() {
-
-		 PID p = transportStream.getPID(pid);
-		 if(p!=null){
-			 return p.getPackets();
-		 }
-		 return 0;
-
+		return packetIndex.size();
 	}
 	
 	@Override
 	public int getActualNumberForIndex(int i) {
-		if(packetMapping==null){
-			buildPacketMapping();
-		}
-
-		return transportStream.getTSPacket(packetMapping[i]).getPacketNo();
+		return packetIndex.get(i);
 	}
 	
 	@Override
 	public int getIndexForActualNumber(int a) {
-		return Arrays.binarySearch(packetMapping, a);
-		
+		return packetIndex.indexOf(a);
 	}
 
 
@@ -0,0 +1,291 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import java.util.Arrays;
+
+/**
+ * Sorted list of packet numbers (like all packets belonging to one PID), stored compact.
+ *
+ * Packet numbers are stored in blocks of {@value #BLOCK_SIZE}. For each block the first packet number is stored as int,
+ * the rest as difference with their predecessor, in a variable length encoding (7 bits per byte). For a PID that
+ * has a packet every few packets, this takes little more than a byte per packet.
+ *
+ * Create by using {@link Builder}, after that it is immutable (and thread safe).
+ *
+ * @author Eric
+ *
+ */
+public class PacketIndex {
+
+	public static final int BLOCK_SIZE = 64;
+
+	private static final PacketIndex EMPTY = new PacketIndex(0, new int[0], new int[0], new byte[0]);
+
+	private final int size;
+	/**
+	 * packet number of first entry in each block
+	 */
+	private final int[] blockFirst;
+	/**
+	 * position in deltas of second entry in each block
+	 */
+	private final int[] blockPos;
+	private final byte[] deltas;
+
+	/**
+	 * Collects packet numbers in increasing order.
+	 */
+	public static class Builder {
+		private int size = 0;
+		private int last = -1;
+		private int[] blockFirst = new int[4];
+		private int[] blockPos = new int[4];
+		private byte[] deltas = new byte[64];
+		private int pos = 0;
+
+		/**
+		 * @param packetNo should be larger than previously added packetNo
+		 */
+		public void add(final int packetNo) {
+			if (packetNo <= last) {
+				throw new IllegalArgumentException("packetNo (" + packetNo + ") should be larger than last (" + last + ")");
+			}
+			if ((size % BLOCK_SIZE) == 0) {
+				final int block = size / BLOCK_SIZE;
+				if (block == blockFirst.length) {
+					blockFirst = Arrays.copyOf(blockFirst, block * 2);
+					blockPos = Arrays.copyOf(blockPos, block * 2);
+				}
+				blockFirst[block] = packetNo;
+				blockPos[block] = pos;
+			} else {
+				if ((pos + 5) > deltas.length) {
+					deltas = Arrays.copyOf(deltas, deltas.length * 2);
+				}
+				int delta = packetNo - last;
+				while (delta >= 0x80) {
+					deltas[pos++] = (byte) ((delta & 0x7F) | 0x80);
+					delta >>>= 7;
+				}
+				deltas[pos++] = (byte) delta;
+			}
+			last = packetNo;
+			size++;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public PacketIndex build() {
+			if (size == 0) {
+				return EMPTY;
+			}
+			final int blocks = ((size - 1) / BLOCK_SIZE) + 1;
+			return new PacketIndex(size, Arrays.copyOf(blockFirst, blocks), Arrays.copyOf(blockPos, blocks), Arrays.copyOf(deltas, pos));
+		}
+	}
+
+	private PacketIndex(final int size, final int[] blockFirst, final int[] blockPos, final byte[] deltas) {
+		this.size = size;
+		this.blockFirst = blockFirst;
+		this.blockPos = blockPos;
+		this.deltas = deltas;
+	}
+
+	/**
+	 * @return index without entries
+	 */
+	public static PacketIndex empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * @return number of packet numbers in this index
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param i
+	 * @return the i-th packet number
+	 */
+	public int get(final int i) {
+		if ((i < 0) || (i >= size)) {
+			throw new IndexOutOfBoundsException("index " + i + ", size " + size);
+		}
+		final int block = i / BLOCK_SIZE;
+		int value = blockFirst[block];
+		int pos = blockPos[block];
+		for (int k = block * BLOCK_SIZE; k < i; k++) {
+			int delta = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = deltas[pos++];
+				delta |= (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			value += delta;
+		}
+		return value;
+	}
+
+	/**
+	 * @param packetNo
+	 * @return index of packetNo, same convention as {@link Arrays#binarySearch(int[], int)}: if not present (-(insertion point) - 1)
+	 */
+	public int indexOf(final int packetNo) {
+		final int lower = lowerBound(packetNo);
+		if ((lower < size) && (get(lower) == packetNo)) {
+			return lower;
+		}
+		return -lower - 1;
+	}
+
+	/**
+	 * @param packetNo
+	 * @return number of entries smaller than packetNo
+	 */
+	public int lowerBound(final int packetNo) {
+		if (size == 0) {
+			return 0;
+		}
+		// last block with first entry < packetNo
+		int block = Arrays.binarySearch(blockFirst, packetNo);
+		if (block >= 0) {
+			return block * BLOCK_SIZE;
+		}
+		block = -block - 2;
+		if (block < 0) {
+			return 0;
+		}
+		int value = blockFirst[block];
+		int pos = blockPos[block];
+		final int end = Math.min(size, (block + 1) * BLOCK_SIZE);
+		int k = block * BLOCK_SIZE;
+		while (value < packetNo) {
+			k++;
+			if (k == end) {
+				return end;
+			}
+			int delta = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = deltas[pos++];
+				delta |= (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			value += delta;
+		}
+		return k;
+	}
+
+	/**
+	 * {@link #lowerBound(int)} for a series of packet numbers in increasing order, like the boundaries of the steps of a
+	 * chart. Each search starts at the block of the previous result, and when a packet number falls in the same block
+	 * decoding continues where the previous one stopped, so the cost of n boundaries is less than n separate searches.
+	 * The number of entries between boundary i and i+1 is result[i+1]-result[i].
+	 *
+	 * @param packetNos in increasing order (equal values allowed)
+	 * @return for each packetNo the number of entries smaller than packetNo
+	 */
+	public int[] lowerBounds(final int[] packetNos) {
+		final int[] result = new int[packetNos.length];
+		if (size == 0) {
+			return result;
+		}
+		// cursor; entry k (of block) has value, pos points to the delta of entry k+1
+		int block = -1;
+		int k = 0;
+		int value = 0;
+		int pos = 0;
+		for (int i = 0; i < packetNos.length; i++) {
+			final int packetNo = packetNos[i];
+			if ((i > 0) && (packetNo < packetNos[i - 1])) {
+				throw new IllegalArgumentException("packetNos should be increasing, " + packetNo + " after " + packetNos[i - 1]);
+			}
+			// last block with first entry < packetNo, can not be before the block of the previous packetNo
+			int b = Arrays.binarySearch(blockFirst, Math.max(block, 0), blockFirst.length, packetNo);
+			if (b >= 0) {
+				result[i] = b * BLOCK_SIZE;
+				continue;
+			}
+			b = -b - 2;
+			if (b < 0) {
+				result[i] = 0;
+				continue;
+			}
+			if (b != block) {
+				block = b;
+				k = b * BLOCK_SIZE;
+				value = blockFirst[b];
+				pos = blockPos[b];
+			}
+			final int end = Math.min(size, (block + 1) * BLOCK_SIZE);
+			while ((value < packetNo) && (k < end)) {
+				k++;
+				if (k < end) {
+					int delta = 0;
+					int shift = 0;
+					byte v;
+					do {
+						v = deltas[pos++];
+						delta |= (v & 0x7F) << shift;
+						shift += 7;
+					} while (v < 0);
+					value += delta;
+				}
+			}
+			result[i] = k;
+		}
+		return result;
+	}
+
+	/**
+	 * @param fromPacketNo inclusive
+	 * @param toPacketNo exclusive
+	 * @return number of entries in range
+	 */
+	public int count(final int fromPacketNo, final int toPacketNo) {
+		if (toPacketNo <= fromPacketNo) {
+			return 0;
+		}
+		return lowerBound(toPacketNo) - lowerBound(fromPacketNo);
+	}
+
+	/**
+	 * @return approximate number of bytes used
+	 */
+	public long getMemorySize() {
+		return (blockFirst.length * 8L) + deltas.length;
+	}
+}
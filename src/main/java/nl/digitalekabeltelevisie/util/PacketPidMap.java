@@ -0,0 +1,392 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * For every packet of a transport stream its PID (including flags, see {@link nl.digitalekabeltelevisie.data.mpeg.TransportStream#getPacketPidFlags(long)}),
+ * stored compact, so it does not need 2 bytes of heap per packet for very large files.
+ *
+ * Values are stored in blocks of {@value #BLOCK_SIZE} packets. Each block has its own dictionary of the values used in it, and
+ * stores for each packet the index in that dictionary in 1, 2, 4 or 8 bits. A block that contains only one value (like a long run of
+ * null packets) is stored as that value only, a block with more than 256 different values as plain shorts. A normal multiplex uses
+ * a few dozen different values per block, so this takes less than half of a short[].
+ *
+ * The encoded blocks are kept in pages, on the heap or in a memory mapped temporary file ({@link #createMapped()}), in which case almost
+ * nothing is kept on the heap. Packets can only be added at the end, by a single thread. Reading is by random access, each thread
+ * caches the last block it decoded, so sequential scans decode each block only once. Scans over many packets should use
+ * {@link #get(long, short[], int, int)}, which decodes directly into the destination.
+ *
+ * Packet numbers are long, so the map itself is not limited by the size of an array. {@link nl.digitalekabeltelevisie.data.mpeg.TransportStream}
+ * still numbers packets with an int elsewhere, so a file can have at most Integer.MAX_VALUE packets; what this map saves is the heap.
+ *
+ * @author Eric
+ *
+ */
+public class PacketPidMap implements Closeable {
+
+	private static final Logger logger = Logger.getLogger(PacketPidMap.class.getName());
+
+	public static final int BLOCK_SHIFT = 12;
+	public static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+	private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+	private static final int PAGE_SIZE = 1 << 20;
+
+	/**
+	 * largest possible encoded block: header and plain shorts
+	 */
+	private static final int MAX_BLOCK_BYTES = 1 + (2 * BLOCK_SIZE);
+
+	private static final int BITS_CONSTANT = 0;
+	private static final int BITS_PLAIN = 16;
+
+	private final List<ByteBuffer> pages = new ArrayList<>();
+	private final FileChannel channel;
+	private final File mappedFile;
+
+	/**
+	 * start of each encoded block, as page * PAGE_SIZE + offset in page. A block never crosses a page boundary.
+	 */
+	private long[] blockStart = new long[64];
+	private int blocks = 0;
+	private long writePos = 0;
+
+	/**
+	 * values of the last (incomplete) block, not encoded yet
+	 */
+	private final short[] current = new short[BLOCK_SIZE];
+	private int currentSize = 0;
+
+	/**
+	 * work arrays for encoding a block. lookup has for each value its index+1 in dict, 0 when not present
+	 */
+	private final short[] dict = new short[BLOCK_SIZE];
+	private final short[] lookup = new short[0x10000];
+	private final byte[] indices = new byte[BLOCK_SIZE];
+
+	private long size = 0;
+
+	/**
+	 * last block decoded by {@link #get(long)}, per thread so parallel readers do not evict each others block
+	 */
+	private final ThreadLocal<DecodedBlock> lastDecoded = ThreadLocal.withInitial(DecodedBlock::new);
+
+	private static final class DecodedBlock {
+		private long block = -1;
+		private final short[] values = new short[BLOCK_SIZE];
+	}
+
+	/**
+	 * Creates an empty map, blocks are kept on the heap.
+	 */
+	public PacketPidMap() {
+		channel = null;
+		mappedFile = null;
+	}
+
+	private PacketPidMap(final File mappedFile, final FileChannel channel) {
+		this.mappedFile = mappedFile;
+		this.channel = channel;
+	}
+
+	/**
+	 * Creates an empty map, blocks are kept in a memory mapped temporary file, which is deleted by {@link #close()} (or on exit).
+	 * @return the new map
+	 * @throws IOException when the temporary file can not be created
+	 */
+	public static PacketPidMap createMapped() throws IOException {
+		final File tmp = File.createTempFile("dvbinspector-pids", ".tmp");
+		tmp.deleteOnExit();
+		try {
+			@SuppressWarnings("resource")
+			final FileChannel channel = new RandomAccessFile(tmp, "rw").getChannel();
+			return new PacketPidMap(tmp, channel);
+		} catch (final IOException e) {
+			if (!tmp.delete()) {
+				logger.warning("could not delete " + tmp);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * @param value PID with flags of next packet
+	 */
+	public void add(final short value) {
+		current[currentSize++] = value;
+		size++;
+		if (currentSize == BLOCK_SIZE) {
+			flushBlock();
+		}
+	}
+
+	/**
+	 * Add count values at the end
+	 * @param values
+	 * @param offset start in values
+	 * @param count number of values to add
+	 */
+	public void addAll(final short[] values, final int offset, final int count) {
+		int done = 0;
+		while (done < count) {
+			final int n = Math.min(count - done, BLOCK_SIZE - currentSize);
+			System.arraycopy(values, offset + done, current, currentSize, n);
+			currentSize += n;
+			size += n;
+			done += n;
+			if (currentSize == BLOCK_SIZE) {
+				flushBlock();
+			}
+		}
+	}
+
+	/**
+	 * @return number of packets
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * @param packetNo
+	 * @return PID with flags of packet packetNo
+	 */
+	public short get(final long packetNo) {
+		if ((packetNo < 0) || (packetNo >= size)) {
+			throw new IndexOutOfBoundsException("packetNo " + packetNo + ", size " + size);
+		}
+		final long block = packetNo >>> BLOCK_SHIFT;
+		if (block == blocks) {
+			return current[(int) (packetNo & BLOCK_MASK)];
+		}
+		final DecodedBlock decoded = lastDecoded.get();
+		if (decoded.block != block) {
+			decodeBlock((int) block, decoded.values, 0);
+			decoded.block = block;
+		}
+		return decoded.values[(int) (packetNo & BLOCK_MASK)];
+	}
+
+	/**
+	 * Copy values of a range of packets, for scans over many packets.
+	 * @param fromPacketNo first packet
+	 * @param dest
+	 * @param offset start in dest
+	 * @param count number of packets
+	 */
+	public void get(final long fromPacketNo, final short[] dest, final int offset, final int count) {
+		if ((fromPacketNo < 0) || (count < 0) || ((fromPacketNo + count) > size)) {
+			throw new IndexOutOfBoundsException("fromPacketNo " + fromPacketNo + ", count " + count + ", size " + size);
+		}
+		int done = 0;
+		short[] partial = null;
+		while (done < count) {
+			final long packetNo = fromPacketNo + done;
+			final int block = (int) (packetNo >>> BLOCK_SHIFT);
+			final int start = (int) (packetNo & BLOCK_MASK);
+			final int n = Math.min(count - done, BLOCK_SIZE - start);
+			if (block == blocks) {
+				System.arraycopy(current, start, dest, offset + done, n);
+			} else if (n == BLOCK_SIZE) {
+				decodeBlock(block, dest, offset + done);
+			} else {
+				if (partial == null) {
+					partial = new short[BLOCK_SIZE];
+				}
+				decodeBlock(block, partial, 0);
+				System.arraycopy(partial, start, dest, offset + done, n);
+			}
+			done += n;
+		}
+	}
+
+	/**
+	 * @return approximate number of bytes used, on the heap or in the mapped file
+	 */
+	public long getMemorySize() {
+		return writePos + (blockStart.length * 8L) + (current.length * 2L);
+	}
+
+	/**
+	 * @return true when the blocks are kept in a memory mapped file
+	 */
+	public boolean isMapped() {
+		return channel != null;
+	}
+
+	/**
+	 * Closes and deletes the mapped file, if any. Pages that are already mapped remain readable.
+	 */
+	@Override
+	public void close() {
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (final IOException e) {
+				logger.log(Level.WARNING, "could not close " + mappedFile, e);
+			}
+			if (!mappedFile.delete()) {
+				logger.fine("could not delete " + mappedFile + " now, will be deleted on exit");
+			}
+		}
+	}
+
+	private void flushBlock() {
+		int dictSize = 0;
+		for (int i = 0; i < currentSize; i++) {
+			final int v = current[i] & 0xFFFF;
+			int idx = lookup[v];
+			if (idx == 0) {
+				dict[dictSize++] = current[i];
+				idx = dictSize;
+				lookup[v] = (short) idx;
+			}
+			indices[i] = (byte) (idx - 1);
+		}
+		final int bits = bitsFor(dictSize);
+		final ByteBuffer page = pageForBlock();
+		page.put((byte) bits);
+		if (bits == BITS_CONSTANT) {
+			page.putShort(dict[0]);
+		} else if (bits == BITS_PLAIN) {
+			for (int i = 0; i < currentSize; i++) {
+				page.putShort(current[i]);
+			}
+		} else {
+			page.put((byte) (dictSize - 1));
+			for (int i = 0; i < dictSize; i++) {
+				page.putShort(dict[i]);
+			}
+			final int perByte = 8 / bits;
+			for (int i = 0; i < currentSize; i += perByte) {
+				int b = 0;
+				for (int k = 0; (k < perByte) && ((i + k) < currentSize); k++) {
+					b |= (indices[i + k] & 0xFF) << (k * bits);
+				}
+				page.put((byte) b);
+			}
+		}
+		for (int i = 0; i < dictSize; i++) {
+			lookup[dict[i] & 0xFFFF] = 0;
+		}
+		writePos = ((long) (pages.size() - 1) * PAGE_SIZE) + page.position();
+		blocks++;
+		currentSize = 0;
+	}
+
+	private static int bitsFor(final int dictSize) {
+		if (dictSize == 1) {
+			return BITS_CONSTANT;
+		}
+		if (dictSize <= 2) {
+			return 1;
+		}
+		if (dictSize <= 4) {
+			return 2;
+		}
+		if (dictSize <= 16) {
+			return 4;
+		}
+		if (dictSize <= 256) {
+			return 8;
+		}
+		return BITS_PLAIN;
+	}
+
+	/**
+	 * @return page with room for a complete block, positioned at its start. Start of block is recorded in blockStart
+	 */
+	private ByteBuffer pageForBlock() {
+		if (pages.isEmpty() || ((PAGE_SIZE - (writePos % PAGE_SIZE)) < MAX_BLOCK_BYTES)) {
+			pages.add(newPage(pages.size()));
+			writePos = (long) (pages.size() - 1) * PAGE_SIZE;
+		}
+		if (blocks == blockStart.length) {
+			blockStart = Arrays.copyOf(blockStart, blocks * 2);
+		}
+		blockStart[blocks] = writePos;
+		final ByteBuffer page = pages.get(pages.size() - 1);
+		page.position((int) (writePos % PAGE_SIZE));
+		return page;
+	}
+
+	private ByteBuffer newPage(final int pageNo) {
+		if (channel == null) {
+			return ByteBuffer.allocate(PAGE_SIZE);
+		}
+		try {
+			return channel.map(FileChannel.MapMode.READ_WRITE, (long) pageNo * PAGE_SIZE, PAGE_SIZE);
+		} catch (final IOException e) {
+			logger.log(Level.WARNING, "could not extend " + mappedFile + ", continuing on the heap", e);
+			return ByteBuffer.allocate(PAGE_SIZE);
+		}
+	}
+
+	/**
+	 * Decode all {@value #BLOCK_SIZE} values of a complete block into values, starting at offset
+	 */
+	private void decodeBlock(final int block, final short[] values, final int offset) {
+		final long start = blockStart[block];
+		final ByteBuffer page = pages.get((int) (start / PAGE_SIZE));
+		int pos = (int) (start % PAGE_SIZE);
+		final int bits = page.get(pos++);
+		if (bits == BITS_CONSTANT) {
+			Arrays.fill(values, offset, offset + BLOCK_SIZE, page.getShort(pos));
+		} else if (bits == BITS_PLAIN) {
+			for (int i = 0; i < BLOCK_SIZE; i++) {
+				values[offset + i] = page.getShort(pos);
+				pos += 2;
+			}
+		} else {
+			// dictionary is read from the page itself, no need to copy it
+			final int dictSize = (page.get(pos++) & 0xFF) + 1;
+			final int dictPos = pos;
+			pos += 2 * dictSize;
+			final int perByte = 8 / bits;
+			final int mask = (1 << bits) - 1;
+			for (int i = 0; i < BLOCK_SIZE; i += perByte) {
+				final int b = page.get(pos++) & 0xFF;
+				for (int k = 0; k < perByte; k++) {
+					values[offset + i + k] = page.getShort(dictPos + (((b >>> (k * bits)) & mask) << 1));
+				}
+			}
+		}
+	}
+}
@@ -29,11 +29,10 @@ package nl.digitalekabeltelevisie.util;
 
 import java.util.prefs.Preferences;
 
-import nl.digitalekabeltelevisie.main.DVBinspector;
-
 public class PreferencesManager {
 
-	final static Preferences prefs = Preferences.userNodeForPackage(DVBinspector.class);
+	// same node as Preferences.userNodeForPackage(DVBinspector.class), without loading the (GUI) class DVBinspector
+	final static Preferences prefs = Preferences.userRoot().node("/nl/digitalekabeltelevisie/main");
 
 	private static final String DEFAULT_G0_CHARACTER_SET = "defaultg0_character_set";
 	private static final String DEFAULT_PRIVATE_DATA_SPECIFIER = "private_data_spcifier";
@@ -64,6 +63,12 @@ public class PreferencesManager {
 
 	private static final String PACKET_LENGTH_MODUS = "packet_length_modus";
 
+	private static final String ENABLE_MAPPED_PARSING = "enable_mapped_parsing";
+	private static final String PARSE_THREADS = "parse_threads";
+
+	private static final String LIVE_SOURCE = "live_source";
+	private static final String LIVE_BUFFER_PACKETS = "live_buffer_packets";
+
 	// private constructor to avoid client applications to use constructor
 	private PreferencesManager() {
 	}
@@ -231,4 +236,43 @@ public class PreferencesManager {
 		prefs.putInt(PACKET_LENGTH_MODUS, mod);
 	}
 
+	public static void setEnableMappedParsing(boolean enabled) {
+		prefs.putBoolean(ENABLE_MAPPED_PARSING, enabled);
+	}
+
+	public static boolean getEnableMappedParsing() {
+		return prefs.getBoolean(ENABLE_MAPPED_PARSING, true);
+	}
+
+	public static boolean isEnableMappedParsing() {
+		return getEnableMappedParsing();
+	}
+
+	public static int getParseThreads() {
+		return prefs.getInt(PARSE_THREADS, Math.min(8, Runtime.getRuntime().availableProcessors()));
+	}
+
+	public static void setParseThreads(int threads) {
+		prefs.putInt(PARSE_THREADS, threads);
+	}
+
+	public static String getLiveSource() {
+		return prefs.get(LIVE_SOURCE, "udp://@239.1.1.1:1234");
+	}
+
+	public static void setLiveSource(String source) {
+		prefs.put(LIVE_SOURCE, source);
+	}
+
+	/**
+	 * @return number of packets kept in memory for a live stream, default about 90 MB for 188 byte packets
+	 */
+	public static int getLiveBufferPackets() {
+		return prefs.getInt(LIVE_BUFFER_PACKETS, 500_000);
+	}
+
+	public static void setLiveBufferPackets(int packets) {
+		prefs.putInt(LIVE_BUFFER_PACKETS, packets);
+	}
+
 }
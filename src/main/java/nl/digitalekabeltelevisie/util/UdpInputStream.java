@@ -0,0 +1,270 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.Enumeration;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Presents the payload of UDP datagrams as a continuous stream, for reading a transport stream that is sent over UDP, unicast or multicast.
+ *
+ * Datagrams that start with an RTP header (RFC 3550, as used by RFC 2250 for MPEG-TS) instead of a sync byte have that header removed,
+ * so both plain UDP and RTP streams can be read.
+ *
+ * The source is given in the format also used by VLC and ffmpeg: <code>udp://[source@]group:port[?iface=name]</code> or <code>rtp://...</code>,
+ * for example <code>udp://@239.1.1.1:1234</code>, <code>rtp://10.0.0.1@232.1.1.1:5000?iface=eth1</code> or <code>udp://@:1234</code> for unicast on any address.
+ *
+ * {@link #read(byte[], int, int)} blocks until a datagram arrives, end of stream is only reached after {@link #close()}.
+ *
+ * @author Eric
+ *
+ */
+public class UdpInputStream extends InputStream {
+
+	private static final Logger logger = Logger.getLogger(UdpInputStream.class.getName());
+
+	private static final int MAX_DATAGRAM_SIZE = 65536;
+	private static final int RECEIVE_BUFFER_SIZE = 8 * 1024 * 1024;
+	private static final int RTP_HEADER_SIZE = 12;
+
+	private final DatagramChannel channel;
+	private final ByteBuffer datagram = ByteBuffer.allocate(MAX_DATAGRAM_SIZE);
+	private volatile boolean closed = false;
+
+	private long datagrams = 0;
+	private long rtpDatagrams = 0;
+
+	/**
+	 * @param group address to listen on, a multicast group will be joined. null or empty for any address
+	 * @param port
+	 * @param source for source specific multicast, null for any source
+	 * @param networkInterface name of interface to join the multicast group on, null to pick the first one that supports multicast
+	 * @throws IOException
+	 */
+	public UdpInputStream(final String group, final int port, final String source, final String networkInterface) throws IOException {
+		final InetAddress groupAddress = ((group == null) || group.isEmpty()) ? null : InetAddress.getByName(group);
+		final StandardProtocolFamily family = (groupAddress instanceof Inet6Address) ? StandardProtocolFamily.INET6 : StandardProtocolFamily.INET;
+		channel = DatagramChannel.open(family);
+		try {
+			channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+			channel.setOption(StandardSocketOptions.SO_RCVBUF, RECEIVE_BUFFER_SIZE);
+			if ((groupAddress != null) && groupAddress.isMulticastAddress()) {
+				channel.bind(new InetSocketAddress(port));
+				final NetworkInterface ni = findNetworkInterface(networkInterface);
+				if (source == null) {
+					channel.join(groupAddress, ni);
+				} else {
+					channel.join(groupAddress, ni, InetAddress.getByName(source));
+				}
+			} else if (groupAddress != null) {
+				channel.bind(new InetSocketAddress(groupAddress, port));
+			} else {
+				channel.bind(new InetSocketAddress(port));
+			}
+		} catch (final IOException e) {
+			channel.close();
+			throw e;
+		}
+		datagram.limit(0);
+	}
+
+	/**
+	 * @param url <code>udp://[source@]group:port[?iface=name]</code> or <code>rtp://...</code>
+	 * @return stream for url
+	 * @throws IOException when url is not valid, or socket can not be opened
+	 */
+	public static UdpInputStream open(final String url) throws IOException {
+		final int schemeEnd = url.indexOf("://");
+		if ((schemeEnd < 0) || !isUdpUrl(url)) {
+			throw new IOException("not an udp:// or rtp:// url: " + url);
+		}
+		String rest = url.substring(schemeEnd + 3);
+		String networkInterface = null;
+		final int query = rest.indexOf('?');
+		if (query >= 0) {
+			for (final String param : rest.substring(query + 1).split("&")) {
+				if (param.startsWith("iface=")) {
+					networkInterface = param.substring(6);
+				}
+			}
+			rest = rest.substring(0, query);
+		}
+		String source = null;
+		final int at = rest.indexOf('@');
+		if (at >= 0) {
+			source = (at > 0) ? rest.substring(0, at) : null;
+			rest = rest.substring(at + 1);
+		}
+		final int colon = rest.lastIndexOf(':');
+		if (colon < 0) {
+			throw new IOException("no port in url: " + url);
+		}
+		final String group = rest.substring(0, colon).replace("[", "").replace("]", "");
+		final int port;
+		try {
+			port = Integer.parseInt(rest.substring(colon + 1));
+		} catch (final NumberFormatException e) {
+			throw new IOException("invalid port in url: " + url, e);
+		}
+		return new UdpInputStream(group, port, source, networkInterface);
+	}
+
+	public static boolean isUdpUrl(final String url) {
+		return url.startsWith("udp://") || url.startsWith("rtp://");
+	}
+
+	private static NetworkInterface findNetworkInterface(final String name) throws IOException {
+		if (name != null) {
+			final NetworkInterface ni = NetworkInterface.getByName(name);
+			if (ni == null) {
+				throw new IOException("network interface not found: " + name);
+			}
+			return ni;
+		}
+		NetworkInterface loopback = null;
+		final Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+		while (interfaces.hasMoreElements()) {
+			final NetworkInterface ni = interfaces.nextElement();
+			if (ni.isUp() && ni.supportsMulticast()) {
+				if (!ni.isLoopback()) {
+					return ni;
+				}
+				loopback = ni;
+			}
+		}
+		if (loopback == null) {
+			throw new IOException("no network interface that supports multicast");
+		}
+		return loopback;
+	}
+
+	/**
+	 * @return local port the socket is bound to, useful when opened with port 0
+	 * @throws IOException
+	 */
+	public int getLocalPort() throws IOException {
+		return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+	}
+
+	/**
+	 * @return number of datagrams received
+	 */
+	public long getDatagrams() {
+		return datagrams;
+	}
+
+	/**
+	 * @return number of datagrams received that had an RTP header
+	 */
+	public long getRtpDatagrams() {
+		return rtpDatagrams;
+	}
+
+	@Override
+	public int read() throws IOException {
+		final byte[] b = new byte[1];
+		final int r = read(b, 0, 1);
+		return (r == -1) ? -1 : (b[0] & 0xFF);
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		while (!datagram.hasRemaining()) {
+			if (!receive()) {
+				return -1;
+			}
+		}
+		final int n = Math.min(len, datagram.remaining());
+		datagram.get(b, off, n);
+		return n;
+	}
+
+	@Override
+	public int available() {
+		return datagram.remaining();
+	}
+
+	/**
+	 * Wait for the next datagram, and strip the RTP header if present.
+	 * @return false when stream is closed
+	 */
+	private boolean receive() throws IOException {
+		if (closed) {
+			return false;
+		}
+		datagram.clear();
+		try {
+			channel.receive(datagram);
+		} catch (final ClosedChannelException e) { // also thrown when closed by another thread while waiting
+			if (closed) {
+				datagram.limit(0);
+				return false;
+			}
+			throw e;
+		}
+		datagram.flip();
+		datagrams++;
+		final int length = datagram.limit();
+		if ((length >= RTP_HEADER_SIZE) && (datagram.get(0) != 0x47) && ((datagram.get(0) & 0xC0) == 0x80)) {
+			rtpDatagrams++;
+			final int first = datagram.get(0) & 0xFF;
+			int headerLength = RTP_HEADER_SIZE + (4 * (first & 0x0F)); // CSRC list
+			if (((first & 0x10) != 0) && (length >= (headerLength + 4))) { // extension
+				headerLength += 4 + (4 * (((datagram.get(headerLength + 2) & 0xFF) << 8) | (datagram.get(headerLength + 3) & 0xFF)));
+			}
+			int end = length;
+			if ((first & 0x20) != 0) { // padding, last byte is its length
+				end -= datagram.get(length - 1) & 0xFF;
+			}
+			if (headerLength > end) {
+				logger.log(Level.WARNING, "invalid RTP header, ignoring datagram of {0} bytes", length);
+				headerLength = end;
+			}
+			datagram.limit(end);
+			datagram.position(headerLength);
+		}
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		channel.close();
+	}
+
+}
@@ -1198,6 +1198,27 @@ public final class Utils {
 		}
 	}
 
+	/**
+	 * Add a (long) list of TreeNodes to parent, the same as {@link #addListJTree(DefaultMutableTreeNode, Collection, int, String)}, but the nodes for the items
+	 * are only created when the list is expanded. Lists with more than {@link LazyListNode#STEP_SIZE} items are grouped in ranges, also in simple modus.
+	 * Use for lists that can grow with the length of the stream, like PES packets or audio frames.
+	 * @param parent
+	 * @param itemList
+	 * @param modus
+	 * @param label
+	 */
+	public static <U extends TreeNode>void addLazyListJTree(final DefaultMutableTreeNode parent,final List<U> itemList, final int modus, final String label) {
+		if((itemList!=null)&&(itemList.size()!=0)){
+			if(simpleModus(modus)&&(itemList.size()<=LazyListNode.STEP_SIZE)){
+				addToList(parent, itemList, modus);
+			}else{
+				final KVP kvp = new KVP(label +": "+ itemList.size()+" entries");
+				kvp.setCrumb(label);
+				parent.add(new LazyListNode(new ListItemGetter<>(itemList, modus), kvp));
+			}
+		}
+	}
+
 
 
 	public static <U> void addToList(final DefaultMutableTreeNode parent,
@@ -0,0 +1,113 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.export;
+
+import java.io.IOException;
+import java.util.BitSet;
+
+import nl.digitalekabeltelevisie.batch.JsonSummaryWriter;
+import nl.digitalekabeltelevisie.controller.KVP;
+
+/**
+ * Writes a tree as JSON, one node per line;
+ *
+ * <pre>
+ * {"label":"root","text":"root","children":[
+ * 	{"label":"child","text":"child: 1"}
+ * ]}
+ * </pre>
+ *
+ * @author Eric
+ *
+ */
+public class JsonTreeRenderer implements TreeRenderer {
+
+	private final Appendable out;
+	private final StringBuilder line = new StringBuilder();
+	/**
+	 * bit n is set when a child of the node at depth n has been written
+	 */
+	private final BitSet childWritten = new BitSet();
+	/**
+	 * bit n is set when the node at depth n has a "children" array
+	 */
+	private final BitSet hasChildrenArray = new BitSet();
+	private int depth = 0;
+
+	public JsonTreeRenderer(final Appendable out) {
+		this.out = out;
+	}
+
+	@Override
+	public void startNode(final KVP kvp, final boolean lastChild, final boolean hasChildren) throws IOException {
+		line.setLength(0);
+		if (depth > 0) {
+			line.append(childWritten.get(depth - 1) ? ",\n" : "\n");
+			childWritten.set(depth - 1);
+			indent(depth);
+		}
+		line.append("{\"label\":");
+		JsonSummaryWriter.quote(line, kvp.getLabel());
+		line.append(",\"text\":");
+		JsonSummaryWriter.quote(line, kvp.getPlainText());
+		if (hasChildren) {
+			line.append(",\"children\":[");
+		}
+		out.append(line);
+		hasChildrenArray.set(depth, hasChildren);
+		childWritten.clear(depth);
+		depth++;
+	}
+
+	@Override
+	public void endNode() throws IOException {
+		depth--;
+		line.setLength(0);
+		if (hasChildrenArray.get(depth)) {
+			if (childWritten.get(depth)) {
+				line.append('\n');
+				indent(depth);
+			}
+			line.append(']');
+		}
+		line.append('}');
+		out.append(line);
+	}
+
+	@Override
+	public void finish() throws IOException {
+		out.append('\n');
+	}
+
+	private void indent(final int n) {
+		for (int i = 0; i < n; i++) {
+			line.append('\t');
+		}
+	}
+
+}
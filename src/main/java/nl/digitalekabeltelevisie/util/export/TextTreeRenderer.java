@@ -0,0 +1,108 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.export;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import nl.digitalekabeltelevisie.controller.KVP;
+
+/**
+ * Writes a tree as indented plain text, the format used by "Copy Entire Sub Tree to clipboard";
+ *
+ * <pre>
+ * root
+ * +-child
+ * | +-grand child
+ * +-last child
+ *   +-grand child
+ * </pre>
+ *
+ * The prefix is kept in a single StringBuilder that grows and shrinks with the depth.
+ *
+ * @author Eric
+ *
+ */
+public class TextTreeRenderer implements TreeRenderer {
+
+	private final Appendable out;
+	private final boolean writeRoot;
+	private final String lineSeparator = System.lineSeparator();
+	private final StringBuilder prefix;
+	private int[] prefixLengths = new int[16];
+	private int depth = 0;
+
+	/**
+	 * @param out destination
+	 * @param prefix written before every line except the root
+	 * @param writeRoot when false only the descendants of the root are written
+	 */
+	public TextTreeRenderer(final Appendable out, final String prefix, final boolean writeRoot) {
+		this.out = out;
+		this.prefix = new StringBuilder(prefix);
+		this.writeRoot = writeRoot;
+	}
+
+	/**
+	 * @param out destination
+	 */
+	public TextTreeRenderer(final Appendable out) {
+		this(out, "", true);
+	}
+
+	@Override
+	public void startNode(final KVP kvp, final boolean lastChild, final boolean hasChildren) throws IOException {
+		if (depth == 0) {
+			if (writeRoot) {
+				out.append(kvp.getPlainText()).append(lineSeparator);
+			}
+		} else {
+			out.append(prefix).append("+-").append(kvp.getPlainText()).append(lineSeparator);
+		}
+		if (depth == prefixLengths.length) {
+			prefixLengths = Arrays.copyOf(prefixLengths, depth * 2);
+		}
+		prefixLengths[depth] = prefix.length();
+		if (depth > 0) {
+			prefix.append(lastChild ? "  " : "| "); // "| " when more children follow
+		}
+		depth++;
+	}
+
+	@Override
+	public void endNode() {
+		depth--;
+		prefix.setLength(prefixLengths[depth]);
+	}
+
+	@Override
+	public void finish() {
+		// nothing to close
+	}
+
+}
@@ -0,0 +1,173 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.export;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.*;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.TreeNode;
+
+import nl.digitalekabeltelevisie.controller.KVP;
+import nl.digitalekabeltelevisie.util.LazyListNode;
+
+/**
+ * Walks a (sub) tree depth-first and passes every node to a {@link TreeRenderer}, which writes it straight to its
+ * output. Nothing but the path to the current node is kept, so the size of the export is not limited by memory.
+ *
+ * Children of a {@link LazyListNode} that have not been loaded are created one at a time, and are not added to the
+ * tree. Children that are not a DefaultMutableTreeNode (like the TS packets of {@link nl.digitalekabeltelevisie.util.JTreeLazyList})
+ * are skipped.
+ *
+ * @author Eric
+ *
+ */
+public final class TreeExporter {
+
+	private static final Logger logger = Logger.getLogger(TreeExporter.class.getName());
+
+	private static final String GZIP_EXTENSION = ".gz";
+
+	public enum Format {
+		TEXT("txt"),
+		JSON("json"),
+		XML("xml");
+
+		private final String extension;
+
+		Format(final String extension) {
+			this.extension = extension;
+		}
+
+		/**
+		 * @return file extension, without "."
+		 */
+		public String getExtension() {
+			return extension;
+		}
+
+		public TreeRenderer createRenderer(final Appendable out) throws IOException {
+			return switch (this) {
+			case JSON -> new JsonTreeRenderer(out);
+			case XML -> new XmlTreeRenderer(out);
+			default -> new TextTreeRenderer(out);
+			};
+		}
+
+		/**
+		 * @param fileName like "tree.json" or "tree.xml.gz"
+		 * @return format for the extension of fileName, TEXT when unknown
+		 */
+		public static Format forFileName(final String fileName) {
+			String name = fileName.toLowerCase(Locale.ROOT);
+			if (name.endsWith(GZIP_EXTENSION)) {
+				name = name.substring(0, name.length() - GZIP_EXTENSION.length());
+			}
+			for (final Format format : values()) {
+				if (name.endsWith("." + format.extension)) {
+					return format;
+				}
+			}
+			return TEXT;
+		}
+	}
+
+	private TreeExporter() {
+		// static only
+	}
+
+	/**
+	 * @param root start of the export, user object should be a KVP
+	 * @param renderer
+	 * @throws IOException
+	 */
+	public static void export(final DefaultMutableTreeNode root, final TreeRenderer renderer) throws IOException {
+		exportNode(root, (KVP) root.getUserObject(), true, renderer);
+		renderer.finish();
+	}
+
+	/**
+	 * Export the tree to file. The format is determined by the extension of the file, when it ends with ".gz" the file
+	 * is compressed with gzip.
+	 *
+	 * @param root start of the export
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void export(final DefaultMutableTreeNode root, final File file) throws IOException {
+		try (Writer out = openWriter(file)) {
+			export(root, Format.forFileName(file.getName()).createRenderer(out));
+		}
+	}
+
+	/**
+	 * @param file
+	 * @return buffered UTF-8 Writer for file, gzip compressed when the name ends with ".gz"
+	 * @throws IOException
+	 */
+	public static Writer openWriter(final File file) throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			if (file.getName().toLowerCase(Locale.ROOT).endsWith(GZIP_EXTENSION)) {
+				out = new GZIPOutputStream(out, 64 * 1024);
+			}
+			return new BufferedWriter(new OutputStreamWriter(out, UTF_8), 64 * 1024);
+		} catch (final IOException e) {
+			out.close();
+			throw e;
+		}
+	}
+
+	private static void exportNode(final DefaultMutableTreeNode node, final KVP kvp, final boolean lastChild,
+			final TreeRenderer renderer) throws IOException {
+		final boolean hasChildren = !node.isLeaf();
+		renderer.startNode(kvp, lastChild, hasChildren);
+		if (hasChildren) {
+			final LazyListNode lazy = ((node instanceof final LazyListNode l) && !l.isChildrenLoaded()) ? l : null;
+			final int childCount = node.getChildCount();
+			for (int i = 0; i < childCount; i++) {
+				final TreeNode next = (lazy != null) ? lazy.createChild(i) : node.getChildAt(i);
+				if (next instanceof final DefaultMutableTreeNode child) {
+					final Object userObject = child.getUserObject();
+					if (userObject instanceof final KVP chKVP) {
+						exportNode(child, chKVP, i == (childCount - 1), renderer);
+					} else {
+						logger.log(Level.SEVERE, "Not an KVP: {0}", userObject);
+					}
+				}
+			}
+		}
+		renderer.endNode();
+	}
+
+}
@@ -0,0 +1,64 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.export;
+
+import java.io.IOException;
+
+import nl.digitalekabeltelevisie.controller.KVP;
+
+/**
+ * Receives the nodes of a tree in depth-first order from {@link TreeExporter}, and writes them in some format.
+ * Every {@link #startNode(KVP, boolean, boolean)} is followed by the nodes of its children, and then by a matching
+ * {@link #endNode()}. Implementations write directly to their output, and only keep state for the current path.
+ *
+ * @author Eric
+ *
+ */
+public interface TreeRenderer {
+
+	/**
+	 * @param kvp user object of the node
+	 * @param lastChild true when this node is the last child of its parent, always true for the root
+	 * @param hasChildren false when the node is a leaf. When true, the node can still turn out to have no children
+	 * @throws IOException
+	 */
+	void startNode(KVP kvp, boolean lastChild, boolean hasChildren) throws IOException;
+
+	/**
+	 * end of the node started by the last unmatched {@link #startNode(KVP, boolean, boolean)}
+	 * @throws IOException
+	 */
+	void endNode() throws IOException;
+
+	/**
+	 * called once after the end of the root node. Does not close the output.
+	 * @throws IOException
+	 */
+	void finish() throws IOException;
+
+}
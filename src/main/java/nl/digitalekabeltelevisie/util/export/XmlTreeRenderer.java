@@ -0,0 +1,144 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.export;
+
+import java.io.IOException;
+import java.util.BitSet;
+
+import nl.digitalekabeltelevisie.controller.KVP;
+
+/**
+ * Writes a tree as XML, every node is a {@code <node>} element with attributes label and text;
+ *
+ * <pre>
+ * &lt;?xml version="1.0" encoding="UTF-8"?&gt;
+ * &lt;tree&gt;
+ * &lt;node label="root" text="root"&gt;
+ * 	&lt;node label="child" text="child: 1"/&gt;
+ * &lt;/node&gt;
+ * &lt;/tree&gt;
+ * </pre>
+ *
+ * The declaration says UTF-8, so the Appendable should encode as UTF-8.
+ *
+ * @author Eric
+ *
+ */
+public class XmlTreeRenderer implements TreeRenderer {
+
+	private final Appendable out;
+	private final StringBuilder line = new StringBuilder();
+	/**
+	 * bit n is set when the node at depth n is not an empty element
+	 */
+	private final BitSet open = new BitSet();
+	private int depth = 0;
+
+	public XmlTreeRenderer(final Appendable out) throws IOException {
+		this.out = out;
+		out.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<tree>\n");
+	}
+
+	@Override
+	public void startNode(final KVP kvp, final boolean lastChild, final boolean hasChildren) throws IOException {
+		line.setLength(0);
+		indent(depth);
+		line.append("<node label=\"");
+		escape(line, kvp.getLabel());
+		line.append("\" text=\"");
+		escape(line, kvp.getPlainText());
+		line.append(hasChildren ? "\">\n" : "\"/>\n");
+		out.append(line);
+		open.set(depth, hasChildren);
+		depth++;
+	}
+
+	@Override
+	public void endNode() throws IOException {
+		depth--;
+		if (open.get(depth)) {
+			line.setLength(0);
+			indent(depth);
+			line.append("</node>\n");
+			out.append(line);
+		}
+	}
+
+	@Override
+	public void finish() throws IOException {
+		out.append("</tree>\n");
+	}
+
+	private void indent(final int n) {
+		for (int i = 0; i < n; i++) {
+			line.append('\t');
+		}
+	}
+
+	/**
+	 * escape s for use in an attribute value. Control characters that are not allowed in XML 1.0 are replaced by '?'
+	 */
+	static void escape(final StringBuilder sb, final String s) {
+		if (s == null) {
+			return;
+		}
+		for (int i = 0; i < s.length(); i++) {
+			final char c = s.charAt(i);
+			switch (c) {
+			case '&':
+				sb.append("&amp;");
+				break;
+			case '<':
+				sb.append("&lt;");
+				break;
+			case '>':
+				sb.append("&gt;");
+				break;
+			case '"':
+				sb.append("&quot;");
+				break;
+			case '\n':
+				sb.append("&#10;");
+				break;
+			case '\r':
+				sb.append("&#13;");
+				break;
+			case '\t':
+				sb.append("&#9;");
+				break;
+			default:
+				if ((c < 0x20) || (c == 0xFFFE) || (c == 0xFFFF)) {
+					sb.append('?');
+				} else {
+					sb.append(c);
+				}
+			}
+		}
+	}
+
+}
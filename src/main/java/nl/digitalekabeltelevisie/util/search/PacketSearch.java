@@ -0,0 +1,241 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.search;
+
+import static nl.digitalekabeltelevisie.data.mpeg.TransportStream.PAYLOAD_UNIT_START_FLAG;
+import static nl.digitalekabeltelevisie.data.mpeg.TransportStream.TRANSPORT_ERROR_FLAG;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.TreeNode;
+
+import nl.digitalekabeltelevisie.data.mpeg.TSPacket;
+import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
+import nl.digitalekabeltelevisie.data.mpeg.pes.PesHeader;
+import nl.digitalekabeltelevisie.util.JTreeLazyList;
+
+/**
+ * Search for transport packets, directly in the packet data instead of in the (lazy) tree nodes for the packets.
+ *
+ * The criteria are separated by spaces, all have to match;
+ * <ul>
+ * <li>pid=n packet has PID n</li>
+ * <li>pusi payload_unit_start_indicator is set</li>
+ * <li>error transport_error_indicator is set</li>
+ * <li>hex=0001e0 packet contains these bytes (anywhere, including header)</li>
+ * <li>stream_id=n packet starts a PES packet with this stream_id</li>
+ * <li>pts=n packet starts a PES packet with this PTS</li>
+ * </ul>
+ * Numbers can be decimal or hexadecimal (0x..). PID and flags are checked against the packet index in memory,
+ * only for the other criteria the packet is read from the file.
+ *
+ * A hit is shown in the list of all transport packets.
+ *
+ * @author Eric
+ *
+ */
+public class PacketSearch implements TreeSearch {
+
+	private final TransportStream transportStream;
+	private final DefaultMutableTreeNode root;
+	private final String criteria;
+
+	private int pid = -1;
+	private boolean pusi = false;
+	private boolean error = false;
+	private byte[] hex = null;
+	private int streamId = -1;
+	private long pts = -1;
+
+	private int nextPacket = 0;
+
+	/**
+	 * @param transportStream to search in
+	 * @param root of the tree of transportStream, to show hits
+	 * @param criteria see class description
+	 * @throws IllegalArgumentException when criteria can not be parsed
+	 */
+	public PacketSearch(TransportStream transportStream, DefaultMutableTreeNode root, String criteria) {
+		this.transportStream = transportStream;
+		this.root = root;
+		this.criteria = criteria;
+		parseCriteria(criteria);
+	}
+
+	private void parseCriteria(String criteria) {
+		final String[] terms = criteria.trim().split("\\s+");
+		for (final String term : terms) {
+			final int eq = term.indexOf('=');
+			final String key = ((eq < 0) ? term : term.substring(0, eq)).toLowerCase();
+			final String value = (eq < 0) ? null : term.substring(eq + 1);
+			try {
+				switch (key) {
+				case "pid":
+					pid = Integer.decode(requireValue(key, value));
+					break;
+				case "pusi":
+					pusi = true;
+					break;
+				case "error":
+					error = true;
+					break;
+				case "hex":
+					hex = parseHex(requireValue(key, value));
+					break;
+				case "stream_id":
+					streamId = Integer.decode(requireValue(key, value));
+					break;
+				case "pts":
+					pts = Long.decode(requireValue(key, value));
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown criterion '" + term + "', use pid=, pusi, error, hex=, stream_id= or pts=");
+				}
+			} catch (final NumberFormatException e) {
+				throw new IllegalArgumentException("Not a valid number in '" + term + "'", e);
+			}
+		}
+	}
+
+	private static String requireValue(String key, String value) {
+		if ((value == null) || value.isEmpty()) {
+			throw new IllegalArgumentException("Missing value for " + key + "=");
+		}
+		return value;
+	}
+
+	static byte[] parseHex(String value) {
+		final String s = (value.startsWith("0x") || value.startsWith("0X")) ? value.substring(2) : value;
+		if ((s.length() % 2) != 0) {
+			throw new IllegalArgumentException("Odd number of hex digits in '" + value + "'");
+		}
+		final byte[] res = new byte[s.length() / 2];
+		for (int i = 0; i < res.length; i++) {
+			res[i] = (byte) Integer.parseInt(s.substring(2 * i, (2 * i) + 2), 16);
+		}
+		return res;
+	}
+
+	@Override
+	public SearchHit findNext(BooleanSupplier cancelled, IntConsumer progress) {
+		final boolean needsData = (hex != null) || (streamId >= 0) || (pts >= 0);
+		final int start = Math.max(nextPacket, transportStream.getFirstPacketNo());
+		final int end = transportStream.getNo_packets();
+		int lastProgress = -1;
+		for (int packetNo = start; packetNo < end; packetNo++) {
+			if ((packetNo & 0x3FF) == 0) {
+				if (cancelled.getAsBoolean()) {
+					nextPacket = packetNo;
+					return null;
+				}
+				final int percent = (int) (((long) (packetNo - start) * 100) / (end - start));
+				if (percent != lastProgress) {
+					lastProgress = percent;
+					progress.accept(percent);
+				}
+			}
+			final short flags = transportStream.getPacketPidFlags(packetNo);
+			if (((pid >= 0) && ((flags & 0x1FFF) != pid))
+					|| (pusi && ((flags & PAYLOAD_UNIT_START_FLAG) == 0))
+					|| (error && ((flags & TRANSPORT_ERROR_FLAG) == 0))) {
+				continue;
+			}
+			if (needsData && !matchesData(transportStream.getTSPacket(packetNo))) {
+				continue;
+			}
+			nextPacket = packetNo + 1;
+			return new PacketHit(packetNo);
+		}
+		nextPacket = end;
+		return null;
+	}
+
+	private boolean matchesData(TSPacket packet) {
+		if (packet == null) { // live stream, no longer in buffer
+			return false;
+		}
+		if ((hex != null) && (indexOf(packet.getBuffer(), hex) < 0)) {
+			return false;
+		}
+		if ((streamId >= 0) || (pts >= 0)) {
+			final PesHeader pesHeader = packet.getPesHeader();
+			if ((pesHeader == null) || !pesHeader.isValidPesHeader()) {
+				return false;
+			}
+			if ((streamId >= 0) && (pesHeader.getStreamID() != streamId)) {
+				return false;
+			}
+			if ((pts >= 0) && (!pesHeader.hasPTS() || (pesHeader.getPts() != pts))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static int indexOf(byte[] data, byte[] pattern) {
+		for (int i = 0; i <= (data.length - pattern.length); i++) {
+			if (Arrays.equals(data, i, i + pattern.length, pattern, 0, pattern.length)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String getDescription() {
+		return "packet with '" + criteria + "'";
+	}
+
+	private class PacketHit implements SearchHit {
+
+		private final int packetNo;
+
+		PacketHit(int packetNo) {
+			this.packetNo = packetNo;
+		}
+
+		@Override
+		public TreeNode getNode() {
+			for (int i = 0; i < root.getChildCount(); i++) {
+				if (root.getChildAt(i) instanceof JTreeLazyList.RangeNode packets) {
+					return packets.findChildForActual(packetNo);
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public String getDescription() {
+			return "packet " + packetNo;
+		}
+	}
+
+}
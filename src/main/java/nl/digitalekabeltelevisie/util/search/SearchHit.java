@@ -0,0 +1,52 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.search;
+
+import javax.swing.tree.TreeNode;
+
+/**
+ * Result of a {@link TreeSearch}.
+ *
+ * @author Eric
+ *
+ */
+public interface SearchHit {
+
+	/**
+	 * Get the node that was found, creating the lazy nodes on the path to it when needed. Should be called on the Event Dispatch Thread.
+	 *
+	 * @return node in the tree, or null when the hit is not part of the tree as currently shown (like a packet in PSI only modus)
+	 */
+	TreeNode getNode();
+
+	/**
+	 * @return short description of the hit, like "packet 1234"
+	 */
+	String getDescription();
+
+}
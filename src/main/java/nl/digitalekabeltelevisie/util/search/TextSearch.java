@@ -0,0 +1,261 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.search;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.TreeNode;
+
+import nl.digitalekabeltelevisie.util.LazyListItemGetter;
+import nl.digitalekabeltelevisie.util.LazyListNode;
+
+/**
+ * Search for nodes whose text (as shown in the tree) contains a string, ignoring case. Hits are found in the same order
+ * as a preorder walk through the tree.
+ *
+ * The existing part of the tree is searched using a {@link TreeSearchIndex}. The items of a {@link LazyListNode} are searched
+ * by creating their nodes with the {@link LazyListItemGetter}, without adding them to the tree. Only for a hit the nodes on the path
+ * to it are added, when it is shown.
+ *
+ * @author Eric
+ *
+ */
+public class TextSearch implements TreeSearch {
+
+	private final String text;
+	private final String lowerText;
+	private final Function<BooleanSupplier, TreeSearchIndex> indexProvider;
+
+	private TreeSearchIndex index;
+	private int[] candidates;
+	private int candidatePos = 0;
+
+	// position to continue the search. item -1 is the node itself, 0.. are the items of a LazyListNode,
+	// sub is the preorder number of the node inside the item
+	private int ordinal = 0;
+	private int item = -1;
+	private int sub = 0;
+
+	private long lazyItems = -1;
+	private int lastProgress = -1;
+
+	/**
+	 * @param text to search for
+	 * @param indexProvider returns the index for the tree to be searched (building it when needed), or null when cancelled
+	 */
+	public TextSearch(String text, Function<BooleanSupplier, TreeSearchIndex> indexProvider) {
+		this.text = text;
+		this.lowerText = text.toLowerCase();
+		this.indexProvider = indexProvider;
+	}
+
+	@Override
+	public SearchHit findNext(BooleanSupplier cancelled, IntConsumer progress) {
+		if (index == null) {
+			index = indexProvider.apply(cancelled);
+			if (index == null) {
+				return null;
+			}
+			candidates = index.getCandidates(lowerText);
+		}
+		final int[] lazyOrdinals = index.getLazyOrdinals();
+		while (!cancelled.getAsBoolean()) {
+			while ((candidatePos < candidates.length)
+					&& ((candidates[candidatePos] < ordinal) || ((candidates[candidatePos] == ordinal) && (item >= 0)))) {
+				candidatePos++;
+			}
+			final int nextCandidate = (candidatePos < candidates.length) ? candidates[candidatePos] : Integer.MAX_VALUE;
+			int lazyPos = Arrays.binarySearch(lazyOrdinals, ordinal);
+			if (lazyPos < 0) {
+				lazyPos = -lazyPos - 1;
+			}
+			final int nextLazy = (lazyPos < lazyOrdinals.length) ? lazyOrdinals[lazyPos] : Integer.MAX_VALUE;
+
+			if ((nextCandidate == Integer.MAX_VALUE) && (nextLazy == Integer.MAX_VALUE)) {
+				return null;
+			}
+			if (nextCandidate <= nextLazy) { // node itself comes before the items of a lazy list
+				candidatePos++;
+				ordinal = nextCandidate;
+				item = 0;
+				sub = 0;
+				final DefaultMutableTreeNode node = index.getNode(nextCandidate);
+				if (TreeSearchIndex.getText(node).contains(lowerText)) {
+					return new TreeHit(node);
+				}
+			} else {
+				if (nextLazy != ordinal) {
+					ordinal = nextLazy;
+					item = 0;
+					sub = 0;
+				}
+				final SearchHit hit = searchLazyList(lazyPos, cancelled, progress);
+				if ((hit != null) || cancelled.getAsBoolean()) {
+					return hit;
+				}
+				ordinal = nextLazy + 1;
+				item = -1;
+				sub = 0;
+			}
+		}
+		return null;
+	}
+
+	private SearchHit searchLazyList(int lazyPos, BooleanSupplier cancelled, IntConsumer progress) {
+		final LazyListNode lazyNode = (LazyListNode) index.getNode(ordinal);
+		final LazyListItemGetter getter = lazyNode.getItemGetter();
+		final long itemsBefore = countLazyItemsBefore(lazyPos);
+		for (int i = Math.max(item, lazyNode.getFirstIndex()); i <= lazyNode.getLastIndex(); i++) {
+			if (cancelled.getAsBoolean()) {
+				if (i != item) {
+					item = i;
+					sub = 0;
+				}
+				return null;
+			}
+			reportProgress(progress, itemsBefore + (i - lazyNode.getFirstIndex()));
+			final int skip = (i == item) ? sub : 0;
+			final int[] counter = new int[1];
+			final int[] path = searchItem(getter.getTreeNode(i), skip, counter, 0);
+			if (path != null) {
+				item = i;
+				sub = counter[0] + 1;
+				return new LazyListHit(lazyNode, i, path);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Preorder walk through a node that is not part of the tree.
+	 *
+	 * @param node
+	 * @param skip number of nodes (in preorder) that were already searched
+	 * @param counter preorder number of node, after return of a hit the number of the hit
+	 * @param depth
+	 * @return indexes of the children on the path from the start node to the hit, or null
+	 */
+	private int[] searchItem(TreeNode node, int skip, int[] counter, int depth) {
+		if ((counter[0] >= skip) && (node instanceof DefaultMutableTreeNode dmtn)
+				&& TreeSearchIndex.getText(dmtn).contains(lowerText)) {
+			return new int[depth];
+		}
+		if (!(node instanceof DefaultMutableTreeNode)) { // like the RangeNode of JTreeLazyList, not searched
+			return null;
+		}
+		for (int i = 0; i < node.getChildCount(); i++) {
+			counter[0]++;
+			final int[] path = searchItem(node.getChildAt(i), skip, counter, depth + 1);
+			if (path != null) {
+				path[depth] = i;
+				return path;
+			}
+		}
+		return null;
+	}
+
+	private long countLazyItemsBefore(int lazyPos) {
+		final int[] lazyOrdinals = index.getLazyOrdinals();
+		long before = 0;
+		long total = 0;
+		for (int i = 0; i < lazyOrdinals.length; i++) {
+			final LazyListNode lazyNode = (LazyListNode) index.getNode(lazyOrdinals[i]);
+			final int items = (lazyNode.getLastIndex() - lazyNode.getFirstIndex()) + 1;
+			if (i < lazyPos) {
+				before += items;
+			}
+			total += items;
+		}
+		lazyItems = total;
+		return before;
+	}
+
+	private void reportProgress(IntConsumer progress, long itemsDone) {
+		final int percent = (int) ((itemsDone * 100) / Math.max(1, lazyItems));
+		if (percent != lastProgress) {
+			lastProgress = percent;
+			progress.accept(percent);
+		}
+	}
+
+	@Override
+	public String getDescription() {
+		return "'" + text + "'";
+	}
+
+	private static class TreeHit implements SearchHit {
+
+		private final DefaultMutableTreeNode node;
+
+		TreeHit(DefaultMutableTreeNode node) {
+			this.node = node;
+		}
+
+		@Override
+		public TreeNode getNode() {
+			return node;
+		}
+
+		@Override
+		public String getDescription() {
+			return TreeSearchIndex.getText(node);
+		}
+	}
+
+	private static class LazyListHit implements SearchHit {
+
+		private final LazyListNode lazyNode;
+		private final int itemIndex;
+		private final int[] path;
+
+		LazyListHit(LazyListNode lazyNode, int itemIndex, int[] path) {
+			this.lazyNode = lazyNode;
+			this.itemIndex = itemIndex;
+			this.path = path;
+		}
+
+		@Override
+		public TreeNode getNode() {
+			TreeNode node = lazyNode.getItemNode(itemIndex);
+			for (final int childIndex : path) {
+				node = node.getChildAt(childIndex);
+			}
+			return node;
+		}
+
+		@Override
+		public String getDescription() {
+			return "item " + itemIndex;
+		}
+	}
+
+}
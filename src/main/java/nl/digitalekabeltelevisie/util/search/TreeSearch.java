@@ -0,0 +1,58 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.search;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * A search in the tree of a TransportStream, that can run on a background thread.
+ * Each call of {@link #findNext(BooleanSupplier, IntConsumer)} continues after the previous hit.
+ *
+ * @author Eric
+ *
+ * @see TextSearch
+ * @see PacketSearch
+ */
+public interface TreeSearch {
+
+	/**
+	 * Find the next hit. Does not touch the Swing tree, so can be called from a background thread.
+	 *
+	 * @param cancelled checked regularly, when it returns true the search stops and returns null
+	 * @param progress receives the progress of the search in percent
+	 * @return the next hit, or null when there are no (more) hits, or the search was cancelled
+	 */
+	SearchHit findNext(BooleanSupplier cancelled, IntConsumer progress);
+
+	/**
+	 * @return what is being searched for, for use in messages
+	 */
+	String getDescription();
+
+}
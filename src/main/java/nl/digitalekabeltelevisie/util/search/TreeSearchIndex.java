@@ -0,0 +1,214 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.search;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+
+import nl.digitalekabeltelevisie.util.JTreeLazyList;
+import nl.digitalekabeltelevisie.util.LazyListNode;
+
+/**
+ * Inverted index of the texts (label and value, as shown in the tree) of the nodes of a tree. Used by {@link TextSearch}, so it does
+ * not have to walk the whole tree and convert every node to lower case text for every search.
+ *
+ * Only the part of the tree that already exists is indexed. A {@link LazyListNode} itself is indexed, its items are not.
+ * The ranges of {@link JTreeLazyList} (transport packets) are skipped, use {@link PacketSearch} for those.
+ *
+ * Texts are split into words (runs of letters and digits). When a text contains the query, every word of the query is part of
+ * a word of the text. So all nodes that contain the query are among the candidates, but the candidates still need to be checked
+ * against the complete text.
+ *
+ * The index is only valid for the tree it was built from, with the same number and string display settings of KVP.
+ *
+ * @author Eric
+ *
+ */
+public class TreeSearchIndex {
+
+	private final DefaultMutableTreeNode[] nodes;
+	private final int[] lazyOrdinals;
+	private final String[] words;
+	private final int[][] postings;
+
+	private TreeSearchIndex(DefaultMutableTreeNode[] nodes, int[] lazyOrdinals, String[] words, int[][] postings) {
+		this.nodes = nodes;
+		this.lazyOrdinals = lazyOrdinals;
+		this.words = words;
+		this.postings = postings;
+	}
+
+	/**
+	 * Build the index for all existing nodes below (and including) root, in preorder.
+	 *
+	 * @param root
+	 * @param cancelled checked regularly
+	 * @return index, or null when cancelled
+	 */
+	public static TreeSearchIndex build(DefaultMutableTreeNode root, BooleanSupplier cancelled) {
+		final List<DefaultMutableTreeNode> nodeList = new ArrayList<>();
+		final List<Integer> lazyList = new ArrayList<>();
+		final Map<String, Postings> wordMap = new HashMap<>();
+
+		final Deque<DefaultMutableTreeNode> stack = new ArrayDeque<>();
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			final DefaultMutableTreeNode node = stack.pop();
+			final int ordinal = nodeList.size();
+			if (((ordinal & 0xFFF) == 0) && cancelled.getAsBoolean()) {
+				return null;
+			}
+			nodeList.add(node);
+			addWords(wordMap, getText(node), ordinal);
+			if (node instanceof LazyListNode) {
+				lazyList.add(ordinal);
+				continue;
+			}
+			// push in reverse order, so children are visited in order
+			for (int i = node.getChildCount() - 1; i >= 0; i--) {
+				if (node.getChildAt(i) instanceof DefaultMutableTreeNode child) {
+					stack.push(child);
+				}
+			}
+		}
+
+		final String[] words = wordMap.keySet().toArray(new String[0]);
+		Arrays.sort(words);
+		final int[][] postings = new int[words.length][];
+		for (int i = 0; i < words.length; i++) {
+			postings[i] = wordMap.get(words[i]).toArray();
+		}
+		return new TreeSearchIndex(nodeList.toArray(new DefaultMutableTreeNode[0]),
+				lazyList.stream().mapToInt(Integer::intValue).toArray(),
+				words,
+				postings);
+	}
+
+	/**
+	 * @param node
+	 * @return text of node as shown in tree, in lower case. Empty String when node has no user object
+	 */
+	public static String getText(DefaultMutableTreeNode node) {
+		final Object userObject = node.getUserObject();
+		if (userObject == null) {
+			return "";
+		}
+		return userObject.toString().toLowerCase();
+	}
+
+	private static void addWords(Map<String, Postings> wordMap, String text, int ordinal) {
+		for (final String word : splitWords(text)) {
+			wordMap.computeIfAbsent(word, w -> new Postings()).add(ordinal);
+		}
+	}
+
+	static List<String> splitWords(String text) {
+		final List<String> res = new ArrayList<>();
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			final boolean wordChar = (i < text.length()) && Character.isLetterOrDigit(text.charAt(i));
+			if (wordChar && (start < 0)) {
+				start = i;
+			} else if (!wordChar && (start >= 0)) {
+				res.add(text.substring(start, i));
+				start = -1;
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * @param query lower case text to search for
+	 * @return ordinals of the nodes that might contain query, ascending
+	 */
+	public int[] getCandidates(String query) {
+		final List<String> queryWords = splitWords(query);
+		if (queryWords.isEmpty()) {
+			final int[] all = new int[nodes.length];
+			Arrays.setAll(all, i -> i);
+			return all;
+		}
+		BitSet result = null;
+		for (final String queryWord : new HashSet<>(queryWords)) {
+			final BitSet found = new BitSet(nodes.length);
+			for (int i = 0; i < words.length; i++) {
+				if (words[i].contains(queryWord)) {
+					for (final int ordinal : postings[i]) {
+						found.set(ordinal);
+					}
+				}
+			}
+			if (result == null) {
+				result = found;
+			} else {
+				result.and(found);
+			}
+		}
+		return result.stream().toArray();
+	}
+
+	public int size() {
+		return nodes.length;
+	}
+
+	public DefaultMutableTreeNode getNode(int ordinal) {
+		return nodes[ordinal];
+	}
+
+	/**
+	 * @return ordinals of the {@link LazyListNode}s, ascending. Their items are not indexed
+	 */
+	public int[] getLazyOrdinals() {
+		return lazyOrdinals;
+	}
+
+	/**
+	 * Growable list of ordinals, in the order they were added
+	 */
+	private static class Postings {
+		private int[] ordinals = new int[2];
+		private int size = 0;
+
+		void add(int ordinal) {
+			if ((size > 0) && (ordinals[size - 1] == ordinal)) { // same word twice in one text
+				return;
+			}
+			if (size == ordinals.length) {
+				ordinals = Arrays.copyOf(ordinals, size * 2);
+			}
+			ordinals[size++] = ordinal;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(ordinals, size);
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.batch;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.Test;
+
+import nl.digitalekabeltelevisie.batch.StreamSummary.ComponentSummary;
+import nl.digitalekabeltelevisie.batch.StreamSummary.PidSummary;
+import nl.digitalekabeltelevisie.batch.StreamSummary.ServiceSummary;
+
+public class JsonSummaryWriterTest {
+
+	@Test
+	public void quoteTest() {
+		final StringBuilder sb = new StringBuilder();
+		JsonSummaryWriter.quote(sb, "a\"b\\c\nd\u0001");
+		assertEquals("\"a\\\"b\\\\c\\nd\\u0001\"", sb.toString());
+
+		final StringBuilder nullBuilder = new StringBuilder();
+		JsonSummaryWriter.quote(nullBuilder, null);
+		assertEquals("null", nullBuilder.toString());
+	}
+
+	@Test
+	public void emptyTest() throws IOException {
+		final StringWriter out = new StringWriter();
+		new JsonSummaryWriter(out).finish();
+		assertEquals("[]\n", out.toString());
+	}
+
+	@Test
+	public void writeTest() throws IOException {
+		final StreamSummary summary = new StreamSummary("a.ts", 1880, 188, 10, 1, 0, 1_000_000, 0.015, 1, 2, "Net \"2\"",
+				List.of(new ServiceSummary(5, "Service", 256, 257, List.of(new ComponentSummary(257, 2, "video")))),
+				List.of(new PidSummary(0, "PAT", "PSI", 2, 0, 1, false, 200_000)),
+				2_000_000, null);
+		final StringWriter out = new StringWriter();
+		final JsonSummaryWriter writer = new JsonSummaryWriter(out);
+		writer.write(summary);
+		writer.write(StreamSummary.failed(new File("b.txt"), 0, "not a transport stream"));
+		writer.finish();
+
+		final String json = out.toString();
+		assertTrue(json.startsWith("[\n  {\"file\": \"a.ts\", \"size\": 1880, \"packet_length\": 188, \"packets\": 10"));
+		assertTrue(json.contains("\"network_name\": \"Net \\\"2\\\"\""));
+		assertTrue(json.contains("{\"service_id\": 5, \"name\": \"Service\", \"pmt_pid\": 256, \"pcr_pid\": 257, \"components\": [{\"pid\": 257, \"stream_type\": 2, \"stream_type_string\": \"video\"}]}"));
+		assertTrue(json.contains("{\"pid\": 0, \"label\": \"PAT\", \"type\": \"PSI\", \"packets\": 2, \"duplicate_packets\": 0, \"continuity_errors\": 1, \"scrambled\": false, \"bitrate\": 200000}"));
+		assertTrue(json.contains("\"parse_ms\": 2, \"packets_per_second\": 5000}"));
+		assertTrue(json.contains("{\"file\": \"b.txt\", \"size\": 0, \"error\": \"not a transport stream\", \"parse_ms\": 0, \"packets_per_second\": 0}"));
+		assertTrue(json.endsWith("}\n]\n"));
+	}
+
+}
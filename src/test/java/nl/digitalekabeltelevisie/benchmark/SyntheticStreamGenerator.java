@@ -0,0 +1,879 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import nl.digitalekabeltelevisie.data.mpeg.CRCcheck;
+import nl.digitalekabeltelevisie.data.mpeg.MPEGConstants;
+import nl.digitalekabeltelevisie.data.mpeg.ParseSettings;
+import nl.digitalekabeltelevisie.data.mpeg.TransportStream;
+import nl.digitalekabeltelevisie.gui.exception.NotAnMPEGFileException;
+
+/**
+ * Generates a small but well formed DVB transport stream, so the benchmarks (and tests) do not depend on external captures.
+ *
+ * The stream contains three services, one for each {@link Video} codec. Each service has a PMT and a single video PID
+ * that also carries the PCR. PAT, PMTs and SDT are repeated every {@value #PSI_INTERVAL} frames, NIT, EIT present/following
+ * and TDT once a second. Video is 25 frames per second with a GOP of {@value #GOP_LENGTH} frames, one PES packet per frame.
+ *
+ * The picture data is random, but all headers the parsers look at (parameter sets, access unit delimiters, slice headers,
+ * MPEG-2 sequence/GOP/picture headers and extensions) are valid, so the codec handlers do the same work as on real streams.
+ * Output is deterministic for a given seed.
+ *
+ * @author Eric
+ *
+ */
+public final class SyntheticStreamGenerator {
+
+	/**
+	 * Video codecs in the stream, one service each.
+	 */
+	public enum Video {
+		MPEG2(0x02, 1, 0x01, "MPEG-2 SD", 40_000, 10_000),
+		H264(0x1B, 2, 0x19, "H.264 HD", 30_000, 6_000),
+		H265(0x24, 3, 0x1F, "H.265 HD", 20_000, 4_000);
+
+		private final int streamType;
+		private final int serviceId;
+		private final int serviceType;
+		private final String serviceName;
+		private final int iFrameSize;
+		private final int pFrameSize;
+
+		Video(final int streamType, final int serviceId, final int serviceType, final String serviceName,
+				final int iFrameSize, final int pFrameSize) {
+			this.streamType = streamType;
+			this.serviceId = serviceId;
+			this.serviceType = serviceType;
+			this.serviceName = serviceName;
+			this.iFrameSize = iFrameSize;
+			this.pFrameSize = pFrameSize;
+		}
+
+		public int getStreamType() {
+			return streamType;
+		}
+
+		public int getServiceId() {
+			return serviceId;
+		}
+
+		public int getPmtPid() {
+			return 0x100 * serviceId;
+		}
+
+		public int getVideoPid() {
+			return getPmtPid() + 1;
+		}
+	}
+
+	public static final int TRANSPORT_STREAM_ID = 0x0401;
+	public static final int ORIGINAL_NETWORK_ID = 0x2210;
+	public static final int NETWORK_ID = 0x3001;
+
+	static final int NIT_PID = 0x10;
+	static final int SDT_PID = 0x11;
+	static final int EIT_PID = 0x12;
+	static final int TDT_PID = 0x14;
+
+	/**
+	 * Settings used by all benchmarks, independent of the user preferences on the machine running them.
+	 * PCR/PTS/DTS collection is on, because that is the more expensive path in {@link nl.digitalekabeltelevisie.data.mpeg.PID}.
+	 */
+	static final ParseSettings SETTINGS = new ParseSettings(false, false, true, false, 0);
+
+	static final int PSI_INTERVAL = 5;
+	static final int GOP_LENGTH = 12;
+
+	private static final int FRAMES_PER_SECOND = 25;
+	private static final long MUX_RATE = 15_000_000L;
+	private static final int MJD_2022_01_01 = 59580;
+
+	private static final int MPEG2_WIDTH = 720;
+	private static final int MPEG2_HEIGHT = 576;
+	private static final int SLICES_PER_PICTURE = 4;
+
+	private final Random random;
+	private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+	private final int[] continuityCounters = new int[8192];
+	private long packets;
+
+	private SyntheticStreamGenerator(final long seed) {
+		random = new Random(seed);
+	}
+
+	/**
+	 * @param frames number of video frames per service, 25 per second
+	 * @param seed seed for the random picture data
+	 * @return the complete transport stream
+	 */
+	public static byte[] generate(final int frames, final long seed) {
+		final SyntheticStreamGenerator generator = new SyntheticStreamGenerator(seed);
+		for (int frame = 0; frame < frames; frame++) {
+			generator.writeFrame(frame);
+		}
+		return generator.out.toByteArray();
+	}
+
+	/**
+	 * Writes the stream to a temporary file that is deleted on exit.
+	 *
+	 * @param frames number of video frames per service, 25 per second
+	 * @param seed seed for the random picture data
+	 * @return path of the file
+	 * @throws IOException
+	 */
+	public static Path writeTempFile(final int frames, final long seed) throws IOException {
+		final Path file = Files.createTempFile("synthetic", ".ts");
+		file.toFile().deleteOnExit();
+		Files.write(file, generate(frames, seed));
+		return file;
+	}
+
+	/**
+	 * @return a TransportStream for file, with {@link #SETTINGS} and the PSI tables already parsed
+	 * @throws IOException
+	 * @throws NotAnMPEGFileException
+	 */
+	static TransportStream parse(final Path file) throws IOException, NotAnMPEGFileException {
+		final TransportStream transportStream = new TransportStream(file.toFile());
+		transportStream.setParseSettings(SETTINGS);
+		transportStream.parsePSITables(null, true, 1);
+		return transportStream;
+	}
+
+	private void writeFrame(final int frame) {
+		final int second = frame / FRAMES_PER_SECOND;
+		if ((frame % FRAMES_PER_SECOND) == 0) {
+			writeSection(NIT_PID, nit());
+			for (final Video video : Video.values()) {
+				writeSection(EIT_PID, eit(video, 0, second));
+				writeSection(EIT_PID, eit(video, 1, second));
+			}
+			writeSection(TDT_PID, tdt(second));
+		}
+		if ((frame % PSI_INTERVAL) == 0) {
+			writeSection(0, pat());
+			for (final Video video : Video.values()) {
+				writeSection(video.getPmtPid(), pmt(video));
+			}
+			writeSection(SDT_PID, sdt());
+		}
+		final boolean intra = (frame % GOP_LENGTH) == 0;
+		final long pts = 45_000L + ((frame * 90_000L) / FRAMES_PER_SECOND);
+		for (final Video video : Video.values()) {
+			final byte[] es = switch (video) {
+			case MPEG2 -> mpeg2Picture(frame, intra);
+			case H264 -> h264AccessUnit(frame, intra);
+			case H265 -> h265AccessUnit(intra);
+			};
+			writePes(video.getVideoPid(), pes(0xE0, pts, es));
+		}
+	}
+
+	// Transport packets
+
+	private void writeSection(final int pid, final byte[] section) {
+		final byte[] payload = new byte[section.length + 1]; // pointer_field 0
+		System.arraycopy(section, 0, payload, 1, section.length);
+		int offset = 0;
+		boolean start = true;
+		while (offset < payload.length) {
+			final int len = Math.min(MPEGConstants.PAYLOAD_PACKET_LENGTH - 4, payload.length - offset);
+			final byte[] packet = header(pid, start, false);
+			System.arraycopy(payload, offset, packet, 4, len);
+			for (int i = 4 + len; i < packet.length; i++) {
+				packet[i] = (byte) 0xFF;
+			}
+			writePacket(packet);
+			offset += len;
+			start = false;
+		}
+	}
+
+	/**
+	 * Packetizes a PES packet, with the PCR in the adaptation field of the first packet, and adaptation field stuffing
+	 * in the last.
+	 */
+	private void writePes(final int pid, final byte[] pes) {
+		int offset = 0;
+		boolean start = true;
+		while (offset < pes.length) {
+			final int remaining = pes.length - offset;
+			int adaptationLength = start ? 8 : 0; // length, flags and PCR
+			final int len = Math.min(MPEGConstants.PAYLOAD_PACKET_LENGTH - 4 - adaptationLength, remaining);
+			if ((4 + adaptationLength + len) < MPEGConstants.PAYLOAD_PACKET_LENGTH) {
+				adaptationLength = MPEGConstants.PAYLOAD_PACKET_LENGTH - 4 - len;
+			}
+			final byte[] packet = header(pid, start, adaptationLength > 0);
+			if (adaptationLength > 0) {
+				packet[4] = (byte) (adaptationLength - 1);
+				int i = 5;
+				if (adaptationLength > 1) {
+					packet[i++] = (byte) (start ? 0x10 : 0x00); // PCR_flag
+				}
+				if (start) {
+					final long pcr = (packets * MPEGConstants.PAYLOAD_PACKET_LENGTH * 8 * MPEGConstants.system_clock_frequency) / MUX_RATE;
+					final long base = pcr / 300;
+					final long extension = pcr % 300;
+					packet[i++] = (byte) (base >>> 25);
+					packet[i++] = (byte) (base >>> 17);
+					packet[i++] = (byte) (base >>> 9);
+					packet[i++] = (byte) (base >>> 1);
+					packet[i++] = (byte) (((base & 1) << 7) | 0x7E | (extension >>> 8));
+					packet[i++] = (byte) extension;
+				}
+				while (i < (4 + adaptationLength)) {
+					packet[i++] = (byte) 0xFF;
+				}
+			}
+			System.arraycopy(pes, offset, packet, 4 + adaptationLength, len);
+			writePacket(packet);
+			offset += len;
+			start = false;
+		}
+	}
+
+	private byte[] header(final int pid, final boolean start, final boolean adaptationField) {
+		final byte[] packet = new byte[MPEGConstants.PAYLOAD_PACKET_LENGTH];
+		packet[0] = MPEGConstants.sync_byte;
+		packet[1] = (byte) ((start ? 0x40 : 0x00) | (pid >>> 8));
+		packet[2] = (byte) pid;
+		packet[3] = (byte) ((adaptationField ? 0x30 : 0x10) | continuityCounters[pid]);
+		continuityCounters[pid] = (continuityCounters[pid] + 1) & 0x0F;
+		return packet;
+	}
+
+	private void writePacket(final byte[] packet) {
+		out.write(packet, 0, packet.length);
+		packets++;
+	}
+
+	private static byte[] pes(final int streamId, final long pts, final byte[] es) {
+		final ByteArrayOutputStream pes = new ByteArrayOutputStream(es.length + 14);
+		pes.write(0);
+		pes.write(0);
+		pes.write(1);
+		pes.write(streamId);
+		pes.write(0); // PES_packet_length 0, allowed for video
+		pes.write(0);
+		pes.write(0x84); // data_alignment_indicator
+		pes.write(0x80); // PTS only
+		pes.write(5);
+		pes.write((int) (0x21 | ((pts >>> 29) & 0x0E)));
+		pes.write((int) (pts >>> 22));
+		pes.write((int) (0x01 | ((pts >>> 14) & 0xFE)));
+		pes.write((int) (pts >>> 7));
+		pes.write((int) (0x01 | ((pts << 1) & 0xFE)));
+		pes.write(es, 0, es.length);
+		return pes.toByteArray();
+	}
+
+	// PSI / SI
+
+	private static byte[] pat() {
+		final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		writeShort(body, 0);
+		writeShort(body, 0xE000 | NIT_PID);
+		for (final Video video : Video.values()) {
+			writeShort(body, video.getServiceId());
+			writeShort(body, 0xE000 | video.getPmtPid());
+		}
+		return longSection(0x00, TRANSPORT_STREAM_ID, 0, 0, body.toByteArray());
+	}
+
+	private static byte[] pmt(final Video video) {
+		final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		writeShort(body, 0xE000 | video.getVideoPid()); // PCR_PID
+		writeShort(body, 0xF000);
+		body.write(video.getStreamType());
+		writeShort(body, 0xE000 | video.getVideoPid());
+		final byte[] streamIdentifier = { 0x52, 0x01, (byte) video.getServiceId() };
+		writeShort(body, 0xF000 | streamIdentifier.length);
+		body.write(streamIdentifier, 0, streamIdentifier.length);
+		return longSection(0x02, video.getServiceId(), 0, 0, body.toByteArray());
+	}
+
+	private static byte[] sdt() {
+		final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		writeShort(body, ORIGINAL_NETWORK_ID);
+		body.write(0xFF);
+		for (final Video video : Video.values()) {
+			writeShort(body, video.getServiceId());
+			body.write(0xFD); // EIT_present_following_flag
+			final byte[] descriptor = serviceDescriptor(video.serviceType, "Synthetic", video.serviceName);
+			writeShort(body, 0x8000 | descriptor.length); // running
+			body.write(descriptor, 0, descriptor.length);
+		}
+		return longSection(0x42, TRANSPORT_STREAM_ID, 0, 0, body.toByteArray());
+	}
+
+	private static byte[] nit() {
+		final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		final byte[] networkName = descriptor(0x40, text("Synthetic network"));
+		writeShort(body, 0xF000 | networkName.length);
+		body.write(networkName, 0, networkName.length);
+
+		final ByteArrayOutputStream transportStream = new ByteArrayOutputStream();
+		final byte[] descriptors = transportStreamDescriptors();
+		writeShort(transportStream, TRANSPORT_STREAM_ID);
+		writeShort(transportStream, ORIGINAL_NETWORK_ID);
+		writeShort(transportStream, 0xF000 | descriptors.length);
+		transportStream.write(descriptors, 0, descriptors.length);
+
+		writeShort(body, 0xF000 | transportStream.size());
+		body.write(transportStream.toByteArray(), 0, transportStream.size());
+		return longSection(0x40, NETWORK_ID, 0, 0, body.toByteArray());
+	}
+
+	/**
+	 * Descriptor loop of the transport stream in the NIT: service list, terrestrial delivery system, private data
+	 * specifier and logical channels. Also used by {@link DescriptorFactoryBenchmark}.
+	 */
+	static byte[] transportStreamDescriptors() {
+		final ByteArrayOutputStream loop = new ByteArrayOutputStream();
+		final ByteArrayOutputStream services = new ByteArrayOutputStream();
+		final ByteArrayOutputStream channels = new ByteArrayOutputStream();
+		for (final Video video : Video.values()) {
+			writeShort(services, video.getServiceId());
+			services.write(video.serviceType);
+			writeShort(channels, video.getServiceId());
+			writeShort(channels, 0xFC00 | video.getServiceId()); // visible_service_flag, LCN
+		}
+		write(loop, descriptor(0x41, services.toByteArray()));
+		write(loop, descriptor(0x5A, new byte[] { 0x02, (byte) 0xD3, 0x4E, 0x40, 0x1F, (byte) 0x82, 0x02, (byte) 0xFF, (byte) 0xFF,
+				(byte) 0xFF, (byte) 0xFF })); // 474 MHz, 8 MHz, 64-QAM
+		write(loop, descriptor(0x5F, new byte[] { 0x00, 0x00, 0x00, 0x28 })); // EACEM
+		write(loop, descriptor(0x83, channels.toByteArray()));
+		return loop.toByteArray();
+	}
+
+	private byte[] eit(final Video video, final int sectionNumber, final int second) {
+		final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		writeShort(body, TRANSPORT_STREAM_ID);
+		writeShort(body, ORIGINAL_NETWORK_ID);
+		body.write(1); // segment_last_section_number
+		body.write(0x4E); // last_table_id
+		final int eventId = (video.getServiceId() << 8) + sectionNumber;
+		writeShort(body, eventId);
+		writeShort(body, MJD_2022_01_01);
+		body.write(bcd(sectionNumber));
+		body.write(0);
+		body.write(0);
+		body.write(0x01); // duration 01:00:00
+		body.write(0);
+		body.write(0);
+		final byte[] descriptors = eventDescriptors(video.serviceName + (sectionNumber == 0 ? " now" : " next"),
+				"Event " + eventId + " at " + second + "s");
+		writeShort(body, ((sectionNumber == 0 ? 4 : 1) << 13) | descriptors.length); // running or not yet running
+		body.write(descriptors, 0, descriptors.length);
+		return longSection(0x4E, video.getServiceId(), 0, sectionNumber, 1, body.toByteArray());
+	}
+
+	/**
+	 * Descriptor loop of an EIT event: short event, content and parental rating. Also used by
+	 * {@link DescriptorFactoryBenchmark}.
+	 */
+	static byte[] eventDescriptors(final String name, final String text) {
+		final ByteArrayOutputStream loop = new ByteArrayOutputStream();
+		final ByteArrayOutputStream shortEvent = new ByteArrayOutputStream();
+		write(shortEvent, "eng".getBytes(StandardCharsets.ISO_8859_1));
+		write(shortEvent, text(name));
+		write(shortEvent, text(text));
+		write(loop, descriptor(0x4D, shortEvent.toByteArray()));
+		write(loop, descriptor(0x54, new byte[] { 0x10, 0x00 })); // movie/drama
+		write(loop, descriptor(0x55, new byte[] { 'N', 'L', 'D', 0x09 })); // 12+
+		return loop.toByteArray();
+	}
+
+	private static byte[] tdt(final int second) {
+		final byte[] section = new byte[8];
+		section[0] = 0x70;
+		section[1] = 0x70;
+		section[2] = 5;
+		section[3] = (byte) (MJD_2022_01_01 >>> 8);
+		section[4] = (byte) MJD_2022_01_01;
+		section[5] = (byte) bcd(second / 3600);
+		section[6] = (byte) bcd((second / 60) % 60);
+		section[7] = (byte) bcd(second % 60);
+		return section;
+	}
+
+	static byte[] serviceDescriptor(final int serviceType, final String provider, final String name) {
+		final ByteArrayOutputStream data = new ByteArrayOutputStream();
+		data.write(serviceType);
+		write(data, text(provider));
+		write(data, text(name));
+		return descriptor(0x48, data.toByteArray());
+	}
+
+	private static byte[] longSection(final int tableId, final int tableIdExtension, final int version, final int sectionNumber,
+			final byte[] body) {
+		return longSection(tableId, tableIdExtension, version, sectionNumber, 0, body);
+	}
+
+	private static byte[] longSection(final int tableId, final int tableIdExtension, final int version, final int sectionNumber,
+			final int lastSectionNumber, final byte[] body) {
+		final int sectionLength = 5 + body.length + 4;
+		final byte[] section = new byte[3 + sectionLength];
+		section[0] = (byte) tableId;
+		section[1] = (byte) (0xB0 | (sectionLength >>> 8));
+		section[2] = (byte) sectionLength;
+		section[3] = (byte) (tableIdExtension >>> 8);
+		section[4] = (byte) tableIdExtension;
+		section[5] = (byte) (0xC1 | ((version & 0x1F) << 1));
+		section[6] = (byte) sectionNumber;
+		section[7] = (byte) lastSectionNumber;
+		System.arraycopy(body, 0, section, 8, body.length);
+		final long crc = CRCcheck.crc32(section, 0, section.length - 4);
+		section[section.length - 4] = (byte) (crc >>> 24);
+		section[section.length - 3] = (byte) (crc >>> 16);
+		section[section.length - 2] = (byte) (crc >>> 8);
+		section[section.length - 1] = (byte) crc;
+		return section;
+	}
+
+	private static byte[] descriptor(final int tag, final byte[] data) {
+		final byte[] descriptor = new byte[data.length + 2];
+		descriptor[0] = (byte) tag;
+		descriptor[1] = (byte) data.length;
+		System.arraycopy(data, 0, descriptor, 2, data.length);
+		return descriptor;
+	}
+
+	/**
+	 * @return length byte followed by the string in the default DVB character table
+	 */
+	private static byte[] text(final String s) {
+		final byte[] bytes = s.getBytes(StandardCharsets.ISO_8859_1);
+		final byte[] result = new byte[bytes.length + 1];
+		result[0] = (byte) bytes.length;
+		System.arraycopy(bytes, 0, result, 1, bytes.length);
+		return result;
+	}
+
+	private static int bcd(final int value) {
+		return ((value / 10) << 4) | (value % 10);
+	}
+
+	private static void writeShort(final ByteArrayOutputStream out, final int value) {
+		out.write(value >>> 8);
+		out.write(value);
+	}
+
+	private static void write(final ByteArrayOutputStream out, final byte[] bytes) {
+		out.write(bytes, 0, bytes.length);
+	}
+
+	// MPEG-2 video (ISO/IEC 13818-2)
+
+	private byte[] mpeg2Picture(final int frame, final boolean intra) {
+		final ByteArrayOutputStream es = new ByteArrayOutputStream();
+		if (intra) {
+			final BitWriter sequence = new BitWriter();
+			sequence.u(12, MPEG2_WIDTH);
+			sequence.u(12, MPEG2_HEIGHT);
+			sequence.u(4, 2); // 4:3
+			sequence.u(4, 3); // 25 Hz
+			sequence.u(18, 15_000); // bit_rate in units of 400 bit/s
+			sequence.u(1, 1); // marker
+			sequence.u(10, 112); // vbv_buffer_size
+			sequence.u(1, 0); // constrained_parameters_flag
+			sequence.u(1, 0); // load_intra_quantiser_matrix
+			sequence.u(1, 0); // load_non_intra_quantiser_matrix
+			startCode(es, 0xB3, sequence);
+
+			final BitWriter extension = new BitWriter();
+			extension.u(4, 1); // sequence extension
+			extension.u(8, 0x48); // main profile, main level
+			extension.u(1, 0); // progressive_sequence
+			extension.u(2, 1); // 4:2:0
+			extension.u(2, 0);
+			extension.u(2, 0);
+			extension.u(12, 0);
+			extension.u(1, 1); // marker
+			extension.u(8, 0);
+			extension.u(1, 0); // low_delay
+			extension.u(2, 0);
+			extension.u(5, 0);
+			startCode(es, 0xB5, extension);
+
+			final int second = frame / FRAMES_PER_SECOND;
+			final BitWriter gop = new BitWriter();
+			gop.u(1, 0); // drop_frame_flag
+			gop.u(5, second / 3600);
+			gop.u(6, (second / 60) % 60);
+			gop.u(1, 1); // marker
+			gop.u(6, second % 60);
+			gop.u(6, frame % FRAMES_PER_SECOND);
+			gop.u(1, 1); // closed_gop
+			gop.u(1, 0); // broken_link
+			startCode(es, 0xB8, gop);
+		}
+
+		final BitWriter picture = new BitWriter();
+		picture.u(10, frame % GOP_LENGTH); // temporal_reference
+		picture.u(3, intra ? 1 : 2);
+		picture.u(16, 0xFFFF); // vbv_delay
+		if (!intra) {
+			picture.u(1, 0); // full_pel_forward_vector
+			picture.u(3, 7); // forward_f_code
+		}
+		picture.u(1, 0); // extra_bit_picture
+		startCode(es, 0x00, picture);
+
+		final BitWriter coding = new BitWriter();
+		coding.u(4, 8); // picture coding extension
+		coding.u(4, intra ? 15 : 2); // f_code[0][0]
+		coding.u(4, intra ? 15 : 2);
+		coding.u(4, 15);
+		coding.u(4, 15);
+		coding.u(2, 2); // intra_dc_precision 10 bits
+		coding.u(2, 3); // frame picture
+		coding.u(1, 1); // top_field_first
+		coding.u(1, 0); // frame_pred_frame_dct
+		coding.u(1, 0); // concealment_motion_vectors
+		coding.u(1, 1); // q_scale_type
+		coding.u(1, intra ? 1 : 0); // intra_vlc_format
+		coding.u(1, 0); // alternate_scan
+		coding.u(1, 0); // repeat_first_field
+		coding.u(1, 1); // chroma_420_type
+		coding.u(1, 0); // progressive_frame
+		coding.u(1, 0); // composite_display_flag
+		startCode(es, 0xB5, coding);
+
+		final int rows = MPEG2_HEIGHT / 16;
+		final int sliceSize = (intra ? Video.MPEG2.iFrameSize : Video.MPEG2.pFrameSize) / rows;
+		for (int row = 1; row <= rows; row++) {
+			final byte[] slice = new byte[sliceSize];
+			random.nextBytes(slice);
+			slice[0] = (byte) (0x50 | (slice[0] & 0x07)); // quantiser_scale_code, extra_bit_slice 0
+			for (int i = 1; i < slice.length; i++) {
+				if (slice[i] == 0) { // no start code emulation
+					slice[i] = 0x55;
+				}
+			}
+			es.write(0);
+			es.write(0);
+			es.write(1);
+			es.write(row);
+			write(es, slice);
+		}
+		return es.toByteArray();
+	}
+
+	private static void startCode(final ByteArrayOutputStream es, final int code, final BitWriter data) {
+		es.write(0);
+		es.write(0);
+		es.write(1);
+		es.write(code);
+		write(es, data.toByteArray());
+	}
+
+	// H.264 (ITU-T Rec. H.264 | ISO/IEC 14496-10)
+
+	private byte[] h264AccessUnit(final int frame, final boolean intra) {
+		final ByteArrayOutputStream es = new ByteArrayOutputStream();
+		final BitWriter aud = new BitWriter();
+		aud.u(3, intra ? 0 : 1); // primary_pic_type
+		h264Nal(es, 9, aud.rbspTrailingBits());
+		if (intra) {
+			final BitWriter sps = new BitWriter();
+			sps.u(8, 77); // main profile
+			sps.u(8, 0x40); // constraint_set1_flag
+			sps.u(8, 40); // level 4.0
+			sps.ue(0); // seq_parameter_set_id
+			sps.ue(0); // log2_max_frame_num_minus4
+			sps.ue(0); // pic_order_cnt_type
+			sps.ue(2); // log2_max_pic_order_cnt_lsb_minus4
+			sps.ue(1); // max_num_ref_frames
+			sps.u(1, 0); // gaps_in_frame_num_value_allowed_flag
+			sps.ue(119); // 1920
+			sps.ue(67); // 1088
+			sps.u(1, 1); // frame_mbs_only_flag
+			sps.u(1, 1); // direct_8x8_inference_flag
+			sps.u(1, 1); // frame_cropping_flag, to 1080
+			sps.ue(0);
+			sps.ue(0);
+			sps.ue(0);
+			sps.ue(4);
+			sps.u(1, 0); // vui_parameters_present_flag
+			h264Nal(es, 7, sps.rbspTrailingBits());
+
+			final BitWriter pps = new BitWriter();
+			pps.ue(0); // pic_parameter_set_id
+			pps.ue(0); // seq_parameter_set_id
+			pps.u(1, 1); // entropy_coding_mode_flag
+			pps.u(1, 0); // bottom_field_pic_order_in_frame_present_flag
+			pps.ue(0); // num_slice_groups_minus1
+			pps.ue(0); // num_ref_idx_l0_default_active_minus1
+			pps.ue(0); // num_ref_idx_l1_default_active_minus1
+			pps.u(1, 0); // weighted_pred_flag
+			pps.u(2, 0); // weighted_bipred_idc
+			pps.se(0); // pic_init_qp_minus26
+			pps.se(0); // pic_init_qs_minus26
+			pps.se(0); // chroma_qp_index_offset
+			pps.u(1, 1); // deblocking_filter_control_present_flag
+			pps.u(1, 0); // constrained_intra_pred_flag
+			pps.u(1, 0); // redundant_pic_cnt_present_flag
+			h264Nal(es, 8, pps.rbspTrailingBits());
+		}
+		final int macroblocks = 120 * 68;
+		final int sliceSize = (intra ? Video.H264.iFrameSize : Video.H264.pFrameSize) / SLICES_PER_PICTURE;
+		for (int s = 0; s < SLICES_PER_PICTURE; s++) {
+			final BitWriter slice = new BitWriter();
+			slice.ue((s * macroblocks) / SLICES_PER_PICTURE); // first_mb_in_slice
+			slice.ue(intra ? 7 : 5); // I or P, all slices in picture same type
+			slice.ue(0); // pic_parameter_set_id
+			slice.u(4, frame % 16); // frame_num
+			h264Nal(es, intra ? 5 : 1, slice.withRandomData(random, sliceSize));
+		}
+		return es.toByteArray();
+	}
+
+	private static void h264Nal(final ByteArrayOutputStream es, final int nalUnitType, final byte[] rbsp) {
+		es.write(0);
+		es.write(0);
+		es.write(1);
+		es.write(0x60 | nalUnitType); // nal_ref_idc 3
+		write(es, BitWriter.toEbsp(rbsp));
+	}
+
+	// H.265 (ITU-T Rec. H.265 | ISO/IEC 23008-2)
+
+	private byte[] h265AccessUnit(final boolean intra) {
+		final ByteArrayOutputStream es = new ByteArrayOutputStream();
+		final BitWriter aud = new BitWriter();
+		aud.u(3, intra ? 0 : 1); // pic_type
+		h265Nal(es, 35, aud.rbspTrailingBits());
+		if (intra) {
+			final BitWriter vps = new BitWriter();
+			vps.u(4, 0); // vps_video_parameter_set_id
+			vps.u(1, 1); // vps_base_layer_internal_flag
+			vps.u(1, 1); // vps_base_layer_available_flag
+			vps.u(6, 0); // vps_max_layers_minus1
+			vps.u(3, 0); // vps_max_sub_layers_minus1
+			vps.u(1, 1); // vps_temporal_id_nesting_flag
+			vps.u(16, 0xFFFF);
+			profileTierLevel(vps);
+			vps.u(1, 1); // vps_sub_layer_ordering_info_present_flag
+			vps.ue(3); // vps_max_dec_pic_buffering_minus1
+			vps.ue(0); // vps_max_num_reorder_pics
+			vps.ue(0); // vps_max_latency_increase_plus1
+			vps.u(6, 0); // vps_max_layer_id
+			vps.ue(0); // vps_num_layer_sets_minus1
+			vps.u(1, 0); // vps_timing_info_present_flag
+			vps.u(1, 0); // vps_extension_flag
+			h265Nal(es, 32, vps.rbspTrailingBits());
+
+			final BitWriter sps = new BitWriter();
+			sps.u(4, 0); // sps_video_parameter_set_id
+			sps.u(3, 0); // sps_max_sub_layers_minus1
+			sps.u(1, 1); // sps_temporal_id_nesting_flag
+			profileTierLevel(sps);
+			sps.ue(0); // sps_seq_parameter_set_id
+			sps.ue(1); // chroma_format_idc 4:2:0
+			sps.ue(1920);
+			sps.ue(1088);
+			sps.u(1, 1); // conformance_window_flag
+			sps.ue(0);
+			sps.ue(0);
+			sps.ue(0);
+			sps.ue(4);
+			sps.ue(0); // bit_depth_luma_minus8
+			sps.ue(0); // bit_depth_chroma_minus8
+			sps.ue(4); // log2_max_pic_order_cnt_lsb_minus4
+			sps.u(1, 1); // sps_sub_layer_ordering_info_present_flag
+			sps.ue(3);
+			sps.ue(0);
+			sps.ue(0);
+			sps.ue(0); // log2_min_luma_coding_block_size_minus3
+			sps.ue(3); // log2_diff_max_min_luma_coding_block_size
+			sps.ue(0); // log2_min_luma_transform_block_size_minus2
+			sps.ue(3); // log2_diff_max_min_luma_transform_block_size
+			sps.ue(0); // max_transform_hierarchy_depth_inter
+			sps.ue(0); // max_transform_hierarchy_depth_intra
+			sps.u(1, 0); // scaling_list_enabled_flag
+			sps.u(1, 1); // amp_enabled_flag
+			sps.u(1, 1); // sample_adaptive_offset_enabled_flag
+			sps.u(1, 0); // pcm_enabled_flag
+			sps.ue(0); // num_short_term_ref_pic_sets
+			sps.u(1, 0); // long_term_ref_pics_present_flag
+			sps.u(1, 1); // sps_temporal_mvp_enabled_flag
+			sps.u(1, 1); // strong_intra_smoothing_enabled_flag
+			sps.u(1, 0); // vui_parameters_present_flag
+			sps.u(1, 0); // sps_extension_present_flag
+			h265Nal(es, 33, sps.rbspTrailingBits());
+
+			final BitWriter pps = new BitWriter();
+			pps.ue(0); // pps_pic_parameter_set_id
+			pps.ue(0); // pps_seq_parameter_set_id
+			pps.u(1, 0); // dependent_slice_segments_enabled_flag
+			pps.u(1, 0); // output_flag_present_flag
+			pps.u(3, 0); // num_extra_slice_header_bits
+			pps.u(1, 0); // sign_data_hiding_enabled_flag
+			pps.u(1, 0); // cabac_init_present_flag
+			pps.ue(0); // num_ref_idx_l0_default_active_minus1
+			pps.ue(0); // num_ref_idx_l1_default_active_minus1
+			pps.se(0); // init_qp_minus26
+			pps.u(1, 0); // constrained_intra_pred_flag
+			pps.u(1, 0); // transform_skip_enabled_flag
+			pps.u(1, 0); // cu_qp_delta_enabled_flag
+			pps.se(0); // pps_cb_qp_offset
+			pps.se(0); // pps_cr_qp_offset
+			pps.u(1, 0); // pps_slice_chroma_qp_offsets_present_flag
+			pps.u(1, 0); // weighted_pred_flag
+			pps.u(1, 0); // weighted_bipred_flag
+			pps.u(1, 0); // transquant_bypass_enabled_flag
+			pps.u(1, 0); // tiles_enabled_flag
+			pps.u(1, 0); // entropy_coding_sync_enabled_flag
+			pps.u(1, 1); // pps_loop_filter_across_slices_enabled_flag
+			pps.u(1, 0); // deblocking_filter_control_present_flag
+			pps.u(1, 0); // pps_scaling_list_data_present_flag
+			pps.u(1, 0); // lists_modification_present_flag
+			pps.ue(0); // log2_parallel_merge_level_minus2
+			pps.u(1, 0); // slice_segment_header_extension_present_flag
+			pps.u(1, 0); // pps_extension_present_flag
+			h265Nal(es, 34, pps.rbspTrailingBits());
+		}
+		final int sliceSize = (intra ? Video.H265.iFrameSize : Video.H265.pFrameSize) / SLICES_PER_PICTURE;
+		for (int s = 0; s < SLICES_PER_PICTURE; s++) {
+			final BitWriter slice = new BitWriter();
+			slice.u(1, s == 0 ? 1 : 0); // first_slice_segment_in_pic_flag
+			if (intra) {
+				slice.u(1, 0); // no_output_of_prior_pics_flag
+			}
+			slice.ue(0); // slice_pic_parameter_set_id
+			h265Nal(es, intra ? 19 : 1, slice.withRandomData(random, sliceSize)); // IDR_W_RADL or TRAIL_R
+		}
+		return es.toByteArray();
+	}
+
+	private static void profileTierLevel(final BitWriter w) {
+		w.u(2, 0); // general_profile_space
+		w.u(1, 0); // general_tier_flag
+		w.u(5, 1); // Main
+		w.u(32, 0x60000000); // general_profile_compatibility_flag[1] and [2]
+		w.u(4, 0xB); // progressive_source, interlaced_source, non_packed_constraint, frame_only_constraint
+		w.u(32, 0); // 43 reserved bits and general_inpbl_flag
+		w.u(12, 0);
+		w.u(8, 120); // level 4
+	}
+
+	private static void h265Nal(final ByteArrayOutputStream es, final int nalUnitType, final byte[] rbsp) {
+		es.write(0);
+		es.write(0);
+		es.write(1);
+		es.write(nalUnitType << 1);
+		es.write(1); // nuh_temporal_id_plus1
+		write(es, BitWriter.toEbsp(rbsp));
+	}
+
+	/**
+	 * Minimal MSB first bit writer, the counterpart of {@link nl.digitalekabeltelevisie.util.BitSource}.
+	 */
+	static final class BitWriter {
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		private int current;
+		private int bitCount;
+
+		void u(final int bits, final long value) {
+			for (int i = bits - 1; i >= 0; i--) {
+				current = (current << 1) | (int) ((value >>> i) & 1);
+				if (++bitCount == 8) {
+					bytes.write(current);
+					current = 0;
+					bitCount = 0;
+				}
+			}
+		}
+
+		void ue(final int value) {
+			final long codeNum = value + 1L;
+			final int len = 64 - Long.numberOfLeadingZeros(codeNum);
+			u(len - 1, 0);
+			u(len, codeNum);
+		}
+
+		void se(final int value) {
+			ue(value <= 0 ? -2 * value : (2 * value) - 1);
+		}
+
+		/**
+		 * @return the bytes written so far, last byte padded with zero bits
+		 */
+		byte[] toByteArray() {
+			while (bitCount != 0) {
+				u(1, 0);
+			}
+			return bytes.toByteArray();
+		}
+
+		byte[] rbspTrailingBits() {
+			u(1, 1);
+			return toByteArray();
+		}
+
+		/**
+		 * @return the header written so far, followed by random data up to size bytes. The last byte is never 0, so it
+		 *         can be a valid rbsp_trailing_bits.
+		 */
+		byte[] withRandomData(final Random random, final int size) {
+			final byte[] header = toByteArray();
+			final byte[] result = new byte[Math.max(size, header.length + 1)];
+			random.nextBytes(result);
+			System.arraycopy(header, 0, result, 0, header.length);
+			result[result.length - 1] |= 0x01;
+			return result;
+		}
+
+		/**
+		 * Adds emulation_prevention_three_byte where needed, so the NAL unit payload never contains a start code.
+		 */
+		static byte[] toEbsp(final byte[] rbsp) {
+			final ByteArrayOutputStream ebsp = new ByteArrayOutputStream(rbsp.length + (rbsp.length / 64));
+			int zeros = 0;
+			for (final byte b : rbsp) {
+				if ((zeros >= 2) && ((b & 0xFF) <= 3)) {
+					ebsp.write(3);
+					zeros = 0;
+				}
+				ebsp.write(b);
+				zeros = (b == 0) ? zeros + 1 : 0;
+			}
+			return ebsp.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.*;
+
+public class CRCcheckTest {
+
+	byte[] data;
+
+	@Before
+	public void setUp(){
+		data = new byte[5000];
+		new Random(42).nextBytes(data);
+	}
+
+	@Test
+	public void checkValueTest() {
+		// check value of CRC-32/MPEG-2
+		final byte[] check = "123456789".getBytes(StandardCharsets.US_ASCII);
+		assertEquals(0x0376E6E7L, CRCcheck.crc32(check, check.length));
+		assertEquals(0x0376E6E7L, CRCcheck.crc32Bytewise(check, 0, check.length));
+	}
+
+	@Test
+	public void allOffsetsAndLengthsTest() {
+		for (int offset = 0; offset < 17; offset++) {
+			for (int len = 0; len < 300; len++) {
+				assertEquals(CRCcheck.crc32Bytewise(data, offset, len), CRCcheck.crc32(data, offset, len));
+			}
+		}
+	}
+
+	@Test
+	public void randomDataTest() {
+		final Random random = new Random(1234);
+		for (int i = 0; i < 2000; i++) {
+			final int offset = random.nextInt(data.length);
+			final int len = random.nextInt(data.length - offset + 1);
+			assertEquals(CRCcheck.crc32Bytewise(data, offset, len), CRCcheck.crc32(data, offset, len));
+		}
+	}
+
+	@Test
+	public void byteBufferTest() {
+		final ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+		direct.put(data).flip();
+		final ByteBuffer heap = ByteBuffer.wrap(data, 3, 100).slice();
+		final Random random = new Random(99);
+		for (int i = 0; i < 1000; i++) {
+			final int offset = random.nextInt(data.length);
+			final int len = random.nextInt(data.length - offset + 1);
+			assertEquals(CRCcheck.crc32Bytewise(data, offset, len), CRCcheck.crc32(direct, offset, len));
+		}
+		assertEquals(0, direct.position());
+		// slice of a heap buffer, has a non zero arrayOffset
+		assertEquals(CRCcheck.crc32Bytewise(data, 13, 80), CRCcheck.crc32(heap, 10, 80));
+	}
+
+	@Test
+	public void validSectionTest() {
+		final byte[] section = new byte[1021];
+		System.arraycopy(data, 0, section, 0, 1017);
+		final long crc = CRCcheck.crc32(section, 1017);
+		section[1017] = (byte) (crc >>> 24);
+		section[1018] = (byte) (crc >>> 16);
+		section[1019] = (byte) (crc >>> 8);
+		section[1020] = (byte) crc;
+		assertEquals(0, CRCcheck.crc32(section, section.length));
+		section[500] ^= 0x10;
+		assertNotEquals(0, CRCcheck.crc32(section, section.length));
+	}
+
+}
@@ -0,0 +1,241 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.*;
+
+import nl.digitalekabeltelevisie.data.mpeg.psi.AbstractPSITabel;
+import nl.digitalekabeltelevisie.data.mpeg.psi.TDTsection;
+import nl.digitalekabeltelevisie.data.mpeg.psi.TableSection;
+import nl.digitalekabeltelevisie.util.FollowingFileInputStream;
+import nl.digitalekabeltelevisie.util.UdpInputStream;
+
+public class LiveStreamReaderTest {
+
+	private static final int TRANSPORT_STREAM_ID = 0x1234;
+	private static final int DATA_PID = 0x101;
+	private static final int PACKETS = 700;
+	private static final int BUFFER_PACKETS = 256;
+	private static final ParseSettings SETTINGS = new ParseSettings(false, false, false, false, 0);
+
+	/**
+	 * @return PAT every 10th packet, the others on DATA_PID, all with continuous continuity_counter
+	 */
+	private static byte[] createStream() {
+		final byte[] stream = new byte[PACKETS * 188];
+		int patCounter = 0;
+		int dataCounter = 0;
+		for (int i = 0; i < PACKETS; i++) {
+			final int start = i * 188;
+			Arrays.fill(stream, start, start + 188, (byte) 0xFF);
+			stream[start] = MPEGConstants.sync_byte;
+			if ((i % 10) == 0) {
+				stream[start + 1] = 0x40; // payload_unit_start_indicator, PID 0
+				stream[start + 2] = 0x00;
+				stream[start + 3] = (byte) (0x10 | (patCounter++ & 0x0F));
+				stream[start + 4] = 0; // pointer_field
+				final byte[] section = {0x00, (byte) 0xB0, 0x0D, 0x12, 0x34, (byte) 0xC1, 0x00, 0x00, 0x00, 0x01, (byte) 0xE1, 0x00};
+				System.arraycopy(section, 0, stream, start + 5, section.length);
+				final long crc = CRCcheck.crc32(section, 0, section.length);
+				for (int b = 0; b < 4; b++) {
+					stream[start + 5 + section.length + b] = (byte) (crc >>> (24 - (8 * b)));
+				}
+			} else {
+				stream[start + 1] = (byte) (DATA_PID >>> 8);
+				stream[start + 2] = (byte) DATA_PID;
+				stream[start + 3] = (byte) (0x10 | (dataCounter++ & 0x0F));
+				Arrays.fill(stream, start + 4, start + 188, (byte) i);
+			}
+		}
+		return stream;
+	}
+
+	@Test
+	public void udpLoopbackTest() throws Exception {
+		final byte[] stream = createStream();
+		final UdpInputStream input = new UdpInputStream("127.0.0.1", 0, null, null);
+		final CountDownLatch done = new CountDownLatch(1);
+		final LiveStreamReader reader = new LiveStreamReader("udp://@127.0.0.1", input, 188, BUFFER_PACKETS, SETTINGS, ts -> {
+			synchronized (ts) {
+				if (ts.getNo_packets() == PACKETS) {
+					done.countDown();
+				}
+			}
+		});
+		reader.setRefreshInterval(0);
+		final Thread thread = reader.start();
+
+		try (DatagramChannel sender = DatagramChannel.open()) {
+			sender.connect(new InetSocketAddress("127.0.0.1", input.getLocalPort()));
+			for (int d = 0; d < (PACKETS / 7); d++) {
+				final ByteBuffer datagram = ByteBuffer.allocate(12 + (7 * 188));
+				if ((d % 2) == 1) { // RTP header, version 2, payload type 33 (MP2T)
+					datagram.put((byte) 0x80).put((byte) 33).putShort((short) d).putInt(d * 3600).putInt(0x12345678);
+				}
+				datagram.put(stream, d * 7 * 188, 7 * 188).flip();
+				sender.write(datagram);
+				if ((d % 10) == 9) {
+					Thread.sleep(1);
+				}
+			}
+		}
+		assertTrue("all packets received", done.await(10, TimeUnit.SECONDS));
+		reader.close();
+		thread.join(5000);
+		assertTrue(reader.isStopped());
+		assertEquals(PACKETS / 14, input.getRtpDatagrams());
+
+		final TransportStream ts = reader.getTransportStream();
+		assertTrue(ts.isLive());
+		assertEquals(PACKETS, ts.getNo_packets());
+		assertEquals(0, ts.getSync_errors());
+		assertEquals(TRANSPORT_STREAM_ID, ts.getPsi().getPat().getTransportStreamId());
+		assertEquals(PACKETS - (PACKETS / 10), ts.getPID(DATA_PID).getPackets());
+		assertEquals(0, ts.getPID(DATA_PID).getContinuity_errors_count());
+		assertEquals(0, ts.getPID(0).getContinuity_errors_count());
+
+		// only the last BUFFER_PACKETS are kept
+		assertEquals(PACKETS - BUFFER_PACKETS, ts.getFirstPacketNo());
+		assertEquals(BUFFER_PACKETS, ts.getLivePackets(0) + ts.getLivePackets(DATA_PID));
+		assertEquals(BUFFER_PACKETS / 10, ts.getLivePackets(0));
+		assertNull(ts.getTSPacket(ts.getFirstPacketNo() - 1));
+		assertEquals(0x1fff, ts.getPacket_pid(ts.getFirstPacketNo() - 1));
+		final TSPacket last = ts.getTSPacket(PACKETS - 1);
+		assertEquals(DATA_PID, last.getPID());
+		assertEquals((byte) (PACKETS - 1), last.getBuffer()[100]);
+		assertEquals(BUFFER_PACKETS / 10, ts.getPacketIndex(0).size());
+	}
+
+	@Test
+	public void growingFileTest() throws Exception {
+		final byte[] stream = createStream();
+		final File file = Files.createTempFile("live", ".ts").toFile();
+		file.deleteOnExit();
+		final LiveStreamReader reader;
+		try (OutputStream out = new FileOutputStream(file)) {
+			out.write(stream, 0, 100 * 188);
+			out.flush();
+			reader = new LiveStreamReader(file.getPath(), new FollowingFileInputStream(file, 5), 188, 1000, SETTINGS, null);
+			final Thread thread = reader.start();
+			waitForPackets(reader, 100);
+
+			// garbage between packets should be skipped, and counted as a single sync error
+			out.write(new byte[] {1, 2, 3});
+			out.write(stream, 100 * 188, (PACKETS - 100) * 188);
+			out.flush();
+			waitForPackets(reader, PACKETS);
+			reader.close();
+			thread.join(5000);
+		}
+		final TransportStream ts = reader.getTransportStream();
+		assertEquals(PACKETS, ts.getNo_packets());
+		assertEquals(1, ts.getSync_errors());
+		assertEquals(0, ts.getFirstPacketNo());
+		assertEquals(0, ts.getPID(DATA_PID).getContinuity_errors_count());
+		assertEquals(TRANSPORT_STREAM_ID, ts.getPsi().getPat().getTransportStreamId());
+		assertEquals((long) PACKETS * 188, ts.getLen());
+	}
+
+	/**
+	 * A live stream with a new PAT version and a new TDT in every other packet should not keep all of them.
+	 */
+	@Test
+	public void boundedSectionsTest() throws Exception {
+		final int sections = (2 * AbstractPSITabel.MAX_LIVE_SECTIONS) + 500;
+		final byte[] stream = new byte[2 * sections * 188];
+		for (int i = 0; i < sections; i++) {
+			final int pat = 2 * i * 188;
+			Arrays.fill(stream, pat, pat + 376, (byte) 0xFF);
+			stream[pat] = MPEGConstants.sync_byte;
+			stream[pat + 1] = 0x40; // payload_unit_start_indicator, PID 0
+			stream[pat + 2] = 0x00;
+			stream[pat + 3] = (byte) (0x10 | (i & 0x0F));
+			stream[pat + 4] = 0; // pointer_field
+			final byte[] patSection = {0x00, (byte) 0xB0, 0x0D, 0x12, 0x34, (byte) (0xC1 | ((i & 0x1F) << 1)), 0x00, 0x00, 0x00, 0x01, (byte) 0xE1, 0x00};
+			System.arraycopy(patSection, 0, stream, pat + 5, patSection.length);
+			final long crc = CRCcheck.crc32(patSection, 0, patSection.length);
+			for (int b = 0; b < 4; b++) {
+				stream[pat + 5 + patSection.length + b] = (byte) (crc >>> (24 - (8 * b)));
+			}
+
+			final int tdt = pat + 188;
+			stream[tdt] = MPEGConstants.sync_byte;
+			stream[tdt + 1] = 0x40; // payload_unit_start_indicator, PID 0x14
+			stream[tdt + 2] = 0x14;
+			stream[tdt + 3] = (byte) (0x10 | (i & 0x0F));
+			stream[tdt + 4] = 0; // pointer_field
+			final byte[] tdtSection = {0x70, 0x70, 0x05, (byte) (0xE0 + (i >>> 8)), (byte) i, 0x12, 0x00, 0x00};
+			System.arraycopy(tdtSection, 0, stream, tdt + 5, tdtSection.length);
+		}
+		final LiveStreamReader reader = new LiveStreamReader("live", new ByteArrayInputStream(stream), 188, BUFFER_PACKETS, SETTINGS, null);
+		reader.setRefreshInterval(0);
+		reader.start().join(10_000);
+		assertTrue(reader.isStopped());
+
+		final TransportStream ts = reader.getTransportStream();
+		assertEquals(2 * sections, ts.getNo_packets());
+		final List<TDTsection> tdtSections = ts.getPsi().getTdt().getTdtSectionList();
+		assertTrue(tdtSections.size() < (2 * AbstractPSITabel.MAX_LIVE_SECTIONS));
+		assertTrue(tdtSections.size() >= AbstractPSITabel.MAX_LIVE_SECTIONS);
+		// most recent TDT is kept
+		assertEquals((sections - 1) & 0xFF, tdtSections.get(tdtSections.size() - 1).getUTC_time()[1] & 0xFF);
+
+		int versions = 0;
+		for (TableSection v = ts.getPsi().getPat().getPATsections()[0]; v != null; v = v.getNextVersion()) {
+			versions++;
+		}
+		assertEquals(AbstractPSITabel.MAX_LIVE_SECTION_VERSIONS, versions);
+	}
+
+	private static void waitForPackets(final LiveStreamReader reader, final int packets) throws InterruptedException {
+		final long end = System.currentTimeMillis() + 10_000;
+		while (System.currentTimeMillis() < end) {
+			final TransportStream ts = reader.getTransportStream();
+			synchronized (ts) {
+				if (ts.getNo_packets() >= packets) {
+					return;
+				}
+			}
+			Thread.sleep(5);
+		}
+		fail("timeout waiting for " + packets + " packets");
+	}
+
+}
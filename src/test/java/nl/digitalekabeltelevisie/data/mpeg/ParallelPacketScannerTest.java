@@ -0,0 +1,132 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.*;
+
+import nl.digitalekabeltelevisie.benchmark.SyntheticStreamGenerator;
+import nl.digitalekabeltelevisie.util.PacketIndex;
+import nl.digitalekabeltelevisie.util.export.TreeExporter;
+
+public class ParallelPacketScannerTest {
+
+	private static final int THREADS = 3;
+	private static final ParseSettings SETTINGS = new ParseSettings(false, false, true, false, 0);
+
+	private static File file;
+	private static long firstGarbage = -1;
+
+	/**
+	 * Synthetic stream, with some packets dropped (continuity errors) and some garbage inserted (sync errors), also near chunk boundaries
+	 */
+	@BeforeClass
+	public static void createFile() throws IOException {
+		final byte[] stream = SyntheticStreamGenerator.generate(100, 1);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(stream.length);
+		final int packets = stream.length / 188;
+		for (int t = 0; t < packets; t++) {
+			if ((t % 997) == 500) {
+				continue;
+			}
+			if ((t % 1499) == 700) {
+				if (firstGarbage == -1) {
+					firstGarbage = out.size();
+				}
+				out.write(new byte[] {0x47, 0x01, 0x02, 0x03, 0x04}, 0, 5);
+			}
+			out.write(stream, t * 188, 188);
+		}
+		file = Files.createTempFile("parallel", ".ts").toFile();
+		file.deleteOnExit();
+		Files.write(file.toPath(), out.toByteArray());
+	}
+
+	@Test
+	public void sameAsSequentialTest() throws Exception {
+		final TransportStream sequential = parse(1, 0);
+		// chunks not on packet boundaries, and a chunk that starts with garbage that looks like a sync byte
+		for (final long chunkSize : new long[] {100_003, 1_000_001, firstGarbage}) {
+			final TransportStream parallel = parse(THREADS, chunkSize);
+			assertSame(sequential, parallel);
+		}
+	}
+
+	private static TransportStream parse(final int threads, final long chunkSize) throws Exception {
+		final TransportStream transportStream = new TransportStream(file);
+		transportStream.setParseSettings(SETTINGS);
+		transportStream.parsePSITables(null, true, threads, chunkSize);
+		return transportStream;
+	}
+
+	private static void assertSame(final TransportStream expected, final TransportStream actual) throws IOException {
+		assertTrue(expected.getSync_errors() > 0);
+		assertEquals(expected.getNo_packets(), actual.getNo_packets());
+		assertEquals(expected.getSync_errors(), actual.getSync_errors());
+		for (int t = 0; t < expected.getNo_packets(); t++) {
+			assertEquals(expected.getPacketPidFlags(t), actual.getPacketPidFlags(t));
+		}
+
+		long continuityErrors = 0;
+		for (int pid = 0; pid < 8192; pid++) {
+			final PID e = expected.getPids()[pid];
+			final PID a = actual.getPids()[pid];
+			assertEquals(e == null, a == null);
+			if (e != null) {
+				assertEquals(e.getPackets(), a.getPackets());
+				assertEquals(e.getContinuity_errors_count(), a.getContinuity_errors_count());
+				assertEquals(e.getBitRate(), a.getBitRate());
+				// packet index is built during the first pass
+				final PacketIndex expectedIndex = expected.getPacketIndex(pid);
+				final PacketIndex actualIndex = actual.getPacketIndex(pid);
+				assertEquals(e.getPackets(), expectedIndex.size());
+				assertEquals(expectedIndex.size(), actualIndex.size());
+				for (int i = 0; i < expectedIndex.size(); i++) {
+					assertEquals(expectedIndex.get(i), actualIndex.get(i));
+				}
+				continuityErrors += e.getContinuity_errors_count();
+			}
+		}
+		assertTrue(continuityErrors > 0);
+		assertEquals(expected.getBitRate(), actual.getBitRate());
+
+		assertEquals(export(expected), export(actual));
+	}
+
+	private static String export(final TransportStream transportStream) throws IOException {
+		final StringBuilder out = new StringBuilder();
+		TreeExporter.export(transportStream.getJTreeNode(0), TreeExporter.Format.TEXT.createRenderer(out));
+		return out.toString();
+	}
+}
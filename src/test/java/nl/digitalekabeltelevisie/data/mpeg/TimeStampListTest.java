@@ -0,0 +1,92 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+
+import org.junit.*;
+
+public class TimeStampListTest {
+
+	// more than two chunks, so the growth of the first chunk and the adding of new chunks are both used
+	private static final int SIZE = (2 * TimeStampList.CHUNK_SIZE) + 123;
+
+	TimeStampList list;
+
+	@Before
+	public void setUp(){
+		list = new TimeStampList();
+		for (int i = 0; i < SIZE; i++) {
+			// two time stamps in every third packet
+			list.add((i / 2) * 3, 8_589_934_591L - i);
+		}
+	}
+
+	@Test
+	public void getTest() {
+		assertEquals(SIZE, list.size());
+		for (int i = 0; i < SIZE; i++) {
+			assertEquals((i / 2) * 3, list.getPacketNo(i));
+			assertEquals(8_589_934_591L - i, list.getTime(i));
+		}
+	}
+
+	@Test
+	public void lowerBoundTest() {
+		assertEquals(0, list.lowerBound(0));
+		assertEquals(2, list.lowerBound(1));
+		assertEquals(2, list.lowerBound(3));
+		assertEquals(4, list.lowerBound(4));
+		assertEquals(SIZE - 1, list.lowerBound(list.getPacketNo(SIZE - 1)));
+		assertEquals(SIZE, list.lowerBound(list.getPacketNo(SIZE - 1) + 1));
+		assertEquals(0, new TimeStampList().lowerBound(10));
+	}
+
+	@Test
+	public void temiTest() {
+		final TemiTimeStampList temi = new TemiTimeStampList();
+		temi.add(10, BigInteger.valueOf(90_000), 90_000, 0, 1);
+		final BigInteger large = BigInteger.ONE.shiftLeft(63).add(BigInteger.TEN);
+		temi.add(20, large, 1000, 1, 0);
+
+		assertEquals(2, temi.size());
+		assertEquals(1.0, temi.getSeconds(0), 0.0);
+		assertEquals(large.doubleValue() / 1000, temi.getSeconds(1), 0.0);
+
+		final TemiTimeStamp timeStamp = temi.get(1);
+		assertEquals(20, timeStamp.getPacketNo());
+		assertEquals(large, timeStamp.getMediaTimeStamp());
+		assertEquals(1000, timeStamp.getTimescale());
+		assertEquals(1, timeStamp.getDiscontinuity());
+		assertEquals(0, timeStamp.getPaused());
+		assertEquals(1, temi.getPaused(0));
+	}
+
+}
@@ -0,0 +1,90 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg.pes.ebu;
+
+import static org.junit.Assert.*;
+
+import java.awt.*;
+import java.awt.image.*;
+
+import org.junit.Test;
+
+/**
+ * @author Eric
+ *
+ */
+public class TxtGlyphAtlasTest {
+
+	@Test
+	public void testGlyphIsShared() {
+		final int[] glyph = TxtGlyphAtlas.getTextGlyph('A', 0xFFFFFF, 0x0000FF, false, false, 15, 19);
+		assertEquals("pixels", 15 * 19, glyph.length);
+		assertSame(glyph, TxtGlyphAtlas.getTextGlyph('A', 0xFFFFFF, 0x0000FF, false, false, 15, 19));
+		assertNotSame(glyph, TxtGlyphAtlas.getTextGlyph('A', 0xFFFFFF, 0xFF0000, false, false, 15, 19));
+		assertEquals("double size pixels", 30 * 38, TxtGlyphAtlas.getTextGlyph('A', 0xFFFFFF, 0x0000FF, false, false, 30, 38).length);
+	}
+
+	@Test
+	public void testMosaicGlyph() {
+		// all six blocks set, so whole cell is foreground
+		final int[] glyph = TxtGlyphAtlas.getTextGlyph((char) 0x7F, 0xFFFF00, 0x000000, true, false, 15, 19);
+		for (final int pixel : glyph) {
+			assertEquals(0xFFFF00, pixel & 0xFFFFFF);
+		}
+		// separated, so left column is background
+		final int[] separated = TxtGlyphAtlas.getTextGlyph((char) 0x7F, 0xFFFF00, 0x000000, true, true, 15, 19);
+		assertEquals(0x000000, separated[0] & 0xFFFFFF);
+		assertEquals(0xFFFF00, separated[(15 * 2) + 2] & 0xFFFFFF);
+	}
+
+	@Test
+	public void testDrawGlyphSameAsDrawImage() {
+		final BufferedImage charImg = new BufferedImage(15, 19, BufferedImage.TYPE_INT_ARGB);
+		final Graphics2D charGD = charImg.createGraphics();
+		charGD.setColor(new Color(0x00FF00));
+		charGD.fillRect(0, 0, 15, 19);
+		charGD.setColor(new Color(0xFF00FF));
+		charGD.fillRect(0, 0, 7, 6);
+		charGD.fillRect(7, 12, 8, 7);
+
+		// double size char in bottom right corner, partly outside the image
+		final BufferedImage expected = new BufferedImage(40, 50, BufferedImage.TYPE_INT_RGB);
+		expected.createGraphics().drawImage(charImg, 25, 21, 30, 38, null);
+
+		final BufferedImage actual = new BufferedImage(40, 50, BufferedImage.TYPE_INT_RGB);
+		final int[] glyph = TxtGlyphAtlas.getTextGlyph((char) 0x41, 0xFF00FF, 0x00FF00, true, false, 30, 38);
+		TxtGlyphAtlas.drawGlyph(glyph, 30, 38, ((DataBufferInt) actual.getRaster().getDataBuffer()).getData(), 40, 50, 25, 21);
+
+		for (int y = 0; y < 50; y++) {
+			for (int x = 0; x < 40; x++) {
+				assertEquals("pixel " + x + "," + y, expected.getRGB(x, y), actual.getRGB(x, y));
+			}
+		}
+	}
+
+}
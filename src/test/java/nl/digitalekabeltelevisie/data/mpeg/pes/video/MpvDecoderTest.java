@@ -0,0 +1,196 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg.pes.video;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Accuracy of the fixed point IDCT of {@link MpvDecoder}, measured as described in IEEE Std 1180-1990, and compared with the
+ * reference IDCT on complete I-Frames from {@link MpvIntraFrameEncoder}.
+ *
+ * @author Eric
+ *
+ */
+public class MpvDecoderTest {
+
+	private static final int BLOCKS = 10000;
+
+	private static final double[][] C = new double[8][8];
+
+	static {
+		for (int u = 0; u < 8; u++) {
+			for (int x = 0; x < 8; x++) {
+				C[u][x] = ((u == 0) ? Math.sqrt(0.125) : 0.5) * Math.cos(((2 * x) + 1) * u * Math.PI / 16);
+			}
+		}
+	}
+
+	private int randx;
+
+	@Test
+	public void ieee1180Test() {
+		checkAccuracy(256, 255, 1);
+		checkAccuracy(256, 255, -1);
+		checkAccuracy(5, 5, 1);
+		checkAccuracy(5, 5, -1);
+		checkAccuracy(300, 300, 1);
+		checkAccuracy(300, 300, -1);
+	}
+
+	@Test
+	public void zeroTest() {
+		final short[] block = new short[64];
+		MpvDecoder.IDCT_fixed(block);
+		for (final short s : block) {
+			assertEquals(0, s);
+		}
+	}
+
+	@Test
+	public void iFramePsnrTest() {
+		for (int seed = 0; seed < 2; seed++) {
+			final byte[] frame = MpvIntraFrameEncoder.encode(720, 576, seed);
+			final int[] referencePixels = decode(frame, true, false);
+			final int[] fixedPixels = decode(frame, false, false);
+			assertTrue("parallel slices same as sequential", Arrays.equals(fixedPixels, decode(frame, false, true)));
+			assertTrue("PSNR Y", psnr(referencePixels, fixedPixels, 16) > 45);
+			assertTrue("PSNR U", psnr(referencePixels, fixedPixels, 8) > 45);
+			assertTrue("PSNR V", psnr(referencePixels, fixedPixels, 0) > 45);
+		}
+	}
+
+	private static int[] decode(final byte[] frame, final boolean referenceIDCT, final boolean parallelSlices) {
+		final MpvDecoder mpvDecoder = new MpvDecoder();
+		mpvDecoder.setReferenceIDCT(referenceIDCT);
+		mpvDecoder.setParallelSlices(parallelSlices);
+		mpvDecoder.decodeArray(frame, false, false, false, 0);
+		assertEquals("decoding errors", 0, mpvDecoder.getErrors());
+		return mpvDecoder.getPixels().clone();
+	}
+
+	/**
+	 * @param shift position of the component in the packed YUV pixels, 16 for Y, 8 for U, 0 for V
+	 */
+	private static double psnr(final int[] reference, final int[] pixels, final int shift) {
+		double squaredError = 0;
+		for (int i = 0; i < reference.length; i++) {
+			final int diff = ((reference[i] >> shift) & 0xFF) - ((pixels[i] >> shift) & 0xFF);
+			squaredError += diff * diff;
+		}
+		if (squaredError == 0) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return 10 * Math.log10((255.0 * 255.0 * reference.length) / squaredError);
+	}
+
+	/**
+	 * @param l input pixels are from -l
+	 * @param h up to h
+	 * @param sign 1 or -1, to test the same input with the opposite sign
+	 */
+	private void checkAccuracy(final int l, final int h, final int sign) {
+		randx = 1;
+		final long[] errorSum = new long[64];
+		final long[] squaredErrorSum = new long[64];
+		final double[] input = new double[64];
+		final double[] coefficients = new double[64];
+		final double[] reference = new double[64];
+		final short[] block = new short[64];
+		for (int n = 0; n < BLOCKS; n++) {
+			for (int i = 0; i < 64; i++) {
+				input[i] = sign * random(l, h);
+			}
+			transform(input, coefficients, true);
+			for (int i = 0; i < 64; i++) {
+				coefficients[i] = clip(Math.round(coefficients[i]), -2048, 2047);
+				block[i] = (short) coefficients[i];
+			}
+			transform(coefficients, reference, false);
+			MpvDecoder.IDCT_fixed(block);
+			for (int i = 0; i < 64; i++) {
+				final long error = block[i] - clip(Math.round(reference[i]), -256, 255);
+				assertTrue("peak error " + error + " for range -" + l + ".." + h + ", sign " + sign, Math.abs(error) <= 1);
+				errorSum[i] += error;
+				squaredErrorSum[i] += error * error;
+			}
+		}
+		long totalError = 0;
+		long totalSquaredError = 0;
+		for (int i = 0; i < 64; i++) {
+			assertTrue("mean square error at " + i, (squaredErrorSum[i] / (double) BLOCKS) <= 0.06);
+			assertTrue("mean error at " + i, Math.abs(errorSum[i] / (double) BLOCKS) <= 0.015);
+			totalError += errorSum[i];
+			totalSquaredError += squaredErrorSum[i];
+		}
+		assertTrue("overall mean square error", (totalSquaredError / (64.0 * BLOCKS)) <= 0.02);
+		assertTrue("overall mean error", Math.abs(totalError / (64.0 * BLOCKS)) <= 0.0015);
+	}
+
+	/**
+	 * random number generator from IEEE Std 1180-1990
+	 */
+	private int random(final int l, final int h) {
+		randx = (randx * 1103515245) + 12345;
+		final int i = randx & 0x7ffffffe;
+		final double x = (i / (double) 0x7fffffff) * (l + h + 1);
+		return (int) x - l;
+	}
+
+	/**
+	 * double precision 2 dimensional DCT (forward) or IDCT
+	 */
+	private static void transform(final double[] in, final double[] out, final boolean forward) {
+		final double[] tmp = new double[64];
+		for (int y = 0; y < 8; y++) {
+			for (int u = 0; u < 8; u++) {
+				double s = 0;
+				for (int x = 0; x < 8; x++) {
+					s += forward ? (C[u][x] * in[(y * 8) + x]) : (C[x][u] * in[(y * 8) + x]);
+				}
+				tmp[(y * 8) + u] = s;
+			}
+		}
+		for (int u = 0; u < 8; u++) {
+			for (int v = 0; v < 8; v++) {
+				double s = 0;
+				for (int y = 0; y < 8; y++) {
+					s += forward ? (C[v][y] * tmp[(y * 8) + u]) : (C[y][v] * tmp[(y * 8) + u]);
+				}
+				out[(v * 8) + u] = s;
+			}
+		}
+	}
+
+	private static long clip(final long v, final long min, final long max) {
+		return Math.max(min, Math.min(max, v));
+	}
+}
@@ -0,0 +1,278 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg.pes.video;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+/**
+ * Minimal MPEG-2 encoder for I-Frames (4:2:0, progressive, one slice per macroblock row, all AC coefficients escape coded),
+ * only meant to create input for testing and benchmarking {@link MpvDecoder} without the need for sample files.
+ *
+ * The picture is a smooth pattern with a bright circle and some noise, so the blocks have both low and high frequency
+ * coefficients.
+ *
+ * @author Eric
+ *
+ */
+public final class MpvIntraFrameEncoder {
+
+	private static final int[] ZIGZAG = { 0, 1, 8, 16, 9, 2, 3, 10, 17, 24, 32, 25, 18, 11, 4, 5, 12, 19, 26, 33, 40, 48, 41, 34,
+			27, 20, 13, 6, 7, 14, 21, 28, 35, 42, 49, 56, 57, 50, 43, 36, 29, 22, 15, 23, 30, 37, 44, 51, 58, 59, 52, 45, 38, 31, 39, 46,
+			53, 60, 61, 54, 47, 55, 62, 63 };
+
+	/**
+	 * default intra quantiser matrix, ISO/IEC 13818-2 6.3.11
+	 */
+	private static final int[] INTRA_MATRIX = { 8, 16, 19, 22, 26, 27, 29, 34, 16, 16, 22, 24, 27, 29, 34, 37, 19, 22, 26, 27, 29, 34,
+			34, 38, 22, 22, 26, 27, 29, 34, 37, 40, 22, 26, 27, 29, 32, 35, 40, 48, 26, 27, 29, 32, 35, 40, 48, 58, 26, 27, 29, 34, 38,
+			46, 56, 69, 27, 29, 35, 38, 46, 56, 69, 83 };
+
+	/**
+	 * dct_dc_size_luminance and dct_dc_size_chrominance, ISO/IEC 13818-2 Table B.12 and B.13
+	 */
+	private static final String[] DC_SIZE_LUMINANCE = { "100", "00", "01", "101", "110", "1110", "11110", "111110", "1111110",
+			"11111110", "111111110", "111111111" };
+	private static final String[] DC_SIZE_CHROMINANCE = { "00", "01", "10", "110", "1110", "11110", "111110", "1111110", "11111110",
+			"111111110", "1111111110", "1111111111" };
+
+	private static final int QUANTISER_SCALE_CODE = 3;
+
+	private static final double[][] C = new double[8][8];
+
+	static {
+		for (int u = 0; u < 8; u++) {
+			for (int x = 0; x < 8; x++) {
+				C[u][x] = ((u == 0) ? Math.sqrt(0.125) : 0.5) * Math.cos((((2 * x) + 1) * u * Math.PI) / 16);
+			}
+		}
+	}
+
+	private MpvIntraFrameEncoder() {
+		// static methods only
+	}
+
+	/**
+	 * @param width multiple of 16
+	 * @param height multiple of 16
+	 * @param seed for the picture content
+	 * @return sequence header, GOP header and a coded I-Frame, followed by a sequence end code
+	 */
+	public static byte[] encode(final int width, final int height, final long seed) {
+		final Random random = new Random(seed);
+		final int[][] y = new int[height][width];
+		final int[][] u = new int[height / 2][width / 2];
+		final int[][] v = new int[height / 2][width / 2];
+		final int cx = random.nextInt(width);
+		final int cy = random.nextInt(height);
+		final double r2 = (height / 5.0) * (height / 5.0);
+		for (int row = 0; row < height; row++) {
+			for (int col = 0; col < width; col++) {
+				final double circle = ((((col - cx) * (col - cx)) + ((row - cy) * (row - cy))) < r2) ? 60 : 0;
+				final double value = 128 + (80 * Math.sin((col + (seed * 7)) / 23.0) * Math.cos(row / 17.0)) + circle + random.nextInt(13) - 6;
+				y[row][col] = (int) Math.max(0, Math.min(255, value));
+			}
+		}
+		for (int row = 0; row < (height / 2); row++) {
+			for (int col = 0; col < (width / 2); col++) {
+				u[row][col] = (int) (128 + (50 * Math.sin((col / 31.0) + seed)));
+				v[row][col] = (int) (128 + (50 * Math.cos((row / 29.0) - seed)));
+			}
+		}
+
+		final BitWriter w = new BitWriter();
+		w.startCode(0xB3); // sequence_header
+		w.put(width, 12);
+		w.put(height, 12);
+		w.put(2, 4); // aspect_ratio_information 4:3
+		w.put(3, 4); // frame_rate_code 25
+		w.put(0x3FFFF, 18); // bit_rate_value
+		w.put(1, 1); // marker_bit
+		w.put(112, 10); // vbv_buffer_size_value
+		w.put(0, 3); // constrained_parameters_flag, load_intra_quantiser_matrix, load_non_intra_quantiser_matrix
+
+		w.startCode(0xB5); // sequence_extension
+		w.put(1, 4);
+		w.put(0x48, 8); // Main profile, Main level
+		w.put(1, 1); // progressive_sequence
+		w.put(1, 2); // chroma_format 4:2:0
+		w.put(0, 16); // horizontal_size_extension, vertical_size_extension, bit_rate_extension
+		w.put(1, 1); // marker_bit
+		w.put(0, 16); // vbv_buffer_size_extension, low_delay, frame_rate_extension_n, frame_rate_extension_d
+
+		w.startCode(0xB8); // group_of_pictures_header
+		w.put(0, 25); // time_code
+		w.put(1, 1); // closed_gop
+		w.put(0, 1); // broken_link
+
+		w.startCode(0x00); // picture_header
+		w.put(0, 10); // temporal_reference
+		w.put(1, 3); // picture_coding_type I
+		w.put(0xFFFF, 16); // vbv_delay
+		w.put(0, 1); // extra_bit_picture
+
+		w.startCode(0xB5); // picture_coding_extension
+		w.put(8, 4);
+		w.put(0xFFFF, 16); // f_codes
+		w.put(0, 2); // intra_dc_precision 8 bits
+		w.put(3, 2); // picture_structure frame
+		w.put(0, 1); // top_field_first
+		w.put(1, 1); // frame_pred_frame_dct
+		w.put(0, 5); // concealment_motion_vectors, q_scale_type, intra_vlc_format, alternate_scan, repeat_first_field
+		w.put(1, 1); // chroma_420_type
+		w.put(1, 1); // progressive_frame
+		w.put(0, 1); // composite_display_flag
+
+		final int[] dcPredictor = new int[3];
+		final int[][] block = new int[8][8];
+		for (int mbRow = 0; mbRow < (height / 16); mbRow++) {
+			w.startCode(mbRow + 1); // slice
+			w.put(QUANTISER_SCALE_CODE, 5);
+			w.put(0, 1); // extra_bit_slice
+			dcPredictor[0] = 0;
+			dcPredictor[1] = 0;
+			dcPredictor[2] = 0;
+			for (int mbCol = 0; mbCol < (width / 16); mbCol++) {
+				w.put(1, 1); // macroblock_address_increment 1
+				w.put(1, 1); // macroblock_type intra
+				for (int b = 0; b < 4; b++) {
+					copyBlock(y, (mbRow * 16) + ((b >> 1) * 8), (mbCol * 16) + ((b & 1) * 8), block);
+					encodeBlock(w, block, dcPredictor, 0, DC_SIZE_LUMINANCE);
+				}
+				copyBlock(u, mbRow * 8, mbCol * 8, block);
+				encodeBlock(w, block, dcPredictor, 1, DC_SIZE_CHROMINANCE);
+				copyBlock(v, mbRow * 8, mbCol * 8, block);
+				encodeBlock(w, block, dcPredictor, 2, DC_SIZE_CHROMINANCE);
+			}
+		}
+		w.startCode(0xB7); // sequence_end_code
+		return w.toByteArray();
+	}
+
+	private static void copyBlock(final int[][] plane, final int row, final int col, final int[][] block) {
+		for (int i = 0; i < 8; i++) {
+			System.arraycopy(plane[row + i], col, block[i], 0, 8);
+		}
+	}
+
+	private static void encodeBlock(final BitWriter w, final int[][] pixels, final int[] dcPredictor, final int component, final String[] dcSizeTable) {
+		final double[] coefficients = fdct(pixels);
+
+		final int dc = Math.max(-255, Math.min(255, (int) Math.round(coefficients[0] / 8)));
+		final int diff = dc - dcPredictor[component];
+		dcPredictor[component] = dc;
+		final int size = (diff == 0) ? 0 : (32 - Integer.numberOfLeadingZeros(Math.abs(diff)));
+		w.put(dcSizeTable[size]);
+		if (size > 0) {
+			w.put((diff > 0) ? diff : ((diff + (1 << size)) - 1), size);
+		}
+
+		final int quantiserScale = QUANTISER_SCALE_CODE * 2;
+		int run = 0;
+		for (int k = 1; k < 64; k++) {
+			final int j = ZIGZAG[k];
+			final int level = Math.max(-2047, Math.min(2047, (int) Math.round((coefficients[j] * 16) / (quantiserScale * INTRA_MATRIX[j]))));
+			if (level == 0) {
+				run++;
+			} else {
+				w.put("000001"); // escape
+				w.put(run, 6);
+				w.put(level & 0xFFF, 12);
+				run = 0;
+			}
+		}
+		w.put("10"); // end of block
+	}
+
+	/**
+	 * forward DCT of pixels - 128
+	 * @return coefficients, in raster order
+	 */
+	private static double[] fdct(final int[][] pixels) {
+		final double[][] tmp = new double[8][8];
+		for (int row = 0; row < 8; row++) {
+			for (int u = 0; u < 8; u++) {
+				double s = 0;
+				for (int x = 0; x < 8; x++) {
+					s += C[u][x] * (pixels[row][x] - 128);
+				}
+				tmp[row][u] = s;
+			}
+		}
+		final double[] result = new double[64];
+		for (int v = 0; v < 8; v++) {
+			for (int u = 0; u < 8; u++) {
+				double s = 0;
+				for (int row = 0; row < 8; row++) {
+					s += C[v][row] * tmp[row][u];
+				}
+				result[(v * 8) + u] = s;
+			}
+		}
+		return result;
+	}
+
+	private static final class BitWriter {
+
+		private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		private int current;
+		private int bitCount;
+
+		void put(final int value, final int bits) {
+			for (int i = bits - 1; i >= 0; i--) {
+				current = (current << 1) | ((value >>> i) & 1);
+				if (++bitCount == 8) {
+					out.write(current);
+					current = 0;
+					bitCount = 0;
+				}
+			}
+		}
+
+		void put(final String bits) {
+			for (int i = 0; i < bits.length(); i++) {
+				put(bits.charAt(i) - '0', 1);
+			}
+		}
+
+		void startCode(final int code) {
+			if (bitCount > 0) {
+				put(0, 8 - bitCount);
+			}
+			put(0x000001, 24);
+			put(code, 8);
+		}
+
+		byte[] toByteArray() {
+			if (bitCount > 0) {
+				put(0, 8 - bitCount);
+			}
+			return out.toByteArray();
+		}
+	}
+}
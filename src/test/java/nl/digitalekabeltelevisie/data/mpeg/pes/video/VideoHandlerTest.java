@@ -72,6 +72,28 @@ public class VideoHandlerTest extends PesHandlerSetup{
 
 		testFrame0(pesPackets.get(0));
 		testFrame7(pesPackets.get(7));
+		testFindIFrame(video138182Handler, pesPackets);
+	}
+
+	/**
+	 * index lookup should find the same IFrame as looking at all PES packets, and the decoded image should be cached
+	 */
+	private static void testFindIFrame(Video138182Handler video138182Handler, List<PesPacketData> pesPackets) {
+		for (PesPacketData pesPacketData : pesPackets) {
+			final long pts = pesPacketData.getPesHeader().getPts() + 1234;
+			VideoPESDataField expected = null;
+			long diff = Long.MAX_VALUE;
+			for (PesPacketData p : pesPackets) {
+				final VideoPESDataField video = (VideoPESDataField) p;
+				if (video.hasIFrame() && (Math.abs(video.getPesHeader().getPts() - pts) < diff)) {
+					expected = video;
+					diff = Math.abs(video.getPesHeader().getPts() - pts);
+				}
+			}
+			assertSame(expected, video138182Handler.findIFrame(pts));
+		}
+		final long pts = pesPackets.get(7).getPesHeader().getPts();
+		assertSame(video138182Handler.getImage(576, 720, pts), video138182Handler.getImage(576, 720, pts));
 	}
 
 	private static void testFrame0(PesPacketData pesPacketData) {
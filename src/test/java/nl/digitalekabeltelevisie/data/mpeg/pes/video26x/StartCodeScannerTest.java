@@ -0,0 +1,98 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg.pes.video26x;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class StartCodeScannerTest {
+
+	@Test
+	public void indexOfTest() {
+		final byte[] data = new byte[100];
+		Arrays.fill(data, (byte) 0x55);
+		assertEquals(-1, StartCodeScanner.indexOfStartCode(data, 0));
+		data[40] = 0;
+		data[41] = 0;
+		data[42] = 1;
+		data[70] = 0;
+		data[71] = 0;
+		data[72] = 0;
+		data[97] = 0;
+		data[98] = 0;
+		data[99] = 1;
+		assertEquals(40, StartCodeScanner.indexOfStartCode(data, 0));
+		assertEquals(40, StartCodeScanner.indexOfStartCode(data, 40));
+		assertEquals(97, StartCodeScanner.indexOfStartCode(data, 41));
+		assertEquals(70, StartCodeScanner.indexOfNALUnitEnd(data, 43));
+		assertEquals(97, StartCodeScanner.indexOfNALUnitEnd(data, 71));
+		assertEquals(-1, StartCodeScanner.indexOfStartCode(data, 98));
+	}
+
+	@Test
+	public void randomTest() {
+		final Random random = new Random(3);
+		final byte[] data = new byte[20_000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) ((random.nextInt(4) == 0) ? random.nextInt(4) : random.nextInt(256));
+		}
+		for (int from = 0; from < 1000; from += 7) {
+			assertEquals(reference(data, from, 1, 1), StartCodeScanner.indexOfStartCode(data, from));
+			assertEquals(reference(data, from, 0, 1), StartCodeScanner.indexOfNALUnitEnd(data, from));
+		}
+	}
+
+	@Test
+	public void unescapeTest() {
+		final byte[] src = { 0x25, 0, 0, 3, 1, 0, 0, 3, 0, 0, 3, 0, 0, 3 };
+		final byte[] dest = new byte[src.length];
+		final int len = StartCodeScanner.unescapeRBSP(src, 0, src.length, dest);
+		assertEquals(10, len);
+		assertArrayEquals(new byte[] { 0x25, 0, 0, 1, 0, 0, 0, 0, 0, 0 }, Arrays.copyOf(dest, len));
+
+		final byte[] shortDest = new byte[3];
+		assertEquals(10, StartCodeScanner.unescapeRBSP(src, 0, src.length, shortDest));
+		assertArrayEquals(new byte[] { 0x25, 0, 0 }, shortDest);
+
+		// 0x000003 at the end of the range is not complete, so not removed
+		assertEquals(3, StartCodeScanner.unescapeRBSP(src, 4, 7, dest));
+	}
+
+	private static int reference(final byte[] data, final int from, final int low, final int high) {
+		for (int p = from; (p + 2) < data.length; p++) {
+			if ((data[p] == 0) && (data[p + 1] == 0) && (data[p + 2] >= low) && (data[p + 2] <= high)) {
+				return p;
+			}
+		}
+		return -1;
+	}
+}
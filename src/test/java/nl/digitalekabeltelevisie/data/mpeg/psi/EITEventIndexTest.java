@@ -0,0 +1,140 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.data.mpeg.psi;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+import nl.digitalekabeltelevisie.data.mpeg.psi.EITEventIndex.ServiceEvents;
+import nl.digitalekabeltelevisie.data.mpeg.psi.EITsection.Event;
+
+public class EITEventIndexTest {
+
+	// start, duration, in EIT order. Event 1 is long, so it must be found by looking back maxDuration
+	long[][] times = {
+			{ 100, 50 },
+			{ 0, 300 },
+			{ 200, 30 },
+			{ 150, 50 },
+			{ 400, 10 },
+			{ 100, 20 } };
+
+	ServiceEvents serviceEvents;
+
+	@Before
+	public void setUp(){
+		serviceEvents = create(times);
+	}
+
+	private static ServiceEvents create(final long[][] times) {
+		final List<Event> events = new ArrayList<>();
+		final List<Long> starts = new ArrayList<>();
+		final List<Long> durations = new ArrayList<>();
+		for (int i = 0; i < times.length; i++) {
+			final Event event = new Event();
+			event.setEventID(i);
+			events.add(event);
+			starts.add(times[i][0]);
+			durations.add(times[i][1]);
+		}
+		return new ServiceEvents(events, starts, durations);
+	}
+
+	@Test
+	public void findEventsTest() {
+		assertArrayEquals(new int[] { 1, 2, 3 }, serviceEvents.findEvents(160, 210));
+		assertArrayEquals(new int[] { 0, 1, 3, 5 }, serviceEvents.findEvents(110, 160));
+		assertArrayEquals(new int[] { 1 }, serviceEvents.findEvents(290, 295));
+		assertArrayEquals(new int[] { 1 }, serviceEvents.findEvents(0, 10));
+		assertArrayEquals(new int[] {}, serviceEvents.findEvents(-100, 0));
+		assertArrayEquals(new int[] {}, serviceEvents.findEvents(300, 400));
+		assertArrayEquals(new int[] { 4 }, serviceEvents.findEvents(300, 401));
+		assertArrayEquals(new int[] {}, serviceEvents.findEvents(500, 600));
+	}
+
+	@Test
+	public void tileEdgeTest() {
+		// end is exclusive, so events that end at from or start at to are not in the tile
+		assertArrayEquals(new int[] { 1, 3 }, serviceEvents.findEvents(150, 200));
+		assertArrayEquals(new int[] { 1, 2 }, serviceEvents.findEvents(200, 250));
+		// event 3 straddles the edge at 175, it is in both tiles
+		assertArrayEquals(new int[] { 1, 3 }, serviceEvents.findEvents(160, 175));
+		assertArrayEquals(new int[] { 1, 3 }, serviceEvents.findEvents(175, 190));
+	}
+
+	@Test
+	public void findEventTest() {
+		assertEquals(0, serviceEvents.findEvent(110).getEventID()); // events 0, 1 and 5 are running, first in EIT order
+		assertEquals(1, serviceEvents.findEvent(150).getEventID());
+		assertEquals(1, serviceEvents.findEvent(0).getEventID());
+		assertEquals(4, serviceEvents.findEvent(405).getEventID());
+		assertNull(serviceEvents.findEvent(300));
+		assertNull(serviceEvents.findEvent(-1));
+		assertNull(serviceEvents.findEvent(410));
+	}
+
+	@Test
+	public void emptyTest() {
+		final ServiceEvents empty = create(new long[0][]);
+		assertEquals(0, empty.size());
+		assertArrayEquals(new int[] {}, empty.findEvents(0, 1000));
+		assertNull(empty.findEvent(0));
+	}
+
+	@Test
+	public void randomTest() {
+		final Random random = new Random(42);
+		final long[][] randomTimes = new long[500][];
+		for (int i = 0; i < randomTimes.length; i++) {
+			randomTimes[i] = new long[] { random.nextInt(10_000), random.nextInt(10) == 0 ? random.nextInt(2_000) : random.nextInt(100) };
+		}
+		final ServiceEvents randomEvents = create(randomTimes);
+		for (int q = 0; q < 1000; q++) {
+			final long from = random.nextInt(11_000) - 500;
+			final long to = from + random.nextInt(500);
+			final List<Integer> expected = new ArrayList<>();
+			Integer running = null;
+			for (int i = 0; i < randomTimes.length; i++) {
+				final long start = randomTimes[i][0];
+				final long end = start + randomTimes[i][1];
+				if ((start < to) && (end > from)) {
+					expected.add(i);
+				}
+				if ((running == null) && (start <= from) && (end > from)) {
+					running = i;
+				}
+			}
+			assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), randomEvents.findEvents(from, to));
+			final Event event = randomEvents.findEvent(from);
+			assertEquals(running, (event == null) ? null : event.getEventID());
+		}
+	}
+}
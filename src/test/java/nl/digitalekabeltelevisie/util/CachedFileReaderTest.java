@@ -0,0 +1,125 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.*;
+
+public class CachedFileReaderTest {
+
+	private static final int BLOCK_SIZE = 1000;
+	private static final int MAX_BLOCKS = 3;
+
+	File file;
+	byte[] content;
+
+	@Before
+	public void setUp() throws IOException {
+		content = new byte[(BLOCK_SIZE * 10) + 123];
+		new Random(42).nextBytes(content);
+		file = Files.createTempFile("cached", ".ts").toFile();
+		file.deleteOnExit();
+		Files.write(file.toPath(), content);
+	}
+
+	@Test
+	public void blockBoundaryTest() throws IOException {
+		try (CachedFileReader reader = new CachedFileReader(file, BLOCK_SIZE, MAX_BLOCKS);
+				RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+			// within a block, exactly a block, and over one or more block boundaries
+			check(reader, randomAccessFile, 10, 188);
+			check(reader, randomAccessFile, BLOCK_SIZE, BLOCK_SIZE);
+			check(reader, randomAccessFile, BLOCK_SIZE - 100, 188);
+			check(reader, randomAccessFile, (2 * BLOCK_SIZE) - 1, (2 * BLOCK_SIZE) + 2);
+			// end of file
+			check(reader, randomAccessFile, content.length - 100, 188);
+			check(reader, randomAccessFile, content.length, 188);
+		}
+	}
+
+	@Test
+	public void evictionTest() throws IOException {
+		// many more blocks than MAX_BLOCKS, in random order, so blocks are dropped and read again all the time
+		final Random random = new Random(1);
+		try (CachedFileReader reader = new CachedFileReader(file, BLOCK_SIZE, MAX_BLOCKS);
+				RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+			for (int i = 0; i < 1000; i++) {
+				check(reader, randomAccessFile, random.nextInt(content.length), 1 + random.nextInt(2 * BLOCK_SIZE));
+			}
+		}
+	}
+
+	@Test
+	public void closeTest() throws IOException {
+		final CachedFileReader reader = new CachedFileReader(file, BLOCK_SIZE, MAX_BLOCKS);
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+			check(reader, randomAccessFile, 500, 1000);
+			reader.close();
+			// reader can still be used, opens the file again
+			check(reader, randomAccessFile, 500, 1000);
+			check(reader, randomAccessFile, 5500, 1000);
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void growingFileTest() throws IOException {
+		try (CachedFileReader reader = new CachedFileReader(file, BLOCK_SIZE, MAX_BLOCKS)) {
+			final byte[] buf = new byte[500];
+			assertEquals(123, reader.read(BLOCK_SIZE * 10, buf, 0, buf.length));
+			assertEquals(0, reader.read(content.length, buf, 0, buf.length));
+
+			final byte[] more = new byte[1000];
+			new Random(2).nextBytes(more);
+			try (OutputStream out = new FileOutputStream(file, true)) {
+				out.write(more);
+			}
+			// the short last block was not cached, so the new data is found
+			assertEquals(buf.length, reader.read(content.length, buf, 0, buf.length));
+			assertArrayEquals(Arrays.copyOf(more, buf.length), buf);
+			assertEquals(buf.length, reader.read(BLOCK_SIZE * 10, buf, 0, buf.length));
+			assertArrayEquals(Arrays.copyOfRange(content, BLOCK_SIZE * 10, content.length), Arrays.copyOf(buf, 123));
+		}
+	}
+
+	private static void check(final CachedFileReader reader, final RandomAccessFile randomAccessFile, final long offset, final int length) throws IOException {
+		final byte[] expected = new byte[length];
+		randomAccessFile.seek(offset);
+		final int expectedLength = Math.max(0, randomAccessFile.read(expected));
+		final byte[] actual = new byte[length];
+		assertEquals(expectedLength, reader.read(offset, actual, 0, length));
+		assertArrayEquals(expected, actual);
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+public class ChunkedByteStoreTest {
+
+	ChunkedByteStore store;
+	byte[] data;
+
+	@Before
+	public void setUp(){
+		store = new ChunkedByteStore();
+		data = new byte[ChunkedByteStore.CHUNK_SIZE + 1000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte)(i * 7);
+		}
+	}
+
+	@Test
+	public void appendAcrossChunks() {
+		assertEquals(0, store.append(data, 0, 100));
+		assertEquals(100, store.append(data, 100, data.length - 100));
+		assertEquals(data.length, store.size());
+		assertEquals(2L * ChunkedByteStore.CHUNK_SIZE, store.getMemorySize());
+
+		final long pos = ChunkedByteStore.CHUNK_SIZE - 10;
+		assertArrayEquals(java.util.Arrays.copyOfRange(data, (int)pos, (int)pos + 20), store.copyOf(pos, 20));
+		assertEquals(data[ChunkedByteStore.CHUNK_SIZE], store.get(ChunkedByteStore.CHUNK_SIZE));
+		assertEquals(data[data.length - 1], store.get(data.length - 1));
+	}
+
+	@Test
+	public void emptyStore() {
+		assertEquals(0, store.size());
+		assertEquals(0, store.getMemorySize());
+		assertEquals(0, store.copyOf(0, 0).length);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void readBeyondEnd() {
+		store.append(data, 0, 10);
+		store.copyOf(5, 6);
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+
+import org.junit.*;
+
+import nl.digitalekabeltelevisie.controller.KVP;
+import nl.digitalekabeltelevisie.controller.TreeNode;
+import nl.digitalekabeltelevisie.gui.DVBtree;
+import nl.digitalekabeltelevisie.util.export.TextTreeRenderer;
+import nl.digitalekabeltelevisie.util.export.TreeExporter;
+
+public class LazyListNodeTest {
+
+	private static final int NO_ITEMS = 23_456;
+
+	int created;
+	List<TreeNode> items;
+
+	@Before
+	public void setUp(){
+		created = 0;
+		items = new ArrayList<>();
+		for (int i = 0; i < NO_ITEMS; i++) {
+			final int value = i;
+			items.add(modus -> {
+				created++;
+				return new DefaultMutableTreeNode(new KVP("item " + value));
+			});
+		}
+	}
+
+	@Test
+	public void lazyTest() {
+		final DefaultMutableTreeNode parent = new DefaultMutableTreeNode(new KVP("parent"));
+		Utils.addLazyListJTree(parent, items, DVBtree.COUNT_LIST_ITEMS_MODUS, "items");
+		assertEquals(1, parent.getChildCount());
+
+		final LazyListNode top = (LazyListNode) parent.getChildAt(0);
+		assertEquals("items: 23456 entries", ((KVP) top.getUserObject()).getLabel());
+		assertFalse(top.isLeaf());
+		assertEquals(3, top.getChildCount()); // [0..9999],[10000..19999],[20000..23455]
+		assertEquals(0, created);
+
+		final DefaultMutableTreeNode last = (DefaultMutableTreeNode) top.getLastChild();
+		assertEquals("[20000..23455]", ((KVP) last.getUserObject()).getLabel());
+		assertEquals(35, last.getChildCount());
+		final DefaultMutableTreeNode lastRange = (DefaultMutableTreeNode) last.getChildAt(34);
+		assertEquals("[23400..23455]", ((KVP) lastRange.getUserObject()).getLabel());
+		assertEquals(0, created);
+
+		assertEquals(56, lastRange.getChildCount());
+		final DefaultMutableTreeNode item = (DefaultMutableTreeNode) lastRange.getChildAt(55);
+		assertEquals(56, created);
+		assertEquals("item 23455 [23455]", ((KVP) item.getUserObject()).getPlainText());
+		assertSame(lastRange, item.getParent());
+		assertEquals(55, lastRange.getIndex(item));
+	}
+
+	@Test
+	public void allItemsTest() {
+		final DefaultMutableTreeNode parent = new DefaultMutableTreeNode(new KVP("parent"));
+		Utils.addLazyListJTree(parent, items, 0, "items");
+		int count = 0;
+		for (final DefaultMutableTreeNodePreorderEnumaration e = new DefaultMutableTreeNodePreorderEnumaration(parent); e.hasMoreElements();) {
+			final KVP kvp = (KVP) e.nextElement().getUserObject();
+			if (kvp.getLabel().startsWith("item ")) {
+				assertEquals("item " + count, kvp.getLabel());
+				count++;
+			}
+		}
+		assertEquals(NO_ITEMS, count);
+		assertEquals(NO_ITEMS, created);
+	}
+
+	@Test
+	public void exportTest() throws IOException {
+		final DefaultMutableTreeNode parent = new DefaultMutableTreeNode(new KVP("parent"));
+		Utils.addLazyListJTree(parent, items, 0, "items");
+		final StringBuilder streamed = new StringBuilder();
+		TreeExporter.export(parent, new TextTreeRenderer(streamed));
+		assertEquals(NO_ITEMS, created);
+		final LazyListNode top = (LazyListNode) parent.getChildAt(0);
+		assertFalse(top.isChildrenLoaded()); // export does not add the items to the tree
+
+		for (final DefaultMutableTreeNodePreorderEnumaration e = new DefaultMutableTreeNodePreorderEnumaration(parent); e.hasMoreElements();) {
+			e.nextElement();
+		}
+		assertTrue(top.isChildrenLoaded());
+		final StringBuilder loaded = new StringBuilder();
+		TreeExporter.export(parent, new TextTreeRenderer(loaded));
+		assertEquals(loaded.toString(), streamed.toString());
+		assertTrue(streamed.toString().endsWith("    +-item 23455" + System.lineSeparator()));
+	}
+
+	@Test
+	public void smallListSimpleModusTest() {
+		final DefaultMutableTreeNode parent = new DefaultMutableTreeNode(new KVP("parent"));
+		Utils.addLazyListJTree(parent, items.subList(0, 10), DVBtree.SIMPLE_MODUS, "items");
+		assertEquals(10, parent.getChildCount());
+		assertEquals(10, created);
+	}
+}
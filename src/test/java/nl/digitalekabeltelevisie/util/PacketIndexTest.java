@@ -0,0 +1,116 @@
+/**
+ * 
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ * 
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ * 
+ *  This file is part of DVB Inspector.
+ * 
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ * 
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ * 
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ * 
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.*;
+
+public class PacketIndexTest {
+
+	int[] packets;
+	PacketIndex index;
+
+	@Before
+	public void setUp(){
+		final Random random = new Random(42);
+		packets = new int[1000];
+		int packetNo = 3;
+		for (int i = 0; i < packets.length; i++) {
+			packets[i] = packetNo;
+			// mostly small gaps, sometimes a large one, to test multi byte deltas
+			packetNo += (i % 97 == 0) ? 100_000 + random.nextInt(1_000_000) : 1 + random.nextInt(20);
+		}
+		final PacketIndex.Builder builder = new PacketIndex.Builder();
+		for (final int p : packets) {
+			builder.add(p);
+		}
+		index = builder.build();
+	}
+
+	@Test
+	public void getTest() {
+		assertEquals(packets.length, index.size());
+		for (int i = 0; i < packets.length; i++) {
+			assertEquals(packets[i], index.get(i));
+		}
+	}
+
+	@Test
+	public void indexOfTest() {
+		for (int p = 0; p < (packets[200] + 5); p++) {
+			assertEquals(Arrays.binarySearch(packets, p), index.indexOf(p));
+		}
+		assertEquals(packets.length - 1, index.indexOf(packets[packets.length - 1]));
+		assertEquals(-packets.length - 1, index.indexOf(packets[packets.length - 1] + 1));
+	}
+
+	@Test
+	public void countTest() {
+		assertEquals(packets.length, index.count(0, Integer.MAX_VALUE));
+		assertEquals(1, index.count(packets[64], packets[64] + 1));
+		assertEquals(64, index.count(packets[10], packets[74]));
+		assertEquals(0, index.count(packets[10], packets[10]));
+	}
+
+	@Test
+	public void lowerBoundsTest() {
+		final Random random = new Random(7);
+		final int[] packetNos = new int[500];
+		int p = 0;
+		for (int i = 0; i < packetNos.length; i++) {
+			packetNos[i] = p;
+			// steps smaller and larger than a block, and equal values
+			p += (i % 50 == 0) ? random.nextInt(2_000_000) : random.nextInt(40);
+		}
+		final int[] result = index.lowerBounds(packetNos);
+		for (int i = 0; i < packetNos.length; i++) {
+			assertEquals(index.lowerBound(packetNos[i]), result[i]);
+		}
+		assertArrayEquals(new int[0], index.lowerBounds(new int[0]));
+		assertArrayEquals(new int[] { 0, 0 }, new PacketIndex.Builder().build().lowerBounds(new int[] { 1, 2 }));
+	}
+
+	@Test
+	public void emptyTest() {
+		final PacketIndex empty = new PacketIndex.Builder().build();
+		assertEquals(0, empty.size());
+		assertEquals(-1, empty.indexOf(5));
+		assertEquals(0, empty.count(0, 100));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void notIncreasingTest() {
+		final PacketIndex.Builder builder = new PacketIndex.Builder();
+		builder.add(5);
+		builder.add(5);
+	}
+}
@@ -0,0 +1,165 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.*;
+
+public class PacketPidMapTest {
+
+	short[] values;
+
+	@Before
+	public void setUp(){
+		final Random random = new Random(42);
+		values = new short[(PacketPidMap.BLOCK_SIZE * 10) + 123];
+		for (int i = 0; i < values.length; i++) {
+			final int block = i / PacketPidMap.BLOCK_SIZE;
+			switch (block) {
+			case 0: // constant, like a run of null packets
+				values[i] = 0x1fff;
+				break;
+			case 1: // 2 values
+				values[i] = (short) random.nextInt(2);
+				break;
+			case 2: // all different, stored plain
+				values[i] = (short) (i * 7);
+				break;
+			default: // normal mix of PIDs and flags
+				values[i] = (short) (random.nextInt(40) | (random.nextInt(8) << 13));
+				break;
+			}
+		}
+	}
+
+	@Test
+	public void heapTest() {
+		final PacketPidMap map = new PacketPidMap();
+		fill(map);
+		check(map);
+		assertFalse(map.isMapped());
+		assertTrue(map.getMemorySize() < (values.length * 2L));
+	}
+
+	@Test
+	public void mappedTest() throws IOException {
+		try (PacketPidMap map = PacketPidMap.createMapped()) {
+			fill(map);
+			check(map);
+			assertTrue(map.isMapped());
+		}
+	}
+
+	@Test
+	public void rangeTest() {
+		final PacketPidMap map = new PacketPidMap();
+		fill(map);
+		final short[] dest = new short[values.length];
+		map.get(0, dest, 0, values.length);
+		assertTrue(Arrays.equals(values, dest));
+		final short[] part = new short[PacketPidMap.BLOCK_SIZE * 2];
+		map.get(100, part, 0, part.length);
+		for (int i = 0; i < part.length; i++) {
+			assertEquals(values[100 + i], part[i]);
+		}
+	}
+
+	@Test
+	public void parallelTest() throws Exception {
+		final PacketPidMap map = new PacketPidMap();
+		fill(map);
+		// readers walk through the map at different places, and in blocks at an offset in their own array
+		final Thread[] readers = new Thread[4];
+		final Throwable[] failures = new Throwable[readers.length];
+		for (int r = 0; r < readers.length; r++) {
+			final int reader = r;
+			readers[r] = new Thread(() -> {
+				try {
+					for (int k = 0; k < values.length; k++) {
+						final int i = (k + (reader * 3 * PacketPidMap.BLOCK_SIZE)) % values.length;
+						assertEquals(values[i], map.get(i));
+					}
+					final short[] dest = new short[PacketPidMap.BLOCK_SIZE + reader];
+					for (int start = 0; start < values.length; start += PacketPidMap.BLOCK_SIZE) {
+						final int n = Math.min(PacketPidMap.BLOCK_SIZE, values.length - start);
+						map.get(start, dest, reader, n);
+						for (int i = 0; i < n; i++) {
+							assertEquals(values[start + i], dest[reader + i]);
+						}
+					}
+				} catch (final Throwable t) {
+					failures[reader] = t;
+				}
+			});
+			readers[r].start();
+		}
+		for (int r = 0; r < readers.length; r++) {
+			readers[r].join();
+			assertNull(failures[r]);
+		}
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void outOfRangeTest() {
+		final PacketPidMap map = new PacketPidMap();
+		fill(map);
+		map.get(values.length);
+	}
+
+	private void fill(final PacketPidMap map) {
+		// mix single adds and bulk adds crossing block boundaries
+		int i = 0;
+		while (i < values.length) {
+			if ((i % 3) == 0) {
+				map.add(values[i++]);
+			} else {
+				final int n = Math.min(values.length - i, 1000);
+				map.addAll(values, i, n);
+				i += n;
+			}
+		}
+		assertEquals(values.length, map.size());
+	}
+
+	private void check(final PacketPidMap map) {
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(values[i], map.get(i));
+		}
+		// random access, decoding blocks in any order
+		final Random random = new Random(1);
+		for (int k = 0; k < 10_000; k++) {
+			final int i = random.nextInt(values.length);
+			assertEquals(values[i], map.get(i));
+		}
+	}
+}
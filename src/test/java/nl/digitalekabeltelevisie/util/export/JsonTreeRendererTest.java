@@ -0,0 +1,86 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.export;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+
+import org.junit.Test;
+
+import nl.digitalekabeltelevisie.controller.KVP;
+
+public class JsonTreeRendererTest {
+
+	@Test
+	public void escapeTest() throws IOException {
+		final DefaultMutableTreeNode root = new DefaultMutableTreeNode(new KVP("root"));
+		root.add(new DefaultMutableTreeNode(new KVP("say \"hi\" \\", "line1\nline2\r\t\u0001 café €", null)));
+		final StringBuilder out = new StringBuilder();
+		TreeExporter.export(root, new JsonTreeRenderer(out));
+		assertEquals("{\"label\":\"root\",\"text\":\"root\",\"children\":[\n"
+				+ "\t{\"label\":\"say \\\"hi\\\" \\\\\",\"text\":\"say \\\"hi\\\" \\\\: line1\\nline2\\r\\t\\u0001 café €\"}\n"
+				+ "]}\n", out.toString());
+	}
+
+	@Test
+	public void nestedTest() throws IOException {
+		final DefaultMutableTreeNode root = new DefaultMutableTreeNode(new KVP("root"));
+		final DefaultMutableTreeNode parent = new DefaultMutableTreeNode(new KVP("parent"));
+		root.add(parent);
+		parent.add(new DefaultMutableTreeNode(new KVP("n", 5, null)));
+		parent.add(new DefaultMutableTreeNode(new KVP("m", 6, null)));
+		root.add(new DefaultMutableTreeNode(new KVP("leaf")));
+		final StringBuilder out = new StringBuilder();
+		TreeExporter.export(root, new JsonTreeRenderer(out));
+		assertEquals("{\"label\":\"root\",\"text\":\"root\",\"children\":[\n"
+				+ "\t{\"label\":\"parent\",\"text\":\"parent\",\"children\":[\n"
+				+ "\t\t{\"label\":\"n\",\"text\":\"n: 0x5 (5)\"},\n"
+				+ "\t\t{\"label\":\"m\",\"text\":\"m: 0x6 (6)\"}\n"
+				+ "\t]},\n"
+				+ "\t{\"label\":\"leaf\",\"text\":\"leaf\"}\n"
+				+ "]}\n", out.toString());
+	}
+
+	@Test
+	public void emptyTest() throws IOException {
+		final StringBuilder leaf = new StringBuilder();
+		TreeExporter.export(new DefaultMutableTreeNode(new KVP("root")), new JsonTreeRenderer(leaf));
+		assertEquals("{\"label\":\"root\",\"text\":\"root\"}\n", leaf.toString());
+
+		// a node that was expected to have children, but turned out to have none
+		final StringBuilder noChildren = new StringBuilder();
+		final JsonTreeRenderer renderer = new JsonTreeRenderer(noChildren);
+		renderer.startNode(new KVP("root"), true, true);
+		renderer.endNode();
+		renderer.finish();
+		assertEquals("{\"label\":\"root\",\"text\":\"root\",\"children\":[]}\n", noChildren.toString());
+	}
+}
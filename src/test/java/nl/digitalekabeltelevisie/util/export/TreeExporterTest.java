@@ -0,0 +1,93 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.export;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+
+import org.junit.*;
+
+import nl.digitalekabeltelevisie.controller.KVP;
+
+public class TreeExporterTest {
+
+	DefaultMutableTreeNode root;
+
+	@Before
+	public void setUp(){
+		root = new DefaultMutableTreeNode(new KVP("root"));
+		final DefaultMutableTreeNode parent = new DefaultMutableTreeNode(new KVP("parent"));
+		root.add(parent);
+		for (int i = 0; i < 1000; i++) {
+			parent.add(new DefaultMutableTreeNode(new KVP("café " + i, i, null)));
+		}
+	}
+
+	@Test
+	public void forFileNameTest() {
+		assertEquals(TreeExporter.Format.JSON, TreeExporter.Format.forFileName("tree.JSON"));
+		assertEquals(TreeExporter.Format.XML, TreeExporter.Format.forFileName("tree.xml.gz"));
+		assertEquals(TreeExporter.Format.TEXT, TreeExporter.Format.forFileName("tree.txt.gz"));
+		assertEquals(TreeExporter.Format.TEXT, TreeExporter.Format.forFileName("tree"));
+	}
+
+	@Test
+	public void gzipTest() throws IOException {
+		for (final TreeExporter.Format format : TreeExporter.Format.values()) {
+			final StringBuilder expected = new StringBuilder();
+			TreeExporter.export(root, format.createRenderer(expected));
+
+			final File plain = tempFile("." + format.getExtension());
+			TreeExporter.export(root, plain);
+			assertEquals(expected.toString(), read(new FileInputStream(plain)));
+
+			final File gzip = tempFile("." + format.getExtension() + ".gz");
+			TreeExporter.export(root, gzip);
+			assertTrue(gzip.length() < plain.length());
+			assertEquals(expected.toString(), read(new GZIPInputStream(new FileInputStream(gzip))));
+		}
+	}
+
+	private static File tempFile(final String suffix) throws IOException {
+		final File file = Files.createTempFile("tree", suffix).toFile();
+		file.deleteOnExit();
+		return file;
+	}
+
+	private static String read(final InputStream in) throws IOException {
+		try (in) {
+			return new String(in.readAllBytes(), UTF_8);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.export;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.w3c.dom.*;
+
+import nl.digitalekabeltelevisie.controller.KVP;
+
+public class XmlTreeRendererTest {
+
+	@Test
+	public void escapeTest() throws Exception {
+		final String label = "a & b <c> \"d\" 'e'";
+		final String value = "line1\nline2\r\ttab café €";
+		final DefaultMutableTreeNode root = new DefaultMutableTreeNode(new KVP("root"));
+		root.add(new DefaultMutableTreeNode(new KVP(label, value, null)));
+		root.add(new DefaultMutableTreeNode(new KVP("control\u0001\u001f")));
+
+		final Element tree = parse(root);
+		final Element rootNode = (Element) tree.getElementsByTagName("node").item(0);
+		final NodeList children = childNodes(rootNode);
+		assertEquals(2, children.getLength());
+		assertEquals(label, ((Element) children.item(0)).getAttribute("label"));
+		assertEquals(label + ": " + value, ((Element) children.item(0)).getAttribute("text"));
+		// not allowed in XML 1.0
+		assertEquals("control??", ((Element) children.item(1)).getAttribute("label"));
+	}
+
+	@Test
+	public void nestedTest() throws Exception {
+		final DefaultMutableTreeNode root = new DefaultMutableTreeNode(new KVP("root"));
+		final DefaultMutableTreeNode parent = new DefaultMutableTreeNode(new KVP("parent"));
+		root.add(parent);
+		parent.add(new DefaultMutableTreeNode(new KVP("n", 5, null)));
+		parent.add(new DefaultMutableTreeNode(new KVP("m", 6, null)));
+		root.add(new DefaultMutableTreeNode(new KVP("leaf")));
+
+		final StringBuilder out = new StringBuilder();
+		TreeExporter.export(root, new XmlTreeRenderer(out));
+		assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<tree>\n"
+				+ "<node label=\"root\" text=\"root\">\n"
+				+ "\t<node label=\"parent\" text=\"parent\">\n"
+				+ "\t\t<node label=\"n\" text=\"n: 0x5 (5)\"/>\n"
+				+ "\t\t<node label=\"m\" text=\"m: 0x6 (6)\"/>\n"
+				+ "\t</node>\n"
+				+ "\t<node label=\"leaf\" text=\"leaf\"/>\n"
+				+ "</node>\n"
+				+ "</tree>\n", out.toString());
+
+		final Element rootNode = (Element) parse(root).getElementsByTagName("node").item(0);
+		final NodeList children = childNodes(rootNode);
+		assertEquals(2, children.getLength());
+		assertEquals(2, childNodes((Element) children.item(0)).getLength());
+		assertEquals(0, childNodes((Element) children.item(1)).getLength());
+	}
+
+	@Test
+	public void emptyTest() throws Exception {
+		final StringBuilder out = new StringBuilder();
+		final XmlTreeRenderer renderer = new XmlTreeRenderer(out);
+		renderer.startNode(new KVP("root"), true, true);
+		renderer.endNode();
+		renderer.finish();
+		assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<tree>\n<node label=\"root\" text=\"root\">\n</node>\n</tree>\n", out.toString());
+	}
+
+	private static Element parse(final DefaultMutableTreeNode root) throws Exception {
+		final StringBuilder out = new StringBuilder();
+		TreeExporter.export(root, new XmlTreeRenderer(out));
+		return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(out.toString().getBytes(UTF_8))).getDocumentElement();
+	}
+
+	private static NodeList childNodes(final Element element) {
+		final Document document = element.getOwnerDocument();
+		final DocumentFragment result = document.createDocumentFragment();
+		final NodeList nodes = element.getChildNodes();
+		for (int i = 0; i < nodes.getLength(); i++) {
+			if (nodes.item(i) instanceof Element) {
+				result.appendChild(nodes.item(i).cloneNode(true));
+			}
+		}
+		return result.getChildNodes();
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ *
+ *  http://www.digitalekabeltelevisie.nl/dvb_inspector
+ *
+ *  This code is Copyright 2009-2022 by Eric Berendsen (e_berendsen@digitalekabeltelevisie.nl)
+ *
+ *  This file is part of DVB Inspector.
+ *
+ *  DVB Inspector is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  DVB Inspector is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with DVB Inspector.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  The author requests that he be notified of any application, applet, or
+ *  other binary that makes use of this code, but that's more out of curiosity
+ *  than anything and is not required.
+ *
+ */
+
+package nl.digitalekabeltelevisie.util.search;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.TreeNode;
+
+import org.junit.*;
+
+import nl.digitalekabeltelevisie.controller.KVP;
+import nl.digitalekabeltelevisie.util.Utils;
+
+public class TextSearchTest {
+
+	DefaultMutableTreeNode root;
+
+	@Before
+	public void setUp(){
+		root = new DefaultMutableTreeNode(new KVP("root"));
+		root.add(new DefaultMutableTreeNode(new KVP("first Needle")));
+		final List<nl.digitalekabeltelevisie.controller.TreeNode> items = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			final int value = i;
+			items.add(modus -> {
+				final DefaultMutableTreeNode item = new DefaultMutableTreeNode(new KVP("item " + value));
+				if ((value % 250) == 7) {
+					item.add(new DefaultMutableTreeNode(new KVP("child", "needle " + value, null)));
+					item.add(new DefaultMutableTreeNode(new KVP("second needle " + value)));
+				}
+				return item;
+			});
+		}
+		// label of list also contains "needle"
+		Utils.addLazyListJTree(root, items, 0, "needles");
+		root.add(new DefaultMutableTreeNode(new KVP("last neeDLE")));
+	}
+
+	private static String label(TreeNode node) {
+		return ((KVP) ((DefaultMutableTreeNode) node).getUserObject()).getPlainText();
+	}
+
+	@Test
+	public void findAllTest() {
+		final TextSearch search = new TextSearch("NEEDLE", cancelled -> TreeSearchIndex.build(root, cancelled));
+		final List<String> found = new ArrayList<>();
+		SearchHit hit;
+		while ((hit = search.findNext(() -> false, p -> {})) != null) {
+			found.add(label(hit.getNode()));
+		}
+		final List<String> expected = new ArrayList<>();
+		expected.add("first Needle");
+		expected.add("needles: 1000 entries");
+		for (int i = 7; i < 1000; i += 250) {
+			expected.add("child: needle " + i);
+			expected.add("second needle " + i);
+		}
+		expected.add("last neeDLE");
+		assertEquals(expected, found);
+	}
+
+	@Test
+	public void lazyHitInTreeTest() {
+		final TextSearch search = new TextSearch("needle 507", cancelled -> TreeSearchIndex.build(root, cancelled));
+		final SearchHit hit = search.findNext(() -> false, p -> {});
+		final TreeNode node = hit.getNode();
+		assertEquals("child: needle 507", label(node));
+		assertEquals("item 507", label(node.getParent()));
+		assertEquals("[500..599]", label(node.getParent().getParent()));
+		assertSame(root, node.getParent().getParent().getParent().getParent());
+		assertEquals("second needle 507", label(search.findNext(() -> false, p -> {}).getNode()));
+		assertNull(search.findNext(() -> false, p -> {}));
+	}
+
+	@Test
+	public void cancelAndResumeTest() {
+		final TextSearch search = new TextSearch("second", cancelled -> TreeSearchIndex.build(root, cancelled));
+		assertEquals("second needle 7", label(search.findNext(() -> false, p -> {}).getNode()));
+		final int[] calls = new int[1];
+		// cancel before item 257 is reached
+		assertNull(search.findNext(() -> ++calls[0] > 100, p -> {}));
+		assertEquals("second needle 257", label(search.findNext(() -> false, p -> {}).getNode()));
+	}
+
+	@Test
+	public void candidatesTest() {
+		final TreeSearchIndex index = TreeSearchIndex.build(root, () -> false);
+		assertArrayEquals(new int[] { 1 }, index.getCandidates("first ne"));
+		assertEquals(index.size(), index.getCandidates("[").length);
+		assertEquals(0, index.getCandidates("absent").length);
+	}
+}